@@ -1169,6 +1169,59 @@ public abstract class KeyColumnValueStoreTest extends AbstractKCVSTest implement
         SimpleScanJob.runBasicTests(keys, columns, runner);
     }
 
+    @Test
+    public void scanTestWithSimpleJobOverKeyRanges() throws Exception {
+        if (!manager.getFeatures().hasParallelScan() && !manager.getFeatures().hasOrderedScan()) return;
+        int keys = 1000, columns = 40;
+        String[][] values = KeyValueStoreUtil.generateData(keys, columns);
+        //Make it only half the number of columns for every 2nd key
+        for (int i = 0; i < values.length; i++) {
+            if (i%2==0) values[i]=Arrays.copyOf(values[i],columns/2);
+        }
+        loadValues(values);
+        clopen();
+
+        KeyColumnValueStoreManager rangeManager = manager;
+        if (!manager.getFeatures().hasParallelScan()) {
+            //Split the key space of an ordered store into more consecutive ranges than there are scan workers
+            final StoreFeatures features = new StandardStoreFeatures.Builder(manager.getFeatures()).parallelScan(true).build();
+            final int numRanges = 6;
+            final List<KeyRange> keyRanges = new ArrayList<>(numRanges);
+            for (int i = 0; i < numRanges; i++) {
+                keyRanges.add(new KeyRange(
+                    i == 0 ? BufferUtil.zeroBuffer(1) : KeyValueStoreUtil.getBuffer(keys * i / numRanges),
+                    i == numRanges - 1 ? BufferUtil.oneBuffer(128) : KeyValueStoreUtil.getBuffer(keys * (i + 1) / numRanges)));
+            }
+            rangeManager = new KCVSManagerProxy(manager) {
+                @Override
+                public StoreFeatures getFeatures() {
+                    return features;
+                }
+
+                @Override
+                public List<KeyRange> getScanRanges() {
+                    return keyRanges;
+                }
+
+                @Override
+                public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
+                    return new KCVSProxy(super.openDatabase(name, metaData)) {
+                        @Override
+                        public KeyIterator getKeys(ScanRangeQuery query, StoreTransaction txh) throws BackendException {
+                            final KeyRange range = query.getScanRange();
+                            return getKeys(new KeyRangeQuery(range.getStart(), range.getEnd(), query), txh);
+                        }
+                    };
+                }
+            };
+        }
+
+        StandardScanner scanner = new StandardScanner(rangeManager);
+        SimpleScanJobRunner runner = (ScanJob job, Configuration jobConf, String rootNSName) -> runSimpleJob(scanner, job, jobConf);
+
+        SimpleScanJob.runBasicTests(keys, columns, runner);
+    }
+
     private ScanMetrics runSimpleJob(StandardScanner scanner, ScanJob job, Configuration jobConf) throws BackendException, ExecutionException, InterruptedException {
         StandardScanner.Builder jobBuilder = scanner.build();
         jobBuilder.setStoreName(store.getName());
@@ -123,6 +123,7 @@ public abstract class LockKeyColumnValueStoreTest extends AbstractKCVSTest {
             sc.set(GraphDatabaseConfiguration.UNIQUE_INSTANCE_ID,"inst"+i);
             sc.set(GraphDatabaseConfiguration.LOCK_RETRY,10);
             sc.set(GraphDatabaseConfiguration.LOCK_EXPIRE, Duration.ofMillis(EXPIRE_MS));
+            configureLocking(sc);
 
             manager[i] = openStorageManager(i, sc);
             StoreFeatures storeFeatures = manager[i].getFeatures();
@@ -143,6 +144,12 @@ public abstract class LockKeyColumnValueStoreTest extends AbstractKCVSTest {
         }
     }
 
+    /**
+     * Hook for subclasses to adjust the locking configuration of every simulated instance.
+     */
+    protected void configureLocking(ModifiableConfiguration config) {
+    }
+
     public StoreTransaction newTransaction(KeyColumnValueStoreManager manager) throws BackendException {
         StoreTransaction transaction = manager.beginTransaction(getTxConfig());
         if (!manager.getFeatures().hasLocking() && manager.getFeatures().isKeyConsistent()) {
@@ -53,6 +53,7 @@ import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.graphdb.log.StandardTransactionLogProcessor;
 import org.janusgraph.graphdb.query.index.ApproximateIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.BruteForceIndexSelectionStrategy;
+import org.janusgraph.graphdb.query.index.CostBasedIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.ThresholdBasedIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
@@ -1150,6 +1151,9 @@ public abstract class JanusGraphIndexTest extends JanusGraphBaseTest {
         assertEquals(1, getIndexSelectResultNum(option(INDEX_SELECT_STRATEGY), BruteForceIndexSelectionStrategy.NAME));
 
         assertEquals(2, getIndexSelectResultNum(option(INDEX_SELECT_STRATEGY), ApproximateIndexSelectionStrategy.NAME));
+
+        // without sufficient statistics, the cost-based strategy falls back to the threshold-based strategy
+        assertEquals(1, getIndexSelectResultNum(option(INDEX_SELECT_STRATEGY), CostBasedIndexSelectionStrategy.NAME));
     }
 
     private long getIndexSelectResultNum(Object... settings) {
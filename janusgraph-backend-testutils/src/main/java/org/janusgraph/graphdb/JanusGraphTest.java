@@ -4520,6 +4520,39 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
     }
 
+    @Test
+    public void testMultiQueryBatchesWhenReadingFromBackend() {
+        int numV = 20;
+        int superV = 10;
+        int sid = -1;
+        JanusGraphVertex[] vs = new JanusGraphVertex[numV];
+        for (int i = 0; i < numV; i++) {
+            vs[i] = graph.addVertex("id", i);
+        }
+        for (int i = 0; i < superV; i++) {
+            JanusGraphVertex v = graph.addVertex("id", sid);
+            for (int j = 0; j < numV; j++) {
+                v.addEdge("knows", vs[j]);
+                vs[j].addEdge("knows", vs[(j + i) % numV]);
+            }
+        }
+
+        for (boolean pipelining : new boolean[]{false, true}) {
+            clopen(option(USE_MULTIQUERY), true, option(MULTIQUERY_BATCH_SIZE), 3, option(MULTIQUERY_PIPELINING), pipelining);
+            GraphTraversalSource gts = graph.traversal();
+
+            Traversal t = gts.V().has("id", sid).out("knows").out("knows").profile("~metrics");
+            assertCount(superV * numV * superV, t);
+            assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+            assertEquals(numV * (numV - 1) / 2 * superV * superV, gts.V().has("id", sid).out("knows").out("knows").values("id").sum().next().intValue());
+            assertCount(superV * numV * superV, gts.V().has("id", sid).repeat(__.out("knows")).times(2));
+
+            t = gts.V().has("id", sid).out("knows").values("id").profile("~metrics");
+            assertCount(superV * numV, t);
+            assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+        }
+    }
+
     @Test
     public void testSimpleTinkerPopTraversal() {
         Vertex v1 = graph.addVertex("name", "josh");
@@ -5546,6 +5579,31 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         assertCount(multiplier, graph.query().has("sid", 11).has("color", colors[3]).vertices());
     }
 
+    @Test
+    public void testLimitedJointIndexRetrieval() {
+        makeVertexIndexedKey("sid", Integer.class);
+        makeVertexIndexedKey("color", String.class);
+        finishSchema();
+
+        //Only every fourth red vertex has sid 1, such that the other subquery is truncated by small limits
+        int numV = 2000;
+        for (int i = 0; i < numV; i++) {
+            graph.addVertex("color", i % 2 == 0 ? "red" : "blue", "sid", i % 4 == 0 ? 1 : 2);
+        }
+        clopen();
+
+        for (int limit : new int[]{1, 5, 50, 400, 1000}) {
+            final Set<Object> ids = new HashSet<>();
+            for (JanusGraphVertex v : graph.query().has("sid", 1).has("color", "red").limit(limit).vertices()) {
+                assertEquals(1, (int) v.<Integer>value("sid"));
+                assertEquals("red", v.value("color"));
+                ids.add(v.id());
+            }
+            assertEquals(Math.min(limit, numV / 4), ids.size());
+        }
+        assertCount(numV / 4, graph.query().has("color", "red").has("sid", 1).vertices());
+    }
+
 
     @Test
     public void testIndexQueryWithLabelsAndContainsIN() {
@@ -21,9 +21,11 @@ import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.Multiplicity;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.Transaction;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
 import org.janusgraph.graphdb.JanusGraphBaseTest;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.olap.QueryContainer;
 import org.janusgraph.graphdb.olap.VertexJobConverter;
 import org.janusgraph.graphdb.olap.VertexScanJob;
@@ -63,6 +65,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -287,8 +290,24 @@ public abstract class OLAPTest extends JanusGraphBaseTest {
         clopen();
 
         final JanusGraphComputer computer = graph.compute();
-        computer.resultMode(JanusGraphComputer.ResultMode.NONE);
         computer.workers(4);
+        assertDegreeCounting(computer, numV, numE);
+    }
+
+    @Test
+    public void degreeCountingWithoutWorkStealing() throws Exception {
+        int numV = 200;
+        int numE = generateRandomGraph(numV);
+        clopen();
+
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.COMPUTER_WORK_STEALING, false);
+        //Uses the default number of workers
+        assertDegreeCounting(new FulgoraGraphComputer(graph, config), numV, numE);
+    }
+
+    private void assertDegreeCounting(JanusGraphComputer computer, int numV, int numE) throws Exception {
+        computer.resultMode(JanusGraphComputer.ResultMode.NONE);
         computer.program(new DegreeCounter());
         computer.mapReduce(new DegreeMapper());
         ComputerResult result = computer.submit().get();
@@ -616,41 +635,45 @@ public abstract class OLAPTest extends JanusGraphBaseTest {
             correctPRSum += correctPR[janusGraphVertex.<Integer>value("distance")];
         }
 
-        final JanusGraphComputer computer = graph.compute();
-        computer.resultMode(JanusGraphComputer.ResultMode.NONE);
-        computer.workers(4);
-        computer.program(PageRankVertexProgram.build().iterations(10).vertexCount(numV).dampingFactor(alpha).create(graph));
-        computer.mapReduce(PageRankMapReduce.build().create());
-        ComputerResult result = computer.submit().get();
+        //Compute with both vertex memory implementations
+        ModifiableConfiguration columnar = GraphDatabaseConfiguration.buildGraphConfiguration();
+        columnar.set(GraphDatabaseConfiguration.COMPUTER_VERTEX_MEMORY, GraphDatabaseConfiguration.COMPUTER_VERTEX_MEMORY_COLUMNAR);
+        for (JanusGraphComputer computer : Arrays.asList(graph.compute(), new FulgoraGraphComputer(graph, columnar))) {
+            computer.resultMode(JanusGraphComputer.ResultMode.NONE);
+            computer.workers(4);
+            computer.program(PageRankVertexProgram.build().iterations(10).vertexCount(numV).dampingFactor(alpha).create(graph));
+            computer.mapReduce(PageRankMapReduce.build().create());
+            ComputerResult result = computer.submit().get();
+
+            Iterator<KeyValue<Long, Double>> ranks = result.memory().get(PageRankMapReduce.DEFAULT_MEMORY_KEY);
+            assertNotNull(ranks);
+            int vertexCounter = 0;
+            double computedPRSum = 0;
+            correctPRSum = 0;
+            final Set<Long> vertexIDs = new HashSet<>(numV);
+            while (ranks.hasNext()) {
+                final KeyValue<Long, Double> rank = ranks.next();
+                final Long vertexID = rank.getKey();
+                final Double computedPR = rank.getValue();
+                assertNotNull(vertexID);
+                assertNotNull(computedPR);
+                final JanusGraphVertex u = getV(tx, vertexID);
+                final int distance = u.<Integer>value("distance");
+                vertexCounter++;
+
+                //assertEquals("Incorrect PR on vertex #" + vertexCounter, correctPR[distance], computedPR, EPSILON);
+                computedPRSum += computedPR;
+                correctPRSum += correctPR[distance];
+
+                assertFalse(vertexIDs.contains(vertexID));
+                vertexIDs.add(vertexID);
+
+                log.debug("vertexID={} computedPR={}", vertexID, computedPR);
+            }
 
-        Iterator<KeyValue<Long, Double>> ranks = result.memory().get(PageRankMapReduce.DEFAULT_MEMORY_KEY);
-        assertNotNull(ranks);
-        int vertexCounter = 0;
-        double computedPRSum = 0;
-        correctPRSum = 0;
-        final Set<Long> vertexIDs = new HashSet<>(numV);
-        while (ranks.hasNext()) {
-            final KeyValue<Long, Double> rank = ranks.next();
-            final Long vertexID = rank.getKey();
-            final Double computedPR = rank.getValue();
-            assertNotNull(vertexID);
-            assertNotNull(computedPR);
-            final JanusGraphVertex u = getV(tx, vertexID);
-            final int distance = u.<Integer>value("distance");
-            vertexCounter++;
-
-            //assertEquals("Incorrect PR on vertex #" + vertexCounter, correctPR[distance], computedPR, EPSILON);
-            computedPRSum += computedPR;
-            correctPRSum += correctPR[distance];
-
-            assertFalse(vertexIDs.contains(vertexID));
-            vertexIDs.add(vertexID);
-
-            log.debug("vertexID={} computedPR={}", vertexID, computedPR);
-        }
-
-        assertEquals(numV, vertexCounter);
-        assertEquals(correctPRSum, computedPRSum, 0.001);
+            assertEquals(numV, vertexCounter);
+            assertEquals(correctPRSum, computedPRSum, 0.001);
+        }
     }
 
     @Test
@@ -32,8 +32,11 @@ import org.janusgraph.diskstorage.indexing.*;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.GroupCommitter;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.NoKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.TinyLfuKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressionKCVSManager;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.OrderedKeyValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.OrderedKeyValueStoreManagerAdapter;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
@@ -49,6 +52,7 @@ import org.janusgraph.diskstorage.util.BackendOperation;
 import org.janusgraph.diskstorage.util.MetricInstrumentedIndexProvider;
 import org.janusgraph.diskstorage.util.MetricInstrumentedStoreManager;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.graphdb.transaction.TransactionConfiguration;
 import org.janusgraph.util.system.ConfigurationUtil;
@@ -157,6 +161,7 @@ public class Backend implements LockerProvider, AutoCloseable {
     private IDAuthority idAuthority;
     private KCVSConfiguration systemConfig;
     private KCVSConfiguration userConfig;
+    private KCVSConfiguration indexStatistics;
     private boolean hasAttemptedClose;
 
     private final StandardScanner scanner;
@@ -173,6 +178,7 @@ public class Backend implements LockerProvider, AutoCloseable {
     private final Duration maxReadTime;
     private final boolean cacheEnabled;
     private final ExecutorService threadPool;
+    private final GroupCommitter groupCommitter;
 
     private final Function<String, Locker> lockerCreator;
     private final ConcurrentHashMap<String, Locker> lockers = new ConcurrentHashMap<>();
@@ -184,10 +190,13 @@ public class Backend implements LockerProvider, AutoCloseable {
 
         KeyColumnValueStoreManager manager = getStorageManager(configuration);
         if (configuration.get(BASIC_METRICS)) {
-            storeManager = new MetricInstrumentedStoreManager(manager,METRICS_STOREMANAGER_NAME,configuration.get(METRICS_MERGE_STORES),METRICS_MERGED_STORE);
-        } else {
-            storeManager = manager;
+            manager = new MetricInstrumentedStoreManager(manager,METRICS_STOREMANAGER_NAME,configuration.get(METRICS_MERGE_STORES),METRICS_MERGED_STORE);
+        }
+        final Map<String, ValueCompression> compressions = getValueCompressions(configuration);
+        if (!compressions.isEmpty()) {
+            manager = new CompressionKCVSManager(manager, compressions);
         }
+        storeManager = manager;
         indexes = getIndexes(configuration);
         storeFeatures = storeManager.getFeatures();
 
@@ -214,6 +223,13 @@ public class Backend implements LockerProvider, AutoCloseable {
             storeManagerLocking = storeManager;
         }
 
+        if (configuration.get(GROUP_COMMIT) && !storeFeatures.hasTxIsolation()) {
+            groupCommitter = new GroupCommitter(storeManagerLocking, configuration.get(GROUP_COMMIT_WINDOW),
+                configuration.get(GROUP_COMMIT_MAX_MUTATIONS), maxWriteTime);
+        } else {
+            groupCommitter = null;
+        }
+
         if (configuration.get(PARALLEL_BACKEND_OPS)) {
             int poolSize = Runtime.getRuntime().availableProcessors() * THREAD_POOL_SIZE_SCALE_FACTOR;
             threadPool = Executors.newFixedThreadPool(poolSize);
@@ -301,8 +317,15 @@ public class Backend implements LockerProvider, AutoCloseable {
                 long edgeStoreCacheSize = Math.round(cacheSizeBytes * EDGESTORE_CACHE_PERCENT);
                 long indexStoreCacheSize = Math.round(cacheSizeBytes * INDEXSTORE_CACHE_PERCENT);
 
-                edgeStore = new ExpirationKCVSCache(edgeStoreRaw,getMetricsCacheName(EDGESTORE_NAME),expirationTime,cleanWaitTime,edgeStoreCacheSize);
-                indexStore = new ExpirationKCVSCache(indexStoreRaw,getMetricsCacheName(INDEXSTORE_NAME),expirationTime,cleanWaitTime,indexStoreCacheSize);
+                if (DB_CACHE_TINYLFU.equals(configuration.get(DB_CACHE_IMPLEMENTATION))) {
+                    edgeStore = new TinyLfuKCVSCache(edgeStoreRaw,getMetricsCacheName(EDGESTORE_NAME),expirationTime,cleanWaitTime,edgeStoreCacheSize);
+                    indexStore = new TinyLfuKCVSCache(indexStoreRaw,getMetricsCacheName(INDEXSTORE_NAME),expirationTime,cleanWaitTime,indexStoreCacheSize);
+                } else {
+                    edgeStore = new ExpirationKCVSCache(edgeStoreRaw,getMetricsCacheName(EDGESTORE_NAME),expirationTime,cleanWaitTime,edgeStoreCacheSize,
+                        configuration.get(DB_CACHE_OFFHEAP_SIZE),getCacheCompression(EDGESTORE_NAME));
+                    indexStore = new ExpirationKCVSCache(indexStoreRaw,getMetricsCacheName(INDEXSTORE_NAME),expirationTime,cleanWaitTime,indexStoreCacheSize,
+                        0,getCacheCompression(INDEXSTORE_NAME));
+                }
             } else {
                 edgeStore = new NoKCVSCache(edgeStoreRaw);
                 indexStore = new NoKCVSCache(indexStoreRaw);
@@ -341,6 +364,17 @@ public class Backend implements LockerProvider, AutoCloseable {
                     //Do nothing, storeManager is closed explicitly by Backend
                 }
             },systemConfigStore,USER_CONFIGURATION_IDENTIFIER,configuration);
+            indexStatistics = kcvsConfigurationBuilder.buildConfiguration(new BackendOperation.TransactionalProvider() {
+                @Override
+                public StoreTransaction openTx() throws BackendException {
+                    return storeManagerLocking.beginTransaction(StandardBaseTransactionConfig.of(configuration.get(TIMESTAMP_PROVIDER)));
+                }
+
+                @Override
+                public void close() throws BackendException {
+                    //Do nothing, storeManager is closed explicitly by Backend
+                }
+            },systemConfigStore,INDEX_STATISTICS_IDENTIFIER,configuration);
 
         } catch (BackendException e) {
             throw new JanusGraphException("Could not initialize backend", e);
@@ -418,6 +452,35 @@ public class Backend implements LockerProvider, AutoCloseable {
         return userConfig;
     }
 
+    public KCVSConfiguration getIndexStatistics() {
+        return indexStatistics;
+    }
+
+    private ValueCompression getCacheCompression(String storeName) {
+        if (!configuration.get(DB_CACHE_COMPRESSED) || !(storeManager instanceof CompressionKCVSManager)) return null;
+        ValueCompression compression = ((CompressionKCVSManager) storeManager).getCompression(storeName);
+        return compression != null && compression.isEnabled() ? compression : null;
+    }
+
+    /**
+     * Every store which has a format marker is wrapped, such that its compressed values remain readable even if
+     * compression has been disabled for it since.
+     */
+    private static Map<String, ValueCompression> getValueCompressions(Configuration configuration) {
+        final Map<String, ValueCompression> compressions = new HashMap<>();
+        for (String storeName : VALUE_COMPRESSION_STORES) {
+            final String codecName = CompressionKCVSManager.getCodecName(configuration, storeName);
+            if (configuration.has(VALUE_COMPRESSION_STORE_MARKER, storeName)) {
+                compressions.put(storeName, new ValueCompression(codecName, configuration.get(VALUE_COMPRESSION_THRESHOLD),
+                    configuration.get(VALUE_COMPRESSION_STORE_MARKER, storeName)));
+            } else {
+                Preconditions.checkArgument(ValueCompression.NONE.equals(codecName),
+                    "Values of store [%s] cannot be compressed without a format marker", storeName);
+            }
+        }
+        return compressions;
+    }
+
     private String getMetricsCacheName(String storeName) {
         if (!configuration.get(BASIC_METRICS)) return null;
         return configuration.get(METRICS_MERGE_STORES) ? METRICS_MERGED_CACHE : storeName + METRICS_CACHE_SUFFIX;
@@ -531,7 +594,8 @@ public class Backend implements LockerProvider, AutoCloseable {
         StoreTransaction tx = storeManagerLocking.beginTransaction(configuration);
 
         // Cache
-        CacheTransaction cacheTx = new CacheTransaction(tx, storeManagerLocking, bufferSize, maxWriteTime, configuration.hasEnabledBatchLoading());
+        CacheTransaction cacheTx = new CacheTransaction(tx, storeManagerLocking, bufferSize, maxWriteTime, configuration.hasEnabledBatchLoading(),
+            2, groupCommitter);
 
         // Index transactions
         final Map<String, IndexTransaction> indexTx = new HashMap<>(indexes.size());
@@ -557,6 +621,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             if (idAuthority != null) idAuthority.close();
             if (systemConfig != null) systemConfig.close();
             if (userConfig != null) userConfig.close();
+            if (indexStatistics != null) indexStatistics.close();
             storeManager.close();
             if(threadPool != null) {
             	threadPool.shutdown();
@@ -588,6 +653,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             idAuthority.close();
             systemConfig.close();
             userConfig.close();
+            indexStatistics.close();
             storeManager.clearStorage();
             storeManager.close();
             //Indexes
@@ -15,12 +15,15 @@
 package org.janusgraph.diskstorage;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
@@ -103,6 +106,12 @@ public class BackendTransaction implements LoggableTransaction {
         return acquiredLock;
     }
 
+    private void lockAcquired() {
+        acquiredLock = true;
+        //Mutations guarded by locks must be persisted with this transaction
+        storeTx.disableGroupCommit();
+    }
+
     public StoreTransaction getStoreTransaction() {
         return storeTx;
     }
@@ -115,6 +124,14 @@ public class BackendTransaction implements LoggableTransaction {
         return txConfig;
     }
 
+    /**
+     * Returns the thread pool used to parallelize backend operations of this transaction, or {@code null} if
+     * {@link org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#PARALLEL_BACKEND_OPS} is disabled.
+     */
+    public Executor getThreadPool() {
+        return threadPool;
+    }
+
     public IndexTransaction getIndexTransaction(String index) {
         Preconditions.checkArgument(StringUtils.isNotBlank(index), "index cannot be blank");
         IndexTransaction itx = indexTx.get(index);
@@ -227,12 +244,12 @@ public class BackendTransaction implements LoggableTransaction {
      * @param column        Column the column on which to lock
      */
     public void acquireEdgeLock(StaticBuffer key, StaticBuffer column) throws BackendException {
-        acquiredLock = true;
+        lockAcquired();
         edgeStore.acquireLock(key, column, null, storeTx);
     }
 
     public void acquireEdgeLock(StaticBuffer key, Entry entry) throws BackendException {
-        acquiredLock = true;
+        lockAcquired();
         edgeStore.acquireLock(key, entry.getColumnAs(StaticBuffer.STATIC_FACTORY), entry.getValueAs(StaticBuffer.STATIC_FACTORY), storeTx);
     }
 
@@ -251,12 +268,12 @@ public class BackendTransaction implements LoggableTransaction {
      * @param column        Column the column on which to lock
      */
     public void acquireIndexLock(StaticBuffer key, StaticBuffer column) throws BackendException {
-        acquiredLock = true;
+        lockAcquired();
         indexStore.acquireLock(key, column, null, storeTx);
     }
 
     public void acquireIndexLock(StaticBuffer key, Entry entry) throws BackendException {
-        acquiredLock = true;
+        lockAcquired();
         indexStore.acquireLock(key, entry.getColumnAs(StaticBuffer.STATIC_FACTORY), entry.getValueAs(StaticBuffer.STATIC_FACTORY), storeTx);
     }
 
@@ -356,6 +373,58 @@ public class BackendTransaction implements LoggableTransaction {
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #edgeStoreQuery(KeySliceQuery)} which does not block the calling thread
+     * on storage backends that support asynchronous reads.
+     */
+    public CompletableFuture<EntryList> edgeStoreQueryAsync(final KeySliceQuery query) {
+        return executeReadAsync(new BackendOperation.AsyncCallable<EntryList>() {
+            @Override
+            public CompletableFuture<EntryList> call() {
+                return cacheEnabled?edgeStore.getSliceAsync(query, storeTx):
+                                    edgeStore.getSliceNoCacheAsync(query, storeTx);
+            }
+
+            @Override
+            public String toString() {
+                return "EdgeStoreQuery";
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link #edgeStoreMultiQuery(List, SliceQuery)}. If the storage backend does not support
+     * multi-queries, the keys are queried individually and the result completes once all of them are retrieved.
+     */
+    public CompletableFuture<Map<StaticBuffer,EntryList>> edgeStoreMultiQueryAsync(final List<StaticBuffer> keys, final SliceQuery query) {
+        if (storeFeatures.hasMultiQuery()) {
+            return executeReadAsync(new BackendOperation.AsyncCallable<Map<StaticBuffer,EntryList>>() {
+                @Override
+                public CompletableFuture<Map<StaticBuffer,EntryList>> call() {
+                    return cacheEnabled?edgeStore.getSliceAsync(keys, query, storeTx):
+                                        edgeStore.getSliceNoCacheAsync(keys, query, storeTx);
+                }
+
+                @Override
+                public String toString() {
+                    return "MultiEdgeStoreQuery";
+                }
+            });
+        } else {
+            final List<CompletableFuture<EntryList>> futures = new ArrayList<>(keys.size());
+            for (StaticBuffer key : keys) {
+                futures.add(edgeStoreQueryAsync(new KeySliceQuery(key, query)));
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+                final Map<StaticBuffer,EntryList> results = new HashMap<>(keys.size());
+                for (int i=0;i<keys.size();i++) {
+                    results.put(keys.get(i),futures.get(i).join());
+                }
+                return results;
+            });
+        }
+    }
+
     public KeyIterator edgeStoreKeys(final SliceQuery sliceQuery) {
         if (!storeFeatures.hasScan())
             throw new UnsupportedOperationException("The configured storage backend does not support global graph operations - use Faunus instead");
@@ -408,6 +477,24 @@ public class BackendTransaction implements LoggableTransaction {
     }
 
 
+    /**
+     * Asynchronous variant of {@link #indexQuery(KeySliceQuery)}.
+     */
+    public CompletableFuture<EntryList> indexQueryAsync(final KeySliceQuery query) {
+        return executeReadAsync(new BackendOperation.AsyncCallable<EntryList>() {
+            @Override
+            public CompletableFuture<EntryList> call() {
+                return cacheEnabled?indexStore.getSliceAsync(query, storeTx):
+                                    indexStore.getSliceNoCacheAsync(query, storeTx);
+            }
+
+            @Override
+            public String toString() {
+                return "VertexIndexQuery";
+            }
+        });
+    }
+
     public Stream<String> indexQuery(final String index, final IndexQuery query) {
         final IndexTransaction indexTx = getIndexTransaction(index);
         return executeRead(new Callable<Stream<String>>() {
@@ -475,4 +562,8 @@ public class BackendTransaction implements LoggableTransaction {
         }
     }
 
+    private <V> CompletableFuture<V> executeReadAsync(BackendOperation.AsyncCallable<V> exe) {
+        return BackendOperation.executeAsync(exe, maxReadTime, threadPool != null ? threadPool : ForkJoinPool.commonPool());
+    }
+
 }
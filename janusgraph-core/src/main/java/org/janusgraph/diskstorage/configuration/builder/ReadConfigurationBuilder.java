@@ -23,6 +23,8 @@ import org.janusgraph.diskstorage.configuration.backend.KCVSConfiguration;
 import org.janusgraph.diskstorage.configuration.backend.builder.KCVSConfigurationBuilder;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressionKCVSManager;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
 import org.janusgraph.diskstorage.util.time.TimestampProviders;
 import org.janusgraph.graphdb.configuration.JanusGraphConstants;
 import org.janusgraph.graphdb.configuration.validator.CompatibilityValidator;
@@ -73,6 +75,7 @@ public class ReadConfigurationBuilder {
                 setupJanusGraphVersion(globalWrite);
                 setupStorageVersion(globalWrite);
                 setupTimestampProvider(globalWrite, localBasicConfiguration, storeManager);
+                setupValueCompressionMarkers(globalWrite);
 
                 globalWrite.freezeConfiguration();
             } else {
@@ -88,6 +91,7 @@ public class ReadConfigurationBuilder {
 
                 checkJanusGraphVersion(globalWrite, localBasicConfiguration, keyColumnValueStoreConfiguration, overwrite);
                 checkOptionsWithDiscrepancies(globalWrite, localBasicConfiguration, overwrite);
+                setupValueCompressionMarkers(globalWrite);
             }
             return keyColumnValueStoreConfiguration.asReadConfiguration();
         }
@@ -157,6 +161,18 @@ public class ReadConfigurationBuilder {
         }
     }
 
+    private void setupValueCompressionMarkers(ModifiableConfiguration globalWrite){
+        //Values written before compression was enabled for a store are never mistaken for compressed ones, since
+        //they cannot start with a marker which is only drawn now
+        for (String storeName : VALUE_COMPRESSION_STORES) {
+            if (!globalWrite.has(VALUE_COMPRESSION_STORE_MARKER, storeName)
+                && !ValueCompression.NONE.equals(CompressionKCVSManager.getCodecName(globalWrite, storeName))) {
+                globalWrite.set(VALUE_COMPRESSION_STORE_MARKER, ValueCompression.generateMarker(), storeName);
+                log.info("Enabled value compression of store {}", storeName);
+            }
+        }
+    }
+
     private Map<ConfigElement.PathIdentifier, Object> getGlobalSubset(Map<ConfigElement.PathIdentifier, Object> m) {
         return Maps.filterEntries(m, entry -> {
             assert entry != null;
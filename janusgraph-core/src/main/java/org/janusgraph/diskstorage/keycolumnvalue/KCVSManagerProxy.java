@@ -68,6 +68,11 @@ public class KCVSManagerProxy implements KeyColumnValueStoreManager {
         return manager.getLocalKeyPartition();
     }
 
+    @Override
+    public List<KeyRange> getScanRanges() throws BackendException {
+        return manager.getScanRanges();
+    }
+
     @Override
     public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
         return manager.openDatabase(name, metaData);
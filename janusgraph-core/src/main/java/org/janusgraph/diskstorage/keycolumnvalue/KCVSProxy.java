@@ -21,6 +21,7 @@ import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.StaticBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Wraps a {@link org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore} as a proxy as a basis for
@@ -56,6 +57,11 @@ public class KCVSProxy implements KeyColumnValueStore {
         return store.getKeys(keyQuery, unwrapTx(txh));
     }
 
+    @Override
+    public KeyIterator getKeys(ScanRangeQuery scanQuery, StoreTransaction txh) throws BackendException {
+        return store.getKeys(scanQuery, unwrapTx(txh));
+    }
+
     @Override
     public KeyIterator getKeys(SliceQuery columnQuery, StoreTransaction txh) throws BackendException {
         return store.getKeys(columnQuery, unwrapTx(txh));
@@ -85,4 +91,14 @@ public class KCVSProxy implements KeyColumnValueStore {
     public Map<StaticBuffer,EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
         return store.getSlice(keys, query, unwrapTx(txh));
     }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(query, unwrapTx(txh));
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(keys, query, unwrapTx(txh));
+    }
 }
@@ -22,6 +22,7 @@ import org.janusgraph.diskstorage.StaticBuffer;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to a data store that has a BigTable like representation of its data. In other words, the data store is comprised of a set of rows
@@ -64,6 +65,48 @@ public interface KeyColumnValueStore {
      */
     Map<StaticBuffer,EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException;
 
+    /**
+     * Asynchronous variant of {@link #getSlice(KeySliceQuery, StoreTransaction)}. The returned future completes with the
+     * list of entries or exceptionally with the {@link BackendException} that caused the query to fail.
+     * <p>
+     * The default implementation executes the query on the calling thread. Stores that are backed by an
+     * asynchronous client should override this method so that callers do not block on I/O.
+     *
+     * @param query Query to get results for
+     * @param txh   Transaction
+     * @return Future of the list of entries up to a maximum of "limit" entries
+     */
+    default CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        final CompletableFuture<EntryList> result = new CompletableFuture<>();
+        try {
+            result.complete(getSlice(query, txh));
+        } catch (BackendException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSlice(List, SliceQuery, StoreTransaction)}. The returned future completes with
+     * the result map or exceptionally with the {@link BackendException} that caused the query to fail.
+     * <p>
+     * The default implementation executes the query on the calling thread.
+     *
+     * @param keys  List of keys
+     * @param query Slicequery specifying matching entries
+     * @param txh   Transaction
+     * @return Future of the result of the query for each of the given keys
+     */
+    default CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        final CompletableFuture<Map<StaticBuffer,EntryList>> result = new CompletableFuture<>();
+        try {
+            result.complete(getSlice(keys, query, txh));
+        } catch (BackendException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     /**
      * Verifies acquisition of locks {@code txh} from previous calls to
      * {@link #acquireLock(StaticBuffer, StaticBuffer, StaticBuffer, StoreTransaction)}
@@ -159,6 +202,23 @@ public interface KeyColumnValueStore {
      */
     KeyIterator getKeys(KeyRangeQuery query, StoreTransaction txh) throws BackendException;
 
+    /**
+     * Returns a {@link KeyIterator} over all keys in the scan range of the given query, as returned by
+     * {@link KeyColumnValueStoreManager#getScanRanges()}, that have one or more columns matching the column-range.
+     * Calling {@link KeyIterator#getEntries()} returns the list of all entries that match the column-range specified
+     * by the given query.
+     * <p>
+     * This method is only supported by stores which support {@link StoreFeatures#hasParallelScan()}.
+     *
+     * @param query
+     * @param txh
+     * @return
+     * @throws org.janusgraph.diskstorage.BackendException
+     */
+    default KeyIterator getKeys(ScanRangeQuery query, StoreTransaction txh) throws BackendException {
+        throw new UnsupportedOperationException("This store does not support scan ranges");
+    }
+
     /**
      * Returns a {@link KeyIterator} over all keys in the store that have one or more columns matching the column-range. Calling {@link KeyIterator#getEntries()}
      * returns the list of all entries that match the column-range specified by the given query.
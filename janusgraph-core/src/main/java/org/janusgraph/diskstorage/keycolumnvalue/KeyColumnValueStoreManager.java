@@ -18,6 +18,7 @@ import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.StoreMetaData;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -55,6 +56,20 @@ public interface KeyColumnValueStoreManager extends StoreManager {
      */
     KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException;
 
+    /**
+     * Returns disjoint ranges which jointly cover all keys of the stores of this manager and can each be scanned
+     * independently via {@link KeyColumnValueStore#getKeys(ScanRangeQuery, StoreTransaction)}. The bounds of the
+     * ranges are encoded by the storage backend and are not keys, see {@link ScanRangeQuery}.
+     *
+     * @return A list of scan ranges
+     * @throws UnsupportedOperationException
+     *             if the underlying store does not support this operation.
+     *             Check {@link StoreFeatures#hasParallelScan()} first.
+     */
+    default List<KeyRange> getScanRanges() throws BackendException {
+        throw new UnsupportedOperationException("This Manager doesn't support scan ranges");
+    }
+
     /**
      * Executes multiple mutations at once. For each store (identified by a string name) there is a map of (key,mutation) pairs
      * that specifies all the mutations to execute against the particular store for that key.
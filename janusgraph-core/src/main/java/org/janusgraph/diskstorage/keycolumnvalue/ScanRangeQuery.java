@@ -0,0 +1,76 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * Extends a {@link SliceQuery} to select all keys of one of the scan ranges returned by
+ * {@link KeyColumnValueStoreManager#getScanRanges()} which have at least one column in the slice.
+ * <p>
+ * Unlike the bounds of a {@link KeyRangeQuery}, the bounds of a scan range are not keys but are encoded by the
+ * storage backend, e.g. as tokens of a Cassandra ring, and can only be interpreted by the store which returned them.
+ * Hence, scan ranges must not be compared to or combined with keys.
+ */
+public class ScanRangeQuery extends SliceQuery {
+
+    private final KeyRange scanRange;
+
+    public ScanRangeQuery(KeyRange scanRange, SliceQuery query) {
+        super(query);
+        this.scanRange = Preconditions.checkNotNull(scanRange);
+    }
+
+    public KeyRange getScanRange() {
+        return scanRange;
+    }
+
+    @Override
+    public ScanRangeQuery setLimit(int limit) {
+        super.setLimit(limit);
+        return this;
+    }
+
+    @Override
+    public ScanRangeQuery updateLimit(int newLimit) {
+        return new ScanRangeQuery(scanRange, this).setLimit(newLimit);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(scanRange.getStart(), scanRange.getEnd(), super.hashCode());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this==other) return true;
+        else if (other==null) return false;
+        else if (!getClass().isInstance(other)) return false;
+        ScanRangeQuery oth = (ScanRangeQuery)other;
+        return scanRange.getStart().equals(oth.scanRange.getStart()) && scanRange.getEnd().equals(oth.scanRange.getEnd())
+            && super.equals(oth);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScanRangeQuery(range: %s, columns:[start: %s, end: %s], limit=%d)",
+                             scanRange,
+                             getSliceStart(),
+                             getSliceEnd(),
+                             getLimit());
+    }
+}
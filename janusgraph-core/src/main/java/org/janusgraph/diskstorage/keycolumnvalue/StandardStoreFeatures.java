@@ -29,6 +29,7 @@ public class StandardStoreFeatures implements StoreFeatures {
     private final boolean locking;
     private final boolean batchMutation;
     private final boolean localKeyPartition;
+    private final boolean parallelScan;
     private final boolean keyOrdered;
     private final boolean distributed;
     private final boolean transactional;
@@ -148,6 +149,11 @@ public class StandardStoreFeatures implements StoreFeatures {
         return localKeyPartition;
     }
 
+    @Override
+    public boolean hasParallelScan() {
+        return parallelScan;
+    }
+
     @Override
     public boolean supportsInterruption()
     {
@@ -171,6 +177,7 @@ public class StandardStoreFeatures implements StoreFeatures {
         private boolean locking;
         private boolean batchMutation;
         private boolean localKeyPartition;
+        private boolean parallelScan;
         private boolean keyOrdered;
         private boolean distributed;
         private boolean transactional;
@@ -204,6 +211,7 @@ public class StandardStoreFeatures implements StoreFeatures {
             locking(template.hasLocking());
             batchMutation(template.hasBatchMutation());
             localKeyPartition(template.hasLocalKeyPartition());
+            parallelScan(template.hasParallelScan());
             keyOrdered(template.isKeyOrdered());
             distributed(template.isDistributed());
             transactional(template.hasTxIsolation());
@@ -261,6 +269,11 @@ public class StandardStoreFeatures implements StoreFeatures {
             return this;
         }
 
+        public Builder parallelScan(boolean b) {
+            parallelScan = b;
+            return this;
+        }
+
         public Builder keyOrdered(boolean b) {
             keyOrdered = b;
             return this;
@@ -338,7 +351,7 @@ public class StandardStoreFeatures implements StoreFeatures {
 
         public StandardStoreFeatures build() {
             return new StandardStoreFeatures(consistentScan, unorderedScan, orderedScan,
-                    multiQuery, locking, batchMutation, localKeyPartition,
+                    multiQuery, locking, batchMutation, localKeyPartition, parallelScan,
                     keyOrdered, distributed, transactional, keyConsistent,
                     timestamps, preferredTimestamps, cellLevelTTL,
                     storeLevelTTL, visibility, supportsPersist,
@@ -349,7 +362,8 @@ public class StandardStoreFeatures implements StoreFeatures {
 
     private StandardStoreFeatures(boolean consistentScan, boolean unorderedScan, boolean orderedScan,
                                   boolean multiQuery, boolean locking, boolean batchMutation,
-                                  boolean localKeyPartition, boolean keyOrdered, boolean distributed,
+                                  boolean localKeyPartition, boolean parallelScan,
+                                  boolean keyOrdered, boolean distributed,
                                   boolean transactional, boolean keyConsistent,
                                   boolean timestamps, TimestampProviders preferredTimestamps,
                                   boolean cellLevelTTL, boolean storeLevelTTL,
@@ -364,6 +378,7 @@ public class StandardStoreFeatures implements StoreFeatures {
         this.locking = locking;
         this.batchMutation = batchMutation;
         this.localKeyPartition = localKeyPartition;
+        this.parallelScan = parallelScan;
         this.keyOrdered = keyOrdered;
         this.distributed = distributed;
         this.transactional = transactional;
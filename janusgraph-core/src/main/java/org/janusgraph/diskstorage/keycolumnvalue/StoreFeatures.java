@@ -103,6 +103,16 @@ public interface StoreFeatures {
      */
     boolean hasLocalKeyPartition();
 
+    /**
+     * Whether this storage backend supports {@link KeyColumnValueStoreManager#getScanRanges()} and
+     * {@link KeyColumnValueStore#getKeys(ScanRangeQuery, StoreTransaction)}, even if
+     * it does not support ordered scans otherwise.
+     *
+     * If this is true, scan jobs split a full scan into one range scan per returned key range
+     * and run several of them in parallel.
+     */
+    boolean hasParallelScan();
+
     /**
      * Whether this storage backend provides strong consistency within each
      * key/row. This property is weaker than general strong consistency, since
@@ -43,6 +43,8 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
     private int numMutations;
     private final Map<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> mutations;
 
+    private GroupCommitter groupCommitter;
+
     public CacheTransaction(StoreTransaction tx, KeyColumnValueStoreManager manager,
                              int persistChunkSize, Duration maxWriteTime, boolean batchLoading) {
         this(tx, manager, persistChunkSize, maxWriteTime, batchLoading, 2);
@@ -50,6 +52,15 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
 
     public CacheTransaction(StoreTransaction tx, KeyColumnValueStoreManager manager, int persistChunkSize,
                             Duration maxWriteTime, boolean batchLoading, int expectedNumStores) {
+        this(tx, manager, persistChunkSize, maxWriteTime, batchLoading, expectedNumStores, null);
+    }
+
+    /**
+     * Creates a transaction whose mutations are persisted together with those of concurrently committing transactions
+     * through the given {@link GroupCommitter}, unless it is null or group commits are disabled for this transaction.
+     */
+    public CacheTransaction(StoreTransaction tx, KeyColumnValueStoreManager manager, int persistChunkSize,
+                            Duration maxWriteTime, boolean batchLoading, int expectedNumStores, GroupCommitter groupCommitter) {
         Preconditions.checkArgument(tx != null && manager != null && persistChunkSize > 0);
         this.tx = tx;
         this.manager = manager;
@@ -58,12 +69,20 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
         this.persistChunkSize = persistChunkSize;
         this.maxWriteTime = maxWriteTime;
         this.mutations = new HashMap<>(expectedNumStores);
+        this.groupCommitter = groupCommitter;
     }
 
     public StoreTransaction getWrappedTransaction() {
         return tx;
     }
 
+    /**
+     * Persists the mutations of this transaction on their own, which is required once the transaction holds locks.
+     */
+    public void disableGroupCommit() {
+        groupCommitter = null;
+    }
+
     void mutate(KCVSCache store, StaticBuffer key, List<Entry> additions, List<Entry> deletions) throws BackendException {
         Preconditions.checkNotNull(store);
         if (additions.isEmpty() && deletions.isEmpty()) return;
@@ -118,6 +137,42 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
         return new KCVMutation(mutation.getAdditions(), KeyColumnValueStore.NO_DELETIONS);
     }
 
+    private void persistChunked() {
+        //Chunk up mutations
+        final Map<String, Map<StaticBuffer, KCVMutation>> subMutations = new HashMap<>(mutations.size());
+        int numSubMutations = 0;
+        for (Map.Entry<KCVSCache,Map<StaticBuffer, KCVEntryMutation>> storeMutations : mutations.entrySet()) {
+            final Map<StaticBuffer, KCVMutation> sub = new HashMap<>();
+            subMutations.put(storeMutations.getKey().getName(),sub);
+            for (Map.Entry<StaticBuffer,KCVEntryMutation> mutationsForKey : storeMutations.getValue().entrySet()) {
+                if (mutationsForKey.getValue().isEmpty()) continue;
+                sub.put(mutationsForKey.getKey(), convert(mutationsForKey.getValue()));
+                numSubMutations+=mutationsForKey.getValue().getTotalMutations();
+                if (numSubMutations>= persistChunkSize) {
+                    numSubMutations = persist(subMutations);
+                    sub.clear();
+                    subMutations.put(storeMutations.getKey().getName(),sub);
+                }
+            }
+        }
+        if (numSubMutations>0) persist(subMutations);
+    }
+
+    private void persistGrouped() throws BackendException {
+        final Map<String, Map<StaticBuffer, KCVMutation>> allMutations = new HashMap<>(mutations.size());
+        int numAllMutations = 0;
+        for (Map.Entry<KCVSCache,Map<StaticBuffer, KCVEntryMutation>> storeMutations : mutations.entrySet()) {
+            final Map<StaticBuffer, KCVMutation> sub = new HashMap<>();
+            for (Map.Entry<StaticBuffer,KCVEntryMutation> mutationsForKey : storeMutations.getValue().entrySet()) {
+                if (mutationsForKey.getValue().isEmpty()) continue;
+                sub.put(mutationsForKey.getKey(), convert(mutationsForKey.getValue()));
+                numAllMutations+=mutationsForKey.getValue().getTotalMutations();
+            }
+            if (!sub.isEmpty()) allMutations.put(storeMutations.getKey().getName(), sub);
+        }
+        if (numAllMutations>0) groupCommitter.persist(allMutations, numAllMutations, tx);
+    }
+
     private void flushInternal() throws BackendException {
         if (numMutations > 0) {
             //Consolidate all mutations prior to persistence to ensure that no addition accidentally gets swallowed by a delete
@@ -125,25 +180,11 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
                 for (KCVEntryMutation mut : store.values()) mut.consolidate();
             }
 
-            //Chunk up mutations
-            final Map<String, Map<StaticBuffer, KCVMutation>> subMutations = new HashMap<>(mutations.size());
-            int numSubMutations = 0;
-            for (Map.Entry<KCVSCache,Map<StaticBuffer, KCVEntryMutation>> storeMutations : mutations.entrySet()) {
-                final Map<StaticBuffer, KCVMutation> sub = new HashMap<>();
-                subMutations.put(storeMutations.getKey().getName(),sub);
-                for (Map.Entry<StaticBuffer,KCVEntryMutation> mutationsForKey : storeMutations.getValue().entrySet()) {
-                    if (mutationsForKey.getValue().isEmpty()) continue;
-                    sub.put(mutationsForKey.getKey(), convert(mutationsForKey.getValue()));
-                    numSubMutations+=mutationsForKey.getValue().getTotalMutations();
-                    if (numSubMutations>= persistChunkSize) {
-                        numSubMutations = persist(subMutations);
-                        sub.clear();
-                        subMutations.put(storeMutations.getKey().getName(),sub);
-                    }
-                }
+            if (groupCommitter != null && numMutations <= groupCommitter.getMaxMutations()) {
+                persistGrouped();
+            } else {
+                persistChunked();
             }
-            if (numSubMutations>0) persist(subMutations);
-
 
             for (Map.Entry<KCVSCache,Map<StaticBuffer, KCVEntryMutation>> storeMutations : mutations.entrySet()) {
                 final KCVSCache cache = storeMutations.getKey();
@@ -21,11 +21,13 @@ import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.*;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
 import org.janusgraph.diskstorage.util.CacheMetricsAction;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -53,9 +55,35 @@ public class ExpirationKCVSCache extends KCVSCache {
     private final long invalidationGracePeriodMS;
     private final CleanupThread cleanupThread;
 
+    private final KeyColumnValueStore uncachedStore;
+    private final OffHeapCacheTier offHeapTier;
+    private final ValueCompression compression;
 
     public ExpirationKCVSCache(final KeyColumnValueStore store, String metricsName, final long cacheTimeMS, final long invalidationGracePeriodMS, final long maximumByteSize) {
-        super(store, metricsName);
+        this(store, metricsName, cacheTimeMS, invalidationGracePeriodMS, maximumByteSize, 0);
+    }
+
+    /**
+     * Creates a cache which is backed by an {@link OffHeapCacheTier} of the given size in bytes, such that slices
+     * evicted from the heap can still be served without querying the storage backend. The off-heap tier is
+     * disabled if the size is 0.
+     */
+    public ExpirationKCVSCache(final KeyColumnValueStore store, String metricsName, final long cacheTimeMS, final long invalidationGracePeriodMS,
+                               final long maximumByteSize, final long offHeapByteSize) {
+        this(store, metricsName, cacheTimeMS, invalidationGracePeriodMS, maximumByteSize, offHeapByteSize, null);
+    }
+
+    /**
+     * Creates a cache which keeps large values compressed with the given {@link ValueCompression}, such that more
+     * slices fit into the cache at the expense of decompressing them on every cache hit. Values are kept as they are
+     * returned by the store if no compression is given.
+     */
+    public ExpirationKCVSCache(final KeyColumnValueStore store, String metricsName, final long cacheTimeMS, final long invalidationGracePeriodMS,
+                               final long maximumByteSize, final long offHeapByteSize, final ValueCompression compression) {
+        super(offHeapByteSize > 0 ? new OffHeapCacheTier(store, cacheTimeMS, invalidationGracePeriodMS, offHeapByteSize) : store, metricsName);
+        this.uncachedStore = store;
+        this.offHeapTier = offHeapByteSize > 0 ? (OffHeapCacheTier) this.store : null;
+        this.compression = compression;
         Preconditions.checkArgument(cacheTimeMS > 0, "Cache expiration must be positive: %s", cacheTimeMS);
         Preconditions.checkArgument(System.currentTimeMillis()+1000L*3600*24*365*100+cacheTimeMS>0,"Cache expiration time too large, overflow may occur: %s",cacheTimeMS);
         this.cacheTimeMS = cacheTimeMS;
@@ -82,14 +110,14 @@ public class ExpirationKCVSCache extends KCVSCache {
         incActionBy(1, CacheMetricsAction.RETRIEVAL,txh);
         if (isExpired(query)) {
             incActionBy(1, CacheMetricsAction.MISS,txh);
-            return store.getSlice(query, unwrapTx(txh));
+            return uncachedStore.getSlice(query, unwrapTx(txh));
         }
 
         try {
-            return cache.get(query, () -> {
+            return fromCached(cache.get(query, () -> {
                 incActionBy(1, CacheMetricsAction.MISS,txh);
-                return store.getSlice(query, unwrapTx(txh));
-            });
+                return toCached(store.getSlice(query, unwrapTx(txh)));
+            }));
         } catch (Exception e) {
             if (e instanceof JanusGraphException) throw (JanusGraphException)e;
             else if (e.getCause() instanceof JanusGraphException) throw (JanusGraphException)e.getCause();
@@ -110,7 +138,7 @@ public class ExpirationKCVSCache extends KCVSCache {
             EntryList result = null;
             if (!isExpired(ksqs[i])) result = cache.getIfPresent(ksqs[i]);
             else ksqs[i]=null;
-            if (result!=null) results.put(key,result);
+            if (result!=null) results.put(key,fromCached(result));
             else remainingKeys.add(key);
         }
         //Request remaining ones from backend
@@ -122,16 +150,86 @@ public class ExpirationKCVSCache extends KCVSCache {
                 EntryList subresult = subresults.get(key);
                 if (subresult!=null) {
                     results.put(key,subresult);
-                    if (ksqs[i]!=null) cache.put(ksqs[i],subresult);
+                    if (ksqs[i]!=null) cache.put(ksqs[i],toCached(subresult));
                 }
             }
         }
         return results;
     }
 
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(final KeySliceQuery query, final StoreTransaction txh) {
+        incActionBy(1, CacheMetricsAction.RETRIEVAL,txh);
+        if (isExpired(query)) {
+            incActionBy(1, CacheMetricsAction.MISS,txh);
+            return uncachedStore.getSliceAsync(query, unwrapTx(txh));
+        }
+
+        final EntryList cached = cache.getIfPresent(query);
+        if (cached!=null) return CompletableFuture.completedFuture(fromCached(cached));
+        incActionBy(1, CacheMetricsAction.MISS,txh);
+        return store.getSliceAsync(query, unwrapTx(txh)).thenApply(result -> {
+            cache.put(query,toCached(result));
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) {
+        final Map<StaticBuffer,EntryList> results = new HashMap<>(keys.size());
+        final List<StaticBuffer> remainingKeys = new ArrayList<>(keys.size());
+        final KeySliceQuery[] ksqs = new KeySliceQuery[keys.size()];
+        incActionBy(keys.size(), CacheMetricsAction.RETRIEVAL,txh);
+        //Find all cached queries
+        for (int i=0;i<keys.size();i++) {
+            final StaticBuffer key = keys.get(i);
+            ksqs[i] = new KeySliceQuery(key,query);
+            EntryList result = null;
+            if (!isExpired(ksqs[i])) result = cache.getIfPresent(ksqs[i]);
+            else ksqs[i]=null;
+            if (result!=null) results.put(key,fromCached(result));
+            else remainingKeys.add(key);
+        }
+        if (remainingKeys.isEmpty()) return CompletableFuture.completedFuture(results);
+        //Request remaining ones from backend
+        incActionBy(remainingKeys.size(), CacheMetricsAction.MISS,txh);
+        return store.getSliceAsync(remainingKeys, query, unwrapTx(txh)).thenApply(subresults -> {
+            for (int i=0;i<keys.size();i++) {
+                StaticBuffer key = keys.get(i);
+                EntryList subresult = subresults.get(key);
+                if (subresult!=null) {
+                    results.put(key,subresult);
+                    if (ksqs[i]!=null) cache.put(ksqs[i],toCached(subresult));
+                }
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public EntryList getSliceNoCache(KeySliceQuery query, StoreTransaction txh) throws BackendException {
+        return uncachedStore.getSlice(query,unwrapTx(txh));
+    }
+
+    @Override
+    public Map<StaticBuffer, EntryList> getSliceNoCache(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
+        return uncachedStore.getSlice(keys,query,unwrapTx(txh));
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceNoCacheAsync(KeySliceQuery query, StoreTransaction txh) {
+        return uncachedStore.getSliceAsync(query,unwrapTx(txh));
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer, EntryList>> getSliceNoCacheAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        return uncachedStore.getSliceAsync(keys,query,unwrapTx(txh));
+    }
+
     @Override
     public void clearCache() {
         cache.invalidateAll();
+        if (offHeapTier!=null) offHeapTier.clearCache();
         expiredKeys.clear();
         penaltyCountdown = new CountDownLatch(PENALTY_THRESHOLD);
     }
@@ -140,6 +238,7 @@ public class ExpirationKCVSCache extends KCVSCache {
     public void invalidate(StaticBuffer key, List<CachableStaticBuffer> entries) {
         Preconditions.checkArgument(!hasValidateKeysOnly() || entries.isEmpty());
         expiredKeys.put(key,getExpirationTime());
+        if (offHeapTier!=null) offHeapTier.invalidate(key);
         if (Math.random()<1.0/INVALIDATE_KEY_FRACTION_PENALTY) penaltyCountdown.countDown();
     }
 
@@ -149,6 +248,14 @@ public class ExpirationKCVSCache extends KCVSCache {
         super.close();
     }
 
+    private EntryList toCached(final EntryList entries) {
+        return compression == null ? entries : compression.compress(entries);
+    }
+
+    private EntryList fromCached(final EntryList entries) {
+        return compression == null ? entries : compression.decompress(entries);
+    }
+
     private boolean isExpired(final KeySliceQuery query) {
         Long until = expiredKeys.get(query.getKey());
         if (until==null) return false;
@@ -0,0 +1,232 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BackendOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the mutations of concurrently committing transactions into shared
+ * {@link KeyColumnValueStoreManager#mutateMany(Map, StoreTransaction)} calls.
+ * <p>
+ * The first transaction to commit becomes the leader of a new group. If other transactions are committing at the same
+ * time, it waits for the configured window, during which other committing transactions join the group. The group is
+ * closed early once it reaches the maximum number of mutations or when a transaction mutates a key which is already
+ * mutated by the group, because the mutations of one group are persisted without a defined order. The leader then
+ * persists the mutations of all members and every member returns once its mutations have been persisted.
+ * <p>
+ * Every mutation is persisted with the commit time of its own transaction, hence the mutations of members with the
+ * same commit time share one call, while members with distinct commit times are persisted in separate calls of the
+ * leader. Since members are persisted in an arbitrary order, this must only be used for transactions which neither
+ * hold locks nor rely on the isolation of the storage backend.
+ */
+public class GroupCommitter {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitter.class);
+
+    private final KeyColumnValueStoreManager manager;
+    private final long windowNanos;
+    private final int maxMutations;
+    private final Duration maxWriteTime;
+
+    //The group that committing transactions join and the number of transactions which are committing, guarded by this
+    private Group openGroup;
+    private int numCommitting;
+
+    public GroupCommitter(KeyColumnValueStoreManager manager, Duration window, int maxMutations, Duration maxWriteTime) {
+        Preconditions.checkArgument(manager != null);
+        Preconditions.checkArgument(!window.isNegative(), "Invalid group commit window: %s", window);
+        Preconditions.checkArgument(maxMutations > 0, "Invalid maximum number of mutations: %s", maxMutations);
+        this.manager = manager;
+        this.windowNanos = window.toNanos();
+        this.maxMutations = maxMutations;
+        this.maxWriteTime = maxWriteTime;
+        this.openGroup = null;
+        this.numCommitting = 0;
+    }
+
+    public int getMaxMutations() {
+        return maxMutations;
+    }
+
+    /**
+     * Persists the given mutations together with those of concurrently committing transactions and returns once they
+     * have been persisted.
+     *
+     * @param mutations The mutations by store name and key
+     * @param numMutations The total number of additions and deletions in the mutations
+     * @param tx The transaction which committed the mutations
+     * @throws BackendException if the mutations could not be persisted
+     */
+    public void persist(Map<String, Map<StaticBuffer, KCVMutation>> mutations, int numMutations, StoreTransaction tx) throws BackendException {
+        final Group group;
+        final Member member;
+        final boolean isLeader;
+        synchronized (this) {
+            numCommitting++;
+            if (openGroup != null && (openGroup.numMutations + numMutations > maxMutations || openGroup.overlaps(mutations))) {
+                closeOpenGroup();
+            }
+            isLeader = openGroup == null;
+            if (isLeader) openGroup = new Group();
+            group = openGroup;
+            member = group.add(mutations, numMutations, tx);
+            if (group.numMutations >= maxMutations) closeOpenGroup();
+        }
+        try {
+            if (isLeader) {
+                awaitMembers(group);
+                persist(group);
+            }
+            member.persisted.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException("Interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JanusGraphException) throw (JanusGraphException) e.getCause();
+            throw new PermanentBackendException("Could not persist group commit", e.getCause());
+        } finally {
+            synchronized (this) {
+                numCommitting--;
+            }
+        }
+    }
+
+    private void persist(Group group) {
+        //Members with the same commit time are persisted in one call
+        final Map<Optional<Instant>, List<Member>> batches = new LinkedHashMap<>();
+        for (Member member : group.members) {
+            batches.computeIfAbsent(member.getCommitTime(), k -> new ArrayList<>()).add(member);
+        }
+        for (List<Member> batch : batches.values()) {
+            final Map<String, Map<StaticBuffer, KCVMutation>> mutations;
+            if (batch.size() == 1) {
+                mutations = batch.get(0).mutations;
+            } else {
+                mutations = new HashMap<>();
+                for (Member member : batch) {
+                    for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : member.mutations.entrySet()) {
+                        mutations.computeIfAbsent(storeMutations.getKey(), k -> new HashMap<>()).putAll(storeMutations.getValue());
+                    }
+                }
+            }
+            try {
+                BackendOperation.execute(() -> {
+                    manager.mutateMany(mutations, batch.get(0).tx);
+                    return true;
+                }, maxWriteTime);
+                for (Member member : batch) member.persisted.complete(null);
+            } catch (Throwable e) {
+                for (Member member : batch) member.persisted.completeExceptionally(e);
+            }
+        }
+        log.debug("Persisted {} mutations of {} transactions in {} calls of one group commit", group.numMutations,
+            group.members.size(), batches.size());
+    }
+
+    private synchronized void awaitMembers(Group group) {
+        //Other transactions are only expected to join the group if there are concurrent commits
+        final long deadline = System.nanoTime() + windowNanos;
+        long remaining = numCommitting > group.members.size() ? windowNanos : 0;
+        while (!group.closed && remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        if (!group.closed) {
+            assert openGroup == group;
+            closeOpenGroup();
+        }
+    }
+
+    private void closeOpenGroup() {
+        assert Thread.holdsLock(this);
+        openGroup.closed = true;
+        openGroup = null;
+        notifyAll();
+    }
+
+    private static class Group {
+
+        private final Map<String, Set<StaticBuffer>> keys = new HashMap<>();
+        private final List<Member> members = new ArrayList<>();
+        private int numMutations = 0;
+        private boolean closed = false;
+
+        private boolean overlaps(Map<String, Map<StaticBuffer, KCVMutation>> other) {
+            for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : other.entrySet()) {
+                final Set<StaticBuffer> existing = keys.get(storeMutations.getKey());
+                if (existing == null) continue;
+                for (StaticBuffer key : storeMutations.getValue().keySet()) {
+                    if (existing.contains(key)) return true;
+                }
+            }
+            return false;
+        }
+
+        private Member add(Map<String, Map<StaticBuffer, KCVMutation>> mutations, int numMutations, StoreTransaction tx) {
+            for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : mutations.entrySet()) {
+                keys.computeIfAbsent(storeMutations.getKey(), k -> new HashSet<>()).addAll(storeMutations.getValue().keySet());
+            }
+            this.numMutations += numMutations;
+            final Member member = new Member(mutations, tx);
+            members.add(member);
+            return member;
+        }
+    }
+
+    private static class Member {
+
+        private final Map<String, Map<StaticBuffer, KCVMutation>> mutations;
+        private final StoreTransaction tx;
+        private final CompletableFuture<Void> persisted = new CompletableFuture<>();
+
+        private Member(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction tx) {
+            this.mutations = mutations;
+            this.tx = tx;
+        }
+
+        private Optional<Instant> getCommitTime() {
+            return tx.getConfiguration().hasCommitTime() ? Optional.of(tx.getConfiguration().getCommitTime()) : Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,369 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Second tier of the database level cache which keeps serialized slices in direct memory, outside of the heap.
+ * <p>
+ * Slices are appended to a fixed number of direct memory segments which are filled one after the other. Once all
+ * segments are full, the oldest one is replaced by a newly allocated segment and all slices stored in it are dropped.
+ * An on-heap index maps each key to the locations of its cached slices, so that invalidating a key drops all of its
+ * slices at once. Slices older than the cache expiration time are treated as misses. Like {@link ExpirationKCVSCache},
+ * results of a key which were loaded before or within the invalidation grace period after its most recent invalidation
+ * are not cached to avoid caching stale data.
+ * <p>
+ * Cache hits are returned as views of the direct memory of their slice, which only copy the entries that are
+ * accessed onto the heap. Since the bytes of a slice are never overwritten, views remain valid after their segment
+ * has been replaced, and the direct memory of a segment is released by garbage collection once it is no longer
+ * referenced. Writers reserve the range of a slice by atomically advancing the position of the current segment and
+ * copy the slice into it concurrently. Only replacing a full segment is serialized.
+ */
+public class OffHeapCacheTier extends KCVSProxy {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapCacheTier.class);
+
+    private static final int NUM_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int segmentSize;
+    private final ConcurrentHashMap<StaticBuffer, CachedRow> index;
+    private final Queue<StaticBuffer> invalidatedKeys;
+    private final long cacheTimeMS;
+    private final long invalidationGracePeriodMS;
+
+    private volatile Segment currentSegment;
+    private volatile boolean closed = false;
+
+    public OffHeapCacheTier(final KeyColumnValueStore store, final long cacheTimeMS, final long invalidationGracePeriodMS, final long maximumByteSize) {
+        super(store);
+        Preconditions.checkArgument(cacheTimeMS > 0, "Cache expiration must be positive: %s", cacheTimeMS);
+        Preconditions.checkArgument(invalidationGracePeriodMS >= 0, "Invalid expiration grace period: %s", invalidationGracePeriodMS);
+        Preconditions.checkArgument(maximumByteSize >= NUM_SEGMENTS, "Invalid off-heap cache size: %s", maximumByteSize);
+        this.cacheTimeMS = cacheTimeMS;
+        this.invalidationGracePeriodMS = invalidationGracePeriodMS;
+        segmentSize = (int) Math.min(Integer.MAX_VALUE, maximumByteSize / NUM_SEGMENTS);
+        //Segments are allocated once they are needed
+        segments = new Segment[NUM_SEGMENTS];
+        segments[0] = new Segment(0, ByteBuffer.allocateDirect(segmentSize));
+        currentSegment = segments[0];
+        index = new ConcurrentHashMap<>();
+        invalidatedKeys = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public EntryList getSlice(final KeySliceQuery query, final StoreTransaction txh) throws BackendException {
+        final EntryList cached = getIfPresent(query.getKey(), query);
+        if (cached!=null) return cached;
+
+        final long loadTime = System.currentTimeMillis();
+        final EntryList result = store.getSlice(query, unwrapTx(txh));
+        put(query.getKey(), query, result, loadTime);
+        return result;
+    }
+
+    @Override
+    public Map<StaticBuffer,EntryList> getSlice(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) throws BackendException {
+        final Map<StaticBuffer,EntryList> results = new HashMap<>(keys.size());
+        final List<StaticBuffer> remainingKeys = findCached(keys, query, results);
+        if (remainingKeys.isEmpty()) return results;
+
+        final long loadTime = System.currentTimeMillis();
+        addLoaded(remainingKeys, query, store.getSlice(remainingKeys, query, unwrapTx(txh)), results, loadTime);
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(final KeySliceQuery query, final StoreTransaction txh) {
+        final EntryList cached = getIfPresent(query.getKey(), query);
+        if (cached!=null) return CompletableFuture.completedFuture(cached);
+
+        final long loadTime = System.currentTimeMillis();
+        return store.getSliceAsync(query, unwrapTx(txh)).thenApply(result -> {
+            put(query.getKey(), query, result, loadTime);
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) {
+        final Map<StaticBuffer,EntryList> results = new HashMap<>(keys.size());
+        final List<StaticBuffer> remainingKeys = findCached(keys, query, results);
+        if (remainingKeys.isEmpty()) return CompletableFuture.completedFuture(results);
+
+        final long loadTime = System.currentTimeMillis();
+        return store.getSliceAsync(remainingKeys, query, unwrapTx(txh)).thenApply(subresults -> {
+            addLoaded(remainingKeys, query, subresults, results, loadTime);
+            return results;
+        });
+    }
+
+    private List<StaticBuffer> findCached(final List<StaticBuffer> keys, final SliceQuery query, final Map<StaticBuffer,EntryList> results) {
+        final List<StaticBuffer> remainingKeys = new ArrayList<>(keys.size());
+        for (final StaticBuffer key : keys) {
+            final EntryList result = getIfPresent(key, query);
+            if (result!=null) results.put(key,result);
+            else remainingKeys.add(key);
+        }
+        return remainingKeys;
+    }
+
+    private void addLoaded(final List<StaticBuffer> keys, final SliceQuery query, final Map<StaticBuffer,EntryList> subresults,
+                           final Map<StaticBuffer,EntryList> results, final long loadTime) {
+        for (final StaticBuffer key : keys) {
+            final EntryList subresult = subresults.get(key);
+            if (subresult!=null) {
+                results.put(key,subresult);
+                put(key, query, subresult, loadTime);
+            }
+        }
+    }
+
+    /**
+     * Drops all cached slices of the given key and rejects slices of that key which were loaded before
+     * the invalidation grace period has passed.
+     */
+    public void invalidate(final StaticBuffer key) {
+        index.put(key, CachedRow.invalidated(System.currentTimeMillis()));
+        invalidatedKeys.add(key);
+    }
+
+    public void clearCache() {
+        index.clear();
+        invalidatedKeys.clear();
+    }
+
+    @Override
+    public void close() throws BackendException {
+        synchronized (this) {
+            if (!closed) {
+                closed = true;
+                //The direct memory is released once the returned views are no longer referenced
+                for (int i = 0; i < NUM_SEGMENTS; i++) {
+                    if (segments[i] != null) segments[i].retired = true;
+                    segments[i] = null;
+                }
+            }
+        }
+        clearCache();
+        super.close();
+    }
+
+    private EntryList getIfPresent(final StaticBuffer key, final SliceQuery query) {
+        final CachedRow row = index.get(key);
+        if (row==null) return null;
+        final Slot slot = row.get(query);
+        if (slot==null || slot.segment.retired || slot.writeTime < System.currentTimeMillis() - cacheTimeMS) return null;
+        final ByteBuffer buffer = slot.segment.buffer.duplicate();
+        buffer.limit(slot.offset + slot.length);
+        buffer.position(slot.offset);
+        try {
+            return StaticArrayEntryList.viewOf(buffer);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            log.warn("Dropping unreadable off-heap cache entry", e);
+            return null;
+        }
+    }
+
+    private void put(final StaticBuffer key, final SliceQuery query, final EntryList result, final long loadTime) {
+        final CachedRow current = index.get(key);
+        if (current!=null && isInvalidatedSince(current, loadTime)) return;
+        final StaticArrayEntryList entries = StaticArrayEntryList.asStaticArrayEntryList(result);
+        final int size = entries==null ? StaticArrayEntryList.EMPTY_SERIALIZED_SIZE : entries.getSerializedSize();
+        if (size > segmentSize) return;
+
+        while (!closed) {
+            final Segment segment = currentSegment;
+            final int offset = segment.reserve(size);
+            if (offset < 0) {
+                replaceFull(segment);
+                continue;
+            }
+            //The reserved range is written while other writers fill the rest of the segment
+            final ByteBuffer target = segment.buffer.duplicate();
+            target.position(offset);
+            if (entries==null) StaticArrayEntryList.writeEmptyTo(target);
+            else entries.writeTo(target);
+            segment.keys.add(key);
+            final Slot slot = new Slot(query, segment, offset, size, loadTime);
+            index.compute(key, (k, row) -> {
+                if (row==null) return CachedRow.EMPTY.with(slot);
+                return isInvalidatedSince(row, loadTime) ? row : row.with(slot);
+            });
+            return;
+        }
+    }
+
+    /**
+     * Results which may have been read before the most recent invalidation became visible are not cached.
+     */
+    private boolean isInvalidatedSince(final CachedRow row, final long loadTime) {
+        return loadTime <= row.invalidationTime + invalidationGracePeriodMS;
+    }
+
+    /**
+     * Moves on to the next segment once the given one is full, replacing the oldest segment with a new one.
+     */
+    private synchronized void replaceFull(final Segment full) {
+        //Another writer might have moved on already
+        if (closed || currentSegment != full) return;
+        final int next = (full.index + 1) % NUM_SEGMENTS;
+        final Segment oldest = segments[next];
+        if (oldest != null) {
+            oldest.retired = true;
+            for (final StaticBuffer key : oldest.keys) {
+                index.computeIfPresent(key, (k, row) -> row.without(oldest));
+            }
+        }
+        segments[next] = new Segment(next, ByteBuffer.allocateDirect(segmentSize));
+        currentSegment = segments[next];
+        //Drop the markers of invalidated keys once their grace period has passed
+        final long invalidatedBefore = System.currentTimeMillis() - invalidationGracePeriodMS;
+        for (int i = invalidatedKeys.size(); i > 0; i--) {
+            final StaticBuffer key = invalidatedKeys.poll();
+            if (key==null) break;
+            index.computeIfPresent(key, (k, row) -> row.slots.length==0 && row.invalidationTime < invalidatedBefore ? null : row);
+        }
+    }
+
+    /**
+     * Immutable group of the locations of all cached slices of one key, together with the time of its
+     * most recent invalidation.
+     */
+    private static class CachedRow {
+
+        private static final CachedRow EMPTY = invalidated(0);
+
+        private final Slot[] slots;
+        private final long invalidationTime;
+
+        private CachedRow(Slot[] slots, long invalidationTime) {
+            this.slots = slots;
+            this.invalidationTime = invalidationTime;
+        }
+
+        private static CachedRow invalidated(long invalidationTime) {
+            return new CachedRow(new Slot[0], invalidationTime);
+        }
+
+        private Slot get(SliceQuery query) {
+            for (Slot slot : slots) {
+                if (slot.isSameSlice(query)) return slot;
+            }
+            return null;
+        }
+
+        private CachedRow with(Slot slot) {
+            final List<Slot> result = new ArrayList<>(slots.length + 1);
+            for (Slot s : slots) {
+                //Slots of replaced segments which were added concurrently with the replacement are dropped here
+                if (!s.isSameSlice(slot.query) && !s.segment.retired) result.add(s);
+            }
+            result.add(slot);
+            return new CachedRow(result.toArray(new Slot[0]), invalidationTime);
+        }
+
+        private CachedRow without(Segment segment) {
+            final List<Slot> result = new ArrayList<>(slots.length);
+            for (Slot slot : slots) {
+                if (slot.segment != segment) result.add(slot);
+            }
+            if (result.size() == slots.length) return this;
+            //Slots are only added once the grace period of the last invalidation has passed, hence it can be dropped
+            return result.isEmpty() ? null : new CachedRow(result.toArray(new Slot[0]), invalidationTime);
+        }
+    }
+
+    /**
+     * Direct memory segment which slices are appended to. Its bytes are never overwritten once written.
+     */
+    private static class Segment {
+
+        private final int index;
+        private final ByteBuffer buffer;
+        private final AtomicInteger position = new AtomicInteger();
+        private final Queue<StaticBuffer> keys = new ConcurrentLinkedQueue<>();
+        private volatile boolean retired = false;
+
+        private Segment(int index, ByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+
+        /**
+         * @return the offset of the reserved range, or -1 if the segment has no room for it
+         */
+        private int reserve(int size) {
+            while (true) {
+                final int offset = position.get();
+                if (size > buffer.capacity() - offset) return -1;
+                if (position.compareAndSet(offset, offset + size)) return offset;
+            }
+        }
+    }
+
+    private static class Slot {
+
+        private final SliceQuery query;
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+        private final long writeTime;
+
+        private Slot(SliceQuery query, Segment segment, int offset, int length, long writeTime) {
+            this.query = query;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.writeTime = writeTime;
+        }
+
+        /**
+         * Compares the slice bounds and limits only, since queries might be given as {@link KeySliceQuery}
+         * or as plain {@link SliceQuery}.
+         */
+        private boolean isSameSlice(SliceQuery other) {
+            return query.getLimit() == other.getLimit()
+                && query.getSliceStart().equals(other.getSliceStart())
+                && query.getSliceEnd().equals(other.getSliceEnd());
+        }
+    }
+
+}
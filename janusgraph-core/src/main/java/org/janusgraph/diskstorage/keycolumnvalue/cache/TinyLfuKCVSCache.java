@@ -0,0 +1,287 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.CacheMetricsAction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.janusgraph.util.datastructures.ByteSize.OBJECT_HEADER;
+import static org.janusgraph.util.datastructures.ByteSize.OBJECT_REFERENCE;
+
+/**
+ * Database level cache backed by a Caffeine cache, which uses a segmented W-TinyLFU policy
+ * to decide which rows to admit and to evict, and which serves reads without locking.
+ * <p>
+ * All cached slices of a key are grouped into one immutable {@link CachedRow}, so that invalidating
+ * a key drops all of its slices at once. Rows are weighed by the exact byte size of their
+ * {@link EntryList}s. Invalidated keys are removed from the cache and remembered in a separate map,
+ * which is not subject to eviction, so that slices whose load started before the invalidation (or
+ * within the invalidation grace period after it) are not cached. Invalidations are forgotten once
+ * all slices they could reject would have expired anyway.
+ */
+public class TinyLfuKCVSCache extends KCVSCache {
+
+    //Weight estimation
+    private static final int ROW_SIZE = OBJECT_HEADER + 4 + 3 * (OBJECT_REFERENCE + OBJECT_HEADER + 4); // object_size + int + 3 arrays
+    private static final int SLICE_SIZE = 2 * OBJECT_REFERENCE + 8; // query and result reference + write time
+
+    //Number of invalidations after which outdated invalidations are removed
+    private static final int INVALIDATION_CLEANUP_INTERVAL = 1024;
+
+    private final Cache<StaticBuffer, CachedRow> cache;
+    private final ConcurrentHashMap<StaticBuffer, Invalidation> invalidations;
+    private final AtomicLong invalidationCounter;
+
+    private final long cacheTimeMS;
+    private final long invalidationGracePeriodMS;
+
+    public TinyLfuKCVSCache(final KeyColumnValueStore store, String metricsName, final long cacheTimeMS, final long invalidationGracePeriodMS, final long maximumByteSize) {
+        super(store, metricsName);
+        Preconditions.checkArgument(cacheTimeMS > 0, "Cache expiration must be positive: %s", cacheTimeMS);
+        Preconditions.checkArgument(System.currentTimeMillis()+1000L*3600*24*365*100+cacheTimeMS>0,"Cache expiration time too large, overflow may occur: %s",cacheTimeMS);
+        Preconditions.checkArgument(invalidationGracePeriodMS >=0,"Invalid expiration grace period: %s", invalidationGracePeriodMS);
+        this.cacheTimeMS = cacheTimeMS;
+        this.invalidationGracePeriodMS = invalidationGracePeriodMS;
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maximumByteSize)
+                .initialCapacity(1000)
+                .expireAfterWrite(cacheTimeMS, TimeUnit.MILLISECONDS)
+                .weigher((StaticBuffer key, CachedRow row) -> row.getByteSize() + key.length())
+                .build();
+        invalidations = new ConcurrentHashMap<>();
+        invalidationCounter = new AtomicLong(0);
+    }
+
+    @Override
+    public EntryList getSlice(final KeySliceQuery query, final StoreTransaction txh) throws BackendException {
+        incActionBy(1, CacheMetricsAction.RETRIEVAL,txh);
+        final EntryList cached = getIfPresent(query.getKey(), query);
+        if (cached!=null) return cached;
+
+        incActionBy(1, CacheMetricsAction.MISS,txh);
+        final long loadSequence = invalidationCounter.get();
+        final long loadTime = System.currentTimeMillis();
+        final EntryList result = store.getSlice(query, unwrapTx(txh));
+        put(query.getKey(), query, result, loadSequence, loadTime);
+        return result;
+    }
+
+    @Override
+    public Map<StaticBuffer,EntryList> getSlice(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) throws BackendException {
+        final Map<StaticBuffer,EntryList> results = new HashMap<>(keys.size());
+        final List<StaticBuffer> remainingKeys = findCached(keys, query, results, txh);
+        if (remainingKeys.isEmpty()) return results;
+
+        //Request remaining ones from backend
+        final long loadSequence = invalidationCounter.get();
+        final long loadTime = System.currentTimeMillis();
+        addLoaded(remainingKeys, query, store.getSlice(remainingKeys, query, unwrapTx(txh)), results, loadSequence, loadTime);
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(final KeySliceQuery query, final StoreTransaction txh) {
+        incActionBy(1, CacheMetricsAction.RETRIEVAL,txh);
+        final EntryList cached = getIfPresent(query.getKey(), query);
+        if (cached!=null) return CompletableFuture.completedFuture(cached);
+
+        incActionBy(1, CacheMetricsAction.MISS,txh);
+        final long loadSequence = invalidationCounter.get();
+        final long loadTime = System.currentTimeMillis();
+        return store.getSliceAsync(query, unwrapTx(txh)).thenApply(result -> {
+            put(query.getKey(), query, result, loadSequence, loadTime);
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) {
+        final Map<StaticBuffer,EntryList> results = new HashMap<>(keys.size());
+        final List<StaticBuffer> remainingKeys = findCached(keys, query, results, txh);
+        if (remainingKeys.isEmpty()) return CompletableFuture.completedFuture(results);
+
+        //Request remaining ones from backend
+        final long loadSequence = invalidationCounter.get();
+        final long loadTime = System.currentTimeMillis();
+        return store.getSliceAsync(remainingKeys, query, unwrapTx(txh)).thenApply(subresults -> {
+            addLoaded(remainingKeys, query, subresults, results, loadSequence, loadTime);
+            return results;
+        });
+    }
+
+    private List<StaticBuffer> findCached(final List<StaticBuffer> keys, final SliceQuery query,
+                                          final Map<StaticBuffer,EntryList> results, final StoreTransaction txh) {
+        final List<StaticBuffer> remainingKeys = new ArrayList<>(keys.size());
+        incActionBy(keys.size(), CacheMetricsAction.RETRIEVAL,txh);
+        for (final StaticBuffer key : keys) {
+            final EntryList result = getIfPresent(key, query);
+            if (result!=null) results.put(key,result);
+            else remainingKeys.add(key);
+        }
+        if (!remainingKeys.isEmpty()) incActionBy(remainingKeys.size(), CacheMetricsAction.MISS,txh);
+        return remainingKeys;
+    }
+
+    private void addLoaded(final List<StaticBuffer> keys, final SliceQuery query, final Map<StaticBuffer,EntryList> subresults,
+                           final Map<StaticBuffer,EntryList> results, final long loadSequence, final long loadTime) {
+        for (final StaticBuffer key : keys) {
+            final EntryList subresult = subresults.get(key);
+            if (subresult!=null) {
+                results.put(key,subresult);
+                put(key, query, subresult, loadSequence, loadTime);
+            }
+        }
+    }
+
+    private EntryList getIfPresent(final StaticBuffer key, final SliceQuery query) {
+        final CachedRow row = cache.getIfPresent(key);
+        return row==null ? null : row.get(query, System.currentTimeMillis() - cacheTimeMS);
+    }
+
+    /**
+     * @param loadSequence value of the invalidation counter before the load started
+     * @param loadTime time at which the load started
+     */
+    private void put(final StaticBuffer key, final SliceQuery query, final EntryList result, final long loadSequence, final long loadTime) {
+        cache.asMap().compute(key, (k, row) -> {
+            //Results which may have been read before the most recent invalidation became visible are not cached.
+            //The invalidation is checked within compute, since invalidate() removes the row after registering it.
+            final Invalidation invalidation = invalidations.get(k);
+            if (invalidation != null && (invalidation.sequence > loadSequence
+                || loadTime < invalidation.time + invalidationGracePeriodMS)) {
+                return row;
+            }
+            return (row==null ? CachedRow.EMPTY : row).with(query, result, loadTime);
+        });
+    }
+
+    @Override
+    public void clearCache() {
+        cache.invalidateAll();
+        invalidations.clear();
+    }
+
+    @Override
+    public void invalidate(StaticBuffer key, List<CachableStaticBuffer> entries) {
+        Preconditions.checkArgument(!hasValidateKeysOnly() || entries.isEmpty());
+        final long sequence = invalidationCounter.incrementAndGet();
+        final long time = System.currentTimeMillis();
+        invalidations.put(key, new Invalidation(sequence, time));
+        cache.invalidate(key);
+        if (sequence % INVALIDATION_CLEANUP_INTERVAL == 0) {
+            //Slices loaded before these invalidations have expired, so they need not be rejected anymore
+            final long outdated = time - cacheTimeMS - invalidationGracePeriodMS;
+            invalidations.values().removeIf(invalidation -> invalidation.time < outdated);
+        }
+    }
+
+    @Override
+    public void close() throws BackendException {
+        cache.invalidateAll();
+        invalidations.clear();
+        cache.cleanUp();
+        super.close();
+    }
+
+    private static class Invalidation {
+
+        private final long sequence;
+        private final long time;
+
+        private Invalidation(long sequence, long time) {
+            this.sequence = sequence;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Immutable group of all cached slices of one key. Rows usually hold very few slices, so they are
+     * kept in plain arrays that are copied on every addition.
+     */
+    private static class CachedRow {
+
+        private static final CachedRow EMPTY = new CachedRow(new SliceQuery[0], new EntryList[0], new long[0]);
+
+        private final SliceQuery[] queries;
+        private final EntryList[] results;
+        private final long[] writeTimes;
+        private final int byteSize;
+
+        private CachedRow(SliceQuery[] queries, EntryList[] results, long[] writeTimes) {
+            this.queries = queries;
+            this.results = results;
+            this.writeTimes = writeTimes;
+            long size = ROW_SIZE;
+            for (EntryList result : results) size += SLICE_SIZE + result.getByteSize();
+            this.byteSize = (int) Math.min(Integer.MAX_VALUE, size);
+        }
+
+        private int getByteSize() {
+            return byteSize;
+        }
+
+        private EntryList get(SliceQuery query, long writtenAfter) {
+            for (int i = 0; i < queries.length; i++) {
+                if (isSameSlice(queries[i], query)) {
+                    return writeTimes[i] > writtenAfter ? results[i] : null;
+                }
+            }
+            return null;
+        }
+
+        private CachedRow with(SliceQuery query, EntryList result, long writeTime) {
+            int pos = 0;
+            while (pos < queries.length && !isSameSlice(queries[pos], query)) pos++;
+            final int length = Math.max(queries.length, pos + 1);
+            final SliceQuery[] newQueries = Arrays.copyOf(queries, length);
+            final EntryList[] newResults = Arrays.copyOf(results, length);
+            final long[] newWriteTimes = Arrays.copyOf(writeTimes, length);
+            newQueries[pos] = query;
+            newResults[pos] = result;
+            newWriteTimes[pos] = writeTime;
+            return new CachedRow(newQueries, newResults, newWriteTimes);
+        }
+
+        /**
+         * Compares the slice bounds and limits only, since queries might be given as {@link KeySliceQuery}
+         * or as plain {@link SliceQuery}.
+         */
+        private static boolean isSameSlice(SliceQuery q1, SliceQuery q2) {
+            return q1.getLimit() == q2.getLimit()
+                && q1.getSliceStart().equals(q2.getSliceStart())
+                && q1.getSliceEnd().equals(q2.getSliceEnd());
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.compression;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySlicesIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.MultiSlicesQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.ScanRangeQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compresses the values of large entries written to the wrapped store and decompresses all values read from it.
+ *
+ * @see CompressionKCVSManager
+ */
+public class CompressionKCVS extends KCVSProxy {
+
+    private final ValueCompression compression;
+
+    public CompressionKCVS(KeyColumnValueStore store, ValueCompression compression) {
+        super(store);
+        this.compression = compression;
+    }
+
+    @Override
+    public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
+        store.mutate(key, CompressionKCVSManager.compress(compression, additions), deletions, unwrapTx(txh));
+    }
+
+    @Override
+    public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) throws BackendException {
+        return compression.decompress(store.getSlice(query, unwrapTx(txh)));
+    }
+
+    @Override
+    public Map<StaticBuffer,EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
+        return decompress(store.getSlice(keys, query, unwrapTx(txh)));
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(query, unwrapTx(txh)).thenApply(compression::decompress);
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(keys, query, unwrapTx(txh)).thenApply(this::decompress);
+    }
+
+    @Override
+    public KeyIterator getKeys(KeyRangeQuery keyQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(keyQuery, unwrapTx(txh)));
+    }
+
+    @Override
+    public KeyIterator getKeys(ScanRangeQuery scanQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(scanQuery, unwrapTx(txh)));
+    }
+
+    @Override
+    public KeyIterator getKeys(SliceQuery columnQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(columnQuery, unwrapTx(txh)));
+    }
+
+    @Override
+    public KeySlicesIterator getKeys(MultiSlicesQuery queries, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeySlicesIterator(store.getKeys(queries, unwrapTx(txh)));
+    }
+
+    private Map<StaticBuffer,EntryList> decompress(Map<StaticBuffer,EntryList> results) {
+        final Map<StaticBuffer,EntryList> decompressed = new HashMap<>(results.size());
+        for (Map.Entry<StaticBuffer,EntryList> result : results.entrySet()) {
+            decompressed.put(result.getKey(), compression.decompress(result.getValue()));
+        }
+        return decompressed;
+    }
+
+    private RecordIterator<Entry> decompress(RecordIterator<Entry> entries) {
+        return new RecordIterator<Entry>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Entry next() {
+                return compression.decompress(entries.next());
+            }
+
+            @Override
+            public void close() throws IOException {
+                entries.close();
+            }
+        };
+    }
+
+    private class DecompressingKeyIterator implements KeyIterator {
+
+        private final KeyIterator keys;
+
+        private DecompressingKeyIterator(KeyIterator keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public RecordIterator<Entry> getEntries() {
+            return decompress(keys.getEntries());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return keys.hasNext();
+        }
+
+        @Override
+        public StaticBuffer next() {
+            return keys.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            keys.close();
+        }
+    }
+
+    private class DecompressingKeySlicesIterator implements KeySlicesIterator {
+
+        private final KeySlicesIterator keys;
+
+        private DecompressingKeySlicesIterator(KeySlicesIterator keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public Map<SliceQuery, RecordIterator<Entry>> getEntries() {
+            final Map<SliceQuery, RecordIterator<Entry>> entries = new HashMap<>();
+            for (Map.Entry<SliceQuery, RecordIterator<Entry>> slice : keys.getEntries().entrySet()) {
+                entries.put(slice.getKey(), decompress(slice.getValue()));
+            }
+            return entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return keys.hasNext();
+        }
+
+        @Override
+        public StaticBuffer next() {
+            return keys.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            keys.close();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.compression;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.StoreMetaData;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSManagerProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.VALUE_COMPRESSION_CODEC;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.VALUE_COMPRESSION_STORE_CODEC;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.VALUE_COMPRESSION_STORE_NAMES;
+
+/**
+ * Compresses the values of large entries written to the stores with a {@link ValueCompression} through
+ * {@link #mutateMany(Map, StoreTransaction)} or the stores opened by this manager, and decompresses values read from
+ * these stores. All other stores are passed through unchanged.
+ * <p>
+ * The mutations handed to this manager are not modified, since they might be retried by the caller.
+ *
+ * @see ValueCompression
+ */
+public class CompressionKCVSManager extends KCVSManagerProxy {
+
+    private final Map<String, ValueCompression> compressions;
+
+    public CompressionKCVSManager(KeyColumnValueStoreManager manager, Map<String, ValueCompression> compressions) {
+        super(manager);
+        this.compressions = Preconditions.checkNotNull(compressions);
+    }
+
+    /**
+     * @return the compression of the store with the given name or null if its values are passed through unchanged
+     */
+    public ValueCompression getCompression(String storeName) {
+        return compressions.get(storeName);
+    }
+
+    public boolean isCompressed(String storeName) {
+        return compressions.containsKey(storeName);
+    }
+
+    /**
+     * @return the codec with which new values of the given store are compressed
+     */
+    public static String getCodecName(Configuration configuration, String storeName) {
+        if (!Arrays.asList(configuration.get(VALUE_COMPRESSION_STORE_NAMES)).contains(storeName)) return ValueCompression.NONE;
+        return configuration.has(VALUE_COMPRESSION_STORE_CODEC, storeName)
+            ? configuration.get(VALUE_COMPRESSION_STORE_CODEC, storeName) : configuration.get(VALUE_COMPRESSION_CODEC);
+    }
+
+    @Override
+    public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
+        final KeyColumnValueStore store = manager.openDatabase(name, metaData);
+        return isCompressed(name) ? new CompressionKCVS(store, compressions.get(name)) : store;
+    }
+
+    /**
+     * Hadoop input formats read the underlying stores directly and decompress their values themselves.
+     */
+    @Override
+    public Object getHadoopManager() throws BackendException {
+        return manager.getHadoopManager();
+    }
+
+    @Override
+    public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
+        Map<String, Map<StaticBuffer, KCVMutation>> compressedMutations = mutations;
+        for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : mutations.entrySet()) {
+            final ValueCompression compression = compressions.get(storeMutations.getKey());
+            if (compression == null) continue;
+            Map<StaticBuffer, KCVMutation> compressedStoreMutations = null;
+            for (Map.Entry<StaticBuffer, KCVMutation> keyMutations : storeMutations.getValue().entrySet()) {
+                final KCVMutation mutation = keyMutations.getValue();
+                final List<Entry> additions = mutation.getAdditions();
+                final List<Entry> compressedAdditions = compress(compression, additions);
+                if (compressedAdditions == additions) continue;
+                if (compressedStoreMutations == null) compressedStoreMutations = new HashMap<>(storeMutations.getValue());
+                compressedStoreMutations.put(keyMutations.getKey(), new KCVMutation(compressedAdditions, mutation.getDeletions()));
+            }
+            if (compressedStoreMutations == null) continue;
+            if (compressedMutations == mutations) compressedMutations = new HashMap<>(mutations);
+            compressedMutations.put(storeMutations.getKey(), compressedStoreMutations);
+        }
+        manager.mutateMany(compressedMutations, txh);
+    }
+
+    /**
+     * @return the given additions if none of them has to be compressed, otherwise a copy with compressed values
+     */
+    static List<Entry> compress(ValueCompression compression, List<Entry> additions) {
+        List<Entry> compressed = null;
+        for (int i = 0; i < additions.size(); i++) {
+            final Entry addition = additions.get(i);
+            if (compressed == null) {
+                if (!compression.requiresCompression(addition)) continue;
+                compressed = new ArrayList<>(additions.size());
+                compressed.addAll(additions.subList(0, i));
+            }
+            compressed.add(compression.requiresCompression(addition) ? compression.compress(addition) : addition);
+        }
+        return compressed == null ? additions : compressed;
+    }
+}
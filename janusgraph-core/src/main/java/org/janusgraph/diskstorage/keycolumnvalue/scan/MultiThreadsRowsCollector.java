@@ -23,6 +23,8 @@ import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVSUtil;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.ScanRangeQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
@@ -33,6 +35,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,7 +50,9 @@ import static org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScannerExec
 
 /**
  * Uses separate thread per query. May be used for {@link KeyColumnValueStore}
- * that preserves keys order while running parallel scans (f.e. Cassandra)
+ * that preserves keys order while running parallel scans (f.e. Cassandra).
+ * If scan ranges are given, only the keys within those ranges are collected, one range after the other in the
+ * given order, see {@link ScanRangeQuery}.
  *
  * @author Sergii Karpenko (sergiy.karpenko@gmail.com)
  */
@@ -62,9 +68,11 @@ class MultiThreadsRowsCollector extends RowsCollector {
     private final List<SliceQuery> queries;
     private final Predicate<StaticBuffer> keyFilter;
     private final Configuration graphConfiguration;
+    private final List<KeyRange> scanRanges;
+    private final String threadNamePrefix;
     private final DataPuller[] pullThreads;
     private final BlockingQueue<SliceResult>[] dataQueues;
-    private boolean interrupted = false;
+    private volatile boolean interrupted = false;
 
     MultiThreadsRowsCollector(
         KeyColumnValueStore store,
@@ -74,6 +82,19 @@ class MultiThreadsRowsCollector extends RowsCollector {
         Predicate<StaticBuffer> keyFilter,
         BlockingQueue<Row> rowQueue,
         Configuration graphConfiguration) throws BackendException {
+        this(store, storeFeatures, storeTx, queries, keyFilter, rowQueue, graphConfiguration, null, "data-puller-");
+    }
+
+    MultiThreadsRowsCollector(
+        KeyColumnValueStore store,
+        StoreFeatures storeFeatures,
+        StoreTransaction storeTx,
+        List<SliceQuery> queries,
+        Predicate<StaticBuffer> keyFilter,
+        BlockingQueue<Row> rowQueue,
+        Configuration graphConfiguration,
+        List<KeyRange> scanRanges,
+        String threadNamePrefix) throws BackendException {
 
         super(store, rowQueue);
         this.storeFeatures = storeFeatures;
@@ -81,6 +102,8 @@ class MultiThreadsRowsCollector extends RowsCollector {
         this.queries = queries;
         this.keyFilter = keyFilter;
         this.graphConfiguration = graphConfiguration;
+        this.scanRanges = scanRanges;
+        this.threadNamePrefix = threadNamePrefix;
 
         this.dataQueues = new BlockingQueue[queries.size()];
         this.pullThreads = new DataPuller[queries.size()];
@@ -191,32 +214,62 @@ class MultiThreadsRowsCollector extends RowsCollector {
             this.graphConfiguration.get(GraphDatabaseConfiguration.PAGE_SIZE));
         dataQueues[pos] = queue;
 
-        DataPuller dp = new DataPuller(sq, queue,
-            KCVSUtil.getKeys(store,sq,storeFeatures, MAX_KEY_LENGTH,stx), keyFilter);
+        final List<KeyIteratorProvider> keyIterators;
+        if (scanRanges == null) {
+            final KeyIterator keyIterator = KCVSUtil.getKeys(store,sq,storeFeatures, MAX_KEY_LENGTH,stx);
+            keyIterators = Collections.singletonList(() -> keyIterator);
+        } else {
+            //All pullers scan the ranges in the same order, so that the keys of all queries remain aligned
+            keyIterators = new ArrayList<>(scanRanges.size());
+            for (KeyRange scanRange : scanRanges) {
+                keyIterators.add(() -> store.getKeys(new ScanRangeQuery(scanRange, sq), stx));
+            }
+        }
+        DataPuller dp = new DataPuller(sq, queue, keyIterators, keyFilter);
         pullThreads[pos] = dp;
-        dp.setName("data-puller-" + pos); // setting the name for thread dumps!
+        dp.setName(threadNamePrefix + pos); // setting the name for thread dumps!
         dp.start();
     }
 
+    @FunctionalInterface
+    private interface KeyIteratorProvider {
+        KeyIterator get() throws BackendException;
+    }
+
     private static class DataPuller extends Thread {
 
         private final BlockingQueue<SliceResult> queue;
-        private final KeyIterator keyIterator;
+        private final List<KeyIteratorProvider> keyIterators;
         private final SliceQuery query;
         private final Predicate<StaticBuffer> keyFilter;
         private volatile boolean finished;
 
         private DataPuller(SliceQuery query, BlockingQueue<SliceResult> queue,
-                           KeyIterator keyIterator, Predicate<StaticBuffer> keyFilter) {
+                           List<KeyIteratorProvider> keyIterators, Predicate<StaticBuffer> keyFilter) {
             this.query = query;
             this.queue = queue;
-            this.keyIterator = keyIterator;
+            this.keyIterators = keyIterators;
             this.keyFilter = keyFilter;
             this.finished = false;
         }
 
         @Override
         public void run() {
+            try {
+                for (KeyIteratorProvider keyIterator : keyIterators) {
+                    if (finished) break;
+                    pull(keyIterator.get());
+                }
+            } catch (InterruptedException e) {
+                log.error("Data-pulling thread interrupted while waiting on queue or data", e);
+            } catch (Throwable e) {
+                log.error("Could not load data from storage", e);
+            } finally {
+                finished=true;
+            }
+        }
+
+        private void pull(KeyIterator keyIterator) throws InterruptedException {
             try {
                 while (keyIterator.hasNext()) {
                     StaticBuffer key = keyIterator.next();
@@ -225,17 +278,12 @@ class MultiThreadsRowsCollector extends RowsCollector {
                     EntryList entryList = EntryArrayList.of(entries);
                     queue.put(new SliceResult(query, key, entryList));
                 }
-            } catch (InterruptedException e) {
-                log.error("Data-pulling thread interrupted while waiting on queue or data", e);
-            } catch (Throwable e) {
-                log.error("Could not load data from storage", e);
             } finally {
                 try {
                     keyIterator.close();
                 } catch (IOException e) {
                     log.warn("Could not close storage iterator ", e);
                 }
-                finished=true;
             }
         }
 
@@ -0,0 +1,166 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.scan;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import static org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScannerExecutor.Row;
+
+/**
+ * Splits a scan into the disjoint scan ranges returned by {@link KeyColumnValueStoreManager#getScanRanges()}
+ * and distributes them over {@code parallelism} workers. Each worker scans its consecutive share of the ranges one
+ * after the other with a single {@link MultiThreadsRowsCollector}, i.e. with one data pulling thread per query,
+ * so that the number of threads does not depend on the number of ranges.
+ * May be used for {@link KeyColumnValueStore} that support {@link StoreFeatures#hasParallelScan()}.
+ */
+class PartitionedRowsCollector extends RowsCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedRowsCollector.class);
+
+    private final StoreFeatures storeFeatures;
+    private final StoreTransaction storeTx;
+    private final List<SliceQuery> queries;
+    private final Predicate<StaticBuffer> keyFilter;
+    private final Configuration graphConfiguration;
+    private final List<List<KeyRange>> workerRanges;
+    private final Set<MultiThreadsRowsCollector> activeCollectors = ConcurrentHashMap.newKeySet();
+    private volatile boolean interrupted = false;
+
+    PartitionedRowsCollector(
+        KeyColumnValueStore store,
+        StoreFeatures storeFeatures,
+        StoreTransaction storeTx,
+        List<SliceQuery> queries,
+        Predicate<StaticBuffer> keyFilter,
+        BlockingQueue<Row> rowQueue,
+        Configuration graphConfiguration,
+        List<KeyRange> scanRanges,
+        int parallelism) {
+
+        super(store, rowQueue);
+        Preconditions.checkArgument(!scanRanges.isEmpty(), "Need at least one scan range");
+        Preconditions.checkArgument(parallelism > 0, "Need a positive parallelism: %s", parallelism);
+        this.storeFeatures = storeFeatures;
+        this.storeTx = storeTx;
+        this.queries = queries;
+        this.keyFilter = keyFilter;
+        this.graphConfiguration = graphConfiguration;
+        this.workerRanges = split(scanRanges, Math.min(parallelism, scanRanges.size()));
+    }
+
+    /**
+     * Splits the ranges into the given number of consecutive groups whose sizes differ by at most one.
+     */
+    static List<List<KeyRange>> split(List<KeyRange> scanRanges, int groups) {
+        final List<List<KeyRange>> result = new ArrayList<>(groups);
+        int start = 0;
+        for (int i = 0; i < groups; i++) {
+            final int end = start + (scanRanges.size() - start) / (groups - i);
+            result.add(scanRanges.subList(start, end));
+            start = end;
+        }
+        return result;
+    }
+
+    @Override
+    void run() throws InterruptedException, BackendException {
+        ExecutorService executor = Executors.newFixedThreadPool(workerRanges.size(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("range-collector-%d").build());
+        try {
+            List<Future<?>> futures = new ArrayList<>(workerRanges.size());
+            for (int i = 0; i < workerRanges.size(); i++) {
+                final List<KeyRange> scanRanges = workerRanges.get(i);
+                final String threadNamePrefix = "data-puller-worker-" + i + "-";
+                futures.add(executor.submit(() -> {
+                    collect(scanRanges, threadNamePrefix);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    interrupt();
+                    Throwable cause = e.getCause();
+                    if (cause instanceof BackendException) throw (BackendException) cause;
+                    if (cause instanceof InterruptedException) throw (InterruptedException) cause;
+                    throw new PermanentBackendException("Could not collect scan ranges", cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void collect(List<KeyRange> scanRanges, String threadNamePrefix) throws BackendException, InterruptedException {
+        if (interrupted) return;
+        MultiThreadsRowsCollector collector = new MultiThreadsRowsCollector(store, storeFeatures, storeTx, queries,
+            keyFilter, rowQueue, graphConfiguration, scanRanges, threadNamePrefix);
+        activeCollectors.add(collector);
+        try {
+            if (interrupted) collector.interrupt();
+            collector.run();
+            collector.join();
+        } finally {
+            activeCollectors.remove(collector);
+            collector.cleanup();
+        }
+        log.debug("Finished collecting {} scan ranges", scanRanges.size());
+    }
+
+    @Override
+    void join() {
+        // every worker collector has already been joined once its ranges were drained
+    }
+
+    @Override
+    void interrupt() {
+        interrupted = true;
+        for (MultiThreadsRowsCollector collector : activeCollectors) {
+            collector.interrupt();
+        }
+    }
+
+    @Override
+    void cleanup() {
+        for (MultiThreadsRowsCollector collector : activeCollectors) {
+            collector.cleanup();
+        }
+    }
+}
@@ -14,8 +14,8 @@
 
 package org.janusgraph.diskstorage.keycolumnvalue.scan;
 
+import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.PermanentBackendException;
-import org.janusgraph.diskstorage.TemporaryBackendException;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 
 import java.util.concurrent.BlockingQueue;
@@ -38,7 +38,7 @@ abstract class RowsCollector {
         this.rowQueue = rowQueue;
     }
 
-    abstract void run() throws InterruptedException, TemporaryBackendException;
+    abstract void run() throws InterruptedException, BackendException;
 
     abstract void join() throws InterruptedException;
 
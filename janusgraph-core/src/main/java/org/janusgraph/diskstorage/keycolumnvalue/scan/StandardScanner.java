@@ -20,12 +20,16 @@ import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.configuration.*;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.apache.commons.lang.StringUtils;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -200,8 +204,17 @@ public class StandardScanner  {
 
             openStores.add(kcvs);
             try {
+                StoreFeatures features = manager.getFeatures();
+                //Split the scan into disjoint scan ranges which can be collected in parallel
+                List<KeyRange> scanRanges = null;
+                int scanParallelism = 1;
+                if (features.hasParallelScan() && features.hasConsistentScan()) {
+                    scanRanges = manager.getScanRanges();
+                    scanParallelism = graphConfiguration.get(GraphDatabaseConfiguration.SCAN_PARALLELISM);
+                }
                 StandardScannerExecutor executor = new StandardScannerExecutor(job, finishJob, kcvs, storeTx,
-                        manager.getFeatures(), numProcessingThreads, workBlockSize, jobConfiguration, graphConfiguration);
+                        features, numProcessingThreads, workBlockSize, scanRanges, scanParallelism,
+                        jobConfiguration, graphConfiguration);
                 addJob(jobId,executor);
                 new Thread(executor).start();
                 return executor;
@@ -48,6 +48,8 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
     private final KeyColumnValueStore store;
     private final int numProcessors;
     private final int workBlockSize;
+    private final List<KeyRange> scanRanges;
+    private final int scanParallelism;
     private final Configuration jobConfiguration;
     private final Configuration graphConfiguration;
     private final ScanMetrics metrics;
@@ -61,6 +63,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                             final KeyColumnValueStore store, final StoreTransaction storeTx,
                             final StoreFeatures storeFeatures,
                             final int numProcessors, final int workBlockSize,
+                            final List<KeyRange> scanRanges, final int scanParallelism,
                             final Configuration jobConfiguration,
                             final Configuration graphConfiguration) {
         this.job = job;
@@ -70,6 +73,8 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         this.storeFeatures = storeFeatures;
         this.numProcessors = numProcessors;
         this.workBlockSize = workBlockSize;
+        this.scanRanges = scanRanges;
+        this.scanParallelism = scanParallelism;
         this.jobConfiguration = jobConfiguration;
         this.graphConfiguration = graphConfiguration;
 
@@ -158,6 +163,9 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         if(!storeFeatures.hasConsistentScan()) {
             return new SingleThreadRowsCollector(store, storeTx, queries,
                 job.getKeyFilter(), processorQueue);
+        } else if (scanRanges != null && !scanRanges.isEmpty()) {
+            return new PartitionedRowsCollector(store, storeFeatures, storeTx, queries,
+                job.getKeyFilter(), processorQueue, graphConfiguration, scanRanges, scanParallelism);
         } else {
             return new MultiThreadsRowsCollector(store, storeFeatures, storeTx, queries,
                 job.getKeyFilter(), processorQueue, graphConfiguration);
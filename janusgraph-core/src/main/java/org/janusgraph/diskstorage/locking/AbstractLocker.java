@@ -270,6 +270,25 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
      */
     protected abstract void checkSingleLock(KeyColumn lockID, S lockStatus, StoreTransaction tx) throws Throwable;
 
+    /**
+     * Verify all locks written on behalf of {@code tx}. The default
+     * implementation calls
+     * {@link #checkSingleLock(KeyColumn, LockStatus, StoreTransaction)} for
+     * each lock in turn. Implementations able to verify several locks with
+     * fewer backend round trips may override this method. They may replace
+     * the values of {@code locks} but must not add or remove entries.
+     *
+     * @param locks the locks written by {@code tx} and their status
+     * @param tx    identifies the process claiming these locks
+     * @throws Throwable if any lock fails the check or if the attempted check
+     *                   encountered an error
+     */
+    protected void checkAllLocks(Map<KeyColumn, S> locks, StoreTransaction tx) throws Throwable {
+        for (final Map.Entry<KeyColumn, S> entry : locks.entrySet()) {
+            checkSingleLock(entry.getKey(), entry.getValue(), tx);
+        }
+    }
+
     /**
      * Try to unlock/release/delete the lock identified by {@code lockID} and
      * both held by and verified for {@code tx}. This method is only called with
@@ -347,9 +366,7 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
         // interrupt
         boolean ok = false;
         try {
-            for (final Map.Entry<KeyColumn, S> entry : m.entrySet()) {
-                checkSingleLock(entry.getKey(), entry.getValue(), tx);
-            }
+            checkAllLocks(m, tx);
             ok = true;
         } catch (TemporaryLockingException | PermanentLockingException | AssertionError tle) {
             throw tle;
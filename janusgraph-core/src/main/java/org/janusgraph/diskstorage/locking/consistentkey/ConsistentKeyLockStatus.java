@@ -46,6 +46,14 @@ public class ConsistentKeyLockStatus implements LockStatus {
         return write;
     }
 
+    /**
+     * Whether the lock column has been written to the store. A batching
+     * {@link ConsistentKeyLocker} defers writing until the lock is checked.
+     */
+    public boolean isWritten() {
+        return null != write;
+    }
+
     public boolean isChecked() {
         return checked;
     }
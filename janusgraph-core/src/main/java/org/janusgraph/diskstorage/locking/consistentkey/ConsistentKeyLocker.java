@@ -36,7 +36,10 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.janusgraph.util.encoding.StringEncoding.UTF8_CHARSET;
 
@@ -113,6 +116,15 @@ import static org.janusgraph.util.encoding.StringEncoding.UTF8_CHARSET;
  * {@code rid} is only unique at the process level.  Without a mediator, distinct
  * threads could write lock columns with the same {@code rid} and be unable to
  * tell their lock claims apart.
+ * <p>
+ * <h4>Batched locking</h4>
+ * <p>
+ * When built with {@link Builder#batchLocking(boolean)}, the locker does not
+ * write a lock column when a lock is taken. Instead, all pending lock columns
+ * of a transaction are written with a single mutation when its locks are
+ * checked. They all share the same timestamp, so the locker waits only once
+ * for {@code lockWait} and then reads all lock rows back with a single
+ * multi-key slice. Every lock row is then checked as in the sequence above.
  */
 public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus> implements Locker {
 
@@ -130,6 +142,11 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
     private final int lockRetryCount;
 
+    /**
+     * Whether lock columns are written and checked in one batch per transaction.
+     */
+    private final boolean batchLocking;
+
     /**
      * Expired lock cleaner in charge of {@link #store}.
      */
@@ -177,6 +194,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         // Optional (has default)
         private Duration lockWait;
         private int lockRetryCount;
+        private boolean batchLocking;
 
         private enum CleanerConfig {
             NONE,
@@ -192,6 +210,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             this.manager = manager;
             this.lockWait = GraphDatabaseConfiguration.LOCK_WAIT.getDefaultValue();
             this.lockRetryCount = GraphDatabaseConfiguration.LOCK_RETRY.getDefaultValue();
+            this.batchLocking = GraphDatabaseConfiguration.LOCK_BATCH.getDefaultValue();
         }
 
         public Builder lockWait(Duration d) {
@@ -204,6 +223,11 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             return self();
         }
 
+        public Builder batchLocking(boolean batch) {
+            this.batchLocking = batch;
+            return self();
+        }
+
         public Builder standardCleaner() {
             this.cleanerConfig = CleanerConfig.STANDARD;
             this.customCleanerService = null;
@@ -233,6 +257,8 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
             lockExpire(config.get(GraphDatabaseConfiguration.LOCK_EXPIRE));
 
+            batchLocking(config.get(GraphDatabaseConfiguration.LOCK_BATCH));
+
             if (config.get(GraphDatabaseConfiguration.LOCK_CLEAN_EXPIRED)) {
                 standardCleaner();
             }
@@ -262,6 +288,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
                     serializer, llm,
                     lockWait,
                     lockRetryCount,
+                    batchLocking,
                     lockExpire,
                     lockState, cleaner);
         }
@@ -284,7 +311,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
     private ConsistentKeyLocker(KeyColumnValueStore store, StoreManager manager, StaticBuffer rid,
                                 TimestampProvider times, ConsistentKeyLockerSerializer serializer,
                                 LocalLockMediator<StoreTransaction> llm, Duration lockWait,
-                                int lockRetryCount, Duration lockExpire,
+                                int lockRetryCount, boolean batchLocking, Duration lockExpire,
                                 LockerState<ConsistentKeyLockStatus> lockState,
                                 LockCleanerService cleanerService) {
         super(rid, times, serializer, llm, lockState, lockExpire, log);
@@ -292,6 +319,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         this.manager = manager;
         this.lockWait = lockWait;
         this.lockRetryCount = lockRetryCount;
+        this.batchLocking = batchLocking;
         this.cleanerService = cleanerService;
     }
 
@@ -308,7 +336,8 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
      * @param lockID lock to acquire
      * @param txh    transaction
      * @return the timestamp, in nanoseconds since UNIX Epoch, on the lock
-     *         column that we successfully wrote to the store
+     *         column that we successfully wrote to the store, or an unwritten
+     *         status if the lock column is deferred to a batch
      * @throws TemporaryLockingException if the lock retry count is exceeded without successfully
      *                                   writing the lock in less than the wait limit
      * @throws Throwable                 if the storage layer throws anything else
@@ -316,20 +345,40 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
     @Override
     protected ConsistentKeyLockStatus writeSingleLock(KeyColumn lockID, StoreTransaction txh) throws Throwable {
 
+        if (batchLocking) {
+            // The lock column is written along with all other pending locks of txh by checkAllLocks
+            return new ConsistentKeyLockStatus(null, times.getTime().plus(lockExpire));
+        }
+
         final StaticBuffer lockKey = serializer.toLockKey(lockID.getKey(), lockID.getColumn());
+        final Instant writeInstant = writeLockColumns(lockID, Collections.singletonList(lockKey), txh);
+        return new ConsistentKeyLockStatus(writeInstant, writeInstant.plus(lockExpire));
+    }
+
+    /**
+     * Write a lock column with a common timestamp to each of the given lock
+     * keys, retrying up to the configured number of times.
+     *
+     * @param lockIDs  the lock or locks being written, for logging
+     * @param lockKeys the lock store keys to write a lock column to
+     * @param txh      transaction
+     * @return the timestamp on the lock columns successfully written
+     * @throws TemporaryLockingException if the lock retry count is exceeded without successfully
+     *                                   writing the locks in less than the wait limit
+     * @throws Throwable                 if the storage layer throws anything else
+     */
+    private Instant writeLockColumns(Object lockIDs, List<StaticBuffer> lockKeys, StoreTransaction txh) throws Throwable {
         StaticBuffer oldLockCol = null;
 
         for (int i = 0; i < lockRetryCount; i++) {
-            WriteResult wr = tryWriteLockOnce(lockKey, oldLockCol, txh);
+            WriteResult wr = tryWriteLockOnce(lockKeys, oldLockCol, txh);
             if (wr.isSuccessful() && wr.getDuration().compareTo(lockWait) <= 0) {
-                final Instant writeInstant = wr.getWriteTimestamp();
-                final Instant expireInstant = writeInstant.plus(lockExpire);
-                return new ConsistentKeyLockStatus(writeInstant, expireInstant);
+                return wr.getWriteTimestamp();
             }
             oldLockCol = wr.getLockCol();
-            handleMutationFailure(lockID, lockKey, wr, txh);
+            handleMutationFailure(lockIDs, lockKeys, wr, txh);
         }
-        tryDeleteLockOnce(lockKey, oldLockCol, txh);
+        tryDeleteLockOnce(lockKeys, oldLockCol, txh);
         // TODO log exception or successful too-slow write here
         throw new TemporaryBackendException("Lock write retry count exceeded");
     }
@@ -340,16 +389,16 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
      * but took longer to complete than configured lock wait time, or that
      * the call to mutate threw something.
      *
-     * @param lockID  coordinates identifying the lock we tried but failed to
-     *                acquire
-     * @param lockKey the byte value of the key that we mutated or attempted to
-     *                mutate in the lock store
+     * @param lockIDs  coordinates identifying the lock or locks we tried but
+     *                 failed to acquire
+     * @param lockKeys the byte values of the keys that we mutated or attempted
+     *                 to mutate in the lock store
      * @param wr      result of the mutation
      * @param txh     transaction attempting the lock
      * @throws Throwable if {@link WriteResult#getThrowable()} is not an instance of
      *                   {@link org.janusgraph.diskstorage.TemporaryBackendException}
      */
-    private void handleMutationFailure(KeyColumn lockID, StaticBuffer lockKey, WriteResult wr,
+    private void handleMutationFailure(Object lockIDs, List<StaticBuffer> lockKeys, WriteResult wr,
                                        StoreTransaction txh) throws Throwable {
         Throwable error = wr.getThrowable();
         if (null != error) {
@@ -363,10 +412,10 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
                  * we have retries left.
                  */
                 log.error("Fatal exception encountered during attempted lock write", error);
-                WriteResult dwr = tryDeleteLockOnce(lockKey, wr.getLockCol(), txh);
+                WriteResult dwr = tryDeleteLockOnce(lockKeys, wr.getLockCol(), txh);
                 if (!dwr.isSuccessful()) {
                     log.warn("Failed to delete lock write: abandoning potentially-unreleased lock on {}",
-                        lockID, dwr.getThrowable());
+                        lockIDs, dwr.getThrowable());
                 }
                 throw error;
             }
@@ -376,7 +425,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         }
     }
 
-    private WriteResult tryWriteLockOnce(StaticBuffer key, StaticBuffer del, StoreTransaction txh) {
+    private WriteResult tryWriteLockOnce(List<StaticBuffer> keys, StaticBuffer del, StoreTransaction txh) {
         Throwable t = null;
         final Timer writeTimer = times.getTimer().start();
         StaticBuffer newLockCol = serializer.toLockCol(writeTimer.getStartTime(), rid, times);
@@ -385,7 +434,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         try {
             newTx = overrideTimestamp(txh, writeTimer.getStartTime());
 
-            store.mutate(key, Collections.singletonList(newLockEntry),
+            mutateLockColumns(keys, Collections.singletonList(newLockEntry),
                 null == del ? KeyColumnValueStore.NO_DELETIONS : Collections.singletonList(del), newTx);
 
             newTx.commit();
@@ -401,14 +450,14 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         return new WriteResult(writeTimer.elapsed(), writeTimer.getStartTime(), newLockCol, t);
     }
 
-    private WriteResult tryDeleteLockOnce(StaticBuffer key, StaticBuffer col, StoreTransaction txh) {
+    private WriteResult tryDeleteLockOnce(List<StaticBuffer> keys, StaticBuffer col, StoreTransaction txh) {
         Throwable t = null;
         final Timer delTimer = times.getTimer().start();
         StoreTransaction newTx = null;
         try {
             newTx = overrideTimestamp(txh, delTimer.getStartTime());
 
-            store.mutate(key, Collections.emptyList(), Collections.singletonList(col), newTx);
+            mutateLockColumns(keys, Collections.emptyList(), Collections.singletonList(col), newTx);
 
             newTx.commit();
             newTx = null;
@@ -422,6 +471,26 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         return new WriteResult(delTimer.elapsed(), delTimer.getStartTime(), null, t);
     }
 
+    /**
+     * Apply the same additions and deletions to every given lock key. Several keys are
+     * mutated with a single {@link KeyColumnValueStoreManager#mutateMany(Map, StoreTransaction)}
+     * call if the store manager supports it.
+     */
+    private void mutateLockColumns(List<StaticBuffer> keys, List<Entry> additions, List<StaticBuffer> deletions,
+                                   StoreTransaction tx) throws BackendException {
+        if (keys.size() > 1 && manager instanceof KeyColumnValueStoreManager) {
+            final Map<StaticBuffer, KCVMutation> mutations = new HashMap<>(keys.size());
+            for (StaticBuffer key : keys) {
+                mutations.put(key, new KCVMutation(new ArrayList<>(additions), new ArrayList<>(deletions)));
+            }
+            ((KeyColumnValueStoreManager) manager).mutateMany(Collections.singletonMap(store.getName(), mutations), tx);
+        } else {
+            for (StaticBuffer key : keys) {
+                store.mutate(key, additions, deletions, tx);
+            }
+        }
+    }
+
     @Override
     protected void checkSingleLock(final KeyColumn kc, final ConsistentKeyLockStatus ls,
                                    final StoreTransaction tx) throws BackendException, InterruptedException {
@@ -438,6 +507,75 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             LOCK_COL_END);
         List<Entry> claimEntries = getSliceWithRetries(ksq, tx);
 
+        checkClaims(kc, ls, claimEntries, now, tx);
+    }
+
+    /**
+     * Write all pending lock columns of {@code tx} in one batch, wait once for
+     * the most recent lock column to become visible and then read every lock
+     * row with a single multi-key slice. Falls back to checking each lock on
+     * its own unless batch locking is enabled.
+     */
+    @Override
+    protected void checkAllLocks(Map<KeyColumn, ConsistentKeyLockStatus> locks, StoreTransaction tx) throws Throwable {
+        if (!batchLocking) {
+            super.checkAllLocks(locks, tx);
+            return;
+        }
+
+        final Map<StaticBuffer, KeyColumn> uncheckedLocks = new LinkedHashMap<>(locks.size());
+        final List<KeyColumn> unwrittenLocks = new ArrayList<>();
+        final List<StaticBuffer> unwrittenKeys = new ArrayList<>();
+        for (Map.Entry<KeyColumn, ConsistentKeyLockStatus> entry : locks.entrySet()) {
+            if (entry.getValue().isChecked())
+                continue;
+            final KeyColumn kc = entry.getKey();
+            final StaticBuffer lockKey = serializer.toLockKey(kc.getKey(), kc.getColumn());
+            uncheckedLocks.put(lockKey, kc);
+            if (!entry.getValue().isWritten()) {
+                unwrittenLocks.add(kc);
+                unwrittenKeys.add(lockKey);
+            }
+        }
+        if (uncheckedLocks.isEmpty())
+            return;
+
+        if (!unwrittenKeys.isEmpty()) {
+            final Instant writeInstant = writeLockColumns(unwrittenLocks, unwrittenKeys, tx);
+            final Instant expireInstant = writeInstant.plus(lockExpire);
+            for (KeyColumn kc : unwrittenLocks) {
+                locks.put(kc, new ConsistentKeyLockStatus(writeInstant, expireInstant));
+                llm.lock(kc, tx, expireInstant); // update local lock expiration time
+            }
+        }
+
+        // Sleep once, until the latest lock column is old enough
+        Instant latestWrite = null;
+        for (KeyColumn kc : uncheckedLocks.values()) {
+            final Instant write = locks.get(kc).getWriteTimestamp();
+            if (null == latestWrite || write.isAfter(latestWrite))
+                latestWrite = write;
+        }
+        final Instant now = times.sleepPast(latestWrite.plus(lockWait));
+
+        // Slice all lock rows at once
+        final List<StaticBuffer> lockKeys = new ArrayList<>(uncheckedLocks.keySet());
+        final Map<StaticBuffer, EntryList> claims = readWithRetries(
+            () -> store.getSlice(lockKeys, new SliceQuery(LOCK_COL_START, LOCK_COL_END), tx));
+
+        for (Map.Entry<StaticBuffer, KeyColumn> entry : uncheckedLocks.entrySet()) {
+            final EntryList claimEntries = claims.get(entry.getKey());
+            checkClaims(entry.getValue(), locks.get(entry.getValue()),
+                null == claimEntries ? EntryList.EMPTY_LIST : claimEntries, now, tx);
+        }
+    }
+
+    /**
+     * Check that the given lock claims, read at {@code now}, show that the
+     * lock described by {@code ls} is held by this process.
+     */
+    private void checkClaims(final KeyColumn kc, final ConsistentKeyLockStatus ls, final List<Entry> claimEntries,
+                             final Instant now, final StoreTransaction tx) throws BackendException {
         // Extract timestamp and rid from the column in each returned Entry...
         final Iterable<TimestampRid> iterable = Iterables.transform(claimEntries,
             e -> serializer.fromLockColumn(e.getColumnAs(StaticBuffer.STATIC_FACTORY), times));
@@ -469,12 +607,16 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
     }
 
     private List<Entry> getSliceWithRetries(KeySliceQuery ksq, StoreTransaction tx) throws BackendException {
+        return readWithRetries(() -> store.getSlice(ksq, tx));
+    }
+
+    private <R> R readWithRetries(LockRead<R> read) throws BackendException {
 
         for (int i = 0; i < lockRetryCount; i++) {
             // TODO either make this like writeLock so that it handles all Throwable types (and pull that logic out
             // into a shared method) or make writeLock like this in that it only handles Temporary/PermanentSE
             try {
-                return store.getSlice(ksq, tx);
+                return read.call();
             } catch (PermanentBackendException e) {
                 log.error("Failed to check locks", e);
                 throw new PermanentLockingException(e);
@@ -544,6 +686,8 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
     @Override
     protected void deleteSingleLock(KeyColumn kc, ConsistentKeyLockStatus ls, StoreTransaction tx) {
+        if (!ls.isWritten())
+            return; // a batched lock column which was never written
         List<StaticBuffer> deletions = Collections.singletonList(serializer.toLockCol(ls.getWriteTimestamp(), rid, times));
         for (int i = 0; i < lockRetryCount; i++) {
             StoreTransaction newTx = null;
@@ -588,6 +732,10 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
     }
 
+    private interface LockRead<R> {
+        R call() throws BackendException;
+    }
+
     private static class WriteResult {
         private final Duration duration;
         private final Instant writeTimestamp;
@@ -15,6 +15,7 @@
 package org.janusgraph.diskstorage.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.janusgraph.core.JanusGraphException;
 
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
@@ -29,6 +30,12 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -67,19 +74,7 @@ public class BackendOperation {
             try {
                 return exe.call();
             } catch (final Throwable e) {
-                //Find inner-most StorageException
-                Throwable ex = e;
-                BackendException storeEx = null;
-                do {
-                    if (ex instanceof BackendException) storeEx = (BackendException)ex;
-                } while ((ex=ex.getCause())!=null);
-                if (storeEx!=null && storeEx instanceof TemporaryBackendException) {
-                    lastException = storeEx;
-                } else if (e instanceof BackendException) {
-                    throw (BackendException)e;
-                } else {
-                    throw new PermanentBackendException("Permanent exception while executing backend operation "+exe.toString(),e);
-                }
+                lastException = getTemporaryException(e, exe);
             }
             //Wait and retry
             assert lastException!=null;
@@ -100,6 +95,94 @@ public class BackendOperation {
         throw new TemporaryBackendException("Could not successfully complete backend operation due to repeated temporary exceptions after "+totalWaitTime,lastException);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #execute(Callable, Duration)}. Failed attempts are retried with the same
+     * back-off as the blocking variant until {@code totalWaitTime} has elapsed, but instead of sleeping the retry is
+     * scheduled on a timer and the next attempt is submitted to {@code retryExecutor}. The returned future fails with
+     * a {@link JanusGraphException} wrapping the {@link BackendException} if the operation cannot be completed.
+     *
+     * @param exe the operation to execute, called once per attempt
+     * @param totalWaitTime maximum time spent retrying temporary failures
+     * @param retryExecutor executor on which retry attempts are started
+     * @return future of the operation's result
+     */
+    public static <V> CompletableFuture<V> executeAsync(AsyncCallable<V> exe, Duration totalWaitTime, Executor retryExecutor) {
+        Preconditions.checkArgument(!totalWaitTime.isZero(),"Need to specify a positive waitTime: %s",totalWaitTime);
+        Preconditions.checkNotNull(retryExecutor);
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        attemptAsync(exe, System.currentTimeMillis()+totalWaitTime.toMillis(), pertubTime(BASE_REATTEMPT_TIME),
+            totalWaitTime, retryExecutor, result);
+        return result;
+    }
+
+    private static <V> void attemptAsync(final AsyncCallable<V> exe, final long maxTime, final Duration waitTime,
+                                         final Duration totalWaitTime, final Executor retryExecutor,
+                                         final CompletableFuture<V> result) {
+        CompletableFuture<V> attempt;
+        try {
+            attempt = exe.call();
+        } catch (Throwable e) {
+            attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(e);
+        }
+        attempt.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            final BackendException lastException;
+            try {
+                lastException = getTemporaryException(failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure, exe);
+            } catch (BackendException e) {
+                result.completeExceptionally(new JanusGraphException("Could not execute operation due to backend exception",e));
+                return;
+            }
+            if (result.isDone()) {
+                // cancelled by the caller, no point in retrying
+                return;
+            }
+            if (System.currentTimeMillis()+waitTime.toMillis()<maxTime) {
+                log.info("Temporary exception during backend operation ["+exe.toString()+"]. Attempting backoff retry.",lastException);
+                RetryScheduler.INSTANCE.schedule(() -> retryExecutor.execute(() ->
+                        attemptAsync(exe, maxTime, pertubTime(waitTime.multipliedBy(2)), totalWaitTime, retryExecutor, result)),
+                    waitTime.toMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                result.completeExceptionally(new JanusGraphException("Could not execute operation due to backend exception",
+                    new TemporaryBackendException("Could not successfully complete backend operation due to repeated temporary exceptions after "+totalWaitTime,lastException)));
+            }
+        });
+    }
+
+    /**
+     * Finds the inner-most {@link BackendException} of the given failure and returns it if it is temporary, i.e. the
+     * operation should be retried. Otherwise the failure is rethrown as a {@link BackendException}.
+     */
+    private static BackendException getTemporaryException(Throwable e, Object exe) throws BackendException {
+        Throwable ex = e;
+        BackendException storeEx = null;
+        do {
+            if (ex instanceof BackendException) storeEx = (BackendException)ex;
+        } while ((ex=ex.getCause())!=null);
+        if (storeEx!=null && storeEx instanceof TemporaryBackendException) {
+            return storeEx;
+        } else if (e instanceof BackendException) {
+            throw (BackendException)e;
+        } else {
+            throw new PermanentBackendException("Permanent exception while executing backend operation "+exe.toString(),e);
+        }
+    }
+
+    /**
+     * Lazily started timer thread used to delay asynchronous retries.
+     */
+    private static class RetryScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("BackendOperationRetry").build());
+
+    }
+
 //    private static final double WAITTIME_PERTURBATION_PERCENTAGE = 0.5;
 //    private static final double WAITTIME_PERTURBATION_PERCENTAGE_HALF = WAITTIME_PERTURBATION_PERCENTAGE/2;
 //
@@ -168,6 +251,12 @@ public class BackendOperation {
     }
 
 
+    public interface AsyncCallable<V> {
+
+        CompletableFuture<V> call();
+
+    }
+
     public interface Transactional<R> {
 
         R call(StoreTransaction txh) throws BackendException;
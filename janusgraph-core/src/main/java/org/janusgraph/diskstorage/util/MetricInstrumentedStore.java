@@ -19,6 +19,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.Entry;
@@ -90,6 +93,7 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         Arrays.asList(M_CALLS,M_TIME,M_EXCEPTIONS,M_ENTRIES_COUNT,M_ENTRIES_HISTO));
 
     public static final String M_ITERATOR = "iterator";
+    public static final String M_PARTITION = "partition";
 
     private final String metricsStoreName;
 
@@ -122,6 +126,28 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         });
     }
 
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(final KeySliceQuery query, final StoreTransaction txh) {
+        return runWithMetricsAsync(txh, metricsStoreName, M_GET_SLICE, () -> backend.getSliceAsync(query, txh))
+            .thenApply(result -> {
+                recordSliceMetrics(txh, result);
+                return result;
+            });
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(final List<StaticBuffer> keys,
+                                                                       final SliceQuery query,
+                                                                       final StoreTransaction txh) {
+        return runWithMetricsAsync(txh, metricsStoreName, M_GET_SLICE, () -> backend.getSliceAsync(keys, query, txh))
+            .thenApply(results -> {
+                for (final EntryList result : results.values()) {
+                    recordSliceMetrics(txh, result);
+                }
+                return results;
+            });
+    }
+
     @Override
     public void mutate(final StaticBuffer key,
                        final List<Entry> additions,
@@ -156,6 +182,18 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         });
     }
 
+    @Override
+    public KeyIterator getKeys(final ScanRangeQuery query, final StoreTransaction txh) throws BackendException {
+        return runWithMetrics(txh, metricsStoreName, M_GET_KEYS, () -> {
+            final KeyIterator ki = backend.getKeys(query, txh);
+            if (txh.getConfiguration().hasGroupName()) {
+                return MetricInstrumentedIterator.of(ki, txh.getConfiguration().getGroupName(), metricsStoreName, M_GET_KEYS, M_ITERATOR);
+            } else {
+                return ki;
+            }
+        });
+    }
+
     @Override
     public KeyIterator getKeys(final SliceQuery query, final StoreTransaction txh) throws BackendException {
         return runWithMetrics(txh, metricsStoreName, M_GET_KEYS, () -> {
@@ -200,6 +238,28 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         mgr.getHistogram(p, metricsStoreName, M_GET_SLICE, M_ENTRIES_HISTO).update(row.size());
     }
 
+    /**
+     * Records the latency of the part of an operation which was served by a single partition of the storage backend,
+     * e.g. a region or a token range. Stores which fan out operations to their partitions call this method, such that
+     * the metrics are named like the metrics of this class with the partition appended to the operation name.
+     *
+     * @param txh transaction whose group name prefixes the metrics, nothing is recorded if it has none
+     * @param storeName name of the store
+     * @param name name of the operation, e.g. {@link #M_GET_SLICE}
+     * @param partition identifier of the partition
+     * @param durationNanos latency of the partial operation in nanoseconds
+     * @param failed whether the partial operation failed
+     */
+    public static void recordPartitionMetrics(StoreTransaction txh, String storeName, String name, String partition,
+                                              long durationNanos, boolean failed) {
+        if (!txh.getConfiguration().hasGroupName()) return;
+        final String prefix = txh.getConfiguration().getGroupName();
+        final MetricManager mgr = MetricManager.INSTANCE;
+        mgr.getCounter(prefix, storeName, name, M_PARTITION, partition, M_CALLS).inc();
+        mgr.getTimer(prefix, storeName, name, M_PARTITION, partition, M_TIME).update(durationNanos, TimeUnit.NANOSECONDS);
+        if (failed) mgr.getCounter(prefix, storeName, name, M_PARTITION, partition, M_EXCEPTIONS).inc();
+    }
+
     static <T> T runWithMetrics(StoreTransaction txh, String storeName, String name, StorageCallable<T> impl) throws BackendException {
 
         if (!txh.getConfiguration().hasGroupName()) {
@@ -223,6 +283,39 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         }
     }
 
+    /**
+     * Like {@link #runWithMetrics(StoreTransaction, String, String, StorageCallable)} but the timer is stopped when the
+     * returned future completes rather than when the call returns.
+     */
+    static <T> CompletableFuture<T> runWithMetricsAsync(StoreTransaction txh, String storeName, String name, Supplier<CompletableFuture<T>> impl) {
+
+        if (!txh.getConfiguration().hasGroupName()) {
+            return impl.get();
+        }
+        String prefix = txh.getConfiguration().getGroupName();
+        Preconditions.checkNotNull(name);
+        Preconditions.checkNotNull(impl);
+
+        final MetricManager mgr = MetricManager.INSTANCE;
+        mgr.getCounter(prefix, storeName, name, M_CALLS).inc();
+        final Timer.Context tc = mgr.getTimer(prefix, storeName, name, M_TIME).time();
+
+        final CompletableFuture<T> result;
+        try {
+            result = impl.get();
+        } catch (RuntimeException e) {
+            mgr.getCounter(prefix, storeName, name, M_EXCEPTIONS).inc();
+            tc.stop();
+            throw e;
+        }
+        return result.whenComplete((value, failure) -> {
+            if (failure != null) {
+                mgr.getCounter(prefix, storeName, name, M_EXCEPTIONS).inc();
+            }
+            tc.stop();
+        });
+    }
+
     static <T> void runWithMetrics(String prefix, String name, IOCallable<T> impl) throws IOException {
 
         if (null == prefix) {
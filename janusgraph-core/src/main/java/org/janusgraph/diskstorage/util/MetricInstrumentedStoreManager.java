@@ -120,6 +120,11 @@ public class MetricInstrumentedStoreManager implements KeyColumnValueStoreManage
         return backend.getLocalKeyPartition();
     }
 
+    @Override
+    public List<KeyRange> getScanRanges() throws BackendException {
+        return backend.getScanRanges();
+    }
+
     @Override
     public Object getHadoopManager() throws BackendException {
         return backend.getHadoopManager();
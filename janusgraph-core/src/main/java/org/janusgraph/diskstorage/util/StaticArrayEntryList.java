@@ -20,6 +20,7 @@ import org.janusgraph.graphdb.relations.RelationCache;
 import org.janusgraph.util.encoding.StringEncoding;
 
 import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
 import java.util.*;
 
 import static org.janusgraph.diskstorage.util.ArrayUtil.growSpace;
@@ -98,6 +99,200 @@ public class StaticArrayEntryList extends AbstractList<Entry> implements EntryLi
                 + caches.length*(40) + 16; // caches
     }
 
+    /* #########################################
+            Serialization
+     ########################################### */
+
+    private static final EntryMetaData[] META_DATA = EntryMetaData.values();
+
+    /**
+     * Number of bytes {@link #writeEmptyTo(ByteBuffer)} writes.
+     */
+    public static final int EMPTY_SERIALIZED_SIZE = 4 + 4 + 1;
+
+    /**
+     * Returns the number of bytes {@link #writeTo(ByteBuffer)} writes for this list.
+     */
+    public int getSerializedSize() {
+        return EMPTY_SERIALIZED_SIZE + metaDataSchema.length + limitAndValuePos.length*8 + data.length;
+    }
+
+    /**
+     * Writes this list into the given buffer starting at its current position, such that it can be
+     * reconstructed via {@link #readFrom(ByteBuffer)}. Cached relations are not written.
+     */
+    public void writeTo(ByteBuffer out) {
+        out.putInt(limitAndValuePos.length);
+        out.putInt(data.length);
+        out.put((byte)metaDataSchema.length);
+        for (EntryMetaData meta : metaDataSchema) out.put((byte)meta.ordinal());
+        for (long lvp : limitAndValuePos) out.putLong(lvp);
+        out.put(data);
+    }
+
+    /**
+     * Writes an empty list into the given buffer, which {@link #readFrom(ByteBuffer)} reads as {@link EntryList#EMPTY_LIST}.
+     */
+    public static void writeEmptyTo(ByteBuffer out) {
+        out.putInt(0);
+        out.putInt(0);
+        out.put((byte)0);
+    }
+
+    /**
+     * Reads an entry list written by {@link #writeTo(ByteBuffer)} starting at the current position of the given buffer.
+     * The entry data is copied into a single heap array in one bulk operation; individual entries are only
+     * materialized upon access.
+     *
+     * @throws IllegalArgumentException if the serialized lengths do not fit into the remaining bytes of the buffer
+     */
+    public static EntryList readFrom(ByteBuffer in) {
+        final int num = readHeader(in);
+        final int dataLength = in.getInt();
+        final EntryMetaData[] metaDataSchema = readMetaDataSchema(in);
+        if (num==0) return EMPTY_LIST;
+        final long[] limitAndValuePos = new long[num];
+        in.asLongBuffer().get(limitAndValuePos);
+        in.position(in.position() + num*8);
+        final byte[] data = new byte[dataLength];
+        in.get(data);
+        return new StaticArrayEntryList(data,limitAndValuePos,metaDataSchema);
+    }
+
+    /**
+     * Returns a read-only view of an entry list written by {@link #writeTo(ByteBuffer)} starting at the current
+     * position of the given buffer, without copying it. Only the bytes of the entries which are accessed are copied
+     * onto the heap, so the returned list is only valid as long as the bytes of the buffer are not overwritten.
+     *
+     * @throws IllegalArgumentException if the serialized lengths do not fit into the remaining bytes of the buffer
+     * @see BufferEntryList
+     */
+    public static EntryList viewOf(ByteBuffer in) {
+        final int num = readHeader(in);
+        final int dataLength = in.getInt();
+        final EntryMetaData[] metaDataSchema = readMetaDataSchema(in);
+        if (num==0) return EMPTY_LIST;
+        final ByteBuffer view = in.asReadOnlyBuffer();
+        view.limit(view.position() + num*8);
+        final LongBuffer limitAndValuePos = view.slice().asLongBuffer();
+        view.limit(view.position() + num*8 + dataLength);
+        view.position(view.position() + num*8);
+        return new BufferEntryList(limitAndValuePos, view.slice(), metaDataSchema);
+    }
+
+    /**
+     * Reads the number of entries and checks that the remaining header fits into the buffer, leaving the
+     * data length and the meta data schema to be read.
+     */
+    private static int readHeader(ByteBuffer in) {
+        Preconditions.checkArgument(in.remaining() >= EMPTY_SERIALIZED_SIZE, "Truncated entry list");
+        final int num = in.getInt();
+        final int dataLength = in.getInt(in.position());
+        final int metaDataLength = in.get(in.position() + 4);
+        Preconditions.checkArgument(num >= 0 && dataLength >= 0 && metaDataLength >= 0 && metaDataLength <= META_DATA.length
+            && metaDataLength + num * 8L + dataLength <= in.remaining() - 5, "Corrupt entry list");
+        return num;
+    }
+
+    private static EntryMetaData[] readMetaDataSchema(ByteBuffer in) {
+        final EntryMetaData[] metaDataSchema = new EntryMetaData[in.get()];
+        for (int i = 0; i < metaDataSchema.length; i++) {
+            final int ordinal = in.get();
+            Preconditions.checkArgument(ordinal >= 0 && ordinal < META_DATA.length, "Corrupt entry list");
+            metaDataSchema[i] = META_DATA[ordinal];
+        }
+        return metaDataSchema;
+    }
+
+    /**
+     * Entry list which is backed by a read-only buffer in the format written by {@link #writeTo(ByteBuffer)}, such
+     * as a slice of direct memory. Each entry is copied into its own heap array when it is accessed.
+     */
+    private static class BufferEntryList extends AbstractList<Entry> implements EntryList {
+
+        private final LongBuffer limitAndValuePos;
+        private final ByteBuffer data;
+        private final EntryMetaData[] metaDataSchema;
+        private final RelationCache[] caches;
+
+        private BufferEntryList(final LongBuffer limitAndValuePos, final ByteBuffer data, final EntryMetaData[] metaDataSchema) {
+            this.limitAndValuePos = limitAndValuePos;
+            this.data = data;
+            this.metaDataSchema = metaDataSchema;
+            this.caches = new RelationCache[limitAndValuePos.capacity()];
+        }
+
+        @Override
+        public Entry get(int index) {
+            Preconditions.checkElementIndex(index, size());
+            final int offset = index>0?getLimit(limitAndValuePos.get(index-1)):0;
+            final int limit = getLimit(limitAndValuePos.get(index));
+            Preconditions.checkArgument(offset <= limit && limit <= data.capacity(), "Corrupt entry list");
+            final byte[] bytes = new byte[limit - offset];
+            final ByteBuffer source = data.duplicate();
+            source.position(offset);
+            source.get(bytes);
+            if (metaDataSchema.length==0) return new BufferEntry(index, bytes, 0, getValuePos(limitAndValuePos.get(index)));
+            final Map<EntryMetaData,Object> metadata = new EntryMetaData.Map();
+            final BufferEntry entry = new BufferEntry(index, bytes, parseMetaData(metaDataSchema, bytes, metadata, 0),
+                getValuePos(limitAndValuePos.get(index)));
+            metadata.forEach(entry::setMetaData);
+            return entry;
+        }
+
+        @Override
+        public int size() {
+            return caches.length;
+        }
+
+        @Override
+        public Iterator<Entry> reuseIterator() {
+            return iterator();
+        }
+
+        /**
+         * Includes the referenced bytes of the buffer, since the list keeps them from being released.
+         */
+        @Override
+        public int getByteSize() {
+            return 16 + 4*8 // object
+                + 2*64 // buffers
+                + limitAndValuePos.capacity()*8 + data.capacity()
+                + caches.length*(40) + 16; // caches
+        }
+
+        private class BufferEntry extends StaticArrayEntry {
+
+            private final int index;
+
+            private BufferEntry(final int index, final byte[] array, final int offset, final int valuePosition) {
+                super(array, offset, array.length, valuePosition);
+                this.index = index;
+            }
+
+            @Override
+            public RelationCache getCache() {
+                return caches[index];
+            }
+
+            @Override
+            public void setCache(RelationCache cache) {
+                Preconditions.checkNotNull(cache);
+                caches[index] = cache;
+            }
+        }
+    }
+
+    /**
+     * Converts the given list into a {@link StaticArrayEntryList} so that it can be serialized, copying it if needed.
+     * Returns null for empty lists, which are written via {@link #writeEmptyTo(ByteBuffer)}.
+     */
+    public static StaticArrayEntryList asStaticArrayEntryList(EntryList entries) {
+        if (entries instanceof StaticArrayEntryList) return (StaticArrayEntryList) entries;
+        EntryList copy = of(entries);
+        return copy instanceof StaticArrayEntryList ? (StaticArrayEntryList) copy : null;
+    }
+
     private class StaticEntry extends BaseStaticArrayEntry {
 
         private final int index;
@@ -461,6 +656,10 @@ public class StaticArrayEntryList extends AbstractList<Entry> implements EntryLi
 
     private int parseMetaData(Map<EntryMetaData,Object> metadata, int baseOffset) {
         assert hasMetaData();
+        return parseMetaData(metaDataSchema, data, metadata, baseOffset);
+    }
+
+    private static int parseMetaData(EntryMetaData[] metaDataSchema, byte[] data, Map<EntryMetaData,Object> metadata, int baseOffset) {
         for (EntryMetaData meta : metaDataSchema) {
             MetaDataSerializer s = getSerializer(meta);
             Object d = s.read(data,baseOffset);
@@ -0,0 +1,39 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util.compression;
+
+/**
+ * Helpers shared by the {@link org.janusgraph.diskstorage.util.BackendCompression} implementations.
+ */
+final class CompressionUtil {
+
+    private CompressionUtil() {
+    }
+
+    static void writeLength(byte[] array, int length) {
+        array[0] = (byte) (length >>> 24);
+        array[1] = (byte) (length >>> 16);
+        array[2] = (byte) (length >>> 8);
+        array[3] = (byte) length;
+    }
+
+    static int readLength(byte[] array, int offset, int limit) {
+        if (limit - offset < 4) throw new IllegalArgumentException("Truncated compressed value");
+        final int length = (array[offset] & 0xFF) << 24 | (array[offset + 1] & 0xFF) << 16
+            | (array[offset + 2] & 0xFF) << 8 | (array[offset + 3] & 0xFF);
+        if (length < 0) throw new IllegalArgumentException("Invalid length of compressed value: " + length);
+        return length;
+    }
+}
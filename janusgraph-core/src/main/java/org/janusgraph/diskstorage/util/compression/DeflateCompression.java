@@ -0,0 +1,86 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util.compression;
+
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link BackendCompression} using the DEFLATE algorithm of {@link java.util.zip}. The compressed value is prefixed
+ * with the length of the uncompressed value.
+ */
+public class DeflateCompression implements BackendCompression {
+
+    private final ThreadLocal<Deflater> deflater;
+    private final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(Inflater::new);
+
+    public DeflateCompression() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public DeflateCompression(int level) {
+        this.deflater = ThreadLocal.withInitial(() -> new Deflater(level));
+    }
+
+    @Override
+    public StaticBuffer compress(StaticBuffer value) {
+        return value.as((array, offset, limit) -> {
+            final int length = limit - offset;
+            final Deflater def = deflater.get();
+            def.reset();
+            def.setInput(array, offset, length);
+            def.finish();
+            //Deflate adds at most 5 bytes per 16KB block and 6 bytes of header and trailer
+            byte[] compressed = new byte[4 + length + 5 * (length / 16384 + 1) + 6];
+            CompressionUtil.writeLength(compressed, length);
+            int pos = 4;
+            while (!def.finished()) {
+                if (pos == compressed.length) compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                pos += def.deflate(compressed, pos, compressed.length - pos);
+            }
+            return new StaticArrayBuffer(compressed, 0, pos);
+        });
+    }
+
+    @Override
+    public StaticBuffer decompress(StaticBuffer value) {
+        return value.as((array, offset, limit) -> {
+            final byte[] decompressed = new byte[CompressionUtil.readLength(array, offset, limit)];
+            final Inflater inf = inflater.get();
+            inf.reset();
+            inf.setInput(array, offset + 4, limit - offset - 4);
+            try {
+                int pos = 0;
+                while (pos < decompressed.length && !inf.finished()) {
+                    final int inflated = inf.inflate(decompressed, pos, decompressed.length - pos);
+                    if (inflated == 0 && (inf.needsInput() || inf.needsDictionary())) break;
+                    pos += inflated;
+                }
+                if (pos != decompressed.length) {
+                    throw new IllegalArgumentException("Truncated deflate value, expected " + decompressed.length + " bytes but got " + pos);
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalArgumentException("Invalid deflate value", e);
+            }
+            return new StaticArrayBuffer(decompressed);
+        });
+    }
+}
@@ -0,0 +1,58 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util.compression;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+
+/**
+ * {@link BackendCompression} using LZ4 block compression. The compressed value is prefixed with the length
+ * of the uncompressed value.
+ */
+public class LZ4Compression implements BackendCompression {
+
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public LZ4Compression() {
+        final LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public StaticBuffer compress(StaticBuffer value) {
+        return value.as((array, offset, limit) -> {
+            final int length = limit - offset;
+            final byte[] compressed = new byte[4 + compressor.maxCompressedLength(length)];
+            CompressionUtil.writeLength(compressed, length);
+            final int compressedLength = compressor.compress(array, offset, length, compressed, 4, compressed.length - 4);
+            return new StaticArrayBuffer(compressed, 0, 4 + compressedLength);
+        });
+    }
+
+    @Override
+    public StaticBuffer decompress(StaticBuffer value) {
+        return value.as((array, offset, limit) -> {
+            final byte[] decompressed = new byte[CompressionUtil.readLength(array, offset, limit)];
+            decompressor.decompress(array, offset + 4, decompressed, 0, decompressed.length);
+            return new StaticArrayBuffer(decompressed);
+        });
+    }
+}
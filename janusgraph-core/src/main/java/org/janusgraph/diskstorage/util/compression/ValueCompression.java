@@ -0,0 +1,240 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util.compression;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.MetaAnnotatable;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compresses the values of entries which are at least as long as a given threshold with a {@link BackendCompression}
+ * codec. Compressed values are marked by a header which consists of the format marker of the store followed by the
+ * id of the codec, such that values compressed with any of the supported codecs can be read regardless of the codec
+ * which is currently configured. Uncompressed values which happen to start with the marker are written with a header
+ * as well in order to be read back unchanged.
+ * <p>
+ * The marker is a random number which is generated when compression is first enabled for a store. Values which were
+ * written before are read unchanged, since they could only be mistaken for compressed ones if they started with the
+ * marker that was drawn afterwards. With the codec {@link #NONE}, values are not compressed but still written and
+ * read in this format.
+ * <p>
+ * Values are only stored compressed if this saves space, otherwise they are stored as is.
+ */
+public class ValueCompression {
+
+    public static final String NONE = "none";
+    public static final String DEFLATE = "deflate";
+    public static final String LZ4 = "lz4";
+    public static final String ZSTD = "zstd";
+
+    static final int HEADER_LENGTH = Long.BYTES + 1;
+
+    //Codec ids, which are persisted with the compressed values and must never change
+    private static final byte STORED_ID = 0;
+    private static final byte DEFLATE_ID = 1;
+    private static final byte LZ4_ID = 2;
+    private static final byte ZSTD_ID = 3;
+
+    private final BackendCompression codec;
+    private final byte codecId;
+    private final int threshold;
+    private final long marker;
+
+    public ValueCompression(String codecName, int threshold, long marker) {
+        Preconditions.checkArgument(threshold > 0, "Invalid compression threshold: %s", threshold);
+        this.codecId = getCodecId(codecName);
+        this.codec = codecId == STORED_ID ? null : getCodec(codecId);
+        this.threshold = threshold;
+        this.marker = marker;
+    }
+
+    /**
+     * @return a new format marker for a store on which compression is enabled
+     */
+    public static long generateMarker() {
+        return new SecureRandom().nextLong();
+    }
+
+    /**
+     * @return whether values are compressed, as opposed to only being written in the header format
+     */
+    public boolean isEnabled() {
+        return codec != null;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public long getMarker() {
+        return marker;
+    }
+
+    /**
+     * @return the value with a header if it is compressed or starts with the magic bytes, otherwise the value itself
+     */
+    public StaticBuffer compress(StaticBuffer value) {
+        if (codec != null && value.length() >= threshold) {
+            final StaticBuffer compressed = codec.compress(value);
+            if (compressed.length() + HEADER_LENGTH < value.length()) {
+                return withHeader(codecId, compressed);
+            }
+        }
+        return hasHeader(value) ? withHeader(STORED_ID, value) : value;
+    }
+
+    /**
+     * @return the uncompressed value if the value has a header, otherwise the value itself
+     */
+    public StaticBuffer decompress(StaticBuffer value) {
+        if (!hasHeader(value)) return value;
+        final byte id = value.getByte(Long.BYTES);
+        final StaticBuffer payload = value.subrange(HEADER_LENGTH, value.length() - HEADER_LENGTH);
+        return id == STORED_ID ? payload : getCodec(id).decompress(payload);
+    }
+
+    /**
+     * @return whether the value carries a header written by {@link #compress(StaticBuffer)}
+     */
+    public boolean hasHeader(StaticBuffer value) {
+        return hasHeader(value, 0);
+    }
+
+    private boolean hasHeader(StaticBuffer buffer, int position) {
+        return buffer.length() - position >= HEADER_LENGTH && buffer.getLong(position) == marker
+            && buffer.getByte(position + Long.BYTES) >= STORED_ID && buffer.getByte(position + Long.BYTES) <= ZSTD_ID;
+    }
+
+    /**
+     * @return whether the value of the entry has to be written with a header
+     */
+    public boolean requiresCompression(Entry entry) {
+        return codec != null && entry.length() - entry.getValuePosition() >= threshold || hasHeader(entry, entry.getValuePosition());
+    }
+
+    /**
+     * @return the entry with a compressed value and the meta data of the given entry
+     */
+    public Entry compress(Entry entry) {
+        final StaticBuffer value = entry.getValue();
+        return withValue(entry, value, compress(value));
+    }
+
+    public Entry decompress(Entry entry) {
+        final StaticBuffer value = entry.getValue();
+        return withValue(entry, value, decompress(value));
+    }
+
+    /**
+     * @return the given list if none of its values has to be compressed, otherwise a copy with compressed values
+     */
+    public EntryList compress(EntryList entries) {
+        for (Entry entry : entries) {
+            if (requiresCompression(entry)) return transform(entries, this::compress);
+        }
+        return entries;
+    }
+
+    /**
+     * @return the given list if none of its values has a header, otherwise a copy with uncompressed values
+     */
+    public EntryList decompress(EntryList entries) {
+        for (Entry entry : entries) {
+            if (hasHeader(entry, entry.getValuePosition())) return transform(entries, this::decompress);
+        }
+        return entries;
+    }
+
+    private static EntryList transform(EntryList entries, Function<Entry, Entry> function) {
+        final List<Entry> transformed = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            transformed.add(function.apply(entry));
+        }
+        return StaticArrayEntryList.of(transformed);
+    }
+
+    private static Entry withValue(Entry entry, StaticBuffer value, StaticBuffer newValue) {
+        if (newValue == value) return entry;
+        final Entry result = StaticArrayEntry.of(entry.getColumn(), newValue);
+        if (entry.hasMetaData()) {
+            for (Map.Entry<EntryMetaData, Object> metaData : entry.getMetaData().entrySet()) {
+                ((MetaAnnotatable) result).setMetaData(metaData.getKey(), metaData.getValue());
+            }
+        }
+        return result;
+    }
+
+    private StaticBuffer withHeader(byte id, StaticBuffer value) {
+        final byte[] result = new byte[HEADER_LENGTH + value.length()];
+        StaticArrayBuffer.putLong(result, 0, marker);
+        result[Long.BYTES] = id;
+        value.as((array, offset, limit) -> {
+            System.arraycopy(array, offset, result, HEADER_LENGTH, limit - offset);
+            return result;
+        });
+        return new StaticArrayBuffer(result);
+    }
+
+    private static byte getCodecId(String codecName) {
+        switch (codecName) {
+            case NONE: return STORED_ID;
+            case DEFLATE: return DEFLATE_ID;
+            case LZ4: return LZ4_ID;
+            case ZSTD: return ZSTD_ID;
+            default: throw new IllegalArgumentException("Unknown compression codec: " + codecName);
+        }
+    }
+
+    private static BackendCompression getCodec(byte id) {
+        switch (id) {
+            case DEFLATE_ID: return DeflateHolder.INSTANCE;
+            case LZ4_ID: return LZ4Holder.INSTANCE;
+            case ZSTD_ID:
+                try {
+                    return ZstdHolder.INSTANCE;
+                } catch (LinkageError e) {
+                    throw new IllegalStateException("The zstd compression codec requires com.github.luben:zstd-jni on the classpath", e);
+                }
+            default: throw new IllegalArgumentException("Unknown compression codec id: " + id);
+        }
+    }
+
+    //Codecs are only instantiated once they are used, since some of them require optional dependencies
+
+    private static class DeflateHolder {
+        private static final BackendCompression INSTANCE = new DeflateCompression();
+    }
+
+    private static class LZ4Holder {
+        private static final BackendCompression INSTANCE = new LZ4Compression();
+    }
+
+    private static class ZstdHolder {
+        private static final BackendCompression INSTANCE = new ZstdCompression();
+    }
+}
@@ -0,0 +1,60 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util.compression;
+
+import com.github.luben.zstd.Zstd;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+
+import java.util.Arrays;
+
+/**
+ * {@link BackendCompression} using Zstandard, which requires {@code com.github.luben:zstd-jni} on the classpath.
+ * The compressed value is prefixed with the length of the uncompressed value.
+ */
+public class ZstdCompression implements BackendCompression {
+
+    public static final int DEFAULT_LEVEL = 3;
+
+    private final int level;
+
+    public ZstdCompression() {
+        this(DEFAULT_LEVEL);
+    }
+
+    public ZstdCompression(int level) {
+        //Fails early if zstd-jni or its native library is not available
+        Zstd.compressBound(0);
+        this.level = level;
+    }
+
+    @Override
+    public StaticBuffer compress(StaticBuffer value) {
+        final byte[] compressed = Zstd.compress(value.as(StaticBuffer.ARRAY_FACTORY), level);
+        final byte[] result = new byte[4 + compressed.length];
+        CompressionUtil.writeLength(result, value.length());
+        System.arraycopy(compressed, 0, result, 4, compressed.length);
+        return new StaticArrayBuffer(result);
+    }
+
+    @Override
+    public StaticBuffer decompress(StaticBuffer value) {
+        return value.as((array, offset, limit) -> {
+            final int length = CompressionUtil.readLength(array, offset, limit);
+            return new StaticArrayBuffer(Zstd.decompress(Arrays.copyOfRange(array, offset + 4, limit), length));
+        });
+    }
+}
@@ -23,6 +23,7 @@ import org.janusgraph.diskstorage.configuration.converter.ReadConfigurationConve
 import org.janusgraph.graphdb.configuration.converter.RegisteredAttributeClassesConverter;
 import org.janusgraph.graphdb.query.index.ApproximateIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.BruteForceIndexSelectionStrategy;
+import org.janusgraph.graphdb.query.index.CostBasedIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.IndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.ThresholdBasedIndexSelectionStrategy;
 import org.janusgraph.core.schema.JanusGraphDefaultSchemaMaker;
@@ -38,6 +39,7 @@ import org.janusgraph.diskstorage.configuration.backend.CommonsConfiguration;
 import org.janusgraph.diskstorage.idmanagement.ConflictAvoidanceMode;
 import org.janusgraph.diskstorage.idmanagement.ConsistentKeyIDAuthority;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
 import org.janusgraph.graphdb.database.cache.MetricInstrumentedSchemaCache;
 import org.janusgraph.graphdb.database.cache.StandardSchemaCache;
 import org.janusgraph.graphdb.database.cache.SchemaCache;
@@ -61,6 +63,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
 import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.graphdb.database.idassigner.VertexIDAssigner;
 import org.janusgraph.graphdb.database.serialize.Serializer;
@@ -206,6 +209,30 @@ public class GraphDatabaseConfiguration {
             "How the graph computer should return the computed results. 'persist' for writing them into the graph, " +
                     "'localtx' for writing them into the local transaction, or 'none' (default)", ConfigOption.Type.MASKABLE, "none");
 
+    public static final ConfigOption<Integer> COMPUTER_WORKERS = new ConfigOption<>(COMPUTER_NS,"workers",
+            "Default number of worker threads used by the graph computer when none are requested explicitly. " +
+                    "If this is set to 0, the number of available processors is used.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Boolean> COMPUTER_WORK_STEALING = new ConfigOption<>(COMPUTER_NS,"work-stealing",
+            "Whether the graph computer processes partitioned vertices, reduce keys and the write-back of computed " +
+                    "properties on a work-stealing fork-join pool. If disabled, these phases are submitted to a fixed-size " +
+                    "worker pool instead.",
+            ConfigOption.Type.MASKABLE, true);
+
+    public static final String COMPUTER_VERTEX_MEMORY_OBJECT = "object";
+    public static final String COMPUTER_VERTEX_MEMORY_COLUMNAR = "columnar";
+    private static final Set<String> COMPUTER_VERTEX_MEMORY_IMPLEMENTATIONS = ImmutableSet.of(COMPUTER_VERTEX_MEMORY_OBJECT,
+            COMPUTER_VERTEX_MEMORY_COLUMNAR);
+
+    public static final ConfigOption<String> COMPUTER_VERTEX_MEMORY = new ConfigOption<>(COMPUTER_NS,"vertex-memory",
+            "Implementation of the memory holding the compute keys and messages of all vertices during a vertex program. " +
+            "Either `object` for a map of per-vertex state objects, or `columnar` for dense columns per compute key and " +
+            "message scope which store double, long and integer values unboxed in primitive arrays. Other values are " +
+            "stored as objects. All values of a compute key or message scope whose first value is primitive must be of " +
+            "the same type.",
+            ConfigOption.Type.MASKABLE, COMPUTER_VERTEX_MEMORY_OBJECT, COMPUTER_VERTEX_MEMORY_IMPLEMENTATIONS::contains);
+
 
     // ################ Transaction #######################
     // ################################################
@@ -274,13 +301,27 @@ public class GraphDatabaseConfiguration {
                     "performance improvement if there is a non-trivial latency to the backend.",
             ConfigOption.Type.MASKABLE, false);
 
+    public static final ConfigOption<Integer> MULTIQUERY_BATCH_SIZE = new ConfigOption<>(QUERY_NS,"batch-size",
+            "Maximum number of vertices which a traversal step fetches in a single batched query against the storage backend " +
+                    "when `query.batch` is enabled. Larger sets of vertices are split into multiple batches which are fetched one after the other. " +
+                    "Can be overridden for a single traversal via `g.with('query.batch-size', size)`.",
+            ConfigOption.Type.MASKABLE, Integer.MAX_VALUE, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Boolean> MULTIQUERY_PIPELINING = new ConfigOption<>(QUERY_NS,"batch-pipelining",
+            "Whether traversal steps which split their vertices into multiple batches (see `query.batch-size`) should fetch the next " +
+                    "batch from the storage backend asynchronously while the results of the current batch are being processed. " +
+                    "This overlaps storage backend latency with the evaluation of the traversal. " +
+                    "Can be overridden for a single traversal via `g.with('query.batch-pipelining', enabled)`.",
+            ConfigOption.Type.MASKABLE, false);
+
     public static final ConfigOption<String> INDEX_SELECT_STRATEGY = new ConfigOption<>(QUERY_NS, "index-select-strategy",
             String.format("Name of the index selection strategy or full class name. Following shorthands can be used: <br>" +
                     "- `%s` (Try all combinations of index candidates and pick up optimal one)<br>" +
                     "- `%s` (Use greedy algorithm to pick up approximately optimal index candidate)<br>" +
-                    "- `%s` (Use index-select-threshold to pick up either `%s` or `%s` strategy on runtime)",
+                    "- `%s` (Use index-select-threshold to pick up either `%s` or `%s` strategy on runtime)<br>" +
+                    "- `%s` (Use index statistics to pick up the index candidates retrieving the fewest elements)",
                     BruteForceIndexSelectionStrategy.NAME, ApproximateIndexSelectionStrategy.NAME, ThresholdBasedIndexSelectionStrategy.NAME,
-                    ApproximateIndexSelectionStrategy.NAME, ThresholdBasedIndexSelectionStrategy.NAME),
+                    ApproximateIndexSelectionStrategy.NAME, ThresholdBasedIndexSelectionStrategy.NAME, CostBasedIndexSelectionStrategy.NAME),
             ConfigOption.Type.MASKABLE, ThresholdBasedIndexSelectionStrategy.NAME);
 
     public static final ConfigOption<Boolean> OPTIMIZER_BACKEND_ACCESS = new ConfigOption<>(QUERY_NS, "optimizer-backend-access",
@@ -357,6 +398,19 @@ public class GraphDatabaseConfiguration {
             "transaction to independently fetch graph elements from storage before reading/writing them.",
             ConfigOption.Type.MASKABLE, false);
 
+    public static final String DB_CACHE_EXPIRATION = "expiration";
+    public static final String DB_CACHE_TINYLFU = "tinylfu";
+    private static final Set<String> DB_CACHE_IMPLEMENTATIONS = ImmutableSet.of(DB_CACHE_EXPIRATION, DB_CACHE_TINYLFU);
+
+    /**
+     * The implementation of the database level cache.
+     */
+    public static final ConfigOption<String> DB_CACHE_IMPLEMENTATION = new ConfigOption<>(CACHE_NS,"db-cache-implementation",
+            "Implementation of JanusGraph's database-level cache. Either `expiration` for a cache which tracks invalidated " +
+            "keys separately and cleans them up in the background, or `tinylfu` for a cache which groups all cached slices " +
+            "of a key, admits and evicts them with a W-TinyLFU policy and weighs them by their exact size in bytes.",
+            ConfigOption.Type.MASKABLE, DB_CACHE_EXPIRATION, DB_CACHE_IMPLEMENTATIONS::contains);
+
     /**
      * The size of the database level cache.
      * If this value is between 0.0 (strictly bigger) and 1.0 (strictly smaller), then it is interpreted as a
@@ -368,6 +422,24 @@ public class GraphDatabaseConfiguration {
             "of VM heap, while larger values are interpreted as an absolute size in bytes.",
             ConfigOption.Type.MASKABLE, 0.3);
 
+    /**
+     * The size of the off-heap tier of the database level cache for the edge store in bytes, 0 disables it.
+     */
+    public static final ConfigOption<Long> DB_CACHE_OFFHEAP_SIZE = new ConfigOption<>(CACHE_NS,"db-cache-offheap-size",
+            "Size in bytes of the off-heap second tier of the database-level cache for the edge store, which keeps " +
+            "serialized slices in direct memory outside of the JVM heap. Set to 0 to disable it. " +
+            "Only used by the `expiration` cache implementation.",
+            ConfigOption.Type.MASKABLE, 0L);
+
+    /**
+     * Whether the database level cache keeps large values in compressed form.
+     */
+    public static final ConfigOption<Boolean> DB_CACHE_COMPRESSED = new ConfigOption<>(CACHE_NS,"db-cache-compressed",
+            "Whether the database-level cache keeps the values of compressed stores in compressed form, such that more " +
+            "slices fit into the cache at the expense of decompressing them on every cache hit. Only used by the " +
+            "`expiration` cache implementation and if `storage.value-compression.codec` is set.",
+            ConfigOption.Type.MASKABLE, false);
+
     /**
      * How long the database level cache will keep keys expired while the mutations that triggered the expiration
      * are being persisted. This value should be larger than the time it takes for persisted mutations to become visible.
@@ -407,6 +479,28 @@ public class GraphDatabaseConfiguration {
             "Maximum size of the transaction-level cache of recently-used vertices.",
             ConfigOption.Type.MASKABLE, 20000);
 
+    public static final String TX_CACHE_GUAVA = "guava";
+    public static final String TX_CACHE_PRIMITIVE = "primitive";
+    private static final Set<String> TX_CACHE_IMPLEMENTATIONS = ImmutableSet.of(TX_CACHE_GUAVA, TX_CACHE_PRIMITIVE);
+
+    /**
+     * The implementation of the transaction level cache of recently-used vertices, whose size is configured by
+     * {@link #TX_CACHE_SIZE}.
+     */
+    public static final ConfigOption<String> TX_CACHE_IMPLEMENTATION = new ConfigOption<>(CACHE_NS,"tx-cache-implementation",
+            "Implementation of the transaction-level cache of recently-used vertices. Either `guava` for a cache backed " +
+            "by a Guava cache and a separate map of dirty vertices, or `primitive` for a cache which looks up vertices " +
+            "by their unboxed ids in a primitive hash map and evicts clean vertices with a clock policy, while never " +
+            "evicting new, modified or removed vertices.",
+            ConfigOption.Type.MASKABLE, TX_CACHE_GUAVA, TX_CACHE_IMPLEMENTATIONS::contains);
+
+    public static final ConfigOption<Long> TX_VERTEX_QUERY_CACHE_SIZE = new ConfigOption<>(CACHE_NS,"tx-vertex-query-cache-size",
+            "Maximum size in bytes of the query results cached for a single vertex by a transaction, beyond which the " +
+            "results which can be recomputed from other cached results and then the least recently used ones are evicted. " +
+            "This is a static limit per vertex, so the results cached by a transaction are not bounded as a whole. " +
+            "Set to 0 to keep all results until the transaction is closed.",
+            ConfigOption.Type.MASKABLE, 0L, size -> size != null && size >= 0);
+
     /**
      * Configures the initial size of the dirty (modified) vertex map used by a transaction.  All vertices created or
      * updated by a transaction are held in that transaction's dirty vertex map until the transaction commits.
@@ -505,6 +599,27 @@ public class GraphDatabaseConfiguration {
             "Size of the batch in which mutations are persisted",
             ConfigOption.Type.MASKABLE, 1024, ConfigOption.positiveInt());
 
+    /**
+     * Coalesces the mutations of concurrently committing transactions which do not hold locks into shared batch
+     * mutations against the storage backend. Has no effect on storage backends with transactional isolation.
+     */
+    public static final ConfigOption<Boolean> GROUP_COMMIT = new ConfigOption<>(STORAGE_NS,"group-commit",
+            "Whether to persist the mutations of concurrently committing transactions which do not hold locks together in " +
+            "shared batch mutations, which reduces the number of round-trips to the storage backend when many small transactions " +
+            "commit concurrently. Mutations are written with the commit time of their own transaction, hence only transactions " +
+            "with the same commit time share a batch mutation. " +
+            "Has no effect on storage backends with transactional isolation.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Duration> GROUP_COMMIT_WINDOW = new ConfigOption<>(STORAGE_NS,"group-commit-window",
+            "Time (in ms) that the first transaction of a group commit waits for other transactions to join the group " +
+            "before their mutations are persisted. It does not wait if no other transaction is committing at the same time.",
+            ConfigOption.Type.MASKABLE, Duration.ofMillis(2L));
+
+    public static final ConfigOption<Integer> GROUP_COMMIT_MAX_MUTATIONS = new ConfigOption<>(STORAGE_NS,"group-commit-max-mutations",
+            "Maximum number of mutations that are persisted in one group commit. Transactions with more mutations are persisted on their own.",
+            ConfigOption.Type.MASKABLE, 10000, ConfigOption.positiveInt());
+
     /*
      * Number of times the database attempts to persist the transactional state to the storage layer.
      * Persisting the state of a committed transaction might fail for various reasons, some of which are
@@ -607,6 +722,16 @@ public class GraphDatabaseConfiguration {
             "up to this many elements.",
             ConfigOption.Type.MASKABLE, 100);
 
+    /**
+     * Number of disjoint key ranges that scan jobs read concurrently when the storage backend
+     * supports splitting a full scan into independent range scans.
+     */
+    public static final ConfigOption<Integer> SCAN_PARALLELISM = new ConfigOption<>(STORAGE_NS,"scan-parallelism",
+            "Number of workers which scan disjoint key ranges concurrently in scan jobs (e.g. reindexing or OLAP " +
+            "vertex programs). Each worker scans its share of the ranges one after the other. Only applicable to " +
+            "storage backends which can split a full scan into disjoint key ranges, such as cql with a random partitioner.",
+            ConfigOption.Type.MASKABLE, 4, ConfigOption.positiveInt());
+
     public static final ConfigOption<Boolean> DROP_ON_CLEAR = new ConfigOption<>(STORAGE_NS, "drop-on-clear",
             "Whether to drop the graph database (true) or delete rows (false) when clearing storage. " +
             "Note that some backends always drop the graph database when clearing storage. Also note that indices are " +
@@ -647,6 +772,18 @@ public class GraphDatabaseConfiguration {
             "that no correctly held applications are expired pre-maturely and as small as possible to avoid dead lock.",
             ConfigOption.Type.GLOBAL_OFFLINE, Duration.ofMillis(300 * 1000L));
 
+    /**
+     * Whether the consistent key locker defers writing the lock applications of a transaction until they are
+     * verified at commit time. All applications are then written in a single batch, the locker waits once for
+     * {@link #LOCK_WAIT} and reads all lock rows back with a single multi-key read, instead of paying these
+     * round trips and waits once per lock.
+     */
+    public static final ConfigOption<Boolean> LOCK_BATCH = new ConfigOption<>(LOCK_NS, "batch-locking",
+            "Whether to write all lock applications of a transaction in a single batch when the transaction commits, " +
+            "wait once for the lock wait time and then verify all of them with a single multi-key read, instead of " +
+            "writing and verifying every lock on its own. Only applies to the default lock backend.",
+            ConfigOption.Type.MASKABLE, false);
+
     /**
      * Whether to attempt to delete expired locks from the storage backend. True
      * will attempt to delete expired locks in a background daemon thread. False
@@ -679,6 +816,49 @@ public class GraphDatabaseConfiguration {
             "the default is generally only useful in testing.", ConfigOption.Type.LOCAL, String.class);
 
 
+    // ################ STORAGE - VALUE COMPRESSION #######################
+
+    public static final ConfigNamespace VALUE_COMPRESSION_NS = new ConfigNamespace(STORAGE_NS,"value-compression",
+            "Compression of large values written to the storage backend");
+
+    public static final Set<String> VALUE_COMPRESSION_CODECS = ImmutableSet.of(ValueCompression.NONE,
+        ValueCompression.LZ4, ValueCompression.ZSTD, ValueCompression.DEFLATE);
+
+    public static final Set<String> VALUE_COMPRESSION_STORES = ImmutableSet.of(Backend.EDGESTORE_NAME,
+        Backend.INDEXSTORE_NAME, Backend.SYSTEM_TX_LOG_NAME);
+
+    public static final ConfigOption<String> VALUE_COMPRESSION_CODEC = new ConfigOption<>(VALUE_COMPRESSION_NS,"codec",
+            "Codec used to compress values of the compressed stores which exceed the compression threshold, unless " +
+            "another codec is set for a store. One of `none`, `lz4`, `zstd` or `deflate`, where `zstd` requires " +
+            "`com.github.luben:zstd-jni` on the classpath. Compressed values are flagged with a header, so that values " +
+            "compressed with another codec remain readable and compressed values can still be read once the codec is " +
+            "set back to `none`. Compression can be enabled on existing graphs, whose values remain readable as they are.",
+            ConfigOption.Type.GLOBAL_OFFLINE, ValueCompression.NONE, VALUE_COMPRESSION_CODECS::contains);
+
+    public static final ConfigOption<String[]> VALUE_COMPRESSION_STORE_NAMES = new ConfigOption<>(VALUE_COMPRESSION_NS,"stores",
+            "Names of the stores whose values are compressed. Any of `" + Backend.EDGESTORE_NAME + "`, `" +
+            Backend.INDEXSTORE_NAME + "` and `" + Backend.SYSTEM_TX_LOG_NAME + "`. Values which have already been " +
+            "compressed remain readable once a store is removed.",
+            ConfigOption.Type.GLOBAL_OFFLINE, new String[]{Backend.EDGESTORE_NAME, Backend.INDEXSTORE_NAME, Backend.SYSTEM_TX_LOG_NAME},
+            names -> names != null && Arrays.stream(names).allMatch(VALUE_COMPRESSION_STORES::contains));
+
+    public static final ConfigOption<Integer> VALUE_COMPRESSION_THRESHOLD = new ConfigOption<>(VALUE_COMPRESSION_NS,"threshold",
+            "Minimum size in bytes of a value to be compressed. Values are only stored compressed if this saves space.",
+            ConfigOption.Type.MASKABLE, 256, ConfigOption.positiveInt());
+
+    public static final ConfigNamespace VALUE_COMPRESSION_STORE_NS = new ConfigNamespace(VALUE_COMPRESSION_NS,"store",
+            "Compression settings of the individual stores, which are identified by their name",true);
+
+    public static final ConfigOption<String> VALUE_COMPRESSION_STORE_CODEC = new ConfigOption<>(VALUE_COMPRESSION_STORE_NS,"codec",
+            "Codec used to compress values of this store instead of `storage.value-compression.codec`.",
+            ConfigOption.Type.GLOBAL_OFFLINE, String.class, null, VALUE_COMPRESSION_CODECS::contains);
+
+    public static final ConfigOption<Long> VALUE_COMPRESSION_STORE_MARKER = new ConfigOption<>(VALUE_COMPRESSION_STORE_NS,"marker",
+            "Random format marker which starts the header of compressed values of this store. It is generated when " +
+            "compression is first enabled for the store, such that values written before remain readable as they are, " +
+            "and must never be changed or removed afterwards.",
+            ConfigOption.Type.GLOBAL_OFFLINE, Long.class);
+
     // ################ STORAGE - META #######################
 
     public static final ConfigNamespace STORE_META_NS = new ConfigNamespace(STORAGE_NS,"meta","Meta data to include in storage backend retrievals",true);
@@ -782,6 +962,29 @@ public class GraphDatabaseConfiguration {
             "This helps avoid transaction commits waiting on ID reservation even if the block size is relatively small.",
             ConfigOption.Type.MASKABLE, 0.3);
 
+    public static final String IDS_POOL_STANDARD = "standard";
+    public static final String IDS_POOL_STRIPED = "striped";
+    private static final Set<String> IDS_POOL_IMPLEMENTATIONS = ImmutableSet.of(IDS_POOL_STANDARD, IDS_POOL_STRIPED);
+
+    /**
+     * The implementation of the id pools which hand out the ids of the reserved blocks.
+     */
+    public static final ConfigOption<String> IDS_POOL_IMPLEMENTATION = new ConfigOption<>(IDS_NS,"pool-implementation",
+            "Implementation of the pools which hand out the IDs of reserved ID blocks. Either `standard` for pools which " +
+            "synchronize on every ID and reserve one block ahead, or `striped` for pools which hand out IDs without locking " +
+            "and reserve up to `ids.prefetch-blocks` blocks ahead, which reduces contention when many threads add elements concurrently.",
+            ConfigOption.Type.MASKABLE, IDS_POOL_STANDARD, IDS_POOL_IMPLEMENTATIONS::contains);
+
+    /**
+     * The number of id blocks that a striped id pool reserves ahead of the block it currently hands out ids from.
+     * Blocks which are reserved but not consumed when the graph is closed are lost.
+     */
+    public static final ConfigOption<Integer> IDS_PREFETCH_BLOCKS = new ConfigOption<>(IDS_NS,"prefetch-blocks",
+            "The number of ID blocks which a `striped` ID pool reserves ahead of the block it currently hands out IDs from. " +
+            "Higher values make it less likely that threads wait for a block reservation, but more IDs are wasted " +
+            "when a graph instance shuts down with unused blocks.",
+            ConfigOption.Type.MASKABLE, 2, ConfigOption.positiveInt());
+
     // ################ IDAUTHORITY ###################
     // ################################################
 
@@ -1031,6 +1234,35 @@ public class GraphDatabaseConfiguration {
             "Whether to aggregate measurements for the edge store, vertex index, edge index, and ID store",
             ConfigOption.Type.MASKABLE, true);
 
+    /**
+     * Whether to record a latency histogram for every distinct query shape sent to the storage and index
+     * backends. A shape is an edge store slice (relation type, direction and limit) or an index subquery
+     * (index name, kind and limit). The histograms are registered under the {@link #METRICS_PREFIX} and are
+     * exported by any configured reporter, independently of {@link #BASIC_METRICS}.
+     */
+    public static final ConfigOption<Boolean> METRICS_QUERY_SHAPES = new ConfigOption<>(METRICS_NS,"query-shapes",
+            "Whether to record latency histograms per query shape, i.e. per relation type, direction and limit of " +
+            "edge store slices and per index and limit of index subqueries",
+            ConfigOption.Type.MASKABLE, true);
+
+    public static final ConfigOption<Integer> METRICS_QUERY_SHAPES_MAX = new ConfigOption<>(METRICS_NS,"query-shapes-max",
+            "Maximum number of distinct query shapes tracked with their own histogram. Queries of any further shape " +
+            "are recorded in a shared overflow histogram",
+            ConfigOption.Type.MASKABLE, 1000, ConfigOption.positiveInt());
+
+    /**
+     * Backend queries of a tracked shape which take at least this long are logged together with the traversal
+     * step which issued them. A zero duration disables the slow query log.
+     */
+    public static final ConfigOption<Duration> METRICS_SLOW_QUERY_THRESHOLD = new ConfigOption<>(METRICS_NS,"slow-query-threshold",
+            "Backend queries taking at least this long are logged as slow queries along with their shape and the " +
+            "traversal step that issued them. Zero disables the slow query log",
+            ConfigOption.Type.MASKABLE, Duration.ZERO);
+
+    public static final ConfigOption<Double> METRICS_SLOW_QUERY_SAMPLE_RATE = new ConfigOption<>(METRICS_NS,"slow-query-sample-rate",
+            "Fraction of slow queries, between 0 and 1, which are written to the slow query log",
+            ConfigOption.Type.MASKABLE, 1.0, rate -> rate != null && rate >= 0.0 && rate <= 1.0);
+
     public static final ConfigNamespace METRICS_CONSOLE_NS = new ConfigNamespace(METRICS_NS,"console","Configuration options for metrics reporting to console");
 
 
@@ -1163,11 +1395,13 @@ public class GraphDatabaseConfiguration {
     public static final String SYSTEM_PROPERTIES_STORE_NAME = "system_properties";
     public static final String SYSTEM_CONFIGURATION_IDENTIFIER = "configuration";
     public static final String USER_CONFIGURATION_IDENTIFIER = "userconfig";
+    public static final String INDEX_STATISTICS_IDENTIFIER = "indexstats";
 
     private static final Map<String, String> REGISTERED_INDEX_SELECTION_STRATEGIES = new HashMap() {{
         put(ThresholdBasedIndexSelectionStrategy.NAME, ThresholdBasedIndexSelectionStrategy.class.getName());
         put(BruteForceIndexSelectionStrategy.NAME, BruteForceIndexSelectionStrategy.class.getName());
         put(ApproximateIndexSelectionStrategy.NAME, ApproximateIndexSelectionStrategy.class.getName());
+        put(CostBasedIndexSelectionStrategy.NAME, CostBasedIndexSelectionStrategy.class.getName());
     }};
 
     private final Configuration configuration;
@@ -1180,6 +1414,8 @@ public class GraphDatabaseConfiguration {
     private boolean forceIndexUsage;
     private boolean batchLoading;
     private int txVertexCacheSize;
+    private String txVertexCacheImplementation;
+    private long txVertexQueryCacheSize;
     private int txDirtyVertexSize;
     private DefaultSchemaMaker defaultSchemaMaker;
     private boolean hasDisabledSchemaConstraints;
@@ -1187,6 +1423,8 @@ public class GraphDatabaseConfiguration {
     private boolean adjustQueryLimit;
     private int hardMaxLimit;
     private Boolean useMultiQuery;
+    private int multiQueryBatchSize;
+    private boolean multiQueryPipelining;
     private boolean optimizerBackendAccess;
     private IndexSelectionStrategy indexSelectionStrategy;
     private Boolean batchPropertyPrefetching;
@@ -1228,6 +1466,14 @@ public class GraphDatabaseConfiguration {
         return txVertexCacheSize;
     }
 
+    public String getTxVertexCacheImplementation() {
+        return txVertexCacheImplementation;
+    }
+
+    public long getTxVertexQueryCacheSize() {
+        return txVertexQueryCacheSize;
+    }
+
     public int getTxDirtyVertexSize() {
         return txDirtyVertexSize;
     }
@@ -1276,6 +1522,14 @@ public class GraphDatabaseConfiguration {
         return useMultiQuery;
     }
 
+    public int getMultiQueryBatchSize() {
+        return multiQueryBatchSize;
+    }
+
+    public boolean useMultiQueryPipelining() {
+        return multiQueryPipelining;
+    }
+
     public boolean optimizerBackendAccess() {
         return optimizerBackendAccess;
     }
@@ -1393,6 +1647,8 @@ public class GraphDatabaseConfiguration {
         hasDisabledSchemaConstraints = !configuration.get(SCHEMA_CONSTRAINTS);
 
         txVertexCacheSize = configuration.get(TX_CACHE_SIZE);
+        txVertexCacheImplementation = configuration.get(TX_CACHE_IMPLEMENTATION);
+        txVertexQueryCacheSize = configuration.get(TX_VERTEX_QUERY_CACHE_SIZE);
         //Check for explicit dirty vertex cache size first, then fall back on batch-loading-dependent default
         if (configuration.has(TX_DIRTY_SIZE)) {
             txDirtyVertexSize = configuration.get(TX_DIRTY_SIZE);
@@ -1404,6 +1660,8 @@ public class GraphDatabaseConfiguration {
 
         propertyPrefetching = configuration.get(PROPERTY_PREFETCHING);
         useMultiQuery = configuration.get(USE_MULTIQUERY);
+        multiQueryBatchSize = configuration.get(MULTIQUERY_BATCH_SIZE);
+        multiQueryPipelining = configuration.get(MULTIQUERY_PIPELINING);
         indexSelectionStrategy = Backend.getImplementationClass(configuration, configuration.get(INDEX_SELECT_STRATEGY),
             REGISTERED_INDEX_SELECTION_STRATEGIES);
         optimizerBackendAccess = configuration.get(OPTIMIZER_BACKEND_ACCESS);
@@ -69,9 +69,17 @@ public class EdgeSerializer implements RelationReader {
 
     public RelationCache readRelation(Entry data, boolean parseHeaderOnly, TypeInspector tx) {
         RelationCache map = data.getCache();
-        if (map == null || !(parseHeaderOnly || map.hasProperties())) {
+        if (map == null) {
             map = parseRelation(data, parseHeaderOnly, tx);
             data.setCache(map);
+        } else if (!parseHeaderOnly && !map.hasDecodedProperties()) {
+            if (map.canDecodeProperties()) {
+                //Only decode the properties, the header has already been parsed
+                map.setProperties(readProperties(data, map, tx));
+            } else {
+                map = parseRelation(data, false, tx);
+                data.setCache(map);
+            }
         }
         return map;
     }
@@ -82,6 +90,34 @@ public class EdgeSerializer implements RelationReader {
         return IDHandler.readRelationType(data.asReadBuffer()).dirID.getDirection();
     }
 
+    /**
+     * Reads the id of the adjacent vertex of a serialized edge without decoding any other part of the edge and
+     * without creating a {@link RelationCache}.
+     *
+     * @param data serialized edge
+     * @param tx type inspector used to resolve the edge label
+     * @return id of the adjacent vertex
+     */
+    public long readOtherVertexId(Entry data, TypeInspector tx) {
+        RelationCache map = data.getCache();
+        if (map != null) return map.getOtherVertexId();
+
+        ReadBuffer in = data.asReadBuffer();
+        RelationTypeParse typeAndDir = IDHandler.readRelationType(in);
+        InternalRelationType def = (InternalRelationType) tx.getExistingRelationType(typeAndDir.typeId);
+        assert def.isEdgeLabel();
+        Multiplicity multiplicity = def.multiplicity();
+        if (multiplicity.isConstrained() && multiplicity.isUnique(typeAndDir.dirID.getDirection())) {
+            return VariableLong.readPositive(in);
+        }
+        in.movePositionTo(data.getValuePosition());
+        if (!multiplicity.isConstrained()) {
+            //Skip the relation id which is written after the adjacent vertex id
+            VariableLong.readPositiveBackward(in);
+        }
+        return VariableLong.readPositiveBackward(in);
+    }
+
     @Override
     public RelationCache parseRelation(Entry data, boolean excludeProperties, TypeInspector tx) {
         ReadBuffer in = data.asReadBuffer();
@@ -94,7 +130,6 @@ public class EdgeSerializer implements RelationReader {
         RelationType relationType = tx.getExistingRelationType(typeId);
         InternalRelationType def = (InternalRelationType) relationType;
         Multiplicity multiplicity = def.multiplicity();
-        long[] keySignature = def.getSortKey();
 
         long relationId;
         Object other;
@@ -138,47 +173,56 @@ public class EdgeSerializer implements RelationReader {
                 "Encountered error in deserializer [null value returned]. Check serializer compatibility.");
         }
 
+        RelationCache map = new RelationCache(dir, typeId, relationId, other, startKeyPos, endKeyPos, in.getPosition());
         if (!excludeProperties) {
+            map.setProperties(readProperties(data, in, def, map, tx));
+        }
+        return map;
+    }
 
-            LongObjectHashMap<Object> properties = new LongObjectHashMap<>(4);
-
-            if (!multiplicity.isConstrained() && keySignature.length > 0) {
-                int currentPos = in.getPosition();
-                //Read sort key which only exists if type is not unique in this direction
-                assert endKeyPos > startKeyPos;
-                int keyLength = endKeyPos - startKeyPos; //after reading the ids, we are on the last byte of the key
-                in.movePositionTo(startKeyPos);
-                ReadBuffer inKey = in;
-                if (def.getSortOrder() == Order.DESC) inKey = in.subrange(keyLength, true);
-                readInlineTypes(keySignature, properties, inKey, tx, InlineType.KEY);
-                in.movePositionTo(currentPos);
-            }
+    private LongObjectHashMap<Object> readProperties(Entry data, RelationCache map, TypeInspector tx) {
+        return readProperties(data, data.asReadBuffer(), (InternalRelationType) tx.getExistingRelationType(map.typeId), map, tx);
+    }
 
-            //read value signature
-            readInlineTypes(def.getSignature(), properties, in, tx, InlineType.SIGNATURE);
+    private LongObjectHashMap<Object> readProperties(Entry data, ReadBuffer in, InternalRelationType def, RelationCache map,
+                                                     TypeInspector tx) {
+        LongObjectHashMap<Object> properties = new LongObjectHashMap<>(4);
+        long[] keySignature = def.getSortKey();
 
-            //Third: read rest
-            while (in.hasRemaining()) {
-                PropertyKey type = tx.getExistingPropertyKey(IDHandler.readInlineRelationType(in));
-                Object propertyValue = readInline(in, type, InlineType.NORMAL);
-                assert propertyValue != null;
-                properties.put(type.longId(), propertyValue);
-            }
+        if (!def.multiplicity().isConstrained() && keySignature.length > 0) {
+            //Read sort key which only exists if type is not unique in this direction
+            int startKeyPos = map.getKeyStartPosition();
+            int endKeyPos = map.getKeyEndPosition();
+            assert endKeyPos > startKeyPos;
+            int keyLength = endKeyPos - startKeyPos; //after reading the ids, we are on the last byte of the key
+            in.movePositionTo(startKeyPos);
+            ReadBuffer inKey = in;
+            if (def.getSortOrder() == Order.DESC) inKey = in.subrange(keyLength, true);
+            readInlineTypes(keySignature, properties, inKey, tx, InlineType.KEY);
+        }
+        in.movePositionTo(map.getPropertiesPosition());
 
-            if (data.hasMetaData()) {
-                for (Map.Entry<EntryMetaData,Object> metas : data.getMetaData().entrySet()) {
-                    ImplicitKey key = ImplicitKey.MetaData2ImplicitKey.get(metas.getKey());
-                    if (key != null) {
-                        assert metas.getValue() != null;
-                        properties.put(key.longId(),metas.getValue());
-                    }
+        //read value signature
+        readInlineTypes(def.getSignature(), properties, in, tx, InlineType.SIGNATURE);
+
+        //Third: read rest
+        while (in.hasRemaining()) {
+            PropertyKey type = tx.getExistingPropertyKey(IDHandler.readInlineRelationType(in));
+            Object propertyValue = readInline(in, type, InlineType.NORMAL);
+            assert propertyValue != null;
+            properties.put(type.longId(), propertyValue);
+        }
+
+        if (data.hasMetaData()) {
+            for (Map.Entry<EntryMetaData,Object> metas : data.getMetaData().entrySet()) {
+                ImplicitKey key = ImplicitKey.MetaData2ImplicitKey.get(metas.getKey());
+                if (key != null) {
+                    assert metas.getValue() != null;
+                    properties.put(key.longId(),metas.getValue());
                 }
             }
-
-            return new RelationCache(dir, typeId, relationId, other, properties);
-        } else {
-            return new RelationCache(dir, typeId, relationId, other);
         }
+        return properties;
     }
 
     private void readInlineTypes(long[] keyIds, LongObjectHashMap<Object> properties, ReadBuffer in, TypeInspector tx,
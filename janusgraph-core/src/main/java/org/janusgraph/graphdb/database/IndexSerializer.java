@@ -46,6 +46,7 @@ import org.janusgraph.graphdb.query.JanusGraphPredicate;
 import org.janusgraph.graphdb.query.condition.*;
 import org.janusgraph.graphdb.query.graph.JointIndexQuery;
 import org.janusgraph.graphdb.query.index.IndexSelectionUtil;
+import org.janusgraph.graphdb.query.profile.QueryShapeMetrics;
 import org.janusgraph.graphdb.query.vertex.VertexCentricQueryBuilder;
 import org.janusgraph.graphdb.relations.RelationIdentifier;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
@@ -78,9 +79,16 @@ public class IndexSerializer {
     private final Map<String, ? extends IndexInformation> mixedIndexes;
 
     private final boolean hashKeys;
+    private final QueryShapeMetrics queryShapeMetrics;
     private final HashingUtil.HashLength hashLength = HashingUtil.HashLength.SHORT;
 
     public IndexSerializer(Configuration config, Serializer serializer, Map<String, ? extends IndexInformation> indexes, final boolean hashKeys) {
+        this(config, serializer, indexes, hashKeys, null);
+    }
+
+    public IndexSerializer(Configuration config, Serializer serializer, Map<String, ? extends IndexInformation> indexes, final boolean hashKeys,
+                           QueryShapeMetrics queryShapeMetrics) {
+        this.queryShapeMetrics = queryShapeMetrics;
         this.serializer = serializer;
         this.configuration = config;
         this.mixedIndexes = indexes;
@@ -519,6 +527,16 @@ public class IndexSerializer {
     ################################################### */
 
     public Stream<Object> query(final JointIndexQuery.Subquery query, final BackendTransaction tx) {
+        if (queryShapeMetrics == null) return executeQuery(query, tx);
+        final long start = System.nanoTime();
+        final Stream<Object> results = executeQuery(query, tx);
+        //Mixed index results are fetched lazily, so they are timed as the stream is consumed
+        if (query.getIndex().isMixedIndex()) return queryShapeMetrics.recordIndex(query, start, results);
+        queryShapeMetrics.recordIndex(query, start);
+        return results;
+    }
+
+    private Stream<Object> executeQuery(final JointIndexQuery.Subquery query, final BackendTransaction tx) {
         final IndexType index = query.getIndex();
         if (index.isCompositeIndex()) {
             final MultiKeySliceQuery sq = query.getCompositeQuery();
@@ -707,7 +725,7 @@ public class IndexSerializer {
         else return name2LongID(str);
     }
 
-    private static String key2Field(MixedIndexType index, PropertyKey key) {
+    public static String key2Field(MixedIndexType index, PropertyKey key) {
         return key2Field(index.getField(key));
     }
 
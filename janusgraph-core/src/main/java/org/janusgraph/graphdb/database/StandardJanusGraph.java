@@ -14,6 +14,7 @@
 
 package org.janusgraph.graphdb.database;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_QUERY_SHAPES;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REGISTRATION_TIME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REPLACE_INSTANCE_IF_EXISTS;
 
@@ -25,6 +26,7 @@ import com.google.common.collect.*;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -67,6 +69,8 @@ import org.janusgraph.graphdb.internal.InternalVertex;
 import org.janusgraph.graphdb.internal.InternalVertexLabel;
 import org.janusgraph.graphdb.query.QueryUtil;
 import org.janusgraph.graphdb.query.index.IndexSelectionStrategy;
+import org.janusgraph.graphdb.query.index.IndexStatistics;
+import org.janusgraph.graphdb.query.profile.QueryShapeMetrics;
 import org.janusgraph.graphdb.relations.EdgeDirection;
 import org.janusgraph.graphdb.tinkerpop.JanusGraphBlueprintsGraph;
 import org.janusgraph.graphdb.tinkerpop.JanusGraphFeatures;
@@ -138,6 +142,10 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
 
     //Index selection
     private final IndexSelectionStrategy indexSelector;
+    private final IndexStatistics indexStatistics;
+
+    //Per query shape latencies, null if disabled
+    private final QueryShapeMetrics queryShapeMetrics;
 
     private volatile boolean isOpen;
     private final AtomicLong txCounter;
@@ -157,15 +165,20 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
         this.idManager = idAssigner.getIDManager();
 
         this.serializer = config.getSerializer();
+        this.queryShapeMetrics = configuration.getConfiguration().get(METRICS_QUERY_SHAPES)
+                ? new QueryShapeMetrics(configuration.getConfiguration()) : null;
         StoreFeatures storeFeatures = backend.getStoreFeatures();
         this.indexSerializer = new IndexSerializer(configuration.getConfiguration(), this.serializer,
-                this.backend.getIndexInformation(), storeFeatures.isDistributed() && storeFeatures.isKeyOrdered());
+                this.backend.getIndexInformation(), storeFeatures.isDistributed() && storeFeatures.isKeyOrdered(),
+                this.queryShapeMetrics);
         this.edgeSerializer = new EdgeSerializer(this.serializer);
         this.vertexExistenceQuery = edgeSerializer.getQuery(BaseKey.VertexExists, Direction.OUT, new EdgeSerializer.TypedInterval[0]).setLimit(1);
         this.queryCache = new RelationQueryCache(this.edgeSerializer);
         this.schemaCache = configuration.getTypeCache(typeCacheRetrieval);
         this.times = configuration.getTimestampProvider();
         this.indexSelector = getConfiguration().getIndexSelectionStrategy();
+        this.indexStatistics = indexSelector.getStatistics();
+        if (indexStatistics != null) indexStatistics.load(backend.getIndexStatistics().asReadConfiguration());
 
         isOpen = true;
         txCounter = new AtomicLong(0);
@@ -250,6 +263,14 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
 
             super.close();
 
+            if (indexStatistics != null) {
+                try {
+                    persistIndexStatistics();
+                } catch (RuntimeException e) {
+                    log.warn("Unable to persist index statistics", e);
+                }
+            }
+
             IOUtils.closeQuietly(idAssigner);
             IOUtils.closeQuietly(backend);
             IOUtils.closeQuietly(queryCache);
@@ -298,10 +319,28 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
         return indexSerializer;
     }
 
+    public QueryShapeMetrics getQueryShapeMetrics() {
+        return queryShapeMetrics;
+    }
+
     public IndexSelectionStrategy getIndexSelector() {
         return indexSelector;
     }
 
+    /**
+     * Returns the statistics used by the index selection strategy, or {@code null} if the strategy does not use any.
+     */
+    public IndexStatistics getIndexStatistics() {
+        return indexStatistics;
+    }
+
+    /**
+     * Stores the current index statistics in the storage backend, from where they are loaded when the graph is opened.
+     */
+    public void persistIndexStatistics() {
+        if (indexStatistics != null) indexStatistics.persist(backend.getIndexStatistics());
+    }
+
     public Backend getBackend() {
         return backend;
     }
@@ -453,7 +492,11 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
 
     public EntryList edgeQuery(long vid, SliceQuery query, BackendTransaction tx) {
         Preconditions.checkArgument(vid > 0);
-        return tx.edgeStoreQuery(new KeySliceQuery(idManager.getKey(vid), query));
+        if (queryShapeMetrics == null) return tx.edgeStoreQuery(new KeySliceQuery(idManager.getKey(vid), query));
+        final long start = System.nanoTime();
+        final EntryList result = tx.edgeStoreQuery(new KeySliceQuery(idManager.getKey(vid), query));
+        queryShapeMetrics.recordSlice(query, 1, start);
+        return result;
     }
 
     public List<EntryList> edgeMultiQuery(LongArrayList vertexIdsAsLongs, SliceQuery query, BackendTransaction tx) {
@@ -463,12 +506,39 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
             Preconditions.checkArgument(vertexIdsAsLongs.get(i) > 0);
             vertexIds.add(idManager.getKey(vertexIdsAsLongs.get(i)));
         }
+        final long start = System.nanoTime();
         final Map<StaticBuffer,EntryList> result = tx.edgeStoreMultiQuery(vertexIds, query);
+        if (queryShapeMetrics != null) queryShapeMetrics.recordSlice(query, vertexIds.size(), start);
         final List<EntryList> resultList = new ArrayList<>(result.size());
         for (StaticBuffer v : vertexIds) resultList.add(result.get(v));
         return resultList;
     }
 
+    /**
+     * Asynchronous variant of {@link #edgeMultiQuery(LongArrayList, SliceQuery, BackendTransaction)}.
+     */
+    public CompletableFuture<List<EntryList>> edgeMultiQueryAsync(LongArrayList vertexIdsAsLongs, SliceQuery query, BackendTransaction tx) {
+        Preconditions.checkArgument(vertexIdsAsLongs != null && !vertexIdsAsLongs.isEmpty());
+        final List<StaticBuffer> vertexIds = new ArrayList<>(vertexIdsAsLongs.size());
+        for (int i = 0; i < vertexIdsAsLongs.size(); i++) {
+            Preconditions.checkArgument(vertexIdsAsLongs.get(i) > 0);
+            vertexIds.add(idManager.getKey(vertexIdsAsLongs.get(i)));
+        }
+        CompletableFuture<Map<StaticBuffer,EntryList>> future = tx.edgeStoreMultiQueryAsync(vertexIds, query);
+        if (queryShapeMetrics != null) {
+            final long start = System.nanoTime();
+            final Object step = QueryShapeMetrics.getCurrentStep();
+            future = future.whenComplete((result, failure) -> {
+                if (failure == null) queryShapeMetrics.recordSlice(query, vertexIds.size(), start, step);
+            });
+        }
+        return future.thenApply(result -> {
+            final List<EntryList> resultList = new ArrayList<>(result.size());
+            for (StaticBuffer v : vertexIds) resultList.add(result.get(v));
+            return resultList;
+        });
+    }
+
     private ModifiableConfiguration getGlobalSystemConfig(Backend backend) {
 
         return new ModifiableConfiguration(GraphDatabaseConfiguration.ROOT_NS,
@@ -531,13 +601,24 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
 
         final boolean hasModifications;
         final boolean has2iModifications;
+        final List<IndexSerializer.IndexUpdate> indexUpdates;
 
-        private ModificationSummary(boolean hasModifications, boolean has2iModifications) {
+        private ModificationSummary(boolean hasModifications, boolean has2iModifications,
+                                    List<IndexSerializer.IndexUpdate> indexUpdates) {
             this.hasModifications = hasModifications;
             this.has2iModifications = has2iModifications;
+            this.indexUpdates = indexUpdates;
         }
     }
 
+    /**
+     * Updates the index statistics with the index updates of a transaction, which must only be called once the
+     * updates were successfully persisted.
+     */
+    private void recordIndexStatistics(ModificationSummary summary) {
+        if (indexStatistics != null) indexStatistics.recordUpdates(summary.indexUpdates);
+    }
+
     public ModificationSummary prepareCommit(final Collection<InternalRelation> addedRelations,
                                      final Collection<InternalRelation> deletedRelations,
                                      final Predicate<InternalRelation> filter,
@@ -660,7 +741,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                     itx.delete(indexStore,update.getKey(),update.getEntry().field,update.getEntry().value,update.getElement().isRemoved());
             }
         }
-        return new ModificationSummary(!mutations.isEmpty(),has2iMods);
+        return new ModificationSummary(!mutations.isEmpty(),has2iMods,indexUpdates);
     }
 
     private static final Predicate<InternalRelation> SCHEMA_FILTER =
@@ -735,6 +816,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                     log.error("Could not commit transaction ["+transactionId+"] due to storage exception in system-commit",e);
                     throw e;
                 }
+                recordIndexStatistics(commitSummary);
             }
 
             //[FAILURE] Exceptions during preparation here cause the entire transaction to fail on transactional systems
@@ -761,6 +843,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                     log.error("Could not commit transaction ["+transactionId+"] due to storage exception in commit",e);
                     throw e;
                 }
+                recordIndexStatistics(commitSummary);
 
                 if (hasSecondaryPersistence) {
                     LogTxStatus status = LogTxStatus.SECONDARY_SUCCESS;
@@ -48,7 +48,7 @@ public class StandardIDPool implements IDPool {
             LoggerFactory.getLogger(StandardIDPool.class);
 
 
-    private static final IDBlock ID_POOL_EXHAUSTION = new IDBlock() {
+    static final IDBlock ID_POOL_EXHAUSTION = new IDBlock() {
         @Override
         public long numIds() {
             throw new UnsupportedOperationException();
@@ -60,7 +60,7 @@ public class StandardIDPool implements IDPool {
         }
     };
 
-    private static final IDBlock UNINITIALIZED_BLOCK = new IDBlock() {
+    static final IDBlock UNINITIALIZED_BLOCK = new IDBlock() {
         @Override
         public long numIds() {
             return 0;
@@ -72,7 +72,7 @@ public class StandardIDPool implements IDPool {
         }
     };
 
-    private static final int RENEW_ID_COUNT = 100;
+    static final int RENEW_ID_COUNT = 100;
 
     private final IDAuthority idAuthority;
     private final long idUpperBound; //exclusive
@@ -252,7 +252,7 @@ public class StandardIDPool implements IDPool {
         idBlockFuture = exec.submit(idBlockGetter);
     }
 
-    private static class IDBlockGetter implements Callable<IDBlock> {
+    static class IDBlockGetter implements Callable<IDBlock> {
 
         private final Stopwatch alive;
         private final IDAuthority idAuthority;
@@ -269,7 +269,7 @@ public class StandardIDPool implements IDPool {
             this.alive = Stopwatch.createStarted();
         }
 
-        private void stopRequested()
+        void stopRequested()
         {
             this.stopRequested = true;
         }
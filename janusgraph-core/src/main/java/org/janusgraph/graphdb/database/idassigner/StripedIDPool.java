@@ -0,0 +1,267 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.idassigner;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.IDAuthority;
+import org.janusgraph.diskstorage.IDBlock;
+import org.janusgraph.util.stats.MetricManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.janusgraph.graphdb.database.idassigner.StandardIDPool.ID_POOL_EXHAUSTION;
+import static org.janusgraph.graphdb.database.idassigner.StandardIDPool.RENEW_ID_COUNT;
+import static org.janusgraph.graphdb.database.idassigner.StandardIDPool.UNINITIALIZED_BLOCK;
+
+/**
+ * {@link IDPool} for write heavy workloads with many concurrent threads. In contrast to {@link StandardIDPool},
+ * ids of the current block are handed out without acquiring a lock by atomically incrementing the index into
+ * the block, such that threads only synchronize when switching to the next block.
+ * <p>
+ * Up to the configured number of blocks are reserved ahead of time, such that a thread rarely has to wait for
+ * the id authority when the current block runs out. The blocks which are not consumed when the pool is closed
+ * are lost, hence a large prefetch depth leaves a larger fraction of the id space unused.
+ * <p>
+ * If a metrics prefix is given, the time threads spend waiting for the next block is recorded in the timer
+ * {@code <prefix>.idpool.wait} and the number of consumed blocks in the counter {@code <prefix>.idpool.blocks}.
+ */
+public class StripedIDPool implements IDPool {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(StripedIDPool.class);
+
+    public static final String M_ID_POOL = "idpool";
+    public static final String M_WAIT = "wait";
+    public static final String M_BLOCKS = "blocks";
+
+    private final IDAuthority idAuthority;
+    private final long idUpperBound; //exclusive
+    private final int partition;
+    private final int idNamespace;
+
+    private final Duration renewTimeout;
+    private final double renewBufferPercentage;
+    private final int prefetchBlocks;
+    private final String metricsPrefix;
+
+    private volatile BlockRange currentRange;
+    //The blocks reserved ahead of time in the order in which they are requested from the id authority
+    private final Deque<PendingBlock> pendingBlocks;
+    private final ThreadPoolExecutor exec;
+
+    private volatile boolean closed;
+    private boolean exhausted;
+
+    private final Queue<Future<?>> closeBlockers;
+
+    public StripedIDPool(IDAuthority idAuthority, int partition, int idNamespace, long idUpperBound, Duration renewTimeout,
+                         double renewBufferPercentage, int prefetchBlocks, String metricsPrefix) {
+        Preconditions.checkArgument(idUpperBound > 0);
+        this.idAuthority = idAuthority;
+        Preconditions.checkArgument(partition>=0);
+        this.partition = partition;
+        Preconditions.checkArgument(idNamespace>=0);
+        this.idNamespace = idNamespace;
+        this.idUpperBound = idUpperBound;
+        Preconditions.checkArgument(!renewTimeout.isZero(), "Renew-timeout must be positive");
+        this.renewTimeout = renewTimeout;
+        Preconditions.checkArgument(renewBufferPercentage>0.0 && renewBufferPercentage<=1.0,"Renew-buffer percentage must be in (0.0,1.0]");
+        this.renewBufferPercentage = renewBufferPercentage;
+        Preconditions.checkArgument(prefetchBlocks>0, "Number of prefetched blocks must be positive: %s", prefetchBlocks);
+        this.prefetchBlocks = prefetchBlocks;
+        this.metricsPrefix = metricsPrefix;
+
+        currentRange = new BlockRange(UNINITIALIZED_BLOCK, -1);
+        pendingBlocks = new ArrayDeque<>(prefetchBlocks);
+
+        //A single thread retrieves the blocks such that they are acquired in the order they are requested
+        exec = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+                        .setDaemon(false)
+                        .setNameFormat("JanusGraphID(" + partition + ")("+idNamespace+")[%d]")
+                        .build());
+
+        closeBlockers = new ArrayDeque<>(4);
+
+        closed = false;
+        exhausted = false;
+    }
+
+    @Override
+    public long nextID() {
+        while (true) {
+            final BlockRange range = currentRange;
+            final long index = range.nextIndex.getAndIncrement();
+            if (index < range.numIds) {
+                if (index == range.renewIndex) {
+                    prefetchBlocks();
+                }
+                final long returnId = range.block.getId(index);
+                if (returnId >= idUpperBound) throw new IDPoolExhaustedException("Reached id upper bound of " + idUpperBound);
+                return returnId;
+            }
+            nextBlock(range);
+        }
+    }
+
+    private synchronized void nextBlock(BlockRange exhaustedRange) {
+        if (currentRange != exhaustedRange) return; //Another thread already switched to the next block
+        Preconditions.checkState(!closed,"ID Pool has been closed for partition(%s)-namespace(%s) - cannot apply for new id block",
+                partition,idNamespace);
+        if (exhausted)
+            throw new IDPoolExhaustedException("Exhausted ID Pool for partition(" + partition+")-namespace("+idNamespace+")");
+
+        if (pendingBlocks.isEmpty()) {
+            prefetchBlocks();
+        }
+
+        final IDBlock block = waitForBlock(pendingBlocks.peek());
+        if (block == ID_POOL_EXHAUSTION) {
+            exhausted = true;
+            throw new IDPoolExhaustedException("Exhausted ID Pool for partition(" + partition+")-namespace("+idNamespace+")");
+        }
+        assert block.numIds()>0;
+
+        final long renewIndex = Math.max(0,block.numIds()-Math.max(RENEW_ID_COUNT, Math.round(block.numIds()*renewBufferPercentage)));
+        currentRange = new BlockRange(block, renewIndex);
+        if (metricsPrefix != null) {
+            MetricManager.INSTANCE.getCounter(metricsPrefix, M_ID_POOL, M_BLOCKS).inc();
+        }
+        log.debug("ID partition({})-namespace({}) acquired block: [{}]", partition, idNamespace, block);
+    }
+
+    private IDBlock waitForBlock(PendingBlock pending) {
+        final Stopwatch sw = Stopwatch.createStarted();
+        try {
+            return pending.future.get(renewTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            String msg = String.format("ID block allocation on partition(%d)-namespace(%d) failed with an exception in %s",
+                    partition, idNamespace, sw);
+            throw new JanusGraphException(msg, e);
+        } catch (TimeoutException e) {
+            String msg = String.format("ID block allocation on partition(%d)-namespace(%d) timed out in %s",
+                    partition, idNamespace, sw);
+            cancel(pending);
+            throw new JanusGraphException(msg, e);
+        } catch (CancellationException e) {
+            String msg = String.format("ID block allocation on partition(%d)-namespace(%d) was cancelled after %s",
+                    partition, idNamespace, sw);
+            throw new JanusGraphException(msg, e);
+        } catch (InterruptedException e) {
+            throw new JanusGraphException("Could not renew id block due to interruption", e);
+        } finally {
+            pendingBlocks.remove(pending);
+            if (metricsPrefix != null) {
+                MetricManager.INSTANCE.getTimer(metricsPrefix, M_ID_POOL, M_WAIT).update(sw.elapsed(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void cancel(PendingBlock pending) {
+        pending.getter.stopRequested();
+        if (idAuthority.supportsInterruption()) {
+            pending.future.cancel(true);
+        } else {
+            // Attempt to clean one dead element out of closeBlockers every time we append to it
+            if (!closeBlockers.isEmpty()) {
+                Future<?> f = closeBlockers.peek();
+                if (null != f && f.isDone())
+                    closeBlockers.remove();
+            }
+            closeBlockers.add(pending.future);
+        }
+    }
+
+    /**
+     * Requests blocks from the id authority until the configured number of blocks is reserved ahead of the current one.
+     */
+    private synchronized void prefetchBlocks() {
+        while (pendingBlocks.size() < prefetchBlocks && !closed && !exhausted) {
+            log.debug("Starting id block renewal for partition({})-namespace({})", partition, idNamespace);
+            final StandardIDPool.IDBlockGetter getter = new StandardIDPool.IDBlockGetter(idAuthority, partition, idNamespace, renewTimeout);
+            pendingBlocks.add(new PendingBlock(getter, exec.submit(getter)));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed=true;
+        for (PendingBlock pending : pendingBlocks) {
+            try {
+                pending.future.get(renewTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                throw new JanusGraphException("Interrupted while waiting for id renewer thread to finish", e);
+            } catch (TimeoutException e) {
+                cancel(pending);
+            } catch (ExecutionException | CancellationException e) {
+                log.debug("ID renewer task completed with exception", e);
+            }
+        }
+        pendingBlocks.clear();
+
+        for (Future<?> closeBlocker : closeBlockers) {
+            try {
+                closeBlocker.get();
+            } catch (InterruptedException e) {
+                throw new JanusGraphException("Interrupted while waiting for runaway ID renewer task " + closeBlocker, e);
+            } catch (ExecutionException e) {
+                log.debug("Runaway ID renewer task completed with exception", e);
+            }
+        }
+        exec.shutdownNow();
+    }
+
+    private static class BlockRange {
+
+        private final IDBlock block;
+        private final long numIds;
+        private final long renewIndex;
+        private final AtomicLong nextIndex;
+
+        private BlockRange(IDBlock block, long renewIndex) {
+            this.block = block;
+            this.numIds = block.numIds();
+            this.renewIndex = renewIndex;
+            this.nextIndex = new AtomicLong(0);
+        }
+    }
+
+    private static class PendingBlock {
+
+        private final StandardIDPool.IDBlockGetter getter;
+        private final Future<IDBlock> future;
+
+        private PendingBlock(StandardIDPool.IDBlockGetter getter, Future<IDBlock> future) {
+            this.getter = getter;
+            this.future = future;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
 
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.*;
 
@@ -59,8 +60,8 @@ public class VertexIDAssigner implements AutoCloseable {
     private static final Map<String,String> REGISTERED_PLACEMENT_STRATEGIES = Collections.singletonMap("simple", SimpleBulkPlacementStrategy.class.getName());
 
     final ConcurrentMap<Integer,PartitionIDPool> idPools;
-    final StandardIDPool schemaIdPool;
-    final StandardIDPool partitionVertexIdPool;
+    final IDPool schemaIdPool;
+    final IDPool partitionVertexIdPool;
 
     private final IDAuthority idAuthority;
     private final IDManager idManager;
@@ -69,6 +70,10 @@ public class VertexIDAssigner implements AutoCloseable {
     //For StandardIDPool
     private final Duration renewTimeoutMS;
     private final double renewBufferPercentage;
+    //For StripedIDPool
+    private final boolean useStripedPools;
+    private final int prefetchBlocks;
+    private final String metricsPrefix;
 
     private final int partitionIdBound;
     private final boolean hasLocalPartitions;
@@ -94,15 +99,25 @@ public class VertexIDAssigner implements AutoCloseable {
 
         renewTimeoutMS = config.get(IDS_RENEW_TIMEOUT);
         renewBufferPercentage = config.get(IDS_RENEW_BUFFER_PERCENTAGE);
+        useStripedPools = IDS_POOL_STRIPED.equals(config.get(IDS_POOL_IMPLEMENTATION));
+        prefetchBlocks = config.get(IDS_PREFETCH_BLOCKS);
+        metricsPrefix = config.get(BASIC_METRICS) ? config.get(METRICS_PREFIX) : null;
 
         idPools = new ConcurrentHashMap<>(partitionIdBound);
-        schemaIdPool = new StandardIDPool(idAuthority, IDManager.SCHEMA_PARTITION, PoolType.SCHEMA.getIDNamespace(),
-                IDManager.getSchemaCountBound(), renewTimeoutMS, renewBufferPercentage);
-        partitionVertexIdPool = new StandardIDPool(idAuthority, IDManager.PARTITIONED_VERTEX_PARTITION, PoolType.PARTITIONED_VERTEX.getIDNamespace(),
-                PoolType.PARTITIONED_VERTEX.getCountBound(idManager), renewTimeoutMS, renewBufferPercentage);
+        schemaIdPool = newIDPool(IDManager.SCHEMA_PARTITION, PoolType.SCHEMA);
+        partitionVertexIdPool = newIDPool(IDManager.PARTITIONED_VERTEX_PARTITION, PoolType.PARTITIONED_VERTEX);
         setLocalPartitions(partitionBits);
     }
 
+    private IDPool newIDPool(int partition, PoolType type) {
+        if (useStripedPools) {
+            return new StripedIDPool(idAuthority, partition, type.getIDNamespace(), type.getCountBound(idManager),
+                    renewTimeoutMS, renewBufferPercentage, prefetchBlocks, metricsPrefix);
+        }
+        return new StandardIDPool(idAuthority, partition, type.getIDNamespace(), type.getCountBound(idManager),
+                renewTimeoutMS, renewBufferPercentage);
+    }
+
     private void setLocalPartitionsToGlobal(int partitionBits) {
         placementStrategy.setLocalPartitionBounds(PartitionIDRange.getGlobalRange(partitionBits));
     }
@@ -309,7 +324,7 @@ public class VertexIDAssigner implements AutoCloseable {
         } else {
             PartitionIDPool partitionPool = idPools.get(partitionID);
             if (partitionPool == null) {
-                partitionPool = new PartitionIDPool(partitionID, idAuthority, idManager, renewTimeoutMS, renewBufferPercentage);
+                partitionPool = new PartitionIDPool(partitionID, this::newIDPool);
                 idPools.putIfAbsent(partitionID,partitionPool);
                 partitionPool = idPools.get(partitionID);
             }
@@ -453,11 +468,11 @@ public class VertexIDAssigner implements AutoCloseable {
         private volatile long lastAccess;
         private volatile boolean exhausted;
 
-        PartitionIDPool(int partitionID, IDAuthority idAuthority, IDManager idManager, Duration renewTimeoutMS, double renewBufferPercentage) {
+        PartitionIDPool(int partitionID, BiFunction<Integer,PoolType,IDPool> poolFactory) {
             super(PoolType.class);
             for (PoolType type : PoolType.values()) {
                 if (!type.hasOnePerPartition()) continue;
-                put(type,new StandardIDPool(idAuthority, partitionID, type.getIDNamespace(), type.getCountBound(idManager), renewTimeoutMS, renewBufferPercentage));
+                put(type,poolFactory.apply(partitionID, type));
             }
         }
 
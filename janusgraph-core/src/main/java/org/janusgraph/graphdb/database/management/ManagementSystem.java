@@ -36,6 +36,7 @@ import org.janusgraph.graphdb.olap.VertexJobConverter;
 import org.janusgraph.graphdb.olap.job.IndexRemoveJob;
 import org.janusgraph.graphdb.olap.job.IndexRepairJob;
 import org.janusgraph.graphdb.query.QueryUtil;
+import org.janusgraph.graphdb.query.index.IndexStatistics;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import org.janusgraph.graphdb.types.*;
 import org.janusgraph.graphdb.types.indextype.IndexTypeWrapper;
@@ -621,6 +622,7 @@ public class ManagementSystem implements JanusGraphManagement {
             addSchemaEdge(indexVertex, (JanusGraphSchemaVertex) constraint, TypeDefinitionCategory.INDEX_SCHEMA_CONSTRAINT, null);
         }
         updateSchemaVertex(indexVertex);
+        if (graph.getIndexStatistics() != null) graph.getIndexStatistics().markComplete(indexVertex.asIndexType());
         return new JanusGraphIndexWrapper(indexVertex.asIndexType());
     }
 
@@ -663,6 +665,7 @@ public class ManagementSystem implements JanusGraphManagement {
         }
         if (!indexVertex.isNew()) updatedTypes.add(indexVertex);
         if (!key.isNew()) updateIndex(index, SchemaAction.REGISTER_INDEX);
+        else if (graph.getIndexStatistics() != null) graph.getIndexStatistics().markComplete((MixedIndexType) indexType, key);
     }
 
     private JanusGraphIndex createCompositeIndex(String indexName, ElementCategory elementCategory, boolean unique, JanusGraphSchemaType constraint, PropertyKey... keys) {
@@ -704,6 +707,7 @@ public class ManagementSystem implements JanusGraphManagement {
         updateSchemaVertex(indexVertex);
         JanusGraphIndexWrapper index = new JanusGraphIndexWrapper(indexVertex.asIndexType());
         if (!canIndexBeEnabled) updateIndex(index, SchemaAction.REGISTER_INDEX);
+        else if (graph.getIndexStatistics() != null) graph.getIndexStatistics().markComplete(indexVertex.asIndexType());
         return index;
     }
 
@@ -831,7 +835,16 @@ public class ManagementSystem implements JanusGraphManagement {
                 break;
             case REINDEX:
                 builder = graph.getBackend().buildEdgeScanJob();
-                builder.setFinishJob(indexId.getIndexJobFinisher(graph, SchemaAction.ENABLE_INDEX));
+                Consumer<ScanMetrics> finishJob = indexId.getIndexJobFinisher(graph, SchemaAction.ENABLE_INDEX);
+                final IndexStatistics statistics = graph.getIndexStatistics();
+                if (statistics != null && index instanceof JanusGraphIndex) {
+                    //Rebuilds the statistics of the index from the entries written by the reindex
+                    final IndexType indexType = schemaVertex.asIndexType();
+                    statistics.startBackfill(indexType);
+                    finishJob = ((Consumer<ScanMetrics>) metrics -> statistics.finishBackfill(indexType,
+                        metrics.get(ScanMetrics.Metric.FAILURE) == 0)).andThen(finishJob);
+                }
+                builder.setFinishJob(finishJob);
                 builder.setJobId(indexId);
                 builder.setJob(VertexJobConverter.convert(graph, new IndexRepairJob(indexId.indexName, indexId.relationTypeName)));
                 try {
@@ -901,6 +914,15 @@ public class ManagementSystem implements JanusGraphManagement {
             setUpdateTrigger(new GraphCacheEvictionCompleteTrigger(this.graph.getGraphName()));
     }
 
+    /**
+     * Stores the index statistics collected by this JanusGraph instance in the storage backend, so that they are available
+     * to instances opened subsequently. Statistics are also stored when the graph is closed. Does nothing unless the
+     * configured index selection strategy uses statistics.
+     */
+    public void persistIndexStatistics() {
+        graph.persistIndexStatistics();
+    }
+
     private static class GraphCacheEvictionCompleteTrigger implements Callable<Boolean> {
         private static final Logger log = LoggerFactory.getLogger(GraphCacheEvictionCompleteTrigger.class);
         private final String graphName;
@@ -0,0 +1,349 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.carrotsearch.hppc.BitMixer;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.google.common.base.Preconditions;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link FulgoraVertexMemory} which stores the compute keys and messages of all vertices in dense columns instead of
+ * one {@link VertexState} object per vertex.
+ * <p>
+ * Every vertex with state is assigned a dense position on first access. Each compute key and each message scope is
+ * stored in a column indexed by that position. A column holding {@link Double}, {@link Long} or {@link Integer}
+ * values stores them unboxed in pages of primitive {@code long}s. Any other values are stored in pages of objects.
+ * The type of a column is determined by the first value stored in it. Message columns are double-buffered: the
+ * columns of the previous iteration are cleared and reused for the messages of the next one.
+ * <p>
+ * Messages sent to the global scope are combined under a lock striped over the positions, all other values are
+ * only written by the worker processing the respective vertex.
+ */
+public class ColumnarVertexMemory<M> extends FulgoraVertexMemory<M> {
+
+    private static final int PAGE_BITS = 14;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int NUM_SEGMENTS = 64;
+    private static final int NUM_STRIPES = 256;
+
+    private static final long[][] EMPTY_VALUES = new long[0][];
+    private static final Object[][] EMPTY_OBJECTS = new Object[0][];
+
+    private final LongIntHashMap[] positions;
+    private final AtomicInteger numVertices;
+    private final Object[] stripes;
+
+    private final Column ids;
+    private final Column[] properties;
+    private Column[] previousMessages;
+    private Column[] currentMessages;
+    private Column[] spareMessages;
+
+    public ColumnarVertexMemory(int numVertices, final IDManager idManager, final VertexProgram<M> vertexProgram) {
+        super(0, idManager, vertexProgram);
+        Preconditions.checkArgument(numVertices>=0);
+        positions = new LongIntHashMap[NUM_SEGMENTS];
+        for (int i = 0; i < NUM_SEGMENTS; i++) positions[i] = new LongIntHashMap(numVertices / NUM_SEGMENTS);
+        this.numVertices = new AtomicInteger(0);
+        stripes = new Object[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) stripes[i] = new Object();
+
+        ids = new Column(stripes);
+        properties = new Column[elementKeyMap.size()];
+        for (int i = 0; i < properties.length; i++) properties[i] = new Column(stripes);
+        previousMessages = new Column[0];
+        spareMessages = new Column[0];
+    }
+
+    private int position(long vertexId, boolean create) {
+        final LongIntHashMap segment = positions[(int) BitMixer.mix64(vertexId) & (NUM_SEGMENTS - 1)];
+        synchronized (segment) {
+            final int slot = segment.indexOf(vertexId);
+            if (segment.indexExists(slot)) return segment.indexGet(slot);
+            if (!create) return -1;
+            final int position = numVertices.getAndIncrement();
+            Preconditions.checkState(position >= 0, "Exceeded the maximum number of vertices in columnar vertex memory");
+            ids.setRaw(position, vertexId);
+            segment.indexInsert(slot, vertexId, position);
+            return position;
+        }
+    }
+
+    @Override
+    public <V> void setProperty(long vertexId, String key, V value) {
+        final int position = position(vertexId, value != null);
+        if (position >= 0) properties[elementKeyMap.get(key)].set(position, value);
+    }
+
+    @Override
+    public <V> V getProperty(long vertexId, String key) {
+        final int position = position(vertexId, false);
+        return position < 0 ? null : (V) properties[elementKeyMap.get(key)].get(position);
+    }
+
+    @Override
+    void sendMessage(long vertexId, M message, MessageScope scope) {
+        if (scope instanceof MessageScope.Global) sendGlobalMessage(vertexId, message);
+        else getCurrentMessages(scope).set(position(vertexId, true), message);
+    }
+
+    @Override
+    void sendGlobalMessage(long vertexId, M message) {
+        getCurrentMessages(MessageScope.Global.instance()).combine(position(vertexId, true), message, combiner);
+    }
+
+    private Column getCurrentMessages(MessageScope scope) {
+        final Integer index = currentScopes.get(normalizeScope(scope));
+        Preconditions.checkArgument(index != null, "Provided scope was not declared in the VertexProgram: %s", scope);
+        return currentMessages[index];
+    }
+
+    @Override
+    Stream<M> getMessage(long vertexId, MessageScope scope) {
+        final Integer index = previousScopes.get(normalizeScope(scope));
+        final int position = position(vertexId, false);
+        if (index == null || position < 0) return Stream.empty();
+        return VertexState.messageStream(previousMessages[index].get(position));
+    }
+
+    @Override
+    void completeIteration() {
+        super.completeIteration();
+        spareMessages = previousMessages;
+        previousMessages = currentMessages;
+        currentMessages = null;
+    }
+
+    @Override
+    void nextIteration(Set<MessageScope> scopes) {
+        super.nextIteration(scopes);
+        currentMessages = new Column[currentScopes.size()];
+        for (int i = 0; i < currentMessages.length; i++) {
+            if (i < spareMessages.length) {
+                currentMessages[i] = spareMessages[i];
+                currentMessages[i].clear();
+            } else {
+                currentMessages[i] = new Column(stripes);
+            }
+        }
+        spareMessages = new Column[0];
+    }
+
+    @Override
+    public Map<Long,Map<String,Object>> getMutableVertexProperties() {
+        return new AbstractMap<Long, Map<String, Object>>() {
+            @Override
+            public Set<Entry<Long, Map<String, Object>>> entrySet() {
+                return new AbstractSet<Entry<Long, Map<String, Object>>>() {
+                    @Override
+                    public Iterator<Entry<Long, Map<String, Object>>> iterator() {
+                        return IntStream.range(0, size()).<Entry<Long, Map<String, Object>>>mapToObj(position ->
+                            new SimpleImmutableEntry<>(ids.getRaw(position), getProperties(position))).iterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return numVertices.get();
+                    }
+                };
+            }
+        };
+    }
+
+    private Map<String,Object> getProperties(int position) {
+        final Map<String,Object> map = new HashMap<>(elementKeyMap.size());
+        for (Map.Entry<String,Integer> key : elementKeyMap.entrySet()) {
+            final Object value = properties[key.getValue()].get(position);
+            if (value != null) map.put(key.getKey(), value);
+        }
+        return map;
+    }
+
+    private enum Kind {
+        DOUBLE(Double.class), LONG(Long.class), INTEGER(Integer.class), OBJECT(Object.class);
+
+        private final Class<?> type;
+
+        Kind(Class<?> type) {
+            this.type = type;
+        }
+
+        static Kind of(Object value) {
+            if (value instanceof Double) return DOUBLE;
+            else if (value instanceof Long) return LONG;
+            else if (value instanceof Integer) return INTEGER;
+            else return OBJECT;
+        }
+
+        long encode(Object value) {
+            switch (this) {
+                case DOUBLE: return Double.doubleToRawLongBits((Double) value);
+                case LONG: return (Long) value;
+                case INTEGER: return (Integer) value;
+                default: throw new AssertionError(this);
+            }
+        }
+
+        Object decode(long value) {
+            switch (this) {
+                case DOUBLE: return Double.longBitsToDouble(value);
+                case LONG: return value;
+                case INTEGER: return (int) value;
+                default: throw new AssertionError(this);
+            }
+        }
+    }
+
+    /**
+     * Values of a single compute key or message scope by vertex position. Pages are allocated on demand and
+     * published through volatile page directories. Values and presence bits are written under the lock stripe of
+     * their position, which covers all positions sharing a word of presence bits.
+     */
+    private static final class Column {
+
+        private final Object[] stripes;
+        private volatile Kind kind;
+        private volatile long[][] present = EMPTY_VALUES;
+        private volatile long[][] values = EMPTY_VALUES;
+        private volatile Object[][] objects = EMPTY_OBJECTS;
+
+        private Column(Object[] stripes) {
+            this.stripes = stripes;
+        }
+
+        private Object stripe(int position) {
+            return stripes[(position >>> 6) & (NUM_STRIPES - 1)];
+        }
+
+        Object get(int position) {
+            final int page = position >>> PAGE_BITS, offset = position & PAGE_MASK;
+            final long[][] present = this.present;
+            if (page >= present.length || (present[page][offset >>> 6] & (1L << offset)) == 0) return null;
+            final Kind kind = this.kind;
+            return kind == Kind.OBJECT ? objects[page][offset] : kind.decode(values[page][offset]);
+        }
+
+        long getRaw(int position) {
+            return values[position >>> PAGE_BITS][position & PAGE_MASK];
+        }
+
+        void setRaw(int position, long value) {
+            synchronized (stripe(position)) {
+                storeRaw(position, value, initKind(Kind.LONG));
+            }
+        }
+
+        void set(int position, Object value) {
+            synchronized (stripe(position)) {
+                if (value == null) remove(position);
+                else store(position, value, getKind(value));
+            }
+        }
+
+        <M> void combine(int position, M message, MessageCombiner<M> combiner) {
+            synchronized (stripe(position)) {
+                final Object current = get(position);
+                final Object combined = current == null ? message : VertexState.combineMessages(combiner, message, current);
+                store(position, combined, combiner == null ? initKind(Kind.OBJECT) : getKind(combined));
+            }
+        }
+
+        private Kind getKind(Object value) {
+            Kind kind = this.kind;
+            if (kind == null) kind = initKind(Kind.of(value));
+            Preconditions.checkArgument(kind == Kind.OBJECT || kind.type == value.getClass(),
+                "Columnar vertex memory requires all values of a compute key or message scope to be of type [%s], " +
+                    "but got: %s", kind.type.getSimpleName(), value);
+            return kind;
+        }
+
+        private synchronized Kind initKind(Kind kind) {
+            if (this.kind == null) this.kind = kind;
+            return this.kind;
+        }
+
+        private void store(int position, Object value, Kind kind) {
+            final int page = position >>> PAGE_BITS, offset = position & PAGE_MASK;
+            allocate(page, kind == Kind.OBJECT);
+            if (kind == Kind.OBJECT) objects[page][offset] = value;
+            else values[page][offset] = kind.encode(value);
+            present[page][offset >>> 6] |= 1L << offset;
+        }
+
+        private void storeRaw(int position, long value, Kind kind) {
+            assert kind == Kind.LONG;
+            final int page = position >>> PAGE_BITS, offset = position & PAGE_MASK;
+            allocate(page, false);
+            values[page][offset] = value;
+            present[page][offset >>> 6] |= 1L << offset;
+        }
+
+        private void remove(int position) {
+            final int page = position >>> PAGE_BITS, offset = position & PAGE_MASK;
+            if (page >= present.length) return;
+            present[page][offset >>> 6] &= ~(1L << offset);
+            if (page < objects.length) objects[page][offset] = null;
+        }
+
+        private void allocate(int page, boolean object) {
+            if (page < present.length && page < (object ? objects.length : values.length)) return;
+            allocatePages(page, object);
+        }
+
+        private synchronized void allocatePages(int page, boolean object) {
+            if (page >= present.length) {
+                final long[][] pages = Arrays.copyOf(present, page + 1);
+                for (int i = present.length; i < pages.length; i++) pages[i] = new long[PAGE_SIZE >>> 6];
+                present = pages;
+            }
+            if (object && page >= objects.length) {
+                final Object[][] pages = Arrays.copyOf(objects, page + 1);
+                for (int i = objects.length; i < pages.length; i++) pages[i] = new Object[PAGE_SIZE];
+                objects = pages;
+            } else if (!object && page >= values.length) {
+                final long[][] pages = Arrays.copyOf(values, page + 1);
+                for (int i = values.length; i < pages.length; i++) pages[i] = new long[PAGE_SIZE];
+                values = pages;
+            }
+        }
+
+        /**
+         * Removes all values from this column while retaining its primitive pages. Must not be called concurrently
+         * with any other method.
+         */
+        void clear() {
+            kind = null;
+            for (long[] page : present) Arrays.fill(page, 0);
+            objects = EMPTY_OBJECTS;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+
+/**
+ * Buffers the global messages sent by a single worker thread and combines all messages addressed to the same
+ * vertex at the sender, using the {@link MessageCombiner} of the vertex program. Since the buffer is confined to
+ * its worker, messages are combined without any synchronization and only one combined message per target vertex
+ * is delivered to the shared {@link FulgoraVertexMemory} when the buffer is flushed.
+ * <p>
+ * Not thread-safe.
+ */
+class CombiningMessageBuffer<M> {
+
+    /**
+     * Number of distinct target vertices after which the buffer is flushed to bound its memory footprint
+     */
+    static final int MAX_BUFFERED_VERTICES = 1 << 16;
+
+    private final FulgoraVertexMemory<M> vertexMemory;
+    private final MessageCombiner<M> combiner;
+    private final LongObjectHashMap<M> messages;
+
+    CombiningMessageBuffer(FulgoraVertexMemory<M> vertexMemory, MessageCombiner<M> combiner) {
+        assert vertexMemory != null && combiner != null;
+        this.vertexMemory = vertexMemory;
+        this.combiner = combiner;
+        this.messages = new LongObjectHashMap<>();
+    }
+
+    void sendMessage(long vertexId, M message) {
+        final int slot = messages.indexOf(vertexId);
+        if (messages.indexExists(slot)) {
+            messages.indexReplace(slot, combiner.combine(message, messages.indexGet(slot)));
+        } else {
+            messages.indexInsert(slot, vertexId, message);
+            if (messages.size() >= MAX_BUFFERED_VERTICES) flush();
+        }
+    }
+
+    void flush() {
+        for (LongObjectCursor<M> message : messages) {
+            vertexMemory.sendGlobalMessage(message.key, message.value);
+        }
+        messages.clear();
+    }
+
+}
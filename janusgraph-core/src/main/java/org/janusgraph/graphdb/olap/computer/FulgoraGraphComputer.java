@@ -28,6 +28,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.util.WorkerPool;
+import org.janusgraph.util.stats.MetricManager;
 
 import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
@@ -65,7 +66,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -76,6 +79,8 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     private static final Logger log =
         LoggerFactory.getLogger(FulgoraGraphComputer.class);
 
+    private static final String METRICS_NAME = "fulgora";
+
     private VertexProgram<?> vertexProgram;
     private final Set<MapReduce> mapReduces = new HashSet<>();
 
@@ -85,7 +90,10 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     private FulgoraVertexMemory vertexMemory;
     private boolean executed = false;
 
-    private int numThreads = 1;//Math.max(1,Runtime.getRuntime().availableProcessors());
+    private int numThreads;
+    private final boolean workStealing;
+    private final boolean columnarVertexMemory;
+    private ForkJoinPool forkJoinPool;
     private final int readBatchSize;
     private final int writeBatchSize;
 
@@ -102,6 +110,11 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         this.graph = graph;
         this.writeBatchSize = configuration.get(GraphDatabaseConfiguration.BUFFER_SIZE);
         this.readBatchSize = this.writeBatchSize * 10;
+        int workers = configuration.get(GraphDatabaseConfiguration.COMPUTER_WORKERS);
+        this.numThreads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.workStealing = configuration.get(GraphDatabaseConfiguration.COMPUTER_WORK_STEALING);
+        this.columnarVertexMemory = GraphDatabaseConfiguration.COMPUTER_VERTEX_MEMORY_COLUMNAR.equals(
+            configuration.get(GraphDatabaseConfiguration.COMPUTER_VERTEX_MEMORY));
         this.name = "compute" + computerCounter.incrementAndGet();
     }
 
@@ -195,12 +208,18 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
 
     private ComputerResult submitAsync() {
         final long time = System.currentTimeMillis();
-        executeVertexProgram();
+        if (workStealing) forkJoinPool = new ForkJoinPool(numThreads);
+        Graph resultgraph;
+        try {
+            executeVertexProgram();
 
-        Map<MapReduce, FulgoraMapEmitter> mapJobs = collectMapJobs();
-        executeMapJobs(mapJobs);
+            Map<MapReduce, FulgoraMapEmitter> mapJobs = collectMapJobs();
+            executeMapJobs(mapJobs);
 
-        Graph resultgraph = writeMutatedPropertiesBackIntoGraph();
+            resultgraph = writeMutatedPropertiesBackIntoGraph();
+        } finally {
+            if (forkJoinPool != null) forkJoinPool.shutdownNow();
+        }
         // update runtime and return the newly computed graph
         this.memory.setRuntime(System.currentTimeMillis() - time);
         this.memory.complete();
@@ -210,7 +229,9 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     private void executeVertexProgram() {
         if (null == vertexProgram) return;
 
-        vertexMemory = new FulgoraVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram);
+        vertexMemory = columnarVertexMemory
+            ? new ColumnarVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram)
+            : new FulgoraVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram);
         vertexProgram.setup(memory);
 
         try (VertexProgramScanJob.Executor job = VertexProgramScanJob.getVertexProgramScanJob(graph, memory, vertexMemory, vertexProgram)) {
@@ -230,6 +251,7 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     }
 
     private void executeIterationOfJob(VertexProgramScanJob.Executor job, int iteration) {
+        final long start = System.nanoTime();
         initializeVertexMemoryForIteration();
         StandardScanner.Builder scanBuilder = createScanBuilderForJob(job, iteration);
         PartitionedVertexProgramExecutor programExecutor = new PartitionedVertexProgramExecutor(graph, memory, vertexMemory, vertexProgram);
@@ -238,6 +260,8 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
             ScanMetrics jobResult = executeOnNonPartitionedVertices(iteration, scanBuilder);
 
             executeOnPartitionedVertices(iteration, programExecutor, jobResult);
+            recordPhase("vertex-program", jobResult.get(ScanMetrics.Metric.SUCCESS) +
+                jobResult.getCustom(PartitionedVertexProgramExecutor.PARTITION_VERTEX_POSTSUCCESS), start);
         } catch (Exception e) {
             throw new JanusGraphException(e);
         }
@@ -277,7 +301,8 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     }
 
     private void executeOnPartitionedVertices(int iteration, PartitionedVertexProgramExecutor programExecutor, ScanMetrics jobResult) {
-        programExecutor.run(numThreads, jobResult);
+        if (forkJoinPool != null) programExecutor.run(forkJoinPool, jobResult);
+        else programExecutor.run(numThreads, jobResult);
         long failures = jobResult.getCustom(PartitionedVertexProgramExecutor.PARTITION_VERTEX_POSTFAIL);
         if (failures > 0) {
             throw new JanusGraphException("Failed to process [" + failures + "] partitioned vertices in vertex " +
@@ -306,6 +331,7 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     }
 
     private void executeMapJob(VertexMapJob.Executor job) {
+        final long start = System.nanoTime();
         StandardScanner.Builder scanBuilder = graph.getBackend().buildEdgeScanJob();
         scanBuilder.setJobId(jobId);
         scanBuilder.setNumProcessingThreads(numThreads);
@@ -321,6 +347,7 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
             if (failures > 0) {
                 throw new JanusGraphException("Failed to process [" + failures + "] individual map jobs. Computer is aborting.");
             }
+            recordPhase("map", jobResult.get(ScanMetrics.Metric.SUCCESS), start);
         } catch (JanusGraphException e) {
             throw e;
         } catch (Exception e) {
@@ -335,7 +362,18 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
             mapEmitter.complete(mapReduce); // sort results if a map output sort is defined
             if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
                 final FulgoraReduceEmitter<?, ?> reduceEmitter = new FulgoraReduceEmitter<>();
-                try (WorkerPool workers = new WorkerPool(numThreads)) {
+                final long start = System.nanoTime();
+                if (forkJoinPool != null) {
+                    final List<Map.Entry> reduceEntries = new ArrayList<>(mapEmitter.reduceMap.entrySet());
+                    try {
+                        mapReduce.workerStart(MapReduce.Stage.REDUCE);
+                        forkJoinPool.submit(() -> reduceEntries.parallelStream().forEach(queueEntry ->
+                            mapReduce.reduce(queueEntry.getKey(), ((Iterable) queueEntry.getValue()).iterator(), reduceEmitter))).get();
+                        mapReduce.workerEnd(MapReduce.Stage.REDUCE);
+                    } catch (Exception e) {
+                        throw new JanusGraphException("Exception while executing reduce phase", e);
+                    }
+                } else try (WorkerPool workers = new WorkerPool(numThreads)) {
                     workers.submit(() -> mapReduce.workerStart(MapReduce.Stage.REDUCE));
                     for (final Map.Entry queueEntry : mapEmitter.reduceMap.entrySet()) {
                         if (null == queueEntry) break;
@@ -346,7 +384,7 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
                 } catch (Exception e) {
                     throw new JanusGraphException("Exception while executing reduce phase", e);
                 }
-//                    mapEmitter.reduceMap.entrySet().parallelStream().forEach(entry -> mapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter));
+                recordPhase("reduce", mapEmitter.reduceMap.size(), start);
 
                 reduceEmitter.complete(mapReduce); // sort results if a reduce output sort is defined
                 mapReduce.addResultToMemory(this.memory, reduceEmitter.reduceQueue.iterator());
@@ -396,21 +434,28 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
                 });
 
             if (resultGraphMode == ResultGraph.ORIGINAL) {
+                final long start = System.nanoTime();
                 AtomicInteger failures = new AtomicInteger(0);
-                try (WorkerPool workers = new WorkerPool(numThreads)) {
+                long written = 0;
+                try (WorkerPool workers = forkJoinPool == null ? new WorkerPool(numThreads) : null) {
+                    List<VertexPropertyWriter> writers = new ArrayList<>();
                     List<Map.Entry<Long, Map<String, Object>>> subset = new ArrayList<>(writeBatchSize / vertexProgram.getVertexComputeKeys().size());
                     int currentSize = 0;
                     for (Map.Entry<Long, Map<String, Object>> entry : mutatedProperties.entrySet()) {
                         subset.add(entry);
+                        written++;
                         currentSize += entry.getValue().size();
                         if (currentSize >= writeBatchSize) {
-                            workers.submit(new VertexPropertyWriter(subset, failures));
+                            submitOrCollect(new VertexPropertyWriter(subset, failures), workers, writers);
                             subset = new ArrayList<>(subset.size());
                             currentSize = 0;
                         }
                     }
                     if (!subset.isEmpty()) {
-                        workers.submit(new VertexPropertyWriter(subset, failures));
+                        submitOrCollect(new VertexPropertyWriter(subset, failures), workers, writers);
+                    }
+                    if (workers == null) {
+                        forkJoinPool.submit(() -> writers.parallelStream().forEach(VertexPropertyWriter::run)).get();
                     }
                 } catch (Exception e) {
                     throw new JanusGraphException("Exception while attempting to persist result into graph", e);
@@ -418,6 +463,7 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
                 if (failures.get() > 0) {
                     throw new JanusGraphException("Could not persist program results to graph. Check log for details.");
                 }
+                recordPhase("write-back", written, start);
             } else if (resultGraphMode == ResultGraph.NEW) {
                 resultgraph = graph.newTransaction();
                 for (Map.Entry<Long, Map<String, Object>> vertexProperty : mutatedProperties.entrySet()) {
@@ -436,6 +482,28 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         return resultgraph;
     }
 
+    private static void submitOrCollect(VertexPropertyWriter writer, WorkerPool workers, List<VertexPropertyWriter> writers) {
+        if (workers != null) workers.submit(writer);
+        else writers.add(writer);
+    }
+
+    /**
+     * Logs the throughput of a phase of this computer and, if metrics are enabled, records its duration and the
+     * number of elements it processed under {@code <metrics prefix>.fulgora.<phase>}.
+     */
+    private void recordPhase(String phase, long elements, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        if (log.isDebugEnabled()) {
+            log.debug("Computer [{}] completed {} phase on [{}] elements in {} ms ({} elements/s)", jobId, phase, elements,
+                TimeUnit.NANOSECONDS.toMillis(nanos), nanos == 0 ? elements : elements * TimeUnit.SECONDS.toNanos(1) / nanos);
+        }
+        final String prefix = graph.getConfiguration().getMetricsPrefix();
+        if (prefix != null) {
+            MetricManager.INSTANCE.getTimer(prefix, METRICS_NAME, phase, "time").update(nanos, TimeUnit.NANOSECONDS);
+            MetricManager.INSTANCE.getCounter(prefix, METRICS_NAME, phase, "elements").inc(elements);
+        }
+    }
+
     private class VertexPropertyWriter implements Runnable {
 
         private final List<Map.Entry<Long, Map<String, Object>>> properties;
@@ -41,10 +41,10 @@ public class FulgoraVertexMemory<M> {
     private final NonBlockingHashMapLong<VertexState<M>> vertexStates;
     private final IDManager idManager;
     private final Set<VertexComputeKey> computeKeys;
-    private final Map<String,Integer> elementKeyMap;
-    private final MessageCombiner<M> combiner;
-    private Map<MessageScope,Integer> previousScopes;
-    private Map<MessageScope,Integer> currentScopes;
+    protected final Map<String,Integer> elementKeyMap;
+    protected final MessageCombiner<M> combiner;
+    protected Map<MessageScope,Integer> previousScopes;
+    protected Map<MessageScope,Integer> currentScopes;
     private boolean inExecute;
 
     private final NonBlockingHashMapLong<PartitionVertexAggregate<M>> partitionVertices;
@@ -94,6 +94,18 @@ public class FulgoraVertexMemory<M> {
         else state.setMessage(message,scope,currentScopes);
     }
 
+    void sendGlobalMessage(long vertexId, M message) {
+        get(vertexId,true).addMessage(message,GLOBAL_SCOPE,currentScopes,combiner);
+    }
+
+    /**
+     * Returns a buffer which combines the global messages sent by a single worker before delivering them, or
+     * {@code null} if the vertex program does not define a {@link MessageCombiner}.
+     */
+    CombiningMessageBuffer<M> newMessageBuffer() {
+        return combiner==null ? null : new CombiningMessageBuffer<>(this,combiner);
+    }
+
     Stream<M> getMessage(long vertexId, MessageScope scope) {
         return get(vertexId,false).getMessage(normalizeScope(scope),previousScopes);
     }
@@ -126,7 +138,7 @@ public class FulgoraVertexMemory<M> {
         return computeKeys.stream().filter(key -> inExecute || !key.isTransient()).map(VertexComputeKey::getKey).collect(Collectors.toSet());
     }
 
-    private static MessageScope normalizeScope(MessageScope scope) {
+    protected static MessageScope normalizeScope(MessageScope scope) {
         if (scope instanceof MessageScope.Global) return GLOBAL_SCOPE;
         else return scope;
     }
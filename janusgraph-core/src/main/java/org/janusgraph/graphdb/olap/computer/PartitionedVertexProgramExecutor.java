@@ -28,7 +28,10 @@ import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -80,6 +83,34 @@ public class PartitionedVertexProgramExecutor<M> {
         }
     }
 
+    /**
+     * Processes the partitioned vertices on the given work-stealing pool, splitting them recursively among its
+     * workers so that idle workers take over the remaining vertices of busy ones.
+     */
+    public void run(ForkJoinPool pool, ScanMetrics metrics) {
+        StandardJanusGraphTx tx=null;
+        Map<Long,EntryList> pVertexAggregates = vertexMemory.retrievePartitionAggregates();
+        if (pVertexAggregates.isEmpty()) return; //Nothing to do here
+
+        try {
+            tx = VertexJobConverter.startTransaction(graph);
+            final List<PartitionedVertexProcessor> processors = new ArrayList<>(pVertexAggregates.size());
+            for (Map.Entry<Long,EntryList> partitionedVertices : pVertexAggregates.entrySet()) {
+                if (partitionedVertices.getValue()==null) {
+                    metrics.incrementCustom(GHOST_PARTITION_VERTEX);
+                    continue;
+                }
+                processors.add(new PartitionedVertexProcessor(partitionedVertices.getKey(),partitionedVertices.getValue(),tx,metrics));
+            }
+            pool.submit(() -> processors.parallelStream().forEach(PartitionedVertexProcessor::run)).get();
+        } catch (Throwable ex) {
+            log.error("Could not post-process partitioned vertices", ex);
+            metrics.incrementCustom(PARTITION_VERTEX_POSTFAIL);
+        } finally {
+            if (tx!=null && tx.isOpen()) tx.rollback();
+        }
+    }
+
     private class PartitionedVertexProcessor implements Runnable {
 
         private final long vertexId;
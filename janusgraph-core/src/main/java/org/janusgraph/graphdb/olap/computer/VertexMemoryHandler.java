@@ -49,13 +49,23 @@ class VertexMemoryHandler<M> implements PreloadedVertex.PropertyMixing, Messenge
     protected final FulgoraVertexMemory<M> vertexMemory;
     private final PreloadedVertex vertex;
     protected final long vertexId;
+    private final CombiningMessageBuffer<M> messageBuffer;
     private boolean inExecute;
 
     VertexMemoryHandler(FulgoraVertexMemory<M> vertexMemory, PreloadedVertex vertex) {
+        this(vertexMemory, vertex, null);
+    }
+
+    /**
+     * @param messageBuffer buffer of the current worker through which global messages are sent, or {@code null}
+     *                      to deliver them to the vertex memory directly
+     */
+    VertexMemoryHandler(FulgoraVertexMemory<M> vertexMemory, PreloadedVertex vertex, CombiningMessageBuffer<M> messageBuffer) {
         assert vertex!=null && vertexMemory!=null;
         this.vertexMemory = vertexMemory;
         this.vertex = vertex;
         this.vertexId = vertexMemory.getCanonicalId(vertex.longId());
+        this.messageBuffer = messageBuffer;
         this.inExecute = false;
     }
 
@@ -159,7 +169,8 @@ class VertexMemoryHandler<M> implements PreloadedVertex.PropertyMixing, Messenge
                 long vertexId;
                 if (v instanceof JanusGraphVertex) vertexId=((JanusGraphVertex)v).longId();
                 else vertexId = (Long)v.id();
-                vertexMemory.sendMessage(vertexMemory.getCanonicalId(vertexId), m, messageScope);
+                if (messageBuffer!=null) messageBuffer.sendMessage(vertexMemory.getCanonicalId(vertexId), m);
+                else vertexMemory.sendMessage(vertexMemory.getCanonicalId(vertexId), m, messageScope);
             });
         }
     }
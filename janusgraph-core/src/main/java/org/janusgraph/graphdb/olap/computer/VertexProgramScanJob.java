@@ -53,6 +53,7 @@ public class VertexProgramScanJob<M> implements VertexScanJob {
     private final FulgoraMemory memory;
     private final FulgoraVertexMemory<M> vertexMemory;
     private final VertexProgram<M> vertexProgram;
+    private CombiningMessageBuffer<M> messageBuffer;
 
     private VertexProgramScanJob(IDManager idManager, FulgoraMemory memory,
                                 FulgoraVertexMemory vertexMemory, VertexProgram<M> vertexProgram) {
@@ -71,10 +72,12 @@ public class VertexProgramScanJob<M> implements VertexScanJob {
     @Override
     public void workerIterationStart(JanusGraph graph, Configuration config, ScanMetrics metrics) {
         vertexProgram.workerIterationStart(memory.asImmutable());
+        messageBuffer = vertexMemory.newMessageBuffer();
     }
 
     @Override
     public void workerIterationEnd(ScanMetrics metrics) {
+        if (messageBuffer != null) messageBuffer.flush();
         vertexProgram.workerIterationEnd(memory.asImmutable());
     }
 
@@ -82,7 +85,7 @@ public class VertexProgramScanJob<M> implements VertexScanJob {
     public void process(JanusGraphVertex vertex, ScanMetrics metrics) {
         PreloadedVertex v = (PreloadedVertex)vertex;
         long vertexId = v.longId();
-        VertexMemoryHandler<M> vh = new VertexMemoryHandler(vertexMemory,v);
+        VertexMemoryHandler<M> vh = new VertexMemoryHandler(vertexMemory,v,messageBuffer);
         vh.setInExecute(true);
         v.setAccessCheck(PreloadedVertex.OPENSTAR_CHECK);
         if (idManager.isPartitionedVertex(vertexId)) {
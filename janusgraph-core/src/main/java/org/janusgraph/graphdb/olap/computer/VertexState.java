@@ -96,7 +96,11 @@ public class VertexState<M> {
         }
     }
 
-    private Object combineMessages(MessageCombiner<M> combiner, M messageA, Object messageB) {
+    /**
+     * Combines the given message with a previously stored message, or appends it to the list of stored messages
+     * if no combiner is given.
+     */
+    static <M> Object combineMessages(MessageCombiner<M> combiner, M messageA, Object messageB) {
         Object combinedMessage;
         if (combiner != null) {
             combinedMessage = combiner.combine(messageA, (M) messageB);
@@ -123,6 +127,14 @@ public class VertexState<M> {
         } else {
             message = null;
         }
+        return messageStream(message);
+    }
+
+    /**
+     * Returns the messages held by a stored message, which is either {@code null}, a single message or a list of
+     * uncombined messages.
+     */
+    static <M> Stream<M> messageStream(Object message) {
         if (message instanceof ObjectArrayList) {
             Iterator<M> transform = Iterators.transform(((ObjectArrayList<M>) message).iterator(), e -> e.value);
             return StreamSupport.stream(
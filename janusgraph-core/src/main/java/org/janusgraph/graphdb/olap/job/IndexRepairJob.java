@@ -186,6 +186,7 @@ public class IndexRepairJob extends IndexUpdateJob implements VertexScanJob {
                     for (JanusGraphElement element : elements) {
                         Set<IndexSerializer.IndexUpdate<StaticBuffer,Entry>> updates =
                                 indexSerializer.reindexElement(element, (CompositeIndexType) indexType);
+                        if (graph.getIndexStatistics() != null) graph.getIndexStatistics().recordBackfill(indexType, updates);
                         for (IndexSerializer.IndexUpdate<StaticBuffer,Entry> update : updates) {
                             log.debug("Mutating index {}: {}", indexType, update.getEntry());
                             mutator.mutateIndex(update.getKey(), new ArrayList<Entry>(1){{add(update.getEntry());}}, KCVSCache.NO_DELETIONS);
@@ -217,6 +218,10 @@ public class IndexRepairJob extends IndexUpdateJob implements VertexScanJob {
                 BackendTransaction mutator = writeTx.getTxHandle();
                 IndexType indexType = managementSystem.getSchemaVertex(index).asIndexType();
                 if (indexType.isMixedIndex() && documentsPerStore.size() > 0) {
+                    final Map<String,List<IndexEntry>> documents = documentsPerStore.get(((MixedIndexType) indexType).getStoreName());
+                    if (documents != null && graph.getIndexStatistics() != null) {
+                        graph.getIndexStatistics().recordBackfill((MixedIndexType) indexType, documents);
+                    }
                     mutator.getIndexTransaction(indexType.getBackingIndexName()).restore(documentsPerStore);
                     documentsPerStore = new HashMap<>();
                 }
@@ -23,7 +23,12 @@ import org.janusgraph.graphdb.predicate.AndJanusPredicate;
 import org.janusgraph.graphdb.predicate.OrJanusPredicate;
 import org.janusgraph.graphdb.query.condition.*;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.util.datastructures.SortedLongArraySet;
+
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Utility methods used in query optimization and processing.
@@ -336,46 +341,126 @@ public class QueryUtil {
     }
 
 
-    public static <R> List<R> processIntersectingRetrievals(List<IndexCall<R>> retrievals, final int limit) {
+    public static <R> Collection<R> processIntersectingRetrievals(List<IndexCall<R>> retrievals, final int limit) {
+        return processIntersectingRetrievals(retrievals, limit, null);
+    }
+
+    /**
+     * Returns the intersection of the results of the given retrievals, containing at least {@code limit} elements
+     * unless the intersection is smaller than that.
+     * <p>
+     * Retrievals are first invoked with a sub-limit which exceeds {@code limit} by a factor depending on the number of
+     * retrievals. If the intersection turns out too small, retrievals which were truncated by the sub-limit are invoked
+     * again with a sub-limit extrapolated from the selectivity observed so far, while retrievals which returned fewer
+     * elements than the sub-limit are complete and not invoked again.
+     * <p>
+     * If an executor is given, all but one of the retrievals of each round are run on it so that independent index
+     * queries proceed concurrently. When all retrieved elements are longs (i.e. vertex ids) they are intersected as
+     * sorted primitive arrays and the returned collection answers {@code contains} by binary search; otherwise a
+     * hash set is returned.
+     *
+     * @param retrievals the retrievals to intersect
+     * @param limit the minimum number of elements to retrieve if available
+     * @param executor executor to run retrievals concurrently on, or {@code null} to run them one after the other
+     * @return the intersection of all retrievals, which supports fast {@code contains} lookups
+     */
+    public static <R> Collection<R> processIntersectingRetrievals(List<IndexCall<R>> retrievals, final int limit, Executor executor) {
         Preconditions.checkArgument(!retrievals.isEmpty());
         Preconditions.checkArgument(limit >= 0, "Invalid limit: %s", limit);
-        List<R> results;
-        /*
-         * Iterate over the clauses in the and collection
-         * query.getCondition().getChildren(), taking the intersection
-         * of current results with cumulative results on each iteration.
-         */
-        //TODO: smarter limit estimation
         final int multiplier = Math.min(16, (int) Math.pow(2, retrievals.size() - 1));
         int subLimit = Integer.MAX_VALUE;
         if (Integer.MAX_VALUE / multiplier >= limit) subLimit = limit * multiplier;
+        final List<Collection<R>> subResults = new ArrayList<>(Collections.nCopies(retrievals.size(), null));
+        final boolean[] complete = new boolean[retrievals.size()];
+        Collection<R> results;
         boolean exhaustedResults;
         do {
+            retrieve(retrievals, subResults, complete, subLimit, executor);
             exhaustedResults = true;
-            results = null;
-            for (final IndexCall<R> call : retrievals) {
-                Collection<R> subResult;
-                try {
-                    subResult = call.call(subLimit);
-                } catch (final Exception e) {
-                    throw new JanusGraphException("Could not process individual retrieval call ", e);
+            int smallestTruncated = Integer.MAX_VALUE;
+            for (int i = 0; i < retrievals.size(); i++) {
+                complete[i] = subResults.get(i).size() < subLimit;
+                if (!complete[i]) {
+                    exhaustedResults = false;
+                    smallestTruncated = Math.min(smallestTruncated, subResults.get(i).size());
                 }
+            }
+            results = intersect(subResults);
+            if (results.size() < limit && !exhaustedResults) {
+                subLimit = nextSubLimit(subLimit, limit, results.size(), smallestTruncated);
+            }
+        } while (results.size() < limit && !exhaustedResults);
+        return results;
+    }
 
-                if (subResult.size() >= subLimit) exhaustedResults = false;
-                if (results == null) {
-                    results = new ArrayList<>(subResult);
-                } else {
-                    final Set<R> subResultSet;
-                    if(subResult instanceof Set){
-                        subResultSet = (Set<R>) subResult;
-                    } else {
-                        subResultSet = new HashSet<>(subResult);
-                    }
-                    results.removeIf(o -> !subResultSet.contains(o));
+    /**
+     * Estimates the sub-limit needed for the next round of retrievals from the selectivity of the intersection
+     * observed with the current sub-limit, growing at least geometrically so that the number of rounds stays small.
+     */
+    private static int nextSubLimit(int subLimit, int limit, int found, int smallestTruncated) {
+        final double minimum = (subLimit + 1.0) * 2;
+        final double selectivity = Math.max(found, 1) / (double) Math.max(smallestTruncated, 1);
+        final double estimate = 1.5 * limit / selectivity;
+        return (int) Math.min(Integer.MAX_VALUE - 1, Math.max(minimum, estimate));
+    }
+
+    private static <R> void retrieve(List<IndexCall<R>> retrievals, List<Collection<R>> subResults,
+                                     boolean[] complete, int subLimit, Executor executor) {
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        int local = -1;
+        for (int i = 0; i < retrievals.size(); i++) {
+            if (complete[i]) continue;
+            if (executor == null || local < 0) {
+                if (executor != null) local = i;
+                else subResults.set(i, call(retrievals.get(i), subLimit));
+            } else {
+                final int index = i;
+                futures.add(CompletableFuture.runAsync(() -> subResults.set(index, call(retrievals.get(index), subLimit)), executor));
+            }
+        }
+        if (local >= 0) subResults.set(local, call(retrievals.get(local), subLimit));
+        for (final CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof JanusGraphException) throw (JanusGraphException) e.getCause();
+                throw new JanusGraphException("Could not process individual retrieval call ", e.getCause());
+            }
+        }
+    }
+
+    private static <R> Collection<R> call(IndexCall<R> retrieval, int subLimit) {
+        try {
+            return retrieval.call(subLimit);
+        } catch (final Exception e) {
+            throw new JanusGraphException("Could not process individual retrieval call ", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> Collection<R> intersect(List<Collection<R>> subResults) {
+        boolean allLongs = true;
+        for (final Collection<R> subResult : subResults) {
+            for (final R element : subResult) {
+                if (!(element instanceof Long)) {
+                    allLongs = false;
+                    break;
                 }
             }
-            subLimit = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(Math.pow(subLimit, 1.5),(subLimit+1)*2));
-        } while (results != null && results.size() < limit && !exhaustedResults);
+            if (!allLongs) break;
+        }
+        if (allLongs) {
+            final List<SortedLongArraySet> sets = new ArrayList<>(subResults.size());
+            for (final Collection<R> subResult : subResults) sets.add(SortedLongArraySet.of(subResult));
+            return (Collection<R>) SortedLongArraySet.intersect(sets);
+        }
+        final List<Collection<R>> bySize = new ArrayList<>(subResults);
+        bySize.sort(Comparator.comparingInt(Collection::size));
+        final Set<R> results = new LinkedHashSet<>(bySize.get(0));
+        for (int i = 1; i < bySize.size() && !results.isEmpty(); i++) {
+            final Collection<R> subResult = bySize.get(i);
+            results.retainAll(subResult instanceof Set ? subResult : new HashSet<>(subResult));
+        }
         return results;
     }
 
@@ -0,0 +1,158 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.query.index;
+
+import org.janusgraph.core.JanusGraphElement;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.internal.OrderList;
+import org.janusgraph.graphdb.query.condition.Condition;
+import org.janusgraph.graphdb.query.condition.MultiCondition;
+import org.janusgraph.graphdb.query.graph.JointIndexQuery;
+import org.janusgraph.graphdb.types.IndexType;
+import org.janusgraph.graphdb.types.MixedIndexType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.QUERY_NS;
+
+/**
+ * Selects indexes based on the number of elements each index candidate is estimated to retrieve, as given by the
+ * {@link IndexStatistics} of the graph.
+ * <p>
+ * The candidate retrieving the fewest elements is streamed, unless the query is ordered and a mixed index candidate
+ * can return elements in that order, in which case the cheapest such candidate is streamed. Further candidates are
+ * looked up and intersected with the streamed results only if retrieving them is cheaper than filtering the
+ * elements they would eliminate in memory, see {@link #INDEX_SELECT_FILTER_COST}. Conditions covered by no selected
+ * index are evaluated in memory.
+ * <p>
+ * If any candidate lacks sufficient statistics, the selection is delegated to {@link ThresholdBasedIndexSelectionStrategy}.
+ */
+public class CostBasedIndexSelectionStrategy
+    extends AbstractIndexSelectionStrategy {
+
+    public static final String NAME = "cost-based";
+
+    public static final ConfigOption<Double> INDEX_SELECT_FILTER_COST = new ConfigOption<>(QUERY_NS, "index-select-filter-cost",
+        "Cost of loading and filtering an element in memory relative to the cost of retrieving an element from an index. " +
+            "An additional index is only queried if the number of elements it retrieves is smaller than the number of " +
+            "elements it eliminates from the result times this cost. Only effective when `" + NAME + "` index select " +
+            "strategy is chosen.",
+        ConfigOption.Type.MASKABLE, 4.0, cost -> cost != null && cost > 0);
+
+    public static final ConfigOption<Long> INDEX_STATISTICS_MIN_COUNT = new ConfigOption<>(QUERY_NS, "index-statistics-min-count",
+        "Minimum number of index entries which need to be recorded in the statistics of an index before the `" + NAME +
+            "` index select strategy relies on them. Queries involving indexes with fewer recorded entries use the `" +
+            ThresholdBasedIndexSelectionStrategy.NAME + "` strategy instead.",
+        ConfigOption.Type.MASKABLE, 100L, count -> count != null && count >= 0);
+
+    public static final ConfigOption<Integer> INDEX_STATISTICS_RESULTS = new ConfigOption<>(QUERY_NS, "index-statistics-results",
+        "Number of composite index subqueries whose exact result size is remembered by the `" + NAME + "` index select " +
+            "strategy. The sizes of results retrieved in full take precedence over the estimates of the index statistics.",
+        ConfigOption.Type.MASKABLE, 10000, ConfigOption.positiveInt());
+
+    private final double filterCost;
+    private final long minCount;
+    private final IndexStatistics statistics;
+    private final IndexSelectionStrategy fallback;
+
+    public CostBasedIndexSelectionStrategy(Configuration config) {
+        super(config);
+        this.filterCost = config.get(INDEX_SELECT_FILTER_COST);
+        this.minCount = config.get(INDEX_STATISTICS_MIN_COUNT);
+        this.statistics = new IndexStatistics(config.get(INDEX_STATISTICS_RESULTS));
+        this.fallback = new ThresholdBasedIndexSelectionStrategy(config);
+    }
+
+    @Override
+    public IndexStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public SelectedIndexQuery selectIndices(final Set<IndexType> rawCandidates,
+                                            final MultiCondition<JanusGraphElement> conditions,
+                                            final Set<Condition> coveredClauses, OrderList orders,
+                                            IndexSerializer serializer) {
+        final List<IndexCandidate> candidates = new ArrayList<>(rawCandidates.size());
+        final Map<IndexCandidate, Double> estimates = new HashMap<>(rawCandidates.size());
+        double elements = 1;
+        for (final IndexType index : rawCandidates) {
+            final IndexCandidate candidate = createIndexCandidate(index, conditions, serializer);
+            if (candidate == null) {
+                continue;
+            }
+            final double estimate = statistics.estimate(candidate, serializer, minCount);
+            if (estimate < 0) {
+                return fallback.selectIndices(rawCandidates, conditions, coveredClauses, orders, serializer);
+            }
+            candidates.add(candidate);
+            estimates.put(candidate, estimate);
+            elements = Math.max(elements, Math.max(estimate, statistics.getElementCount(index)));
+        }
+
+        final JointIndexQuery jointQuery = new JointIndexQuery();
+        if (candidates.isEmpty()) {
+            return new SelectedIndexQuery(jointQuery, orders.isEmpty());
+        }
+        candidates.sort((a, b) -> Double.compare(estimates.get(a), estimates.get(b)));
+
+        IndexCandidate streamed = candidates.get(0);
+        boolean isSorted = orders.isEmpty();
+        if (!isSorted) {
+            for (final IndexCandidate candidate : candidates) {
+                if (supportsSort(candidate, orders)) {
+                    streamed = candidate;
+                    isSorted = true;
+                    break;
+                }
+            }
+        }
+
+        final List<IndexCandidate> selected = new ArrayList<>();
+        selected.add(streamed);
+        final Set<Condition> covered = new HashSet<>(streamed.getSubCover());
+        double remaining = estimates.get(streamed);
+        for (final IndexCandidate candidate : candidates) {
+            if (covered.containsAll(candidate.getSubCover())) {
+                continue;
+            }
+            final double estimate = estimates.get(candidate);
+            final double selectivity = Math.min(1.0, estimate / elements);
+            if (estimate <= remaining * (1.0 - selectivity) * filterCost) {
+                selected.add(candidate);
+                covered.addAll(candidate.getSubCover());
+                remaining *= selectivity;
+            }
+        }
+
+        coveredClauses.addAll(covered);
+        for (final IndexCandidate candidate : selected) {
+            addToJointQuery(candidate, jointQuery, serializer, orders);
+        }
+        return new SelectedIndexQuery(jointQuery, isSorted);
+    }
+
+    private static boolean supportsSort(IndexCandidate candidate, OrderList orders) {
+        return candidate.getIndex().isMixedIndex() &&
+            IndexSelectionUtil.indexCoversOrder((MixedIndexType) candidate.getIndex(), orders);
+    }
+}
@@ -32,6 +32,14 @@ public interface IndexSelectionStrategy {
                                      final Set<Condition> coveredClauses, OrderList orders,
                                      IndexSerializer serializer);
 
+    /**
+     * Returns the index statistics this strategy relies on, which the graph keeps up to date and persists, or
+     * {@code null} if the strategy does not use statistics.
+     */
+    default IndexStatistics getStatistics() {
+        return null;
+    }
+
     class SelectedIndexQuery {
         private JointIndexQuery query;
         private boolean isSorted;
@@ -0,0 +1,545 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.query.index;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.janusgraph.core.JanusGraphElement;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.attribute.Cmp;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ReadConfiguration;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.indexing.IndexEntry;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.query.condition.And;
+import org.janusgraph.graphdb.query.condition.Condition;
+import org.janusgraph.graphdb.query.condition.Not;
+import org.janusgraph.graphdb.query.condition.Or;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
+import org.janusgraph.graphdb.query.graph.JointIndexQuery;
+import org.janusgraph.graphdb.query.graph.MultiKeySliceQuery;
+import org.janusgraph.graphdb.types.CompositeIndexType;
+import org.janusgraph.graphdb.types.IndexField;
+import org.janusgraph.graphdb.types.IndexType;
+import org.janusgraph.graphdb.types.MixedIndexType;
+import org.janusgraph.util.stats.CountMinSketch;
+import org.janusgraph.util.stats.HyperLogLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sketches of the contents of graph indexes which are used by {@link CostBasedIndexSelectionStrategy} to estimate
+ * how many elements an index subquery retrieves.
+ * <p>
+ * For every composite index, the number of index entries is tracked together with a {@link HyperLogLog} of its
+ * distinct index keys and a {@link CountMinSketch} of the number of entries per key. For every mixed index, the number
+ * of distinct documents is tracked and, for each of its fields, the number of entries and the frequency of values.
+ * Sketches are updated from the index updates of committed transactions, see {@link #recordUpdates(Collection)}.
+ * In addition, the exact size of composite index subquery results which were retrieved in full is remembered for a
+ * bounded number of subqueries and takes precedence over the sketches, see {@link #recordResult(JointIndexQuery.Subquery, int, long[])}.
+ * A remembered result is dropped once any of its index keys is updated.
+ * <p>
+ * The sketches of an index are only used once they are complete, i.e. cover all of its entries. This is the case for
+ * indexes and mixed index fields which are created on new property keys, see {@link #markComplete(IndexType)}
+ * and {@link #markComplete(MixedIndexType, PropertyKey)}, whereas indexes on existing data are treated as lacking
+ * statistics until their sketches have been rebuilt from their contents by a reindex, see {@link #startBackfill(IndexType)}.
+ * <p>
+ * Statistics cover updates seen by this instance and those {@link #load(ReadConfiguration) loaded} from storage
+ * when the graph was opened. When {@link #persist(WriteConfiguration) persisted}, the updates seen since the last
+ * persist are merged into the stored sketches, so that instances sharing a graph accumulate their statistics. Since
+ * reading and writing the stored sketches is not atomic, the updates of instances which persist at the same time
+ * might be lost. Statistics are estimates and never affect the correctness of query results.
+ */
+public class IndexStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexStatistics.class);
+
+    private static final int HLL_PRECISION = 11;
+    private static final int CMS_DEPTH = 4;
+    private static final int CMS_WIDTH = 1024;
+
+    private static final char FIELD_SEPARATOR = '/';
+
+    /**
+     * Default selectivity of range predicates, which cannot be estimated from value frequencies
+     */
+    static final double RANGE_SELECTIVITY = 1.0 / 3;
+    /**
+     * Default selectivity of text, geo and other predicates
+     */
+    static final double OTHER_SELECTIVITY = 0.1;
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    /**
+     * Number of version counters of composite index keys, which are shared by keys with colliding hashes
+     */
+    private static final int KEY_VERSIONS = 4096;
+
+    private final ConcurrentMap<String, Sketch> sketches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Sketch>> backfills = new ConcurrentHashMap<>();
+    private final Cache<JointIndexQuery.Subquery, RecordedResult> results;
+    private final AtomicLongArray keyVersions = new AtomicLongArray(KEY_VERSIONS);
+
+    public IndexStatistics(int maxRecordedResults) {
+        this.results = CacheBuilder.newBuilder().maximumSize(maxRecordedResults).build();
+    }
+
+    /**
+     * Updates the sketches with the given index updates of a committed transaction.
+     */
+    public void recordUpdates(Collection<IndexSerializer.IndexUpdate> updates) {
+        for (final IndexSerializer.IndexUpdate update : updates) {
+            final long delta = update.isAddition() ? 1 : -1;
+            final IndexType index = update.getIndex();
+            if (update.isCompositeIndex()) {
+                final long hash = hash((StaticBuffer) update.getKey());
+                sketch(index.getName()).add(hash, delta);
+                //Invalidates the recorded results of all subqueries which retrieve this key
+                keyVersions.incrementAndGet(keyVersion(hash));
+            } else {
+                final IndexEntry entry = (IndexEntry) update.getEntry();
+                sketch(index.getName()).add(hash((String) update.getKey()), delta);
+                sketch(fieldName(index, entry.field)).add(hash(entry.value), delta);
+            }
+        }
+    }
+
+    /**
+     * Marks the sketch of the entries of a composite index or the documents of a mixed index as complete, which is
+     * the case if the index is created before any element could be indexed by it.
+     */
+    public void markComplete(IndexType index) {
+        sketch(index.getName()).markComplete();
+    }
+
+    /**
+     * Marks the sketch of the given field of a mixed index as complete, which is the case if the key is added to the
+     * index before any value of it could be indexed.
+     */
+    public void markComplete(MixedIndexType index, PropertyKey key) {
+        sketch(fieldName(index, IndexSerializer.key2Field(index, key))).markComplete();
+    }
+
+    /**
+     * Starts rebuilding the sketches of the given index from the elements it is reindexed with, which are recorded
+     * through {@link #recordBackfill(IndexType, Collection)} and {@link #recordBackfill(MixedIndexType, Map)}.
+     * Any backfill of the index which has not been finished is discarded.
+     */
+    public void startBackfill(IndexType index) {
+        backfills.put(index.getName(), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Records the entries which a reindex writes for an element into a composite index.
+     */
+    public void recordBackfill(IndexType index, Collection<? extends IndexSerializer.IndexUpdate> updates) {
+        final ConcurrentMap<String, Sketch> backfill = backfills.get(index.getName());
+        if (backfill == null) return;
+        for (final IndexSerializer.IndexUpdate update : updates) {
+            backfill.computeIfAbsent(index.getName(), n -> new Sketch()).add(hash((StaticBuffer) update.getKey()), 1);
+        }
+    }
+
+    /**
+     * Records the documents which a reindex writes into a mixed index, by document id.
+     */
+    public void recordBackfill(MixedIndexType index, Map<String, List<IndexEntry>> documents) {
+        final ConcurrentMap<String, Sketch> backfill = backfills.get(index.getName());
+        if (backfill == null) return;
+        for (final Map.Entry<String, List<IndexEntry>> document : documents.entrySet()) {
+            backfill.computeIfAbsent(index.getName(), n -> new Sketch()).add(hash(document.getKey()), 1);
+            for (final IndexEntry entry : document.getValue()) {
+                backfill.computeIfAbsent(fieldName(index, entry.field), n -> new Sketch()).add(hash(entry.value), 1);
+            }
+        }
+    }
+
+    /**
+     * Finishes the backfill of the given index. If the reindex succeeded, the sketches of the index are replaced by
+     * the rebuilt ones, which are complete and replace the stored sketches once persisted, otherwise they are discarded.
+     * Updates which are committed while the index is reindexed might be missing from the rebuilt sketches.
+     */
+    public void finishBackfill(IndexType index, boolean succeeded) {
+        final ConcurrentMap<String, Sketch> backfill = backfills.remove(index.getName());
+        if (backfill == null || !succeeded) return;
+        backfill.computeIfAbsent(index.getName(), n -> new Sketch());
+        if (index.isMixedIndex()) {
+            //Fields without any values are known to be empty as well
+            for (final IndexField field : index.getFieldKeys()) {
+                backfill.computeIfAbsent(fieldName(index, IndexSerializer.key2Field((MixedIndexType) index, field.getFieldKey())), n -> new Sketch());
+            }
+        }
+        for (final Map.Entry<String, Sketch> sketch : backfill.entrySet()) {
+            sketch.getValue().markBackfilled();
+            sketches.put(sketch.getKey(), sketch.getValue());
+        }
+    }
+
+    /**
+     * Returns the versions of the index keys retrieved by the given subquery, which must be obtained before executing
+     * the subquery and passed to {@link #recordResult(JointIndexQuery.Subquery, int, long[])} along with its result.
+     *
+     * @return the key versions, or null for mixed index subqueries
+     */
+    public long[] getKeyVersions(JointIndexQuery.Subquery query) {
+        return query.getIndex().isCompositeIndex() ? getKeyVersions(query.getCompositeQuery()) : null;
+    }
+
+    /**
+     * Records the size of the result of the given composite index subquery, unless any of its index keys was updated
+     * since the given key versions were obtained. Results which were truncated by the limit of the subquery as well as
+     * results of mixed index subqueries are ignored.
+     */
+    public void recordResult(JointIndexQuery.Subquery query, int size, long[] keyVersions) {
+        if (keyVersions != null && (!query.hasLimit() || size < query.getLimit())
+                && Arrays.equals(keyVersions, getKeyVersions(query.getCompositeQuery()))) {
+            results.put(query.updateLimit(0), new RecordedResult(size, keyVersions));
+        }
+    }
+
+    private long[] getKeyVersions(MultiKeySliceQuery keys) {
+        final List<KeySliceQuery> queries = keys.getQueries();
+        final long[] versions = new long[queries.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = keyVersions.get(keyVersion(hash(queries.get(i).getKey())));
+        }
+        return versions;
+    }
+
+    private static int keyVersion(long hash) {
+        return (int) (hash & (KEY_VERSIONS - 1));
+    }
+
+    /**
+     * Estimates the number of elements retrieved by the given index candidate.
+     *
+     * @return the estimated number of elements, or a negative number if there are no statistics for the index or
+     * fewer than {@code minCount} index entries were recorded for it
+     */
+    public double estimate(IndexCandidate candidate, IndexSerializer serializer, long minCount) {
+        final IndexType index = candidate.getIndex();
+        final JointIndexQuery query = new JointIndexQuery();
+        if (index.isCompositeIndex()) {
+            final MultiKeySliceQuery keys = serializer.getQuery((CompositeIndexType) index, (List<Object[]>) candidate.getSubCondition());
+            query.add((CompositeIndexType) index, keys);
+            final JointIndexQuery.Subquery subquery = query.getQuery(0).updateLimit(0);
+            final RecordedResult observed = results.getIfPresent(subquery);
+            if (observed != null) {
+                if (Arrays.equals(observed.keyVersions, getKeyVersions(keys))) return observed.size;
+                results.invalidate(subquery);
+            }
+            final Sketch sketch = sketches.get(index.getName());
+            if (sketch == null || !sketch.isComplete() || sketch.count() < minCount) return -1;
+            double estimate = 0;
+            for (final KeySliceQuery key : keys.getQueries()) {
+                estimate += sketch.frequency(hash(key.getKey()));
+            }
+            return estimate;
+        } else {
+            final Sketch documents = sketches.get(index.getName());
+            if (documents == null || !documents.isComplete() || documents.count() < minCount) return -1;
+            final double selectivity = selectivity((MixedIndexType) index, (Condition<JanusGraphElement>) candidate.getSubCondition(), documents);
+            return selectivity < 0 ? -1 : selectivity * documents.distinct();
+        }
+    }
+
+    private double selectivity(MixedIndexType index, Condition<JanusGraphElement> condition, Sketch documents) {
+        if (condition instanceof And || condition instanceof Or) {
+            final boolean and = condition instanceof And;
+            double selectivity = and ? 1.0 : 0.0;
+            for (final Condition<JanusGraphElement> child : condition.getChildren()) {
+                final double childSelectivity = selectivity(index, child, documents);
+                if (childSelectivity < 0) return -1;
+                selectivity = and ? selectivity * childSelectivity : selectivity + childSelectivity;
+            }
+            return Math.min(1.0, selectivity);
+        } else if (condition instanceof Not) {
+            final double selectivity = selectivity(index, ((Not<JanusGraphElement>) condition).getChild(), documents);
+            return selectivity < 0 ? -1 : 1.0 - selectivity;
+        } else if (condition instanceof PredicateCondition) {
+            final PredicateCondition<PropertyKey, JanusGraphElement> atom = (PredicateCondition) condition;
+            final Sketch field = sketches.get(fieldName(index, IndexSerializer.key2Field(index, atom.getKey())));
+            if (field == null || !field.isComplete()) return -1;
+            final double docs = Math.max(1, documents.distinct());
+            final double present = Math.min(1.0, field.count() / docs);
+            if (atom.getPredicate() == Cmp.EQUAL) {
+                return Math.min(1.0, field.frequency(hash(atom.getValue())) / docs);
+            } else if (atom.getPredicate() == Cmp.NOT_EQUAL) {
+                if (atom.getValue() == null) return present;
+                return Math.max(0.0, present - field.frequency(hash(atom.getValue())) / docs);
+            } else if (atom.getPredicate() instanceof Cmp) {
+                return present * RANGE_SELECTIVITY;
+            } else {
+                return present * OTHER_SELECTIVITY;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the estimated number of elements in the given index, i.e. the number of entries of a composite index or
+     * the number of distinct documents of a mixed index, or {@code 0} if no entries were recorded for the index.
+     */
+    public long getElementCount(IndexType index) {
+        final Sketch sketch = sketches.get(index.getName());
+        if (sketch == null) return 0;
+        return index.isCompositeIndex() ? sketch.count() : sketch.distinct();
+    }
+
+    /**
+     * Merges the updates recorded since the last persist into the sketches stored in the given configuration and
+     * refreshes the sketches held in memory with the merged ones, which include the updates persisted by other instances.
+     */
+    public void persist(WriteConfiguration config) {
+        for (final Map.Entry<String, Sketch> entry : sketches.entrySet()) {
+            final Sketch sketch = entry.getValue();
+            final Updates updates = sketch.takeUpdates();
+            try {
+                final Sketch merged = updates.replace ? new Sketch() : read(config, entry.getKey());
+                merged.merge(updates);
+                config.set(entry.getKey(), Base64.getEncoder().encodeToString(merged.toBytes()));
+                sketch.rebase(merged);
+            } catch (IOException e) {
+                sketch.restoreUpdates(updates);
+                log.warn("Could not serialize statistics of index [{}]", entry.getKey(), e);
+            }
+        }
+    }
+
+    private static Sketch read(ReadConfiguration config, String key) {
+        final String value = config.get(key, String.class);
+        if (value != null) {
+            try {
+                return Sketch.fromBytes(Base64.getDecoder().decode(value));
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Replacing invalid statistics of index [{}]", key, e);
+            }
+        }
+        return new Sketch();
+    }
+
+    /**
+     * Loads all sketches from the given configuration, replacing the sketches of the same indexes held in memory.
+     */
+    public void load(ReadConfiguration config) {
+        for (final String key : config.getKeys("")) {
+            final String value = config.get(key, String.class);
+            if (value == null) continue;
+            try {
+                sketches.put(key, Sketch.fromBytes(Base64.getDecoder().decode(value)));
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Ignoring invalid statistics of index [{}]", key, e);
+            }
+        }
+    }
+
+    private Sketch sketch(String name) {
+        return sketches.computeIfAbsent(name, n -> new Sketch());
+    }
+
+    private static String fieldName(IndexType index, String field) {
+        return index.getName() + FIELD_SEPARATOR + field;
+    }
+
+    private static long hash(StaticBuffer buffer) {
+        return HASH.hashBytes(buffer.as(StaticBuffer.ARRAY_FACTORY)).asLong();
+    }
+
+    private static long hash(Object value) {
+        return HASH.hashString(String.valueOf(value), StandardCharsets.UTF_8).asLong();
+    }
+
+    private static class RecordedResult {
+
+        private final int size;
+        private final long[] keyVersions;
+
+        private RecordedResult(int size, long[] keyVersions) {
+            this.size = size;
+            this.keyVersions = keyVersions;
+        }
+    }
+
+    /**
+     * Updates of a sketch which have not been persisted yet. Removals are tracked separately, since the frequencies
+     * of a {@link CountMinSketch} cannot become negative.
+     */
+    private static class Updates {
+
+        private long count = 0;
+        private boolean complete = false;
+        //Whether these updates replace the stored sketch rather than being merged into it
+        private boolean replace = false;
+        private final HyperLogLog distinct = new HyperLogLog(HLL_PRECISION);
+        private final CountMinSketch additions = new CountMinSketch(CMS_DEPTH, CMS_WIDTH);
+        private final CountMinSketch removals = new CountMinSketch(CMS_DEPTH, CMS_WIDTH);
+
+        private void add(long hash, long delta) {
+            count += delta;
+            if (delta > 0) {
+                distinct.add(hash);
+                additions.add(hash, delta);
+            } else {
+                removals.add(hash, -delta);
+            }
+        }
+
+        private void merge(Updates other) {
+            count += other.count;
+            complete |= other.complete;
+            replace |= other.replace;
+            distinct.merge(other.distinct);
+            additions.add(other.additions);
+            removals.add(other.removals);
+        }
+    }
+
+    private static class Sketch {
+
+        private long count;
+        private final HyperLogLog distinct;
+        private final CountMinSketch frequencies;
+        private boolean complete;
+        private Sketch base;
+        private Updates updates = new Updates();
+
+        private Sketch() {
+            this(0, new HyperLogLog(HLL_PRECISION), new CountMinSketch(CMS_DEPTH, CMS_WIDTH), false);
+        }
+
+        private Sketch(long count, HyperLogLog distinct, CountMinSketch frequencies, boolean complete) {
+            this.count = count;
+            this.distinct = distinct;
+            this.frequencies = frequencies;
+            this.complete = complete;
+        }
+
+        synchronized void add(long hash, long delta) {
+            if (base != null) {
+                base.add(hash, delta);
+            } else {
+                count = Math.max(0, count + delta);
+                if (delta > 0) distinct.add(hash);
+                frequencies.add(hash, delta);
+            }
+            updates.add(hash, delta);
+        }
+
+        synchronized long count() {
+            return base != null ? base.count() : count;
+        }
+
+        synchronized boolean isComplete() {
+            return base != null ? base.isComplete() : complete;
+        }
+
+        synchronized void markComplete() {
+            if (base != null) {
+                base.markComplete();
+            } else {
+                complete = true;
+            }
+            updates.complete = true;
+        }
+
+        /**
+         * Marks this sketch, which has been rebuilt from all entries of its index, as complete and as replacement of
+         * the stored sketch.
+         */
+        synchronized void markBackfilled() {
+            markComplete();
+            updates.replace = true;
+        }
+
+        synchronized long distinct() {
+            return base != null ? base.distinct() : distinct.cardinality();
+        }
+
+        synchronized long frequency(long hash) {
+            return base != null ? base.frequency(hash) : frequencies.estimate(hash);
+        }
+
+        /**
+         * @return the updates since the last call, which are merged into the stored sketch
+         */
+        synchronized Updates takeUpdates() {
+            final Updates taken = updates;
+            updates = new Updates();
+            return taken;
+        }
+
+        synchronized void restoreUpdates(Updates taken) {
+            taken.merge(updates);
+            updates = taken;
+        }
+
+        /**
+         * Replaces the contents of this sketch with the given merged sketch and the updates recorded since
+         * they were taken.
+         */
+        synchronized void rebase(Sketch merged) {
+            merged.merge(updates);
+            base = merged;
+        }
+
+        synchronized void merge(Updates other) {
+            count = Math.max(0, count + other.count);
+            complete |= other.complete;
+            distinct.merge(other.distinct);
+            frequencies.add(other.additions);
+            frequencies.subtract(other.removals);
+        }
+
+        synchronized byte[] toBytes() throws IOException {
+            if (base != null) return base.toBytes();
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeLong(count);
+                distinct.write(out);
+                frequencies.write(out);
+                out.writeBoolean(complete);
+            }
+            return bytes.toByteArray();
+        }
+
+        static Sketch fromBytes(byte[] bytes) throws IOException {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                //Sketches stored without the flag are incomplete
+                return new Sketch(in.readLong(), HyperLogLog.read(in), CountMinSketch.read(in), in.available() > 0 && in.readBoolean());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,339 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.query.profile;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.graphdb.database.idhandling.IDHandler;
+import org.janusgraph.graphdb.query.graph.JointIndexQuery;
+import org.janusgraph.graphdb.types.system.SystemRelationType;
+import org.janusgraph.graphdb.types.system.SystemTypeManager;
+import org.janusgraph.util.stats.MetricManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_PREFIX;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_QUERY_SHAPES_MAX;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_SLOW_QUERY_SAMPLE_RATE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_SLOW_QUERY_THRESHOLD;
+
+/**
+ * Records the latency of backend queries in one histogram per query shape. The shape of an edge store
+ * slice is its relation type, direction and limit; the shape of an index subquery is its index, the kind of
+ * that index and its limit. Limits are rounded up to the next power of ten to keep the number of shapes small.
+ * <p>
+ * Histograms are registered with the {@link MetricManager} as
+ * {@code <prefix>.query-shapes.<edgestore|index>.<type or index>.<direction or kind>.<limit>}, and latencies
+ * are recorded in microseconds into a lock-free {@link org.janusgraph.util.stats.LogBucketReservoir}, such that
+ * recording does not contend between concurrent queries. Once {@link org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#METRICS_QUERY_SHAPES_MAX}
+ * shapes are tracked, any further shape is recorded in the shared {@code <prefix>.query-shapes.<kind>.other} histogram.
+ * <p>
+ * Queries exceeding the configured slow query threshold are logged, optionally sampled, together with the
+ * traversal step that was executing on the calling thread, see {@link #setCurrentStep(Object)}.
+ */
+public class QueryShapeMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryShapeMetrics.class);
+
+    public static final String QUERY_SHAPES = "query-shapes";
+    public static final String EDGESTORE = "edgestore";
+    public static final String INDEX = "index";
+    public static final String OVERFLOW = "other";
+
+    private static final String UNLIMITED = "unlimited";
+    private static final String TYPE_RANGE = "range";
+    private static final String UNKNOWN = "unknown";
+
+    private static final ThreadLocal<Object> CURRENT_STEP = new ThreadLocal<>();
+
+    private final String metricsPrefix;
+    private final int maxShapes;
+    private final long slowQueryThresholdNs;
+    private final double slowQuerySampleRate;
+
+    private final ConcurrentMap<Shape, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Histogram edgeStoreOverflow;
+    private final Histogram indexOverflow;
+
+    public QueryShapeMetrics(Configuration config) {
+        this(config.get(METRICS_PREFIX), config.get(METRICS_QUERY_SHAPES_MAX),
+            config.get(METRICS_SLOW_QUERY_THRESHOLD), config.get(METRICS_SLOW_QUERY_SAMPLE_RATE));
+    }
+
+    public QueryShapeMetrics(String metricsPrefix, int maxShapes, Duration slowQueryThreshold, double slowQuerySampleRate) {
+        Preconditions.checkArgument(maxShapes > 0, "Invalid number of query shapes: %s", maxShapes);
+        Preconditions.checkArgument(!slowQueryThreshold.isNegative(), "Invalid slow query threshold: %s", slowQueryThreshold);
+        Preconditions.checkArgument(slowQuerySampleRate >= 0.0 && slowQuerySampleRate <= 1.0,
+            "Invalid slow query sample rate: %s", slowQuerySampleRate);
+        this.metricsPrefix = metricsPrefix;
+        this.maxShapes = maxShapes;
+        this.slowQueryThresholdNs = slowQueryThreshold.toNanos();
+        this.slowQuerySampleRate = slowQuerySampleRate;
+        this.edgeStoreOverflow = register(EDGESTORE, OVERFLOW);
+        this.indexOverflow = register(INDEX, OVERFLOW);
+    }
+
+    /**
+     * Sets the traversal step executing on the current thread, which is reported alongside slow queries.
+     *
+     * @param step the step now executing, or {@code null}
+     * @return the previously executing step, to be restored once the given step returns
+     */
+    public static Object setCurrentStep(Object step) {
+        final Object previous = CURRENT_STEP.get();
+        if (step == null) CURRENT_STEP.remove();
+        else CURRENT_STEP.set(step);
+        return previous;
+    }
+
+    public static Object getCurrentStep() {
+        return CURRENT_STEP.get();
+    }
+
+    /**
+     * Records an edge store slice query over the given number of keys which was started at {@code startNs},
+     * as given by {@link System#nanoTime()}, and has just completed.
+     */
+    public void recordSlice(SliceQuery query, int keys, long startNs) {
+        recordSlice(query, keys, startNs, CURRENT_STEP.get());
+    }
+
+    /**
+     * Variant of {@link #recordSlice(SliceQuery, int, long)} for queries which complete on a different thread
+     * than the one which issued them.
+     */
+    public void recordSlice(SliceQuery query, int keys, long startNs, Object step) {
+        record(sliceShape(query), System.nanoTime() - startNs, keys, step, query);
+    }
+
+    /**
+     * Records an index subquery which was started at {@code startNs} and whose results are now available.
+     */
+    public void recordIndex(JointIndexQuery.Subquery query, long startNs) {
+        record(indexShape(query), System.nanoTime() - startNs, 1, CURRENT_STEP.get(), query);
+    }
+
+    /**
+     * Records an index subquery which was started at {@code startNs} and whose results are streamed lazily. The time
+     * spent fetching the results is recorded once the stream is exhausted or closed, while the time spent by the
+     * consumer of the stream between fetches is excluded.
+     *
+     * @return a stream of the given results which records the query
+     */
+    public <T> Stream<T> recordIndex(JointIndexQuery.Subquery query, long startNs, Stream<T> results) {
+        final Object step = CURRENT_STEP.get();
+        final TimedSpliterator<T> timed = new TimedSpliterator<>(results.spliterator(), System.nanoTime() - startNs,
+            durationNs -> record(indexShape(query), durationNs, 1, step, query));
+        return StreamSupport.stream(timed, false).onClose(() -> {
+            timed.complete();
+            results.close();
+        });
+    }
+
+    private void record(Shape shape, long durationNs, int keys, Object step, Object query) {
+        histogram(shape).update(TimeUnit.NANOSECONDS.toMicros(durationNs));
+        if (slowQueryThresholdNs > 0 && durationNs >= slowQueryThresholdNs
+                && (slowQuerySampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate)) {
+            log.warn("Slow query of shape [{}] took {} ms for {} key(s) in step [{}]: {}",
+                shape, TimeUnit.NANOSECONDS.toMillis(durationNs), keys, step, query);
+        }
+    }
+
+    private Histogram histogram(Shape shape) {
+        Histogram histogram = histograms.get(shape);
+        if (histogram != null) return histogram;
+        if (histograms.size() >= maxShapes) {
+            return shape.kind.equals(INDEX) ? indexOverflow : edgeStoreOverflow;
+        }
+        return histograms.computeIfAbsent(shape, s -> register(s.kind, s.label, s.variant, s.limit));
+    }
+
+    private Histogram register(String... names) {
+        return MetricManager.INSTANCE.getLogBucketHistogram(metricsPrefix, prepend(QUERY_SHAPES, names));
+    }
+
+    private static String[] prepend(String first, String[] rest) {
+        final String[] names = new String[rest.length + 1];
+        names[0] = first;
+        System.arraycopy(rest, 0, names, 1, rest.length);
+        return names;
+    }
+
+    /**
+     * Returns the metric name of the histogram which records queries of the same shape as the given slice query.
+     */
+    public String getMetricName(SliceQuery query) {
+        return sliceShape(query).name(metricsPrefix);
+    }
+
+    /**
+     * Returns the metric name of the histogram which records queries of the same shape as the given subquery.
+     */
+    public String getMetricName(JointIndexQuery.Subquery query) {
+        return indexShape(query).name(metricsPrefix);
+    }
+
+    static Shape sliceShape(SliceQuery query) {
+        final String limit = limitBucket(query.hasLimit(), query.getLimit());
+        final StaticBuffer start = query.getSliceStart();
+        if (start.length() <= 1 && (start.length() == 0 || (start.getByte(0) & 0x1F) == 0)) {
+            //Category bounds as produced by IDHandler.getBounds span all relation types
+            return new Shape(EDGESTORE, TYPE_RANGE, UNKNOWN, limit);
+        }
+        try {
+            final IDHandler.RelationTypeParse type = IDHandler.readRelationType(start.asReadBuffer());
+            final SystemRelationType systemType = SystemTypeManager.getSystemType(type.typeId);
+            final String label = systemType != null ? sanitize(systemType.name()) : "type-" + type.typeId;
+            final String direction;
+            switch (type.dirID) {
+                case PROPERTY_DIR:
+                    direction = "property";
+                    break;
+                case EDGE_OUT_DIR:
+                    direction = "out";
+                    break;
+                case EDGE_IN_DIR:
+                    direction = "in";
+                    break;
+                default:
+                    direction = UNKNOWN;
+            }
+            return new Shape(EDGESTORE, label, direction, limit);
+        } catch (RuntimeException e) {
+            return new Shape(EDGESTORE, UNKNOWN, UNKNOWN, limit);
+        }
+    }
+
+    static Shape indexShape(JointIndexQuery.Subquery query) {
+        return new Shape(INDEX, sanitize(query.getIndex().getName()),
+            query.getIndex().isCompositeIndex() ? "composite" : "mixed",
+            limitBucket(query.hasLimit(), query.getLimit()));
+    }
+
+    private static String limitBucket(boolean hasLimit, int limit) {
+        if (!hasLimit) return UNLIMITED;
+        long bucket = 1;
+        while (bucket < limit) bucket *= 10;
+        return "limit-" + bucket;
+    }
+
+    private static String sanitize(String name) {
+        final StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '-' || c == '_') sb.append(c);
+            else if (c != '~') sb.append('_');
+        }
+        return sb.length() == 0 ? UNKNOWN : sb.toString();
+    }
+
+    /**
+     * Measures the time spent advancing the wrapped spliterator and reports it once when the spliterator is exhausted
+     * or completed explicitly.
+     */
+    private static class TimedSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Spliterator<T> source;
+        private final LongConsumer recorder;
+        private long elapsedNs;
+        private boolean completed = false;
+        private T next;
+
+        private TimedSpliterator(Spliterator<T> source, long elapsedNs, LongConsumer recorder) {
+            super(source.estimateSize(), source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED));
+            this.source = source;
+            this.elapsedNs = elapsedNs;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            final long start = System.nanoTime();
+            final boolean advanced = source.tryAdvance(element -> next = element);
+            elapsedNs += System.nanoTime() - start;
+            if (!advanced) {
+                complete();
+                return false;
+            }
+            final T element = next;
+            next = null;
+            action.accept(element);
+            return true;
+        }
+
+        private synchronized void complete() {
+            if (completed) return;
+            completed = true;
+            recorder.accept(elapsedNs);
+        }
+    }
+
+    static class Shape {
+
+        private final String kind;
+        private final String label;
+        private final String variant;
+        private final String limit;
+        private final int hashCode;
+
+        Shape(String kind, String label, String variant, String limit) {
+            this.kind = kind;
+            this.label = label;
+            this.variant = variant;
+            this.limit = limit;
+            this.hashCode = Objects.hash(kind, label, variant, limit);
+        }
+
+        String name(String prefix) {
+            return MetricRegistry.name(prefix, QUERY_SHAPES, kind, label, variant, limit);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other == null || !getClass().isInstance(other)) return false;
+            final Shape oth = (Shape) other;
+            return kind.equals(oth.kind) && label.equals(oth.label) && variant.equals(oth.variant) && limit.equals(oth.limit);
+        }
+
+        @Override
+        public String toString() {
+            return kind + "." + label + "." + variant + "." + limit;
+        }
+    }
+
+}
@@ -25,6 +25,7 @@ import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of {@link JanusGraphMultiVertexQuery} that extends {@link BasicVertexCentricQueryBuilder}
@@ -99,14 +100,7 @@ public class MultiVertexCentricQueryBuilder extends BasicVertexCentricQueryBuild
         profiler.setAnnotation(QueryProfiler.NUMVERTICES_ANNOTATION,vertices.size());
         if (!bq.isEmpty()) {
             for (BackendQueryHolder<SliceQuery> sq : bq.getQueries()) {
-                Set<InternalVertex> adjVertices = new HashSet<>(vertices);
-                for (InternalVertex v : vertices) {
-                    if (isPartitionedVertex(v)) {
-                        profiler.setAnnotation(QueryProfiler.PARTITIONED_VERTEX_ANNOTATION,true);
-                        adjVertices.remove(v);
-                        adjVertices.addAll(allRequiredRepresentatives(v));
-                    }
-                }
+                Set<InternalVertex> adjVertices = getAdjacentVertices();
                 //Overwrite with more accurate size accounting for partitioned vertices
                 profiler.setAnnotation(QueryProfiler.NUMVERTICES_ANNOTATION,adjVertices.size());
                 tx.executeMultiQuery(adjVertices, sq.getBackendQuery(), sq.getProfiler());
@@ -121,6 +115,44 @@ public class MultiVertexCentricQueryBuilder extends BasicVertexCentricQueryBuild
         return result;
     }
 
+    /**
+     * Asynchronously retrieves the relations of all vertices of this query for the given return type from the storage
+     * backend. The returned future completes with an action which loads the retrieved relations into the vertices and
+     * which must be run by the thread that uses the transaction, since transactions are not thread-safe. Once it has
+     * been run, executing this query for the same return type is answered without accessing the storage backend.
+     *
+     * @param returnType
+     * @return
+     */
+    public CompletableFuture<Runnable> executeAsync(RelationCategory returnType) {
+        Preconditions.checkArgument(!vertices.isEmpty(), "Need to add at least one vertex to query");
+        if (isImplicitKeyQuery(returnType)) return CompletableFuture.completedFuture(() -> {});
+        BaseVertexCentricQuery bq = super.constructQuery(returnType);
+        if (bq.isEmpty()) return CompletableFuture.completedFuture(() -> {});
+        final Set<InternalVertex> adjVertices = getAdjacentVertices();
+        final List<CompletableFuture<Runnable>> futures = new ArrayList<>(bq.numSubQueries());
+        for (BackendQueryHolder<SliceQuery> sq : bq.getQueries()) {
+            futures.add(tx.executeMultiQueryAsync(adjVertices, sq.getBackendQuery()));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(v -> () -> futures.forEach(future -> future.join().run()));
+    }
+
+    /**
+     * Returns the base vertices of this query with partitioned vertices replaced by their required representatives.
+     */
+    private Set<InternalVertex> getAdjacentVertices() {
+        Set<InternalVertex> adjVertices = new HashSet<>(vertices);
+        for (InternalVertex v : vertices) {
+            if (isPartitionedVertex(v)) {
+                profiler.setAnnotation(QueryProfiler.PARTITIONED_VERTEX_ANNOTATION,true);
+                adjVertices.remove(v);
+                adjVertices.addAll(allRequiredRepresentatives(v));
+            }
+        }
+        return adjVertices;
+    }
+
     public Map<JanusGraphVertex, Iterable<? extends JanusGraphRelation>> executeImplicitKeyQuery() {
         return new HashMap<JanusGraphVertex, Iterable<? extends JanusGraphRelation>>(vertices.size()){{
             for (InternalVertex v : vertices ) put(v,executeImplicitKeyQuery(v));
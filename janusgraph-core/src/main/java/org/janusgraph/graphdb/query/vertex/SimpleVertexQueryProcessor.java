@@ -15,7 +15,6 @@
 package org.janusgraph.graphdb.query.vertex;
 
 import com.carrotsearch.hppc.LongArrayList;
-import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.*;
 import org.janusgraph.core.*;
@@ -29,7 +28,6 @@ import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.transaction.RelationConstructor;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 
-import javax.annotation.Nullable;
 import java.util.*;
 
 /**
@@ -97,13 +95,8 @@ public class SimpleVertexQueryProcessor implements Iterable<Entry> {
     public VertexList vertexIds() {
         LongArrayList list = new LongArrayList();
         long previousId = 0;
-        for (Long id : Iterables.transform(this,new Function<Entry, Long>() {
-            @Nullable
-            @Override
-            public Long apply(@Nullable Entry entry) {
-                return edgeSerializer.readRelation(entry,true,tx).getOtherVertexId();
-            }
-        })) {
+        for (Entry entry : this) {
+            long id = edgeSerializer.readOtherVertexId(entry,tx);
             list.add(id);
             if (id>=previousId && previousId>=0) previousId=id;
             else previousId=-1;
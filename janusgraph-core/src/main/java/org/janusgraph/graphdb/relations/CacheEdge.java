@@ -96,7 +96,7 @@ public class CacheEdge extends AbstractEdge {
 
     private RelationCache getPropertyMap() {
         RelationCache map = data.getCache();
-        if (map == null || !map.hasProperties()) {
+        if (map == null || !map.hasDecodedProperties()) {
             map = RelationConstructor.readRelationCache(data, tx());
         }
         return map;
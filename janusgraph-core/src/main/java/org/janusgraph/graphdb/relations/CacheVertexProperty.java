@@ -80,7 +80,7 @@ public class CacheVertexProperty extends AbstractVertexProperty {
 
     private RelationCache getPropertyMap() {
         RelationCache map = data.getCache();
-        if (map == null || !map.hasProperties()) {
+        if (map == null || !map.hasDecodedProperties()) {
             map = RelationConstructor.readRelationCache(data, tx());
         }
         return map;
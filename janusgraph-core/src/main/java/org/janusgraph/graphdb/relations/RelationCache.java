@@ -21,8 +21,19 @@ import org.apache.tinkerpop.gremlin.structure.Direction;
 import java.util.*;
 
 /**
- * Immutable map from long key ids to objects.
+ * Map from long key ids to objects which caches the decoded header and properties of a relation.
  * Implemented for memory and time efficiency.
+ * <p>
+ * A relation cache can be created from the header of a serialized relation only, i.e. its type, direction, id and
+ * adjacent vertex or value. Such a cache remembers where the properties start within the serialized relation, such
+ * that they can be decoded later on by {@link org.janusgraph.graphdb.database.EdgeSerializer} without parsing the
+ * header again, see {@link #setProperties(LongObjectHashMap)}.
+ * <p>
+ * The header is immutable. The properties are the only mutable state: they are null until they have been decoded and
+ * are set at most once afterwards. The properties are held in a volatile field and must not be modified once they have
+ * been set, such that threads which observe them through {@link #hasDecodedProperties()} also observe their complete
+ * content. Threads which decode the properties concurrently may both set them, which is harmless since they decode
+ * equal properties from the same serialized relation.
  *
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -34,14 +45,15 @@ public class RelationCache implements Iterable<LongObjectCursor<Object>> {
     public final long typeId;
     public final long relationId;
     private final Object other;
-    private final LongObjectHashMap<Object> properties;
+    private volatile LongObjectHashMap<Object> properties;
+
+    private final int keyStartPosition;
+    private final int keyEndPosition;
+    private final int propertiesPosition;
 
     public RelationCache(final Direction direction, final long typeId, final long relationId,
                          final Object other, final LongObjectHashMap<Object> properties) {
-        this.direction = direction;
-        this.typeId = typeId;
-        this.relationId = relationId;
-        this.other = other;
+        this(direction, typeId, relationId, other, -1, -1, -1);
         this.properties = (properties == null || properties.size() > 0) ? properties : EMPTY;
     }
 
@@ -50,13 +62,67 @@ public class RelationCache implements Iterable<LongObjectCursor<Object>> {
         this(direction,typeId,relationId,other,null);
     }
 
+    /**
+     * Creates a relation cache without properties which can be decoded later on from the given positions.
+     *
+     * @param keyStartPosition start of the serialized sort key
+     * @param keyEndPosition end of the serialized sort key
+     * @param propertiesPosition start of the serialized signature and other properties
+     */
+    public RelationCache(final Direction direction, final long typeId, final long relationId, final Object other,
+                         final int keyStartPosition, final int keyEndPosition, final int propertiesPosition) {
+        this.direction = direction;
+        this.typeId = typeId;
+        this.relationId = relationId;
+        this.other = other;
+        this.keyStartPosition = keyStartPosition;
+        this.keyEndPosition = keyEndPosition;
+        this.propertiesPosition = propertiesPosition;
+    }
+
     @SuppressWarnings("unchecked")
     public <O> O get(long key) {
         return (O) properties.get(key);
     }
 
     public boolean hasProperties() {
-        return properties != null && !properties.isEmpty();
+        final LongObjectHashMap<Object> props = properties;
+        return props != null && !props.isEmpty();
+    }
+
+    /**
+     * @return whether the properties have been decoded, which is the case if the relation does not have any
+     */
+    public boolean hasDecodedProperties() {
+        return properties != null;
+    }
+
+    /**
+     * @return whether the properties of this relation can still be decoded from the serialized relation
+     */
+    public boolean canDecodeProperties() {
+        return propertiesPosition >= 0;
+    }
+
+    /**
+     * Sets the properties which were decoded from the serialized relation. The properties are published through a
+     * volatile write, so the given map must be fully populated and must not be modified afterwards. The properties can
+     * only be set once, concurrent invocations must pass equal properties.
+     */
+    public void setProperties(final LongObjectHashMap<Object> properties) {
+        this.properties = properties.size() > 0 ? properties : EMPTY;
+    }
+
+    public int getKeyStartPosition() {
+        return keyStartPosition;
+    }
+
+    public int getKeyEndPosition() {
+        return keyEndPosition;
+    }
+
+    public int getPropertiesPosition() {
+        return propertiesPosition;
     }
 
     public int numProperties() {
@@ -18,11 +18,14 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import org.janusgraph.core.*;
+import org.janusgraph.graphdb.internal.RelationCategory;
 import org.janusgraph.graphdb.query.BaseQuery;
 import org.janusgraph.graphdb.query.JanusGraphPredicateUtils;
 import org.janusgraph.graphdb.query.Query;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
+import org.janusgraph.graphdb.query.profile.QueryShapeMetrics;
 import org.janusgraph.graphdb.query.vertex.BasicVertexCentricQueryBuilder;
+import org.janusgraph.graphdb.query.vertex.MultiVertexCentricQueryBuilder;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphTraversalUtil;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
@@ -39,6 +42,7 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedVertex;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -47,6 +51,9 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
 
     private boolean initialized = false;
     private boolean useMultiQuery = false;
+    private int batchSize = Integer.MAX_VALUE;
+    private boolean batchPipelining = false;
+    private MultiQueryBatches batches = null;
     private Map<JanusGraphVertex, Iterable<? extends JanusGraphProperty>> multiQueryResults = null;
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
 
@@ -62,6 +69,16 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
         this.useMultiQuery = useMultiQuery;
     }
 
+    @Override
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void setBatchPipelining(boolean batchPipelining) {
+        this.batchPipelining = batchPipelining;
+    }
+
     private <Q extends BaseVertexQuery> Q makeQuery(Q query) {
         final String[] keys = getPropertyKeys();
         query.keys(keys);
@@ -107,8 +124,21 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
      */
     private void initializeMultiQuery(final List<Traverser.Admin<Element>> vertices) {
         assert vertices.size() > 0;
+        final List<Vertex> allVertices = new ArrayList<>(vertices.size());
+        vertices.forEach(v -> allVertices.add((Vertex) v.get()));
+        if (allVertices.size() <= batchSize) {
+            batches = null;
+            executeMultiQuery(allVertices);
+        } else {
+            batches = new MultiQueryBatches(allVertices, batchSize, batchPipelining ? this::prefetchMultiQuery : null);
+            executeNextBatch();
+        }
+        initialized = true;
+    }
+
+    private void executeMultiQuery(final Collection<Vertex> vertices) {
         final JanusGraphMultiVertexQuery multiQuery = JanusGraphTraversalUtil.getTx(traversal).multiQuery();
-        vertices.forEach(v -> multiQuery.addVertex((Vertex)v.get()));
+        vertices.forEach(multiQuery::addVertex);
         makeQuery(multiQuery);
 
         Map<JanusGraphVertex, Iterable<? extends JanusGraphProperty>> results = multiQuery.properties();
@@ -117,22 +147,52 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
         } else {
             multiQueryResults.putAll(results);
         }
-        initialized = true;
+    }
+
+    /**
+     * Executes the multiQuery for the next batch. Only the results of the current batch are retained, which bounds
+     * the results held by this step to those of {@code batchSize} vertices.
+     */
+    private void executeNextBatch() {
+        multiQueryResults = null;
+        executeMultiQuery(batches.next());
+    }
+
+    private CompletableFuture<Runnable> prefetchMultiQuery(final List<Vertex> vertices) {
+        final MultiVertexCentricQueryBuilder multiQuery = (MultiVertexCentricQueryBuilder) JanusGraphTraversalUtil.getTx(traversal).multiQuery();
+        vertices.forEach(multiQuery::addVertex);
+        return makeQuery(multiQuery).executeAsync(RelationCategory.PROPERTY);
     }
 
     @Override
     protected Traverser.Admin<E> processNextStart() {
-        if (!initialized) initialize();
-        return super.processNextStart();
+        final Object previousStep = QueryShapeMetrics.setCurrentStep(this);
+        try {
+            //The multiQuery prefetch on initialization is attributed to this step as well
+            if (!initialized) initialize();
+            return super.processNextStart();
+        } finally {
+            QueryShapeMetrics.setCurrentStep(previousStep);
+        }
     }
 
     @Override
     protected Iterator<E> flatMap(final Traverser.Admin<Element> traverser) {
         if (useMultiQuery) { //it is guaranteed that all elements are vertices
-            if (multiQueryResults == null || !multiQueryResults.containsKey(traverser.get())) {
-                initializeMultiQuery(Collections.singletonList(traverser));
+            final Vertex vertex = (Vertex) traverser.get();
+            //Batches are handed out in the order of the starts, so a pending vertex is usually part of the next batch
+            while (batches != null && batches.isPending(vertex)) {
+                executeNextBatch();
+            }
+            if (multiQueryResults == null || !multiQueryResults.containsKey(vertex)) {
+                if (batches != null) {
+                    //The vertex was part of an earlier batch whose results have been discarded
+                    executeMultiQuery(Collections.singletonList(vertex));
+                } else {
+                    initializeMultiQuery(Collections.singletonList(traverser));
+                }
             }
-            return convertIterator(multiQueryResults.get(traverser.get()));
+            return convertIterator(multiQueryResults.get(vertex));
         } else if (traverser.get() instanceof JanusGraphVertex || traverser.get() instanceof WrappedVertex) {
             final JanusGraphVertexQuery query = makeQuery((JanusGraphTraversalUtil.getJanusGraphVertex(traverser)).query());
             return convertIterator(query.properties());
@@ -167,12 +227,14 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
     public void reset() {
         super.reset();
         this.initialized = false;
+        this.batches = null;
     }
 
     @Override
     public JanusGraphPropertiesStep<E> clone() {
         final JanusGraphPropertiesStep<E> clone = (JanusGraphPropertiesStep<E>) super.clone();
         clone.initialized = false;
+        clone.batches = null;
         return clone;
     }
 
@@ -27,6 +27,7 @@ import org.janusgraph.graphdb.query.JanusGraphPredicateUtils;
 import org.janusgraph.graphdb.query.graph.GraphCentricQuery;
 import org.janusgraph.graphdb.query.graph.GraphCentricQueryBuilder;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
+import org.janusgraph.graphdb.query.profile.QueryShapeMetrics;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphTraversalUtil;
 import org.janusgraph.graphdb.tinkerpop.optimize.QueryInfo;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
@@ -37,6 +38,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
@@ -182,6 +184,16 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
         responses.add(iterator);
     }
 
+    @Override
+    protected Traverser.Admin<E> processNextStart() {
+        final Object previousStep = QueryShapeMetrics.setCurrentStep(this);
+        try {
+            return super.processNextStart();
+        } finally {
+            QueryShapeMetrics.setCurrentStep(previousStep);
+        }
+    }
+
     @Override
     public String toString() {
         if (hasLocalContainers.isEmpty() && hasContainers.isEmpty()){
@@ -19,11 +19,14 @@ import org.janusgraph.core.JanusGraphElement;
 import org.janusgraph.core.JanusGraphMultiVertexQuery;
 import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.JanusGraphVertexQuery;
+import org.janusgraph.graphdb.internal.RelationCategory;
 import org.janusgraph.graphdb.query.BaseQuery;
 import org.janusgraph.graphdb.query.JanusGraphPredicateUtils;
 import org.janusgraph.graphdb.query.Query;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
+import org.janusgraph.graphdb.query.profile.QueryShapeMetrics;
 import org.janusgraph.graphdb.query.vertex.BasicVertexCentricQueryBuilder;
+import org.janusgraph.graphdb.query.vertex.MultiVertexCentricQueryBuilder;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphTraversalUtil;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
@@ -46,6 +49,7 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.common.base.Preconditions;
 
@@ -56,6 +60,9 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
 
     private boolean initialized = false;
     private boolean useMultiQuery = false;
+    private int batchSize = Integer.MAX_VALUE;
+    private boolean batchPipelining = false;
+    private MultiQueryBatches batches = null;
     private boolean batchPropertyPrefetching = false;
     private Map<JanusGraphVertex, Iterable<? extends JanusGraphElement>> multiQueryResults = null;
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
@@ -74,6 +81,24 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         this.useMultiQuery = useMultiQuery;
     }
 
+    @Override
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void setBatchPipelining(boolean batchPipelining) {
+        this.batchPipelining = batchPipelining;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isBatchPipelining() {
+        return batchPipelining;
+    }
+
     public void setBatchPropertyPrefetching(boolean batchPropertyPrefetching) {
         this.batchPropertyPrefetching = batchPropertyPrefetching;
     }
@@ -123,9 +148,21 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         if (vertices.size() == 1 && parentMultiQueryStep != null) {
             parentStarts = parentMultiQueryStep.getCachedStarts();
         }
+        final List<Vertex> allVertices = new ArrayList<>(vertices.size() + parentStarts.size());
+        vertices.forEach(v -> allVertices.add(v.get()));
+        parentStarts.forEach(v -> allVertices.add(v.get()));
+        if (allVertices.size() <= batchSize) {
+            batches = null;
+            executeMultiQuery(allVertices);
+        } else {
+            batches = new MultiQueryBatches(allVertices, batchSize, batchPipelining ? this::prefetchMultiQuery : null);
+            executeNextBatch();
+        }
+    }
+
+    private void executeMultiQuery(final Collection<Vertex> vertices) {
         final JanusGraphMultiVertexQuery multiQuery = JanusGraphTraversalUtil.getTx(traversal).multiQuery();
-        vertices.forEach(v -> multiQuery.addVertex(v.get()));
-        parentStarts.forEach(v -> multiQuery.addVertex(v.get()));
+        vertices.forEach(multiQuery::addVertex);
         makeQuery(multiQuery);
 
         Map<JanusGraphVertex, Iterable<? extends JanusGraphElement>> results = (Vertex.class.isAssignableFrom(getReturnClass())) ? multiQuery.vertices() : multiQuery.edges();
@@ -136,6 +173,21 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         }
     }
 
+    /**
+     * Executes the multiQuery for the next batch. Only the results of the current batch are retained, which bounds
+     * the results held by this step to those of {@code batchSize} vertices.
+     */
+    private void executeNextBatch() {
+        multiQueryResults = null;
+        executeMultiQuery(batches.next());
+    }
+
+    private CompletableFuture<Runnable> prefetchMultiQuery(final List<Vertex> vertices) {
+        final MultiVertexCentricQueryBuilder multiQuery = (MultiVertexCentricQueryBuilder) JanusGraphTraversalUtil.getTx(traversal).multiQuery();
+        vertices.forEach(multiQuery::addVertex);
+        return makeQuery(multiQuery).executeAsync(RelationCategory.EDGE);
+    }
+
     /**
      * Many parent traversals drip feed their start vertices in one at a time. To best exploit
      * the multiQuery we need to load all possible starts in one go so this method will attempt
@@ -170,8 +222,14 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
 
     @Override
     protected Traverser.Admin<E> processNextStart() {
-        if (!initialized) initialize();
-        return super.processNextStart();
+        final Object previousStep = QueryShapeMetrics.setCurrentStep(this);
+        try {
+            //The multiQuery prefetch on initialization is attributed to this step as well
+            if (!initialized) initialize();
+            return super.processNextStart();
+        } finally {
+            QueryShapeMetrics.setCurrentStep(previousStep);
+        }
     }
 
     @Override
@@ -180,10 +238,20 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         Iterable<? extends JanusGraphElement> result;
 
         if (useMultiQuery) {
-            if (multiQueryResults == null || !multiQueryResults.containsKey(traverser.get())) {
-                initializeMultiQuery(Collections.singletonList(traverser));
+            final Vertex vertex = traverser.get();
+            //Batches are handed out in the order of the starts, so a pending vertex is usually part of the next batch
+            while (batches != null && batches.isPending(vertex)) {
+                executeNextBatch();
+            }
+            if (multiQueryResults == null || !multiQueryResults.containsKey(vertex)) {
+                if (batches != null) {
+                    //The vertex was part of an earlier batch whose results have been discarded
+                    executeMultiQuery(Collections.singletonList(vertex));
+                } else {
+                    initializeMultiQuery(Collections.singletonList(traverser));
+                }
             }
-            result = multiQueryResults.get(traverser.get());
+            result = multiQueryResults.get(vertex);
         } else {
             final JanusGraphVertexQuery query = makeQuery((JanusGraphTraversalUtil.getJanusGraphVertex(traverser)).query());
             result = (Vertex.class.isAssignableFrom(getReturnClass())) ? query.vertices() : query.edges();
@@ -213,12 +281,14 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
     public void reset() {
         super.reset();
         this.initialized = false;
+        this.batches = null;
     }
 
     @Override
     public JanusGraphVertexStep<E> clone() {
         final JanusGraphVertexStep<E> clone = (JanusGraphVertexStep<E>) super.clone();
         clone.initialized = false;
+        clone.batches = null;
         return clone;
     }
 
@@ -23,4 +23,15 @@ public interface MultiQueriable<S,E> extends Step<S,E> {
 
     void setUseMultiQuery(boolean useMultiQuery);
 
+    /**
+     * Sets the maximum number of vertices which are fetched in a single multi-query. Larger sets of
+     * vertices are split into batches.
+     */
+    void setBatchSize(int batchSize);
+
+    /**
+     * Sets whether the next batch of vertices is fetched asynchronously while the current batch is processed.
+     */
+    void setBatchPipelining(boolean batchPipelining);
+
 }
@@ -0,0 +1,99 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.tinkerpop.optimize.step;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Splits the vertices of a {@link MultiQueriable} step into batches of limited size, which are handed out one
+ * after the other. If a prefetch function is given, handing out a batch also starts to fetch the following batch
+ * asynchronously, such that the storage backend retrieves it while the traversers of the current batch are
+ * processed by the subsequent steps.
+ * <p>
+ * The prefetched relations are only loaded into the vertices when the batch is handed out, i.e. on the thread
+ * which evaluates the traversal, since transactions are not thread-safe.
+ */
+class MultiQueryBatches {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiQueryBatches.class);
+
+    private final Queue<List<Vertex>> batches;
+    private final Set<Vertex> pending;
+    private final Function<List<Vertex>, CompletableFuture<Runnable>> prefetch;
+    private CompletableFuture<Runnable> nextBatchFetched = null;
+
+    /**
+     * @param vertices The vertices to split into batches, duplicates are only retained once
+     * @param batchSize The maximum number of vertices per batch
+     * @param prefetch Function which asynchronously fetches the given batch and completes with an action that loads
+     *                 the fetched relations into the vertices, or null to disable pipelining
+     */
+    MultiQueryBatches(Collection<Vertex> vertices, int batchSize, Function<List<Vertex>, CompletableFuture<Runnable>> prefetch) {
+        Preconditions.checkArgument(batchSize > 0, "Invalid batch size: %s", batchSize);
+        this.pending = new LinkedHashSet<>(vertices);
+        this.batches = new ArrayDeque<>();
+        for (List<Vertex> batch : Iterables.partition(pending, batchSize)) {
+            batches.add(new ArrayList<>(batch));
+        }
+        this.prefetch = prefetch;
+    }
+
+    boolean hasNext() {
+        return !batches.isEmpty();
+    }
+
+    /**
+     * @return whether the given vertex is part of a batch which has not been handed out yet
+     */
+    boolean isPending(Vertex vertex) {
+        return pending.contains(vertex);
+    }
+
+    /**
+     * Returns the next batch once it has been prefetched and loaded (if pipelining is enabled) and starts prefetching
+     * the batch after it.
+     */
+    List<Vertex> next() {
+        final List<Vertex> batch = batches.remove();
+        pending.removeAll(batch);
+        if (nextBatchFetched != null) {
+            try {
+                nextBatchFetched.join().run();
+            } catch (RuntimeException e) {
+                //The batch is fetched again synchronously, which reports the failure if it persists
+                log.warn("Could not prefetch batch of {} vertices", batch.size(), e);
+            }
+            nextBatchFetched = null;
+        }
+        if (prefetch != null && !batches.isEmpty()) {
+            nextBatchFetched = prefetch.apply(batches.peek());
+        }
+        return batch;
+    }
+}
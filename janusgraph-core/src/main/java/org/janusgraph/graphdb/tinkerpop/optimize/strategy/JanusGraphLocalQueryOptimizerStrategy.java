@@ -16,6 +16,9 @@ package org.janusgraph.graphdb.tinkerpop.optimize.strategy;
 
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.janusgraph.diskstorage.configuration.ConfigElement;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.query.QueryUtil;
 import org.janusgraph.graphdb.tinkerpop.optimize.*;
@@ -30,6 +33,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalSte
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.OptionsStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -93,7 +97,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
             }
 
             if (useMultiQuery) {
-                vertexStep.setUseMultiQuery(true);
+                enableMultiQuery(vertexStep, traversal, janusGraph.getConfiguration());
             }
 
             if (janusGraph.getConfiguration().batchPropertyPrefetching()) {
@@ -118,7 +122,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
             }
 
             if (useMultiQuery) {
-                propertiesStep.setUseMultiQuery(true);
+                enableMultiQuery(propertiesStep, traversal, janusGraph.getConfiguration());
             }
         });
 
@@ -141,7 +145,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
                 HasStepFolder.foldInRange(vertexStep, JanusGraphTraversalUtil.getNextNonIdentityStep(vertexStep), localTraversal, null);
 
 
-                unfoldLocalTraversal(traversal,localStep,localTraversal,vertexStep,useMultiQuery);
+                unfoldLocalTraversal(traversal,localStep,localTraversal,vertexStep,useMultiQuery,janusGraph.getConfiguration());
             }
 
             if (localStart instanceof PropertiesStep) {
@@ -155,7 +159,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
                 HasStepFolder.foldInRange(propertiesStep, JanusGraphTraversalUtil.getNextNonIdentityStep(propertiesStep), localTraversal, null);
 
 
-                unfoldLocalTraversal(traversal,localStep,localTraversal,propertiesStep,useMultiQuery);
+                unfoldLocalTraversal(traversal,localStep,localTraversal,propertiesStep,useMultiQuery,janusGraph.getConfiguration());
             }
 
         });
@@ -190,7 +194,8 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
 
     private static void unfoldLocalTraversal(final Traversal.Admin<?, ?> traversal,
                                              LocalStep<?,?> localStep, Traversal.Admin localTraversal,
-                                             MultiQueriable vertexStep, boolean useMultiQuery) {
+                                             MultiQueriable vertexStep, boolean useMultiQuery,
+                                             GraphDatabaseConfiguration configuration) {
         assert localTraversal.asAdmin().getSteps().size() > 0;
         if (localTraversal.asAdmin().getSteps().size() == 1) {
             //Can replace the entire localStep by the vertex step in the outer traversal
@@ -199,11 +204,31 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
             TraversalHelper.replaceStep(localStep, vertexStep, traversal);
 
             if (useMultiQuery) {
-                vertexStep.setUseMultiQuery(true);
+                enableMultiQuery(vertexStep, traversal, configuration);
             }
         }
     }
 
+    private static void enableMultiQuery(MultiQueriable step, Traversal.Admin<?, ?> traversal, GraphDatabaseConfiguration configuration) {
+        step.setUseMultiQuery(true);
+        final Object batchSize = getTraversalOption(traversal, GraphDatabaseConfiguration.MULTIQUERY_BATCH_SIZE);
+        step.setBatchSize(batchSize == null ? configuration.getMultiQueryBatchSize() :
+            GraphDatabaseConfiguration.MULTIQUERY_BATCH_SIZE.verify(batchSize instanceof Number ?
+                ((Number) batchSize).intValue() : Integer.valueOf(batchSize.toString())));
+        final Object batchPipelining = getTraversalOption(traversal, GraphDatabaseConfiguration.MULTIQUERY_PIPELINING);
+        step.setBatchPipelining(batchPipelining == null ? configuration.useMultiQueryPipelining() :
+            Boolean.parseBoolean(batchPipelining.toString()));
+    }
+
+    /**
+     * Returns the value of the given option which is set for the traversal through {@code with()}, e.g.
+     * {@code g.with("query.batch-size", 100)}, or null if the graph configuration applies.
+     */
+    private static Object getTraversalOption(Traversal.Admin<?, ?> traversal, ConfigOption<?> option) {
+        return traversal.getStrategies().getStrategy(OptionsStrategy.class)
+            .map(options -> options.getOptions().get(ConfigElement.getPath(option))).orElse(null);
+    }
+
     private static boolean isChildOf(Step<?, ?> currentStep, List<Class<? extends Step>> stepClasses) {
         Step<?, ?> parent = currentStep.getTraversal().getParent().asStep();
         while (!parent.equals(EmptyStep.instance())) {
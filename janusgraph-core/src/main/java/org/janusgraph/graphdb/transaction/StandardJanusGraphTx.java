@@ -27,6 +27,7 @@ import org.janusgraph.diskstorage.BackendTransaction;
 import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.graphdb.query.index.IndexSelectionStrategy;
+import org.janusgraph.graphdb.query.index.IndexStatistics;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.relations.RelationComparator;
 import org.janusgraph.graphdb.relations.RelationIdentifier;
@@ -34,6 +35,7 @@ import org.janusgraph.graphdb.relations.RelationIdentifierUtils;
 import org.janusgraph.graphdb.relations.StandardEdge;
 import org.janusgraph.graphdb.relations.StandardVertexProperty;
 import org.janusgraph.graphdb.tinkerpop.JanusGraphBlueprintsTransaction;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.EdgeSerializer;
 import org.janusgraph.graphdb.database.IndexSerializer;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
@@ -60,6 +62,7 @@ import org.janusgraph.graphdb.transaction.lock.*;
 import org.janusgraph.graphdb.transaction.subquerycache.GuavaSubqueryCache;
 import org.janusgraph.graphdb.transaction.subquerycache.SubqueryCache;
 import org.janusgraph.graphdb.transaction.vertexcache.GuavaVertexCache;
+import org.janusgraph.graphdb.transaction.vertexcache.PrimitiveVertexCache;
 import org.janusgraph.graphdb.transaction.vertexcache.VertexCache;
 import org.janusgraph.graphdb.types.*;
 import org.janusgraph.graphdb.types.system.*;
@@ -194,7 +197,8 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
         Preconditions.checkArgument(graph.isOpen());
         Preconditions.checkNotNull(config);
         this.graph = graph;
-        this.times = graph.getConfiguration().getTimestampProvider();
+        final GraphDatabaseConfiguration graphConfig = graph.getConfiguration();
+        this.times = graphConfig.getTimestampProvider();
         this.config = config;
         this.idManager = graph.getIDManager();
         this.idInspector = idManager;
@@ -226,7 +230,7 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
             newTypeCache = new HashMap<>();
             newVertexIndexEntries = new SimpleIndexCache();
         } else {
-            addedRelations = new ConcurrentAddedRelations();
+            addedRelations = new ConcurrentAddedRelations(4 * Runtime.getRuntime().availableProcessors());
             concurrencyLevel = 1; //TODO: should we increase this?
             newTypeCache = new NonBlockingHashMap<>();
             newVertexIndexEntries = new ConcurrentIndexCache();
@@ -240,11 +244,15 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
         long effectiveVertexCacheSize = config.getVertexCacheSize();
         if (!config.isReadOnly()) {
             effectiveVertexCacheSize = Math.max(MIN_VERTEX_CACHE_SIZE, effectiveVertexCacheSize);
-            log.debug("Guava vertex cache size: requested={} effective={} (min={})",
+            log.debug("Vertex cache size: requested={} effective={} (min={})",
                     config.getVertexCacheSize(), effectiveVertexCacheSize, MIN_VERTEX_CACHE_SIZE);
         }
 
-        vertexCache = new GuavaVertexCache(effectiveVertexCacheSize,concurrencyLevel,config.getDirtyVertexSize());
+        if (GraphDatabaseConfiguration.TX_CACHE_PRIMITIVE.equals(graphConfig.getTxVertexCacheImplementation())) {
+            vertexCache = new PrimitiveVertexCache(effectiveVertexCacheSize,config.getDirtyVertexSize());
+        } else {
+            vertexCache = new GuavaVertexCache(effectiveVertexCacheSize,concurrencyLevel,config.getDirtyVertexSize());
+        }
 
         indexCache = new GuavaSubqueryCache(concurrencyLevel, config.getIndexCacheWeight());
 
@@ -1145,6 +1153,34 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #executeMultiQuery(Collection, SliceQuery, QueryProfiler)}. Since the future
+     * may complete on a storage backend thread, the retrieved relations are not loaded into the vertices right away.
+     * Instead, the future completes with an action which loads them and which must be run by the thread that uses
+     * this transaction.
+     */
+    public CompletableFuture<Runnable> executeMultiQueryAsync(final Collection<InternalVertex> vertices, final SliceQuery sq) {
+        final LongArrayList vertexIds = new LongArrayList(vertices.size());
+        final List<CacheVertex> cacheVertices = new ArrayList<>(vertices.size());
+        for (InternalVertex v : vertices) {
+            if (!v.isNew() && v.hasId() && (v instanceof CacheVertex) && !v.hasLoadedRelations(sq)) {
+                vertexIds.add(v.longId());
+                cacheVertices.add((CacheVertex) v);
+            }
+        }
+        if (vertexIds.isEmpty()) return CompletableFuture.completedFuture(() -> {});
+
+        return graph.edgeMultiQueryAsync(vertexIds, sq, txHandle).thenApply(results -> () -> {
+            for (int i = 0; i < cacheVertices.size(); i++) {
+                final CacheVertex v = cacheVertices.get(i);
+                //The relations might have been loaded synchronously in the meantime
+                if (v.hasLoadedRelations(sq)) continue;
+                final EntryList vresults = results.get(i);
+                v.loadRelations(sq, query -> vresults);
+            }
+        });
+    }
+
     public final QueryExecutor<VertexCentricQuery, JanusGraphRelation, SliceQuery> edgeProcessor;
 
     public final QueryExecutor<VertexCentricQuery, JanusGraphRelation, SliceQuery> edgeProcessorImpl = new QueryExecutor<VertexCentricQuery, JanusGraphRelation, SliceQuery>() {
@@ -1342,17 +1378,24 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
                     retrievals.add(limit -> {
                         final JointIndexQuery.Subquery adjustedQuery = subquery.updateLimit(limit);
                         try {
-                            return indexCache.get(adjustedQuery,
-                                () -> QueryProfiler.profile(subquery.getProfiler(), adjustedQuery, q -> indexSerializer.query(q, txHandle).collect(Collectors.toList())));
+                            return indexCache.get(adjustedQuery, () -> {
+                                final IndexStatistics statistics = graph.getIndexStatistics();
+                                final long[] keyVersions = statistics != null ? statistics.getKeyVersions(adjustedQuery) : null;
+                                final List<Object> results = QueryProfiler.profile(subquery.getProfiler(), adjustedQuery, q -> indexSerializer.query(q, txHandle).collect(Collectors.toList()));
+                                if (statistics != null) statistics.recordResult(adjustedQuery, results.size(), keyVersions);
+                                return results;
+                            });
                         } catch (Exception e) {
                             throw new JanusGraphException("Could not call index", e);
                         }
                     });
                 }
                 // Constructs an iterator which lazily streams results from 1st index, and filters by looking up in the intersection of results from all other indices (if any)
-                // NOTE NO_LIMIT is passed to processIntersectingRetrievals to prevent incomplete intersections, which could lead to missed results
+                // The intersection is first retrieved with the query limit. If it was truncated and misses a result streamed from the 1st index,
+                // the iterator retrieves it again with a larger limit, such that no results are missed
                 iterator = new SubqueryIterator(indexQuery.getQuery(0), indexSerializer, txHandle, indexCache, indexQuery.getLimit(), getConversionFunction(query.getResultType()),
-                        retrievals.isEmpty() ? null: QueryUtil.processIntersectingRetrievals(retrievals, Query.NO_LIMIT));
+                        retrievals.isEmpty() ? null : limit -> QueryUtil.processIntersectingRetrievals(retrievals, limit, txHandle.getThreadPool()),
+                        indexQuery.getLimit());
             } else {
                 if (config.hasForceIndexUsage()) throw new JanusGraphException("Could not find a suitable index to answer graph query and graph scans are disabled: " + query);
                 log.warn("Query requires iterating over all vertices [{}]. For better performance, use indexes", query.getCondition());
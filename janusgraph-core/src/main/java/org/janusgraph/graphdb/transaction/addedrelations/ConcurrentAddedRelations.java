@@ -14,33 +14,121 @@
 
 package org.janusgraph.graphdb.transaction.addedrelations;
 
-import org.janusgraph.graphdb.internal.InternalRelation;
+import com.carrotsearch.hppc.ObjectHashSet;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
+import org.janusgraph.graphdb.internal.InternalRelation;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Container of added relations which is shared by the threads of a multi-threaded transaction.
+ * <p>
+ * The relations are partitioned into lock-striped sets by their hash code, such that threads which add or remove
+ * different relations rarely contend for the same lock. The sets of the stripes are allocated on demand since most
+ * containers of single vertices only hold a few relations.
+ * <p>
+ * {@link #getView(Predicate)} and {@link #getAll()} return snapshots which are copied stripe by stripe and filtered
+ * without holding any lock. Hence, they can be iterated while other threads keep modifying the container.
+ *
  * @author Matthias Broecheler (me@matthiasb.com)
  */
 
-public class ConcurrentAddedRelations extends SimpleAddedRelations {
+public class ConcurrentAddedRelations implements AddedRelationsContainer {
+
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final int INITIAL_STRIPE_SIZE = 4;
+
+    private final AtomicReferenceArray<ObjectHashSet<InternalRelation>> stripes;
+    private final int mask;
+    private final LongAdder size = new LongAdder();
+
+    public ConcurrentAddedRelations() {
+        this(DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * @param concurrency expected number of threads which concurrently modify the container
+     */
+    public ConcurrentAddedRelations(int concurrency) {
+        Preconditions.checkArgument(concurrency > 0, "Invalid concurrency: %s", concurrency);
+        final int numStripes = Integer.highestOneBit(Math.min(concurrency, 1 << 16) * 2 - 1);
+        stripes = new AtomicReferenceArray<>(numStripes);
+        mask = numStripes - 1;
+    }
+
+    private ObjectHashSet<InternalRelation> getStripe(InternalRelation relation, boolean create) {
+        final int h = relation.hashCode();
+        final int index = (h ^ (h >>> 16)) & mask;
+        ObjectHashSet<InternalRelation> stripe = stripes.get(index);
+        if (stripe == null && create) {
+            stripes.compareAndSet(index, null, new ObjectHashSet<>(INITIAL_STRIPE_SIZE));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
 
     @Override
-    public synchronized boolean add(final InternalRelation relation) {
-        return super.add(relation);
+    public boolean add(final InternalRelation relation) {
+        final ObjectHashSet<InternalRelation> stripe = getStripe(relation, true);
+        synchronized (stripe) {
+            if (stripe.add(relation)) size.increment();
+        }
+        return true;
     }
 
     @Override
-    public synchronized boolean remove(final InternalRelation relation) {
-        return super.remove(relation);
+    public boolean remove(final InternalRelation relation) {
+        final ObjectHashSet<InternalRelation> stripe = getStripe(relation, false);
+        if (stripe != null) {
+            synchronized (stripe) {
+                if (stripe.removeAll(relation) > 0) size.decrement();
+            }
+        }
+        return true;
     }
 
     @Override
-    public synchronized Iterable<InternalRelation> getView(final Predicate<InternalRelation> filter) {
-        return super.getView(filter);
+    public Iterable<InternalRelation> getView(final Predicate<InternalRelation> filter) {
+        return Iterables.filter(snapshot(), filter);
     }
 
     @Override
-    public synchronized Collection<InternalRelation> getAll() {
-        return super.getAll();
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    @Override
+    public Collection<InternalRelation> getAll() {
+        return Collections.unmodifiableCollection(snapshot());
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < stripes.length(); i++) {
+            stripes.set(i, null);
+        }
+        size.reset();
+    }
+
+    private List<InternalRelation> snapshot() {
+        final List<InternalRelation> relations = new ArrayList<>((int) Math.max(0, size.sum()));
+        for (int i = 0; i < stripes.length(); i++) {
+            final ObjectHashSet<InternalRelation> stripe = stripes.get(i);
+            if (stripe == null) continue;
+            synchronized (stripe) {
+                for (ObjectCursor<InternalRelation> relation : stripe) {
+                    relations.add(relation.value);
+                }
+            }
+        }
+        return relations;
     }
 }
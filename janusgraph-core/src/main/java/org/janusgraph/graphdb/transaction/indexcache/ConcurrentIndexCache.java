@@ -14,39 +14,54 @@
 
 package org.janusgraph.graphdb.transaction.indexcache;
 
-import com.google.common.collect.HashMultimap;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.JanusGraphVertexProperty;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Index cache which is shared by the threads of a multi-threaded transaction. Properties are grouped by value in
+ * concurrent sets, such that threads only contend when they update properties with the same value.
+ *
  * @author Matthias Broecheler (me@matthiasb.com)
  */
 
 public class ConcurrentIndexCache implements IndexCache {
 
-    private final HashMultimap<Object,JanusGraphVertexProperty> map;
+    private final ConcurrentHashMap<Object,Set<JanusGraphVertexProperty>> map;
 
     public ConcurrentIndexCache() {
-        this.map = HashMultimap.create();
+        this.map = new ConcurrentHashMap<>();
     }
 
     @Override
-    public synchronized void add(JanusGraphVertexProperty property) {
-        map.put(property.value(),property);
+    public void add(JanusGraphVertexProperty property) {
+        //Adding to the set within compute ensures that it cannot be dropped by a concurrent remove
+        map.compute(property.value(), (value, properties) -> {
+            if (properties == null) properties = ConcurrentHashMap.newKeySet(4);
+            properties.add(property);
+            return properties;
+        });
     }
 
     @Override
-    public synchronized void remove(JanusGraphVertexProperty property) {
-        map.remove(property.value(),property);
+    public void remove(JanusGraphVertexProperty property) {
+        map.computeIfPresent(property.value(), (value, properties) -> {
+            properties.remove(property);
+            return properties.isEmpty() ? null : properties;
+        });
     }
 
     @Override
-    public synchronized Iterable<JanusGraphVertexProperty> get(final Object value, final PropertyKey key) {
+    public Iterable<JanusGraphVertexProperty> get(final Object value, final PropertyKey key) {
+        final Set<JanusGraphVertexProperty> properties = map.get(value);
+        if (properties == null) return Collections.emptyList();
         final List<JanusGraphVertexProperty> result = new ArrayList<>(4);
-        for (JanusGraphVertexProperty p : map.get(value)) {
+        for (JanusGraphVertexProperty p : properties) {
             if (p.propertyKey().equals(key)) result.add(p);
         }
         return result;
@@ -0,0 +1,218 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.vertexcache;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.google.common.base.Preconditions;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.util.datastructures.Retriever;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link VertexCache} which maps vertex ids to vertices without boxing them. Clean vertices are kept in a ring of
+ * slots which is indexed by a primitive open-addressing {@link LongIntHashMap} from vertex id to slot.
+ * <p>
+ * Once the ring holds the maximum number of vertices, a clock hand sweeps it to find a vertex to evict: vertices
+ * which were accessed since the last sweep get a second chance. Like the volatile vertices of {@link GuavaVertexCache},
+ * vertices which are new, modified or removed in the transaction are kept in a separate map and are never evicted.
+ * Vertices which became dirty while in the ring are moved to that map once the clock hand passes them, so that each
+ * dirty vertex is swept at most once.
+ * <p>
+ * Vertices are only retrieved outside of the monitor of the cache, which is uncontended in single threaded transactions.
+ */
+public class PrimitiveVertexCache implements VertexCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PrimitiveVertexCache.class);
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_SLOT = -1;
+
+    private final int maxCacheSize;
+    private final LongIntHashMap slots;
+    private final LongObjectHashMap<InternalVertex> dirtyVertices;
+    private final List<InternalVertex> newVertices;
+
+    private long[] ids;
+    private InternalVertex[] vertices;
+    private boolean[] referenced;
+    private int size = 0;
+    private int hand = 0;
+
+    public PrimitiveVertexCache(final long maxCacheSize, final int initialDirtySize) {
+        Preconditions.checkArgument(maxCacheSize >= 0, "Invalid cache size: %s", maxCacheSize);
+        this.maxCacheSize = (int) Math.min(Integer.MAX_VALUE - 8, maxCacheSize);
+        final int capacity = Math.max(1, Math.min(this.maxCacheSize, INITIAL_CAPACITY));
+        slots = new LongIntHashMap(capacity);
+        ids = new long[capacity];
+        vertices = new InternalVertex[capacity];
+        referenced = new boolean[capacity];
+        dirtyVertices = new LongObjectHashMap<>(initialDirtySize);
+        newVertices = new ArrayList<>(initialDirtySize);
+        log.debug("Created primitive vertex cache with max size {}", maxCacheSize);
+    }
+
+    @Override
+    public synchronized boolean contains(long id) {
+        return slots.containsKey(id) || dirtyVertices.containsKey(id);
+    }
+
+    @Override
+    public InternalVertex get(final long id, final Retriever<Long, InternalVertex> retriever) {
+        synchronized (this) {
+            final InternalVertex vertex = getIfPresent(id);
+            if (vertex != null) return vertex;
+        }
+        final InternalVertex newVertex = retriever.get(id);
+        assert newVertex != null;
+        synchronized (this) {
+            //Another thread may have cached the vertex while it was retrieved
+            final InternalVertex vertex = getIfPresent(id);
+            if (vertex != null) return vertex;
+            insert(id, newVertex);
+            return newVertex;
+        }
+    }
+
+    @Override
+    public synchronized void add(InternalVertex vertex, long id) {
+        Preconditions.checkNotNull(vertex);
+        Preconditions.checkArgument(id != 0);
+        final int slot = slots.getOrDefault(id, NO_SLOT);
+        if (slot != NO_SLOT) {
+            //Vertices are added again whenever relations are added to them
+            if (isDirty(vertex)) {
+                remove(slot);
+            } else {
+                referenced[slot] = true;
+                vertices[slot] = vertex;
+                return;
+            }
+        }
+        if (isDirty(vertex)) {
+            if (dirtyVertices.put(id, vertex) == vertex) return;
+        } else {
+            dirtyVertices.remove(id);
+            insert(id, vertex);
+        }
+        if (vertex.isNew()) newVertices.add(vertex);
+    }
+
+    @Override
+    public synchronized List<InternalVertex> getAllNew() {
+        final List<InternalVertex> result = new ArrayList<>(newVertices.size());
+        for (InternalVertex v : newVertices) {
+            if (v.isNew()) result.add(v);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() {
+        slots.release();
+        dirtyVertices.release();
+        newVertices.clear();
+        Arrays.fill(vertices, 0, size, null);
+        size = 0;
+        hand = 0;
+    }
+
+    private InternalVertex getIfPresent(long id) {
+        final int slot = slots.getOrDefault(id, NO_SLOT);
+        if (slot != NO_SLOT) {
+            referenced[slot] = true;
+            return vertices[slot];
+        }
+        return dirtyVertices.get(id);
+    }
+
+    private void insert(long id, InternalVertex vertex) {
+        if (isDirty(vertex)) {
+            dirtyVertices.put(id, vertex);
+            return;
+        }
+        int slot;
+        if (size < maxCacheSize) {
+            if (size == ids.length) grow();
+            slot = size++;
+        } else {
+            slot = findVictim();
+            //The ring is empty if the maximum size is zero or all its vertices became dirty
+            if (slot == NO_SLOT) return;
+            slots.remove(ids[slot]);
+        }
+        ids[slot] = id;
+        vertices[slot] = vertex;
+        referenced[slot] = false;
+        slots.put(id, slot);
+    }
+
+    /**
+     * Advances the clock hand to the next vertex which may be evicted, giving referenced vertices a second chance.
+     * Dirty vertices which are passed are moved out of the ring.
+     *
+     * @return the slot of the vertex to evict, or {@link #NO_SLOT} if the ring is empty
+     */
+    private int findVictim() {
+        while (size > 0) {
+            final int slot = hand;
+            if (isDirty(vertices[slot])) {
+                dirtyVertices.put(ids[slot], vertices[slot]);
+                //Moves the last vertex of the ring into this slot, which is inspected next
+                remove(slot);
+                continue;
+            }
+            hand = (hand + 1) % size;
+            if (referenced[slot]) {
+                referenced[slot] = false;
+                continue;
+            }
+            return slot;
+        }
+        return NO_SLOT;
+    }
+
+    /**
+     * Removes the vertex in the given slot from the ring by moving the last vertex of the ring into its slot.
+     */
+    private void remove(int slot) {
+        slots.remove(ids[slot]);
+        final int last = --size;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            vertices[slot] = vertices[last];
+            referenced[slot] = referenced[last];
+            slots.put(ids[slot], slot);
+        }
+        vertices[last] = null;
+        if (hand >= size) hand = 0;
+    }
+
+    private static boolean isDirty(InternalVertex vertex) {
+        return vertex.isNew() || vertex.isModified() || vertex.isRemoved();
+    }
+
+    private void grow() {
+        final int capacity = (int) Math.min(maxCacheSize, Math.max(INITIAL_CAPACITY, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, capacity);
+        vertices = Arrays.copyOf(vertices, capacity);
+        referenced = Arrays.copyOf(referenced, capacity);
+    }
+}
@@ -21,14 +21,17 @@ import org.janusgraph.core.JanusGraphElement;
 import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.BackendTransaction;
 import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.query.Query;
 import org.janusgraph.graphdb.query.graph.JointIndexQuery;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.transaction.subquerycache.SubqueryCache;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
 /**
@@ -48,11 +51,33 @@ public class SubqueryIterator extends CloseableAbstractIterator<JanusGraphElemen
 
     private boolean isTimerRunning;
 
+    private final IntFunction<Collection<Object>> otherResultsRetrieval;
+
+    private Collection<Object> otherResults;
+
+    private int otherResultsLimit;
+
+    /**
+     * Streams the results of the given subquery which are also contained in the results of the other subqueries of
+     * a joint index query.
+     * <p>
+     * The results of the other subqueries are retrieved with the given limit first. Since they may be truncated by
+     * that limit, a streamed result which is missing from them could still match. In that case, the results of the
+     * other subqueries are retrieved again with a larger limit until they either contain the streamed result or are
+     * complete, i.e. fewer than the limit.
+     *
+     * @param otherResultsRetrieval retrieves the intersection of the results of the other subqueries with at least the
+     *                              given number of elements if available, or {@code null} if there are none
+     * @param otherResultsLimit the limit for the first retrieval of the other results
+     */
     public SubqueryIterator(JointIndexQuery.Subquery subQuery, IndexSerializer indexSerializer, BackendTransaction tx,
-                            SubqueryCache indexCache, int limit,
-                            Function<Object, ? extends JanusGraphElement> function, List<Object> otherResults) {
+                            SubqueryCache indexCache, int limit, Function<Object, ? extends JanusGraphElement> function,
+                            IntFunction<Collection<Object>> otherResultsRetrieval, int otherResultsLimit) {
         this.subQuery = subQuery;
         this.indexCache = indexCache;
+        this.otherResultsRetrieval = otherResultsRetrieval;
+        this.otherResultsLimit = Math.max(1, otherResultsLimit);
+        if (otherResultsRetrieval != null) otherResults = otherResultsRetrieval.apply(this.otherResultsLimit);
         final List<Object> cacheResponse = indexCache.getIfPresent(subQuery);
         final Stream<?> stream;
         if (cacheResponse != null) {
@@ -67,7 +92,18 @@ public class SubqueryIterator extends CloseableAbstractIterator<JanusGraphElemen
                 throw new JanusGraphException("Could not call index", e);
             }
         }
-        elementIterator = stream.filter(e -> otherResults == null || otherResults.contains(e)).limit(limit).map(function).map(r -> (JanusGraphElement) r).iterator();
+        elementIterator = stream.filter(this::isOtherResult).limit(limit).map(function).map(r -> (JanusGraphElement) r).iterator();
+    }
+
+    private boolean isOtherResult(Object element) {
+        if (otherResultsRetrieval == null) return true;
+        while (!otherResults.contains(element)) {
+            //The other results are complete unless they were truncated by the limit
+            if (otherResultsLimit == Query.NO_LIMIT || otherResults.size() < otherResultsLimit) return false;
+            otherResultsLimit = otherResultsLimit > Query.NO_LIMIT / 4 ? Query.NO_LIMIT : otherResultsLimit * 4;
+            otherResults = otherResultsRetrieval.apply(otherResultsLimit);
+        }
+        return true;
     }
 
     @Override
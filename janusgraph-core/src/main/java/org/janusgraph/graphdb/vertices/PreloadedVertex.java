@@ -66,6 +66,14 @@ public class PreloadedVertex extends CacheVertex {
         super.addToQueryCache(query, entries);
     }
 
+    /**
+     * Preloaded relations cannot be retrieved again and are thus never evicted.
+     */
+    @Override
+    protected long getQueryCacheMaxByteSize() {
+        return 0;
+    }
+
     public EntryList getFromCache(final SliceQuery query) {
         return queryCache.get(query);
     }
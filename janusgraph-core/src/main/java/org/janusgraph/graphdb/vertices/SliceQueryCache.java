@@ -0,0 +1,264 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.vertices;
+
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Caches the results of the slice queries of a single vertex and finds cached results which subsume a given query
+ * in logarithmic time.
+ * <p>
+ * Exact matches are looked up in a concurrent hash map. For subsumption lookups, the cache maintains an index of the
+ * maximal cached slices, i.e. the slices which are not contained in any other cached slice:
+ * <ul>
+ *     <li>Slices without a limit are kept in a map ordered by slice start. Since none of them contains another one,
+ *     their slice ends are ordered as well, such that the only candidate to contain a query is the slice with the
+ *     greatest start which is not greater than the start of the query.</li>
+ *     <li>Slices with a limit can only subsume queries with the same slice start and are grouped by their start.</li>
+ * </ul>
+ * Reads never block: they validate an optimistic read stamp and only fall back to a read lock if the index was
+ * modified concurrently. Writes are serialized by the write lock. Since most vertices never cache any slice, the index
+ * and its lock are only allocated when the first slice is cached.
+ * <p>
+ * If a maximum size in bytes is configured, the cache evicts results once it grows beyond that size. Results which
+ * are subsumed by other cached results are evicted first since they can be recomputed from the cached superset without
+ * accessing the storage backend, followed by the least recently used ones.
+ */
+public class SliceQueryCache {
+
+    private final Map<SliceQuery, Cached> cache = new ConcurrentHashMap<>(4);
+    private volatile RangeIndex index;
+
+    //Guarded by the write lock of the index
+    private long byteSize = 0;
+    //Approximate access order, races between concurrent readers are harmless
+    private volatile long clock = 0;
+
+    public EntryList get(final SliceQuery query) {
+        final Cached cached = cache.get(query);
+        if (cached == null) return null;
+        cached.lastAccess = ++clock;
+        return cached.entries;
+    }
+
+    /**
+     * @return a cached result whose query subsumes the given query, or null if there is none
+     */
+    public Map.Entry<SliceQuery, EntryList> getSuperset(final SliceQuery query) {
+        final Cached exact = cache.get(query);
+        if (exact != null) return exact.touch();
+        final RangeIndex index = this.index;
+        if (index == null || cache.isEmpty()) return null;
+        long stamp = index.lock.tryOptimisticRead();
+        Cached superset = index.findSuperset(query);
+        if (!index.lock.validate(stamp)) {
+            stamp = index.lock.readLock();
+            try {
+                superset = index.findSuperset(query);
+            } finally {
+                index.lock.unlockRead(stamp);
+            }
+        }
+        return superset == null ? null : superset.touch();
+    }
+
+    public boolean containsSuperset(final SliceQuery query) {
+        return getSuperset(query) != null;
+    }
+
+    /**
+     * Caches the result of the given query and evicts other results if the cache exceeds the given maximum size.
+     *
+     * @param maxByteSize maximum size of all cached results in bytes, or 0 to never evict results
+     */
+    public void put(final SliceQuery query, final EntryList entries, final long maxByteSize) {
+        final Cached cached = new Cached(query, entries, ++clock);
+        final RangeIndex index = getOrCreateIndex();
+        final long stamp = index.lock.writeLock();
+        try {
+            final Cached previous = cache.put(query, cached);
+            byteSize += cached.byteSize;
+            if (previous == null) {
+                index.add(cached);
+            } else {
+                byteSize -= previous.byteSize;
+                index.rebuild(cache.values());
+            }
+            if (maxByteSize > 0 && byteSize > maxByteSize) evict(index, maxByteSize);
+        } finally {
+            index.lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        final RangeIndex index = this.index;
+        //Nothing was cached yet
+        if (index == null) return;
+        final long stamp = index.lock.writeLock();
+        try {
+            cache.clear();
+            index.unlimited.clear();
+            index.limited.clear();
+            byteSize = 0;
+        } finally {
+            index.lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    private RangeIndex getOrCreateIndex() {
+        RangeIndex index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) this.index = index = new RangeIndex();
+            }
+        }
+        return index;
+    }
+
+    private void evict(final RangeIndex index, final long maxByteSize) {
+        final Map<Cached, Boolean> subsumed = new HashMap<>(cache.size());
+        for (Cached cached : cache.values()) subsumed.put(cached, index.isSubsumed(cached));
+        final List<Cached> candidates = new ArrayList<>(subsumed.keySet());
+        candidates.sort(Comparator.comparing((Cached c) -> !subsumed.get(c)).thenComparingLong(c -> c.lastAccess));
+        for (Cached cached : candidates) {
+            if (byteSize <= maxByteSize) break;
+            cache.remove(cached.query);
+            byteSize -= cached.byteSize;
+        }
+        index.rebuild(cache.values());
+    }
+
+    /**
+     * The index of the maximal cached slices together with the lock which guards its modifications.
+     */
+    private static class RangeIndex {
+
+        private final ConcurrentSkipListMap<StaticBuffer, Cached> unlimited = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<StaticBuffer, List<Cached>> limited = new ConcurrentSkipListMap<>();
+        private final StampedLock lock = new StampedLock();
+
+        private Cached findSuperset(final SliceQuery query) {
+            final Map.Entry<StaticBuffer, Cached> floor = unlimited.floorEntry(query.getSliceStart());
+            if (floor != null && floor.getValue().query.subsumes(query)) return floor.getValue();
+            final List<Cached> candidates = limited.get(query.getSliceStart());
+            if (candidates != null) {
+                for (Cached candidate : candidates) {
+                    if (candidate.query.subsumes(query)) return candidate;
+                }
+            }
+            return null;
+        }
+
+        private boolean isSubsumed(final Cached cached) {
+            final Cached superset = findSuperset(cached.query);
+            return superset != null && superset != cached;
+        }
+
+        private void add(final Cached cached) {
+            if (isSubsumed(cached)) return;
+            final SliceQuery query = cached.query;
+            if (query.hasLimit()) {
+                //Copy on write, since readers iterate the candidates without holding a lock
+                final List<Cached> candidates = new ArrayList<>(limited.getOrDefault(query.getSliceStart(), new ArrayList<>()));
+                candidates.removeIf(candidate -> query.subsumes(candidate.query));
+                candidates.add(cached);
+                limited.put(query.getSliceStart(), candidates);
+            } else {
+                //Remove all indexed slices which are contained in the new one. They have a start which is not smaller
+                //than the new start and are ordered by their end
+                final Iterator<Cached> tail = unlimited.tailMap(query.getSliceStart(), true).values().iterator();
+                while (tail.hasNext()) {
+                    if (query.subsumes(tail.next().query)) tail.remove();
+                    else break;
+                }
+                for (Map.Entry<StaticBuffer, List<Cached>> group : limited.subMap(query.getSliceStart(), true, query.getSliceEnd(), false).entrySet()) {
+                    final List<Cached> candidates = new ArrayList<>(group.getValue());
+                    if (!candidates.removeIf(candidate -> query.subsumes(candidate.query))) continue;
+                    if (candidates.isEmpty()) limited.remove(group.getKey());
+                    else limited.put(group.getKey(), candidates);
+                }
+                unlimited.put(query.getSliceStart(), cached);
+            }
+        }
+
+        private void rebuild(final Collection<Cached> cached) {
+            unlimited.clear();
+            limited.clear();
+            //Index larger slices first, such that fewer slices are added and removed again
+            final List<Cached> all = new ArrayList<>(cached);
+            all.sort(Comparator.comparing((Cached c) -> c.query.getSliceStart())
+                .thenComparing((Cached c) -> c.query.getSliceEnd(), Comparator.reverseOrder())
+                .thenComparing((Cached c) -> c.query.getLimit(), Comparator.reverseOrder()));
+            for (Cached c : all) add(c);
+        }
+    }
+
+    private class Cached implements Map.Entry<SliceQuery, EntryList> {
+
+        private final SliceQuery query;
+        private final EntryList entries;
+        private final long byteSize;
+        private volatile long lastAccess;
+
+        private Cached(SliceQuery query, EntryList entries, long lastAccess) {
+            this.query = query;
+            this.entries = entries;
+            this.byteSize = entries.getByteSize();
+            this.lastAccess = lastAccess;
+        }
+
+        private Cached touch() {
+            lastAccess = ++clock;
+            return this;
+        }
+
+        @Override
+        public SliceQuery getKey() {
+            return query;
+        }
+
+        @Override
+        public EntryList getValue() {
+            return entries;
+        }
+
+        @Override
+        public EntryList setValue(EntryList value) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.util.datastructures;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of longs backed by a sorted array without duplicates. Membership is checked by binary search,
+ * which avoids boxing the elements and keeps large id sets compact.
+ * <p>
+ * {@link #intersect(List)} computes the intersection of several such sets, starting with the smallest one and
+ * switching from a linear merge to galloping search when the sizes of the inputs differ a lot.
+ */
+public class SortedLongArraySet extends AbstractSet<Long> {
+
+    /**
+     * Once the larger input exceeds the smaller one by this factor, the intersection probes the larger input
+     * by exponential search instead of walking it element by element.
+     */
+    private static final int GALLOP_RATIO = 32;
+
+    private final long[] values;
+    private final int size;
+
+    private SortedLongArraySet(long[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Builds a set from the given longs, which may be in any order and may contain duplicates.
+     *
+     * @throws ClassCastException if the collection contains an element which is not a {@link Long}
+     */
+    public static SortedLongArraySet of(Collection<?> elements) {
+        final long[] values = new long[elements.size()];
+        int i = 0;
+        for (final Object element : elements) {
+            values[i++] = (Long) element;
+        }
+        Arrays.sort(values);
+        int size = 0;
+        for (i = 0; i < values.length; i++) {
+            if (size == 0 || values[size - 1] != values[i]) values[size++] = values[i];
+        }
+        return new SortedLongArraySet(values, size);
+    }
+
+    /**
+     * Returns the set of longs contained in all of the given sets.
+     */
+    public static SortedLongArraySet intersect(List<SortedLongArraySet> sets) {
+        assert !sets.isEmpty();
+        final SortedLongArraySet[] bySize = sets.toArray(new SortedLongArraySet[0]);
+        Arrays.sort(bySize, (a, b) -> Integer.compare(a.size, b.size));
+        if (bySize.length == 1) return bySize[0];
+        final long[] result = Arrays.copyOf(bySize[0].values, bySize[0].size);
+        int resultSize = result.length;
+        for (int i = 1; i < bySize.length && resultSize > 0; i++) {
+            resultSize = intersectInto(result, resultSize, bySize[i]);
+        }
+        return new SortedLongArraySet(result, resultSize);
+    }
+
+    /**
+     * Retains the first {@code size} elements of {@code result} which are contained in {@code other}, compacting
+     * them at the start of the array, and returns their number.
+     */
+    private static int intersectInto(long[] result, int size, SortedLongArraySet other) {
+        final long[] values = other.values;
+        final boolean gallop = other.size / GALLOP_RATIO > size;
+        int retained = 0;
+        int position = 0;
+        for (int i = 0; i < size && position < other.size; i++) {
+            final long value = result[i];
+            if (gallop) {
+                position = gallop(values, position, other.size, value);
+            } else {
+                while (position < other.size && values[position] < value) position++;
+            }
+            if (position < other.size && values[position] == value) {
+                result[retained++] = value;
+                position++;
+            }
+        }
+        return retained;
+    }
+
+    /**
+     * Returns the index of the first element in {@code values[from, to)} which is greater than or equal to
+     * {@code value}, or {@code to} if there is none.
+     */
+    private static int gallop(long[] values, int from, int to, long value) {
+        int bound = 1;
+        while (from + bound < to && values[from + bound] < value) bound <<= 1;
+        final int index = Arrays.binarySearch(values, from + (bound >>> 1), Math.min(to, from + bound + 1), value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public boolean contains(long value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && contains(((Long) o).longValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<Long>() {
+
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < size;
+            }
+
+            @Override
+            public Long next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return values[position++];
+            }
+        };
+    }
+
+}
@@ -0,0 +1,98 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.util.stats;
+
+import com.google.common.base.Preconditions;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Count-min sketch estimating how often individual 64-bit hashes were added to it. Estimates never undercount
+ * and overcount by at most {@code e / width} times the total count with probability {@code 1 - e^-depth}, as long
+ * as counts are only incremented.
+ * <p>
+ * Not thread-safe.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] counts;
+
+    public CountMinSketch(int depth, int width) {
+        Preconditions.checkArgument(depth > 0 && depth <= 16, "Invalid depth: %s", depth);
+        Preconditions.checkArgument(NumberUtil.isPowerOf2(width), "Width must be a power of 2: %s", width);
+        this.depth = depth;
+        this.width = width;
+        this.counts = new long[depth * width];
+    }
+
+    public void add(long hash, long count) {
+        for (int row = 0; row < depth; row++) {
+            final int index = row * width + bucket(hash, row);
+            counts[index] = Math.max(0, counts[index] + count);
+        }
+    }
+
+    /**
+     * Adds the counts of the given sketch, which must have the same dimensions, to this sketch.
+     */
+    public void add(CountMinSketch other) {
+        checkCompatible(other);
+        for (int i = 0; i < counts.length; i++) counts[i] = Math.max(0, counts[i] + other.counts[i]);
+    }
+
+    /**
+     * Subtracts the counts of the given sketch, which must have the same dimensions, from this sketch.
+     */
+    public void subtract(CountMinSketch other) {
+        checkCompatible(other);
+        for (int i = 0; i < counts.length; i++) counts[i] = Math.max(0, counts[i] - other.counts[i]);
+    }
+
+    private void checkCompatible(CountMinSketch other) {
+        Preconditions.checkArgument(other.depth == depth && other.width == width,
+            "Incompatible dimensions: %sx%s vs %sx%s", other.depth, other.width, depth, width);
+    }
+
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row * width + bucket(hash, row)]);
+        }
+        return estimate;
+    }
+
+    private int bucket(long hash, int row) {
+        //Derive independent row hashes from the two halves of the given hash (Kirsch-Mitzenmacher)
+        final int combined = (int) hash + row * (int) (hash >>> 32);
+        return (combined ^ (combined >>> 16)) & (width - 1);
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(depth);
+        out.writeInt(width);
+        for (final long count : counts) out.writeLong(count);
+    }
+
+    public static CountMinSketch read(DataInput in) throws IOException {
+        final CountMinSketch sketch = new CountMinSketch(in.readByte(), in.readInt());
+        for (int i = 0; i < sketch.counts.length; i++) sketch.counts[i] = in.readLong();
+        return sketch;
+    }
+
+}
@@ -0,0 +1,98 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.util.stats;
+
+import com.google.common.base.Preconditions;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct 64-bit hashes added to it, using {@code 2^precision}
+ * one-byte registers. The standard error of the estimate is about {@code 1.04 / sqrt(2^precision)}.
+ * <p>
+ * Not thread-safe.
+ */
+public class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        Preconditions.checkArgument(precision >= 4 && precision <= 18, "Invalid precision: %s", precision);
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void add(long hash) {
+        final int index = (int) (hash >>> (Long.SIZE - precision));
+        final int rank = Math.min(Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1,
+            Long.SIZE - precision + 1);
+        if (registers[index] < rank) registers[index] = (byte) rank;
+    }
+
+    public long cardinality() {
+        final int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (final byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        final double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            //Linear counting is more accurate for small cardinalities
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        Preconditions.checkArgument(other.precision == precision, "Incompatible precision: %s vs %s", other.precision, precision);
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) registers[i] = other.registers[i];
+        }
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(precision);
+        out.write(registers);
+    }
+
+    public static HyperLogLog read(DataInput in) throws IOException {
+        final HyperLogLog hll = new HyperLogLog(in.readByte());
+        in.readFully(hll.registers);
+        return hll;
+    }
+
+}
@@ -0,0 +1,95 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.util.stats;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.WeightedSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free {@link Reservoir} which counts non-negative values in logarithmic buckets, similar to an HDR histogram.
+ * <p>
+ * Values smaller than {@value #SUB_BUCKETS} have a bucket of their own. Larger values are grouped by their highest
+ * set bit, and each such power of two range is split into {@value #SUB_BUCKETS} buckets of equal width, such that
+ * the relative error of a reported value is at most 1/{@value #SUB_BUCKETS}. Each bucket is a {@link LongAdder}
+ * which is allocated when the first value falls into it, so updates never block and only allocate for new buckets.
+ * <p>
+ * Unlike the default reservoir of a histogram, the counts are cumulative rather than biased towards recent values.
+ * Snapshots report each non-empty bucket by the midpoint of its range.
+ */
+public class LogBucketReservoir implements Reservoir {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    //Values with more bits are counted in the last bucket
+    private static final int MAX_VALUE_BITS = 48;
+    private static final int NUM_BUCKETS = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(NUM_BUCKETS);
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            final LongAdder bucket = buckets.get(i);
+            if (bucket != null) size += bucket.sum();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    @Override
+    public void update(long value) {
+        final int index = bucketIndex(value);
+        LongAdder bucket = buckets.get(index);
+        if (bucket == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            bucket = buckets.get(index);
+        }
+        bucket.increment();
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        final List<WeightedSnapshot.WeightedSample> samples = new ArrayList<>();
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            final LongAdder bucket = buckets.get(i);
+            if (bucket == null) continue;
+            final long count = bucket.sum();
+            if (count > 0) samples.add(new WeightedSnapshot.WeightedSample(bucketValue(i), count));
+        }
+        return new WeightedSnapshot(samples);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) Math.max(0, value);
+        final int bits = 64 - Long.numberOfLeadingZeros(value);
+        if (bits > MAX_VALUE_BITS) return NUM_BUCKETS - 1;
+        //The highest set bit selects the range, the next SUB_BUCKET_BITS bits the bucket within it
+        final int shift = bits - 1 - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long bucketValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lower = ((long) (SUB_BUCKETS + index % SUB_BUCKETS)) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+}
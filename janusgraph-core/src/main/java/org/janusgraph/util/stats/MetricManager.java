@@ -323,6 +323,20 @@ public enum MetricManager {
         return getRegistry().histogram(MetricRegistry.name(prefix, names));
     }
 
+    /**
+     * Returns the histogram with the given name, which records into a {@link LogBucketReservoir} if it is created by
+     * this call. Unlike histograms with the default reservoir, such histograms never block on updates.
+     */
+    public Histogram getLogBucketHistogram(String prefix, String... names) {
+        final String name = MetricRegistry.name(prefix, names);
+        try {
+            return getRegistry().register(name, new Histogram(new LogBucketReservoir()));
+        } catch (IllegalArgumentException e) {
+            //Registered concurrently or before
+            return getRegistry().histogram(name);
+        }
+    }
+
     public boolean remove(String name) {
         return getRegistry().remove(name);
     }
@@ -95,6 +95,43 @@ public interface CQLConfigOptions {
             ConfigOption.Type.MASKABLE,
             false);
 
+    // Multi-key slice queries
+    ConfigOption<Integer> MULTI_QUERY_MAX_IN_FLIGHT = new ConfigOption<>(
+            CQL_NS,
+            "multi-query-max-in-flight",
+            "The maximum number of per-key slice queries of a single multi-key query which are executed " +
+            "concurrently against Cassandra",
+            ConfigOption.Type.MASKABLE,
+            128,
+            ConfigOption.positiveInt());
+
+    ConfigOption<Boolean> MULTI_QUERY_GROUP_BY_TOKEN = new ConfigOption<>(
+            CQL_NS,
+            "multi-query-group-by-token",
+            "True to issue the per-key slice queries of a multi-key query grouped by the token range of their keys, " +
+            "so that queries sent concurrently target the same replicas. Requires token metadata to be enabled.",
+            ConfigOption.Type.MASKABLE,
+            false);
+
+    // Un-logged batch mutations
+    ConfigOption<Integer> WRITE_MAX_IN_FLIGHT = new ConfigOption<>(
+            CQL_NS,
+            "write-max-in-flight",
+            "The maximum number of un-logged batches which are executed concurrently against Cassandra, shared by " +
+            "all commits of this instance. Further batches are only built once earlier ones have completed.",
+            ConfigOption.Type.MASKABLE,
+            128,
+            ConfigOption.positiveInt());
+
+    ConfigOption<Integer> WRITE_MAX_IN_FLIGHT_PER_REPLICAS = new ConfigOption<>(
+            CQL_NS,
+            "write-max-in-flight-per-replicas",
+            "The maximum number of un-logged batches which are executed concurrently against the replicas of the same " +
+            "token range, shared by all commits of this instance. Only applies if token metadata is enabled.",
+            ConfigOption.Type.MASKABLE,
+            32,
+            ConfigOption.positiveInt());
+
     // Replication
     ConfigOption<Integer> REPLICATION_FACTOR = new ConfigOption<>(
             CQL_NS,
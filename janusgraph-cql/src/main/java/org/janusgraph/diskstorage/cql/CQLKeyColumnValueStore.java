@@ -18,11 +18,13 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.querybuilder.relation.Relation;
@@ -32,6 +34,7 @@ import com.datastax.oss.driver.api.querybuilder.select.Select;
 import com.datastax.oss.driver.internal.core.cql.ResultSets;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import io.vavr.Tuple;
+import io.vavr.Tuple2;
 import io.vavr.Tuple3;
 import io.vavr.collection.Array;
 import io.vavr.collection.Iterator;
@@ -49,6 +52,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.ScanRangeQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySlicesIterator;
 import org.janusgraph.diskstorage.keycolumnvalue.MultiSlicesQuery;
@@ -60,9 +64,18 @@ import org.janusgraph.diskstorage.util.StaticArrayEntry.GetColVal;
 import org.janusgraph.diskstorage.util.StaticArrayEntryList;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
@@ -128,6 +141,8 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
     private final PreparedStatement getSlice;
     private final PreparedStatement getKeysAll;
     private final PreparedStatement getKeysRanged;
+    private final PreparedStatement getKeysTokenRange;
+    private final PreparedStatement getKeysTokenRangeTail;
     private final PreparedStatement deleteColumn;
     private final PreparedStatement insertColumn;
     private final PreparedStatement insertColumnWithTTL;
@@ -186,6 +201,36 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
             .whereColumn(COLUMN_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(SLICE_END_BINDING));
         this.getKeysAll = this.session.prepare(addTTLFunction(addTimestampFunction(getKeysAllSelect)).build());
 
+        if (this.storeManager.getFeatures().hasParallelScan()) {
+            // token ranges as returned by CQLStoreManager#getScanRanges() are start exclusive and end inclusive
+            final Select getKeysTokenRangeSelect = selectFrom(this.storeManager.getKeyspaceName(), this.tableName)
+                .column(KEY_COLUMN_NAME)
+                .column(COLUMN_COLUMN_NAME)
+                .column(VALUE_COLUMN_NAME)
+                .allowFiltering()
+                .where(
+                    Relation.token(KEY_COLUMN_NAME).isGreaterThan(bindMarker(KEY_START_BINDING)),
+                    Relation.token(KEY_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(KEY_END_BINDING))
+                )
+                .whereColumn(COLUMN_COLUMN_NAME).isGreaterThanOrEqualTo(bindMarker(SLICE_START_BINDING))
+                .whereColumn(COLUMN_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(SLICE_END_BINDING));
+            this.getKeysTokenRange = this.session.prepare(addTTLFunction(addTimestampFunction(getKeysTokenRangeSelect)).build());
+
+            // the last range of the ring ends at the minimum token, which is only expressible as an open end
+            final Select getKeysTokenRangeTailSelect = selectFrom(this.storeManager.getKeyspaceName(), this.tableName)
+                .column(KEY_COLUMN_NAME)
+                .column(COLUMN_COLUMN_NAME)
+                .column(VALUE_COLUMN_NAME)
+                .allowFiltering()
+                .where(Relation.token(KEY_COLUMN_NAME).isGreaterThan(bindMarker(KEY_START_BINDING)))
+                .whereColumn(COLUMN_COLUMN_NAME).isGreaterThanOrEqualTo(bindMarker(SLICE_START_BINDING))
+                .whereColumn(COLUMN_COLUMN_NAME).isLessThanOrEqualTo(bindMarker(SLICE_END_BINDING));
+            this.getKeysTokenRangeTail = this.session.prepare(addTTLFunction(addTimestampFunction(getKeysTokenRangeTailSelect)).build());
+        } else {
+            this.getKeysTokenRange = null;
+            this.getKeysTokenRangeTail = null;
+        }
+
         this.deleteColumn = this.session.prepare(deleteFrom(this.storeManager.getKeyspaceName(), this.tableName)
                 .usingTimestamp(bindMarker(TIMESTAMP_BINDING))
                 .whereColumn(KEY_COLUMN_NAME).isEqualTo(bindMarker(KEY_BINDING))
@@ -315,21 +360,158 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
     public EntryList getSlice(final KeySliceQuery query, final StoreTransaction txh) throws BackendException {
         final Future<EntryList> result = Future.fromJavaFuture(
                 this.executorService,
-                this.session.executeAsync(this.getSlice.boundStatementBuilder()
-                        .setByteBuffer(KEY_BINDING, query.getKey().asByteBuffer())
-                        .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
-                        .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
-                        .setInt(LIMIT_BINDING, query.getLimit())
-                        .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()).build())
-                        .toCompletableFuture())
+                this.session.executeAsync(getSliceStatement(query.getKey(), query, txh)).toCompletableFuture())
                 .map(resultSet -> fromResultSet(resultSet, this.getter));
         interruptibleWait(result);
         return result.getValue().get().getOrElseThrow(EXCEPTION_MAPPER);
     }
 
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(final KeySliceQuery query, final StoreTransaction txh) {
+        return mapExceptions(querySlice(query.getKey(), query, txh));
+    }
+
     @Override
     public Map<StaticBuffer, EntryList> getSlice(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) throws BackendException {
-        throw new UnsupportedOperationException("The CQL backend does not support multi-key queries");
+        final CompletableFuture<Map<StaticBuffer, EntryList>> result = getSliceAsync(keys, query, txh);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof BackendException ? (BackendException) e.getCause() : EXCEPTION_MAPPER.apply(e.getCause());
+        }
+    }
+
+    /**
+     * Executes the slice query for all given keys concurrently. At most {@link CQLStoreManager#getMultiQueryMaxInFlight()}
+     * queries are outstanding at any time; the next query is issued as soon as a previous one completes.
+     */
+    @Override
+    public CompletableFuture<Map<StaticBuffer, EntryList>> getSliceAsync(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) {
+        final List<StaticBuffer> orderedKeys = this.storeManager.isMultiQueryGroupedByToken() ? orderByToken(keys) : keys;
+        return new MultiKeySliceQuery(orderedKeys, query, txh).execute();
+    }
+
+    /**
+     * Keeps up to {@link CQLStoreManager#getMultiQueryMaxInFlight()} per-key queries in flight and completes the
+     * result once all keys have been retrieved or as soon as one query fails. Duplicate keys are queried only once.
+     */
+    private class MultiKeySliceQuery {
+
+        private final java.util.Iterator<StaticBuffer> pendingKeys;
+        private final int numKeys;
+        private final SliceQuery query;
+        private final StoreTransaction txh;
+        private final Map<StaticBuffer, EntryList> results;
+        private final CompletableFuture<Map<StaticBuffer, EntryList>> result = new CompletableFuture<>();
+        private int inFlight = 0;
+        private int completed = 0;
+
+        private MultiKeySliceQuery(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) {
+            final Set<StaticBuffer> distinctKeys = new LinkedHashSet<>(keys);
+            this.pendingKeys = distinctKeys.iterator();
+            this.numKeys = distinctKeys.size();
+            this.query = query;
+            this.txh = txh;
+            this.results = new HashMap<>(keys.size());
+        }
+
+        private CompletableFuture<Map<StaticBuffer, EntryList>> execute() {
+            if (numKeys == 0) {
+                result.complete(results);
+            } else {
+                issueQueries();
+            }
+            return result;
+        }
+
+        private void issueQueries() {
+            while (true) {
+                final StaticBuffer key;
+                synchronized (this) {
+                    if (result.isDone() || !pendingKeys.hasNext() || inFlight >= storeManager.getMultiQueryMaxInFlight()) {
+                        return;
+                    }
+                    key = pendingKeys.next();
+                    inFlight++;
+                }
+                querySlice(key, query, txh).whenComplete((entries, failure) -> onQueryCompleted(key, entries, failure));
+            }
+        }
+
+        private void onQueryCompleted(final StaticBuffer key, final EntryList entries, final Throwable failure) {
+            if (failure != null) {
+                result.completeExceptionally(EXCEPTION_MAPPER.apply(unwrap(failure)));
+                return;
+            }
+            final boolean done;
+            synchronized (this) {
+                results.put(key, entries);
+                inFlight--;
+                done = ++completed == numKeys;
+            }
+            if (done) {
+                result.complete(results);
+            } else {
+                issueQueries();
+            }
+        }
+    }
+
+    private CompletableFuture<EntryList> querySlice(final StaticBuffer key, final SliceQuery query, final StoreTransaction txh) {
+        // Converting the result set may fetch further pages synchronously which is not allowed on driver threads
+        return this.session.executeAsync(getSliceStatement(key, query, txh)).toCompletableFuture()
+                .thenApplyAsync(resultSet -> fromResultSet(resultSet, this.getter), this.executorService);
+    }
+
+    private static <T> CompletableFuture<T> mapExceptions(final CompletableFuture<T> future) {
+        final CompletableFuture<T> mapped = new CompletableFuture<>();
+        future.whenComplete((value, failure) -> {
+            if (failure == null) {
+                mapped.complete(value);
+            } else {
+                mapped.completeExceptionally(EXCEPTION_MAPPER.apply(unwrap(failure)));
+            }
+        });
+        return mapped;
+    }
+
+    private BoundStatement getSliceStatement(final StaticBuffer key, final SliceQuery query, final StoreTransaction txh) {
+        return this.getSlice.boundStatementBuilder()
+                .setByteBuffer(KEY_BINDING, key.asByteBuffer())
+                .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+                .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+                .setInt(LIMIT_BINDING, query.getLimit())
+                .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()).build();
+    }
+
+    /**
+     * Orders the keys by the token of their partition so that keys which fall into the same token range, and hence
+     * are owned by the same replicas, are queried together. Keys are returned in their original order if no token
+     * metadata is available.
+     */
+    private List<StaticBuffer> orderByToken(final List<StaticBuffer> keys) {
+        final Optional<TokenMap> tokenMap = this.session.getMetadata().getTokenMap();
+        if (!tokenMap.isPresent()) {
+            return keys;
+        }
+        final List<Tuple2<Token, StaticBuffer>> tokens = new ArrayList<>(keys.size());
+        for (final StaticBuffer key : keys) {
+            tokens.add(Tuple.of(tokenMap.get().newToken(key.asByteBuffer()), key));
+        }
+        tokens.sort(Comparator.comparing(Tuple2::_1));
+        final List<StaticBuffer> orderedKeys = new ArrayList<>(keys.size());
+        for (final Tuple2<Token, StaticBuffer> token : tokens) {
+            orderedKeys.add(token._2);
+        }
+        return orderedKeys;
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
     }
 
     /**
@@ -449,6 +631,34 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
             .getOrElseThrow(EXCEPTION_MAPPER);
     }
 
+    /**
+     * Scans the token range whose bounds were encoded by {@link CQLStoreManager#getScanRanges()}.
+     */
+    @Override
+    public KeyIterator getKeys(final ScanRangeQuery query, final StoreTransaction txh) throws BackendException {
+        if (!this.storeManager.getFeatures().hasParallelScan()) {
+            throw new PermanentBackendException("Scan ranges are only supported with a random partitioner.");
+        }
+        final TokenMap tokenMap = this.session.getMetadata().getTokenMap()
+            .orElseThrow(() -> new PermanentBackendException("Token map is not available to scan token ranges"));
+        final Token start = CQLStoreManager.decodeToken(tokenMap, query.getScanRange().getStart());
+        final Token end = CQLStoreManager.decodeToken(tokenMap, query.getScanRange().getEnd());
+        final BoundStatementBuilder statementBuilder = end.compareTo(start) > 0 ?
+            getKeysTokenRange.boundStatementBuilder().setToken(KEY_START_BINDING, start).setToken(KEY_END_BINDING, end) :
+            getKeysTokenRangeTail.boundStatementBuilder().setToken(KEY_START_BINDING, start);
+
+        return Try.of(() -> new CQLResultSetKeyIterator(
+            query,
+            this.getter,
+            new CQLPagingIterator(
+                statementBuilder
+                    .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+                    .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+                    .setPageSize(this.storeManager.getPageSize())
+                    .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()).build())))
+            .getOrElseThrow(EXCEPTION_MAPPER);
+    }
+
     @Override
     public KeyIterator getKeys(final SliceQuery query, final StoreTransaction txh) throws BackendException {
         if (this.storeManager.getFeatures().hasOrderedScan()) {
@@ -26,6 +26,9 @@ import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
 import com.datastax.oss.driver.internal.core.auth.PlainTextAuthProvider;
@@ -41,6 +44,7 @@ import io.vavr.concurrent.Future;
 import io.vavr.control.Option;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
+import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.StoreMetaData.Container;
@@ -53,6 +57,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
 import org.janusgraph.diskstorage.keycolumnvalue.StandardStoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.hadoop.CqlHadoopStoreManager;
 import org.janusgraph.util.stats.MetricManager;
 import org.janusgraph.util.system.NetworkUtil;
@@ -60,10 +65,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -98,6 +106,8 @@ import static org.janusgraph.diskstorage.cql.CQLConfigOptions.METRICS_SESSION_RE
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.METRICS_SESSION_THROTTLING_HIGHEST_LATENCY;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.METRICS_SESSION_THROTTLING_REFRESH_INTERVAL;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.METRICS_SESSION_THROTTLING_SIGNIFICANT_DIGITS;
+import static org.janusgraph.diskstorage.cql.CQLConfigOptions.MULTI_QUERY_GROUP_BY_TOKEN;
+import static org.janusgraph.diskstorage.cql.CQLConfigOptions.MULTI_QUERY_MAX_IN_FLIGHT;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.NETTY_ADMIN_SIZE;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.NETTY_IO_SIZE;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.NETTY_TIMER_TICKS_PER_WHEEL;
@@ -130,6 +140,8 @@ import static org.janusgraph.diskstorage.cql.CQLConfigOptions.SSL_TRUSTSTORE_LOC
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.SSL_TRUSTSTORE_PASSWORD;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.USE_EXTERNAL_LOCKING;
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.WRITE_CONSISTENCY;
+import static org.janusgraph.diskstorage.cql.CQLConfigOptions.WRITE_MAX_IN_FLIGHT;
+import static org.janusgraph.diskstorage.cql.CQLConfigOptions.WRITE_MAX_IN_FLIGHT_PER_REPLICAS;
 import static org.janusgraph.diskstorage.cql.CQLKeyColumnValueStore.EXCEPTION_MAPPER;
 import static org.janusgraph.diskstorage.cql.CQLTransaction.getTransaction;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.AUTH_PASSWORD;
@@ -155,9 +167,21 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
 
     private static final int DEFAULT_PORT = 9042;
 
+    public static final String M_MUTATE_MANY = "mutateMany";
+    public static final String M_LATENCY = "latency";
+    public static final String M_BATCHES = "batches";
+    public static final String M_THROTTLED = "throttled";
+
     private final String keyspace;
     private final int batchSize;
     private final boolean atomicBatch;
+    private final int multiQueryMaxInFlight;
+    private final boolean multiQueryGroupByToken;
+    private final int writeMaxInFlight;
+    private final int writeMaxInFlightPerReplicas;
+    //Limits the un-logged batches in flight of all commits
+    private final CQLWriteLimiter writeLimiter;
+    private final String metricsPrefix;
 
     final ExecutorService executorService;
 
@@ -176,6 +200,11 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
         this.keyspace = determineKeyspaceName(configuration);
         this.batchSize = configuration.get(BATCH_STATEMENT_SIZE);
         this.atomicBatch = configuration.get(ATOMIC_BATCH_MUTATE);
+        this.multiQueryMaxInFlight = configuration.get(MULTI_QUERY_MAX_IN_FLIGHT);
+        this.multiQueryGroupByToken = configuration.get(MULTI_QUERY_GROUP_BY_TOKEN);
+        this.writeMaxInFlight = configuration.get(WRITE_MAX_IN_FLIGHT);
+        this.writeMaxInFlightPerReplicas = configuration.get(WRITE_MAX_IN_FLIGHT_PER_REPLICAS);
+        this.metricsPrefix = configuration.get(BASIC_METRICS) ? configuration.get(METRICS_PREFIX) : null;
 
         this.executorService = new ThreadPoolExecutor(10,
                 100,
@@ -188,6 +217,7 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
                         .build());
 
         this.session = initializeSession();
+        this.writeLimiter = new CQLWriteLimiter(this.session, this.keyspace, this.writeMaxInFlight, this.writeMaxInFlightPerReplicas);
         initializeJmxMetrics();
         initializeKeyspace();
 
@@ -212,7 +242,7 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
         fb.keyConsistent((onlyUseLocalConsistency ? local : global), local);
         fb.locking(useExternalLocking);
         fb.optimisticLocking(true);
-        fb.multiQuery(false);
+        fb.multiQuery(true);
 
         String partitioner = null;
         if (configuration.has(PARTITIONER_NAME)) {
@@ -234,6 +264,8 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
             case "RandomPartitioner":
             case "Murmur3Partitioner": {
                 fb.keyOrdered(false).orderedScan(false).unorderedScan(true);
+                // full scans can be split by the token ranges of the ring
+                fb.parallelScan(session.getMetadata().getTokenMap().isPresent());
                 deployment = Deployment.REMOTE;
                 break;
             }
@@ -389,6 +421,14 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
         return this.keyspace;
     }
 
+    int getMultiQueryMaxInFlight() {
+        return this.multiQueryMaxInFlight;
+    }
+
+    boolean isMultiQueryGroupedByToken() {
+        return this.multiQueryGroupByToken;
+    }
+
     @VisibleForTesting
     Map<String, String> getCompressionOptions(final String name) throws BackendException {
         TableMetadata tableMetadata = getTableMetadata(name);
@@ -471,13 +511,47 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Returns the token ring split into disjoint ranges, one for each token range of the cluster.
+     * The bounds are encoded tokens which are understood by
+     * {@link CQLKeyColumnValueStore#getKeys(org.janusgraph.diskstorage.keycolumnvalue.ScanRangeQuery, StoreTransaction)}.
+     */
+    @Override
+    public List<KeyRange> getScanRanges() throws BackendException {
+        if (!storeFeatures.hasParallelScan()) {
+            throw new UnsupportedOperationException();
+        }
+        final TokenMap tokenMap = session.getMetadata().getTokenMap()
+            .orElseThrow(() -> new PermanentBackendException("Token map is not available"));
+        final List<KeyRange> keyRanges = new ArrayList<>();
+        for (TokenRange tokenRange : new TreeSet<>(tokenMap.getTokenRanges())) {
+            for (TokenRange range : tokenRange.unwrap()) {
+                keyRanges.add(new KeyRange(encodeToken(tokenMap, range.getStart()), encodeToken(tokenMap, range.getEnd())));
+            }
+        }
+        return keyRanges;
+    }
+
+    static StaticBuffer encodeToken(final TokenMap tokenMap, final Token token) {
+        return StaticArrayBuffer.of(tokenMap.format(token).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Token decodeToken(final TokenMap tokenMap, final StaticBuffer buffer) {
+        return tokenMap.parse(new String(buffer.as(StaticBuffer.ARRAY_FACTORY), StandardCharsets.UTF_8));
+    }
+
     @Override
     public void mutateMany(final Map<String, Map<StaticBuffer, KCVMutation>> mutations, final StoreTransaction txh) throws BackendException {
+        final long start = System.nanoTime();
         if (this.atomicBatch) {
             mutateManyLogged(mutations, txh);
         } else {
             mutateManyUnlogged(mutations, txh);
         }
+        if (this.metricsPrefix != null) {
+            MetricManager.INSTANCE.getTimer(this.metricsPrefix, M_MUTATE_MANY, M_LATENCY)
+                .update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     // Use a single logged batch
@@ -514,43 +588,60 @@ public class CQLStoreManager extends DistributedStoreManager implements KeyColum
         sleepAfterWrite(txh, commitTime);
     }
 
-    // Create an async un-logged batch per partition key
+    /**
+     * Creates un-logged batches of up to {@link #batchSize} statements per partition key. The batches are executed by a
+     * {@link CQLWritePipeline} while the remaining batches are being built. The batches in flight of all commits are
+     * limited by the shared {@link #writeLimiter}, see {@link CQLConfigOptions#WRITE_MAX_IN_FLIGHT}
+     * and {@link CQLConfigOptions#WRITE_MAX_IN_FLIGHT_PER_REPLICAS}.
+     */
     private void mutateManyUnlogged(final Map<String, Map<StaticBuffer, KCVMutation>> mutations, final StoreTransaction txh) throws BackendException {
         final MaskedTimestamp commitTime = new MaskedTimestamp(txh);
+        final CQLWritePipeline pipeline = new CQLWritePipeline(this.session, this.writeLimiter);
 
-        final Future<Seq<AsyncResultSet>> result = Future.sequence(this.executorService, Iterator.ofAll(mutations.entrySet()).flatMap(tableNameAndMutations -> {
+        for (final Map.Entry<String, Map<StaticBuffer, KCVMutation>> tableNameAndMutations : mutations.entrySet()) {
             final String tableName = tableNameAndMutations.getKey();
-            final Map<StaticBuffer, KCVMutation> tableMutations = tableNameAndMutations.getValue();
-
             final CQLKeyColumnValueStore columnValueStore = Option.of(this.openStores.get(tableName))
                     .getOrElseThrow(() -> new IllegalStateException("Store cannot be found: " + tableName));
-            return Iterator.ofAll(tableMutations.entrySet()).flatMap(keyAndMutations -> {
+            for (final Map.Entry<StaticBuffer, KCVMutation> keyAndMutations : tableNameAndMutations.getValue().entrySet()) {
                 final StaticBuffer key = keyAndMutations.getKey();
                 final KCVMutation keyMutations = keyAndMutations.getValue();
+                final List<BatchableStatement<?>> batch = new ArrayList<>(Math.min(this.batchSize, keyMutations.getTotalMutations()));
+
+                if (keyMutations.hasDeletions()) {
+                    final long deleteTime = commitTime.getDeletionTime(this.times);
+                    for (final StaticBuffer deletion : keyMutations.getDeletions()) {
+                        batch.add(columnValueStore.deleteColumn(key, deletion, deleteTime));
+                        if (batch.size() == this.batchSize) executeUnlogged(pipeline, key, batch, txh);
+                    }
+                }
+                if (keyMutations.hasAdditions()) {
+                    final long addTime = commitTime.getAdditionTime(this.times);
+                    for (final Entry addition : keyMutations.getAdditions()) {
+                        batch.add(columnValueStore.insertColumn(key, addition, addTime));
+                        if (batch.size() == this.batchSize) executeUnlogged(pipeline, key, batch, txh);
+                    }
+                }
+                if (!batch.isEmpty()) executeUnlogged(pipeline, key, batch, txh);
+            }
+        }
 
-                final Iterator<BatchableStatement<BoundStatement>> deletions = Iterator.of(commitTime.getDeletionTime(this.times))
-                        .flatMap(deleteTime -> Iterator.ofAll(keyMutations.getDeletions()).map(deletion -> columnValueStore.deleteColumn(key, deletion, deleteTime)));
-                final Iterator<BatchableStatement<BoundStatement>> additions = Iterator.of(commitTime.getAdditionTime(this.times))
-                        .flatMap(addTime -> Iterator.ofAll(keyMutations.getAdditions()).map(addition -> columnValueStore.insertColumn(key, addition, addTime)));
-
-                return Iterator.concat(deletions, additions)
-                        .grouped(this.batchSize)
-                        .map(group -> Future.fromJavaFuture(this.executorService,
-                                this.session.executeAsync(
-                                    BatchStatement.newInstance(DefaultBatchType.UNLOGGED)
-                                                .addAll(group)
-                                                .setConsistencyLevel(getTransaction(txh).getWriteConsistencyLevel()))
-                                    .toCompletableFuture()));
-            });
-        }));
-
-        result.await();
-        if (result.isFailure()) {
-            throw EXCEPTION_MAPPER.apply(result.getCause().get());
+        pipeline.await();
+        if (this.metricsPrefix != null) {
+            MetricManager.INSTANCE.getHistogram(this.metricsPrefix, M_MUTATE_MANY, M_BATCHES).update(pipeline.getNumBatches());
+            MetricManager.INSTANCE.getTimer(this.metricsPrefix, M_MUTATE_MANY, M_THROTTLED)
+                .update(pipeline.getThrottledNanos(), TimeUnit.NANOSECONDS);
         }
         sleepAfterWrite(txh, commitTime);
     }
 
+    private void executeUnlogged(final CQLWritePipeline pipeline, final StaticBuffer key, final List<BatchableStatement<?>> batch,
+                                 final StoreTransaction txh) throws BackendException {
+        pipeline.execute(key, BatchStatement.newInstance(DefaultBatchType.UNLOGGED)
+            .addAll(batch)
+            .setConsistencyLevel(getTransaction(txh).getWriteConsistencyLevel()));
+        batch.clear();
+    }
+
     private String determineKeyspaceName(Configuration config) {
         if ((!config.has(KEYSPACE) && (config.has(GRAPH_NAME)))) return config.get(GRAPH_NAME);
         return config.get(KEYSPACE);
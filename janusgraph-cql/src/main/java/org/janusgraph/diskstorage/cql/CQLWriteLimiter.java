@@ -0,0 +1,88 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.StaticBuffer;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of un-logged batches which all commits of a {@link CQLStoreManager} have in flight. At most
+ * {@code maxInFlight} batches are outstanding at any time, and at most {@code maxInFlightPerReplicas} of those
+ * target the replicas of the same token range. Since the limits are shared by all commits, concurrent commits cannot
+ * overrun the request queue of the driver together.
+ * <p>
+ * Batches are grouped by the set of replicas of their partition key, which requires token metadata. If it is not
+ * available, only the limit on the total number of batches in flight applies.
+ */
+class CQLWriteLimiter {
+
+    private final CqlSession session;
+    private final String keyspace;
+    private final int maxInFlightPerReplicas;
+
+    private final Semaphore inFlight;
+    private final ConcurrentMap<Set<Node>, Semaphore> inFlightPerReplicas = new ConcurrentHashMap<>();
+
+    CQLWriteLimiter(final CqlSession session, final String keyspace, final int maxInFlight, final int maxInFlightPerReplicas) {
+        Preconditions.checkArgument(maxInFlight > 0, "Invalid number of batches in flight: %s", maxInFlight);
+        Preconditions.checkArgument(maxInFlightPerReplicas > 0, "Invalid number of batches in flight per replicas: %s", maxInFlightPerReplicas);
+        this.session = session;
+        this.keyspace = keyspace;
+        this.maxInFlightPerReplicas = maxInFlightPerReplicas;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Blocks until a batch for the given partition key may be executed.
+     *
+     * @param key The partition key which all statements of the batch belong to
+     * @return releases the acquired permits once the batch has completed
+     * @throws InterruptedException if the thread was interrupted while waiting, in which case no permits are held
+     */
+    Runnable acquire(final StaticBuffer key) throws InterruptedException {
+        final Semaphore replicaPermits = getReplicaPermits(key);
+        if (replicaPermits != null) replicaPermits.acquire();
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            if (replicaPermits != null) replicaPermits.release();
+            throw e;
+        }
+        return () -> {
+            inFlight.release();
+            if (replicaPermits != null) replicaPermits.release();
+        };
+    }
+
+    /**
+     * @return The permits for the replicas of the given key, or null if its replicas are unknown
+     */
+    private Semaphore getReplicaPermits(final StaticBuffer key) {
+        //The token map is looked up for every batch since it is replaced when the topology changes
+        final TokenMap tokenMap = session.getMetadata().getTokenMap().orElse(null);
+        final Set<Node> replicas = tokenMap == null ? Collections.emptySet() : tokenMap.getReplicas(keyspace, key.asByteBuffer());
+        if (replicas.isEmpty()) return null;
+        return inFlightPerReplicas.computeIfAbsent(replicas, r -> new Semaphore(maxInFlightPerReplicas));
+    }
+}
@@ -0,0 +1,127 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.janusgraph.diskstorage.cql.CQLKeyColumnValueStore.EXCEPTION_MAPPER;
+
+/**
+ * Executes the un-logged batches of a single commit while further batches are being built. Before a batch is
+ * executed, the committing thread blocks until the {@link CQLWriteLimiter} shared by all commits admits it, such that
+ * large or concurrent commits are throttled instead of piling up in the request queue of the driver.
+ */
+class CQLWritePipeline {
+
+    private final CqlSession session;
+    private final CQLWriteLimiter limiter;
+
+    //Only accessed by the committing thread
+    private final List<CompletableFuture<?>> pending = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private int numBatches = 0;
+    private long throttledNanos = 0;
+
+    CQLWritePipeline(final CqlSession session, final CQLWriteLimiter limiter) {
+        this.session = session;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Executes the given batch of statements for the given partition key, once the limits on the number of batches in
+     * flight allow to do so. Batches are not executed anymore after a previous batch has failed.
+     *
+     * @param key The partition key which all statements of the batch belong to
+     * @param batch The batch to execute
+     * @throws BackendException if the thread was interrupted while waiting for batches in flight
+     */
+    void execute(final StaticBuffer key, final BatchStatement batch) throws BackendException {
+        if (failure.get() != null) return;
+        final long start = System.nanoTime();
+        final Runnable release;
+        try {
+            release = limiter.acquire(key);
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        }
+        throttledNanos += System.nanoTime() - start;
+        numBatches++;
+        pending.add(session.executeAsync(batch).toCompletableFuture().whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                failure.compareAndSet(null, unwrap(throwable));
+            }
+            release.run();
+        }));
+    }
+
+    /**
+     * Waits for all batches in flight to complete.
+     *
+     * @throws BackendException if any batch failed or the thread was interrupted
+     */
+    void await() throws BackendException {
+        try {
+            for (final CompletableFuture<?> batch : pending) {
+                try {
+                    batch.get();
+                } catch (ExecutionException e) {
+                    //Recorded as failure when the batch completed
+                }
+            }
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        }
+        pending.clear();
+        final Throwable cause = failure.get();
+        if (cause != null) {
+            throw EXCEPTION_MAPPER.apply(cause);
+        }
+    }
+
+    /**
+     * @return The number of batches executed so far
+     */
+    int getNumBatches() {
+        return numBatches;
+    }
+
+    /**
+     * @return The time in nanoseconds the committing thread was blocked because of batches in flight
+     */
+    long getThrottledNanos() {
+        return throttledNanos;
+    }
+
+    private static PermanentBackendException interrupted(final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new PermanentBackendException("Interrupted while waiting for batches in flight", e);
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
@@ -111,6 +111,19 @@ public class CQLStoreTest extends KeyColumnValueStoreTest {
                 .set(USE_EXTERNAL_LOCKING, true)).getFeatures().hasLocking());
     }
 
+    @Test
+    public void testGetSlicesGroupedByTokenWithBoundedInFlightQueries() throws Exception {
+        close();
+        manager = openStorageManager(getBaseStorageConfiguration()
+            .set(MULTI_QUERY_MAX_IN_FLIGHT, 3)
+            .set(MULTI_QUERY_GROUP_BY_TOKEN, true));
+        store = manager.openDatabase(storeName);
+        tx = startTx();
+
+        assertTrue(manager.getFeatures().hasMultiQuery());
+        testGetSlices();
+    }
+
     @Test
     public void testDefaultCFCompressor() throws BackendException {
         final String cf = TEST_CF_NAME + "_snappy";
@@ -0,0 +1,186 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CQLWritePipelineTest {
+
+    private static final String KEYSPACE = "janusgraph";
+
+    private final List<CompletableFuture<AsyncResultSet>> executed = new CopyOnWriteArrayList<>();
+    private CqlSession session;
+    private TokenMap tokenMap;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        session = mock(CqlSession.class);
+        tokenMap = mock(TokenMap.class);
+        final Metadata metadata = mock(Metadata.class);
+        when(session.getMetadata()).thenReturn(metadata);
+        when(metadata.getTokenMap()).thenReturn(Optional.of(tokenMap));
+        when(session.executeAsync(any(BatchStatement.class))).thenAnswer(invocation -> {
+            final CompletableFuture<AsyncResultSet> future = new CompletableFuture<>();
+            executed.add(future);
+            return future;
+        });
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static BatchStatement getBatch() {
+        return BatchStatement.newInstance(DefaultBatchType.UNLOGGED);
+    }
+
+    private static StaticBuffer getKey(int key) {
+        return BufferUtil.getIntBuffer(key);
+    }
+
+    private CQLWritePipeline getPipeline(int maxInFlight, int maxInFlightPerReplicas) {
+        return new CQLWritePipeline(session, new CQLWriteLimiter(session, KEYSPACE, maxInFlight, maxInFlightPerReplicas));
+    }
+
+    @Test
+    public void testMaxInFlight() throws Exception {
+        when(tokenMap.getReplicas(anyString(), any(ByteBuffer.class))).thenAnswer(invocation -> Collections.singleton(mock(Node.class)));
+        final CQLWritePipeline pipeline = getPipeline(2, 2);
+        final Future<?> writes = executor.submit(() -> {
+            for (int i = 0; i < 3; i++) pipeline.execute(getKey(i), getBatch());
+            pipeline.await();
+            return null;
+        });
+        //The third batch is only executed once one of the first two has completed
+        assertThrows(Exception.class, () -> writes.get(200, TimeUnit.MILLISECONDS));
+        assertEquals(2, executed.size());
+        executed.get(0).complete(null);
+        executed.get(1).complete(null);
+        while (executed.size() < 3) Thread.sleep(10);
+        assertFalse(writes.isDone());
+        executed.get(2).complete(null);
+        writes.get();
+        assertEquals(3, pipeline.getNumBatches());
+        assertTrue(pipeline.getThrottledNanos() > 0);
+    }
+
+    @Test
+    public void testMaxInFlightPerReplicas() throws Exception {
+        final Node node1 = mock(Node.class), node2 = mock(Node.class);
+        when(tokenMap.getReplicas(anyString(), any(ByteBuffer.class))).thenAnswer(invocation ->
+            invocation.getArgument(1, ByteBuffer.class).getInt(0) % 2 == 0 ? Collections.singleton(node1) : Collections.singleton(node2));
+        final CQLWritePipeline pipeline = getPipeline(10, 1);
+        final Future<?> writes = executor.submit(() -> {
+            for (int i = 0; i < 4; i++) pipeline.execute(getKey(i), getBatch());
+            pipeline.await();
+            return null;
+        });
+        //Only the first batch for each set of replicas is in flight...
+        assertThrows(Exception.class, () -> writes.get(200, TimeUnit.MILLISECONDS));
+        assertEquals(2, executed.size());
+        //...and the third batch targets the same replicas as the first
+        executed.get(1).complete(null);
+        Thread.sleep(200);
+        assertEquals(2, executed.size());
+        executed.get(0).complete(null);
+        while (executed.size() < 4) Thread.sleep(10);
+        executed.get(2).complete(null);
+        executed.get(3).complete(null);
+        writes.get();
+    }
+
+    @Test
+    public void testMaxInFlightIsSharedByConcurrentCommits() throws Exception {
+        final Node node = mock(Node.class);
+        when(tokenMap.getReplicas(anyString(), any(ByteBuffer.class))).thenReturn(Collections.singleton(node));
+        final CQLWriteLimiter limiter = new CQLWriteLimiter(session, KEYSPACE, 3, 2);
+        final ExecutorService commits = Executors.newFixedThreadPool(3);
+        try {
+            final List<Future<?>> writes = new ArrayList<>();
+            for (int c = 0; c < 3; c++) {
+                writes.add(commits.submit(() -> {
+                    final CQLWritePipeline pipeline = new CQLWritePipeline(session, limiter);
+                    for (int i = 0; i < 4; i++) pipeline.execute(getKey(i), getBatch());
+                    pipeline.await();
+                    return null;
+                }));
+            }
+            //All commits together only have as many batches in flight as allowed for the replicas
+            Thread.sleep(200);
+            assertEquals(2, executed.size());
+            for (int completed = 0; completed < 12; completed++) {
+                while (executed.size() <= completed) Thread.sleep(10);
+                assertTrue(executed.size() - completed <= 2, "Too many batches in flight: " + (executed.size() - completed));
+                executed.get(completed).complete(null);
+            }
+            for (final Future<?> write : writes) write.get();
+            assertEquals(12, executed.size());
+        } finally {
+            commits.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        when(tokenMap.getReplicas(anyString(), any(ByteBuffer.class))).thenReturn(Collections.emptySet());
+        final CQLWritePipeline pipeline = getPipeline(4, 4);
+        pipeline.execute(getKey(1), getBatch());
+        pipeline.execute(getKey(2), getBatch());
+        executed.get(0).completeExceptionally(mock(WriteTimeoutException.class));
+        //Batches are not executed after a failure...
+        pipeline.execute(getKey(3), getBatch());
+        assertEquals(2, executed.size());
+        executed.get(1).complete(null);
+        //...and the failure is reported once all batches in flight have completed
+        assertThrows(BackendException.class, pipeline::await);
+    }
+}
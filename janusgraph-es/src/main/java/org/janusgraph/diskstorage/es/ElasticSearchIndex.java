@@ -279,6 +279,39 @@ public class ElasticSearchIndex implements IndexProvider {
             "Sets the maximum socket timeout (in milliseconds).", ConfigOption.Type.MASKABLE,
             Integer.class, RestClientBuilder.DEFAULT_SOCKET_TIMEOUT_MILLIS);
 
+    public static final ConfigOption<Integer> BULK_CHUNK_MAX_ACTIONS =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-chunk-max-actions",
+            "Maximum number of actions which are sent in a single bulk request. The mutations of a transaction are " +
+            "split into several bulk requests once they exceed this limit. Actions on the same document are never " +
+            "split. When set to 0, the number of actions is not limited.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Long> BULK_CHUNK_MAX_SIZE =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-chunk-max-size",
+            "Maximum size in bytes of the body of a single bulk request. The mutations of a transaction are split " +
+            "into several bulk requests once they exceed this limit. Actions on the same document are never split. " +
+            "When set to 0, the size of bulk requests is not limited.",
+            ConfigOption.Type.MASKABLE, 0L, ConfigOption.nonnegativeLong());
+
+    public static final ConfigOption<Integer> BULK_CONCURRENT_REQUESTS =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-concurrent-requests",
+            "Maximum number of bulk requests which are in flight at the same time across all transactions. Further " +
+            "bulk requests wait until a request completes. When set to 0, the number of concurrent bulk requests is " +
+            "not limited.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Integer> BULK_MAX_RETRIES =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-max-retries",
+            "Number of times the actions of a bulk request which Elasticsearch rejected because it was overloaded " +
+            "(HTTP status 429) are retried. Only the rejected actions are sent again.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Long> BULK_RETRY_WAIT =
+        new ConfigOption<>(ELASTICSEARCH_NS, "bulk-retry-wait",
+            "Time in milliseconds to wait before the first retry of rejected bulk actions. The wait time doubles with " +
+            "every further retry.",
+            ConfigOption.Type.MASKABLE, 100L, ConfigOption.positiveLong());
+
     public static final int HOST_PORT_DEFAULT = 9200;
 
     /**
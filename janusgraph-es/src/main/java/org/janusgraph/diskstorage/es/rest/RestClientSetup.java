@@ -82,6 +82,11 @@ public class RestClientSetup {
         Integer retryOnConflict = config.has(ElasticSearchIndex.RETRY_ON_CONFLICT) ? config.get(ElasticSearchIndex.RETRY_ON_CONFLICT) : null;
         client.setRetryOnConflict(retryOnConflict);
 
+        client.setBulkChunkMaxActions(config.get(ElasticSearchIndex.BULK_CHUNK_MAX_ACTIONS));
+        client.setBulkChunkMaxSize(config.get(ElasticSearchIndex.BULK_CHUNK_MAX_SIZE));
+        client.setBulkConcurrentRequests(config.get(ElasticSearchIndex.BULK_CONCURRENT_REQUESTS));
+        client.setBulkRetries(config.get(ElasticSearchIndex.BULK_MAX_RETRIES), config.get(ElasticSearchIndex.BULK_RETRY_WAIT));
+
         return client;
     }
 
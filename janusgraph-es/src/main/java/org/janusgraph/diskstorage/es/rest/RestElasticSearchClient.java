@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.tinkerpop.shaded.jackson.annotation.JsonIgnoreProperties;
@@ -32,6 +33,7 @@ import org.apache.tinkerpop.shaded.jackson.databind.module.SimpleModule;
 import org.elasticsearch.client.Request;
 import org.elasticsearch.client.Response;
 import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
 import org.elasticsearch.client.RestClient;
 import org.janusgraph.core.attribute.Geoshape;
 import org.janusgraph.diskstorage.es.ElasticMajorVersion;
@@ -45,13 +47,26 @@ import org.janusgraph.diskstorage.es.script.ESScriptResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -72,6 +87,8 @@ public class RestElasticSearchClient implements ElasticSearchClient {
 
     public static final String INCLUDE_TYPE_NAME_PARAMETER = "include_type_name";
 
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+
     private static final byte[] NEW_LINE_BYTES = "\n".getBytes(UTF8_CHARSET);
 
     private static final Request INFO_REQUEST = new Request(REQUEST_TYPE_GET, REQUEST_SEPARATOR);
@@ -111,6 +128,16 @@ public class RestElasticSearchClient implements ElasticSearchClient {
     private Integer retryOnConflict;
 
     private final String retryOnConflictKey;
+
+    private int bulkChunkMaxActions = 0;
+
+    private long bulkChunkMaxSize = 0;
+
+    private volatile Semaphore bulkRequestPermits;
+
+    private int bulkMaxRetries = 0;
+
+    private long bulkRetryWait = 100;
     
     public RestElasticSearchClient(RestClient delegate, int scrollKeepAlive, boolean useMappingTypesForES7) {
         this.delegate = delegate;
@@ -359,53 +386,216 @@ public class RestElasticSearchClient implements ElasticSearchClient {
 
     @Override
     public void bulkRequest(List<ElasticSearchMutation> requests, String ingestPipeline) throws IOException {
-        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if (requests.isEmpty()) return;
+        final StringBuilder builder = new StringBuilder();
+        if (ingestPipeline != null) {
+            APPEND_OP.apply(builder).append("pipeline=").append(ingestPipeline);
+        }
+        if (bulkRefreshEnabled) {
+            APPEND_OP.apply(builder).append("refresh=").append(bulkRefresh);
+        }
+        builder.insert(0, REQUEST_SEPARATOR + "_bulk");
+        final String path = builder.toString();
+
+        List<BulkAction> actions = new ArrayList<>(requests.size());
         for (final ElasticSearchMutation request : requests) {
-            Map<String, Object> requestData = new HashMap<>();
-            if (useMappingTypes) {
-                requestData.put("_index", request.getIndex());
-                requestData.put("_type", request.getType());
-                requestData.put("_id", request.getId());
-            } else {
-                requestData.put("_index", request.getIndex());
-                requestData.put("_id", request.getId());
-            }
+            actions.add(new BulkAction(request, serialize(request)));
+        }
 
-            if (retryOnConflict != null && request.getRequestType() == ElasticSearchMutation.RequestType.UPDATE) {
-                requestData.put(retryOnConflictKey, retryOnConflict);
+        final List<Object> errors = new ArrayList<>();
+        long retryWait = bulkRetryWait;
+        for (int retry = 0; !actions.isEmpty(); retry++) {
+            final List<BulkAction> rejected = withFollowingActions(actions, executeBulk(path, actions, errors));
+            if (!rejected.isEmpty() && retry >= bulkMaxRetries) {
+                rejected.forEach(action -> errors.add(action.error));
+                break;
             }
+            if (!rejected.isEmpty()) {
+                log.debug("Elasticsearch rejected {} bulk actions, retrying in {} ms", rejected.size(), retryWait);
+                try {
+                    Thread.sleep(retryWait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting to retry Elasticsearch bulk request");
+                }
+                retryWait *= 2;
+            }
+            actions = rejected;
+        }
+        if (!errors.isEmpty()) {
+            errors.forEach(error -> log.error("Failed to execute ES query: {}", error));
+            throw new IOException("Failure(s) in Elasticsearch bulk request: " + errors);
+        }
+    }
 
-            outputStream.write(mapWriter.writeValueAsBytes(
-                ImmutableMap.of(request.getRequestType().name().toLowerCase(), requestData))
-            );
+    private byte[] serialize(ElasticSearchMutation request) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Map<String, Object> requestData = new HashMap<>();
+        if (useMappingTypes) {
+            requestData.put("_index", request.getIndex());
+            requestData.put("_type", request.getType());
+            requestData.put("_id", request.getId());
+        } else {
+            requestData.put("_index", request.getIndex());
+            requestData.put("_id", request.getId());
+        }
+
+        if (retryOnConflict != null && request.getRequestType() == ElasticSearchMutation.RequestType.UPDATE) {
+            requestData.put(retryOnConflictKey, retryOnConflict);
+        }
+
+        outputStream.write(mapWriter.writeValueAsBytes(
+            ImmutableMap.of(request.getRequestType().name().toLowerCase(), requestData))
+        );
+        outputStream.write(NEW_LINE_BYTES);
+        if (request.getSource() != null) {
+            outputStream.write(mapWriter.writeValueAsBytes(request.getSource()));
             outputStream.write(NEW_LINE_BYTES);
-            if (request.getSource() != null) {
-                outputStream.write(mapWriter.writeValueAsBytes(request.getSource()));
-                outputStream.write(NEW_LINE_BYTES);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Sends the given actions in chunks of bounded size which are executed concurrently.
+     *
+     * @return the actions which were rejected because Elasticsearch was overloaded and may be retried
+     */
+    private List<BulkAction> executeBulk(String path, List<BulkAction> actions, List<Object> errors) throws IOException {
+        final List<List<BulkAction>> chunks = split(actions);
+        final List<CompletableFuture<RestBulkResponse>> responses = new ArrayList<>(chunks.size());
+        for (final List<BulkAction> chunk : chunks) {
+            responses.add(sendBulk(path, chunk));
+        }
+
+        final List<BulkAction> rejected = new ArrayList<>();
+        IOException failure = null;
+        for (int i = 0; i < chunks.size(); i++) {
+            final List<BulkAction> chunk = chunks.get(i);
+            try {
+                final List<Map<String, RestBulkItemResponse>> items = responses.get(i).get().getItems();
+                for (int j = 0; j < items.size(); j++) {
+                    for (final RestBulkItemResponse item : items.get(j).values()) {
+                        if (item.getError() == null || item.getStatus() == 404) continue;
+                        if (item.getStatus() == STATUS_TOO_MANY_REQUESTS) {
+                            rejected.add(chunk.get(j).rejected(item.getError()));
+                        } else {
+                            errors.add(item.getError());
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for Elasticsearch bulk request");
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof ResponseException
+                        && ((ResponseException) cause).getResponse().getStatusLine().getStatusCode() == STATUS_TOO_MANY_REQUESTS) {
+                    chunk.forEach(action -> rejected.add(action.rejected(cause.getMessage())));
+                } else if (failure == null) {
+                    failure = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                } else {
+                    failure.addSuppressed(cause);
+                }
             }
         }
+        if (failure != null) throw failure;
+        return rejected;
+    }
 
-        final StringBuilder builder = new StringBuilder();
-        if (ingestPipeline != null) {
-            APPEND_OP.apply(builder).append("pipeline=").append(ingestPipeline);
+    /**
+     * Adds the actions which follow a rejected action on the same document to the actions to retry. Otherwise the
+     * retried action would be applied after the actions which were originally sent after it.
+     *
+     * @return the actions to retry in their original order
+     */
+    private static List<BulkAction> withFollowingActions(List<BulkAction> actions, List<BulkAction> rejected) {
+        if (rejected.isEmpty()) return rejected;
+        final Set<BulkAction> rejectedActions = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejectedActions.addAll(rejected);
+        final Set<List<String>> rejectedDocuments = new HashSet<>();
+        final List<BulkAction> retried = new ArrayList<>(rejected.size());
+        for (final BulkAction action : actions) {
+            if (rejectedActions.contains(action)) {
+                rejectedDocuments.add(action.getDocument());
+                retried.add(action);
+            } else if (rejectedDocuments.contains(action.getDocument())) {
+                retried.add(action.rejected("Preceding action on document " + action.id + " was rejected"));
+            }
         }
-        if (bulkRefreshEnabled) {
-            APPEND_OP.apply(builder).append("refresh=").append(bulkRefresh);
+        return retried;
+    }
+
+    private List<List<BulkAction>> split(List<BulkAction> actions) {
+        if (bulkChunkMaxActions <= 0 && bulkChunkMaxSize <= 0) {
+            return Collections.singletonList(actions);
         }
-        builder.insert(0, REQUEST_SEPARATOR + "_bulk");
+        final List<List<BulkAction>> chunks = new ArrayList<>();
+        List<BulkAction> chunk = new ArrayList<>();
+        long chunkSize = 0;
+        for (final BulkAction action : actions) {
+            final boolean full = (bulkChunkMaxActions > 0 && chunk.size() >= bulkChunkMaxActions)
+                || (bulkChunkMaxSize > 0 && chunkSize + action.bytes.length > bulkChunkMaxSize);
+            // Actions on the same document are kept in order within one chunk
+            if (full && !chunk.isEmpty() && !action.isSameDocument(chunk.get(chunk.size() - 1))) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkSize = 0;
+            }
+            chunk.add(action);
+            chunkSize += action.bytes.length;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
 
-        final Response response = performRequest(REQUEST_TYPE_POST, builder.toString(), outputStream.toByteArray());
-        try (final InputStream inputStream = response.getEntity().getContent()) {
-            final RestBulkResponse bulkResponse = mapper.readValue(inputStream, RestBulkResponse.class);
-            final List<Object> errors = bulkResponse.getItems().stream()
-                .flatMap(item -> item.values().stream())
-                .filter(item -> item.getError() != null && item.getStatus() != 404)
-                .map(RestBulkItemResponse::getError).collect(Collectors.toList());
-            if (!errors.isEmpty()) {
-                errors.forEach(error -> log.error("Failed to execute ES query: {}", error));
-                throw new IOException("Failure(s) in Elasticsearch bulk request: " + errors);
+    private CompletableFuture<RestBulkResponse> sendBulk(String path, List<BulkAction> chunk) throws IOException {
+        final Request request = new Request(REQUEST_TYPE_POST, path);
+        request.setEntity(new BulkEntity(chunk));
+        final Semaphore permits = bulkRequestPermits;
+        if (permits != null) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to send Elasticsearch bulk request");
             }
         }
+        final CompletableFuture<RestBulkResponse> future = new CompletableFuture<>();
+        delegate.performRequestAsync(request, new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                if (permits != null) permits.release();
+                try (final InputStream inputStream = response.getEntity().getContent()) {
+                    future.complete(mapper.readValue(inputStream, RestBulkResponse.class));
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                if (permits != null) permits.release();
+                future.completeExceptionally(exception);
+            }
+        });
+        return future;
+    }
+
+    public void setBulkChunkMaxActions(int bulkChunkMaxActions) {
+        this.bulkChunkMaxActions = bulkChunkMaxActions;
+    }
+
+    public void setBulkChunkMaxSize(long bulkChunkMaxSize) {
+        this.bulkChunkMaxSize = bulkChunkMaxSize;
+    }
+
+    public void setBulkConcurrentRequests(int bulkConcurrentRequests) {
+        this.bulkRequestPermits = bulkConcurrentRequests > 0 ? new Semaphore(bulkConcurrentRequests) : null;
+    }
+
+    public void setBulkRetries(int bulkMaxRetries, long bulkRetryWait) {
+        this.bulkMaxRetries = bulkMaxRetries;
+        this.bulkRetryWait = bulkRetryWait;
     }
 
     public void setRetryOnConflict(Integer retryOnConflict) {
@@ -488,6 +678,80 @@ public class RestElasticSearchClient implements ElasticSearchClient {
         return response;
     }
 
+    /**
+     * A serialized bulk action, i.e. the action line followed by the source line if there is one.
+     */
+    private static final class BulkAction {
+
+        private final String index;
+        private final String id;
+        private final byte[] bytes;
+        private Object error;
+
+        private BulkAction(ElasticSearchMutation request, byte[] bytes) {
+            this.index = request.getIndex();
+            this.id = request.getId();
+            this.bytes = bytes;
+        }
+
+        private BulkAction rejected(Object error) {
+            this.error = error;
+            return this;
+        }
+
+        private boolean isSameDocument(BulkAction other) {
+            return Objects.equals(id, other.id) && Objects.equals(index, other.index);
+        }
+
+        private List<String> getDocument() {
+            return Arrays.asList(index, id);
+        }
+    }
+
+    /**
+     * Streams the serialized actions of a bulk request without copying them into a single body.
+     */
+    private static final class BulkEntity extends AbstractHttpEntity {
+
+        private final List<BulkAction> actions;
+        private final long contentLength;
+
+        private BulkEntity(List<BulkAction> actions) {
+            this.actions = actions;
+            this.contentLength = actions.stream().mapToLong(action -> action.bytes.length).sum();
+            setContentType(ContentType.APPLICATION_JSON.toString());
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return new SequenceInputStream(Collections.enumeration(actions.stream()
+                .map(action -> new ByteArrayInputStream(action.bytes)).collect(Collectors.toList())));
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            for (final BulkAction action : actions) {
+                outputStream.write(action.bytes);
+            }
+            outputStream.flush();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
     @JsonIgnoreProperties(ignoreUnknown=true)
     private static final class ClusterInfo {
 
@@ -0,0 +1,270 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.es.rest;
+
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.janusgraph.diskstorage.es.ElasticSearchMutation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the bulk requests of {@link RestElasticSearchClient} against an embedded HTTP server which stands in for
+ * Elasticsearch.
+ */
+public class RestElasticSearchClientBulkTest {
+
+    private static final String INDEX_NAME = "janusgraph_test";
+    private static final Pattern ID_PATTERN = Pattern.compile("\"_id\":\"([^\"]*)\"");
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private RestClient restClient;
+    private RestElasticSearchClient client;
+
+    // Ids of the documents of each bulk request
+    private final List<List<String>> bulkRequests = Collections.synchronizedList(new ArrayList<>());
+    // Number of times each document is rejected with 429 before it is accepted
+    private final Map<String, AtomicInteger> rejections = new HashMap<>();
+    // Documents which fail with a non-retryable error
+    private final Map<String, Integer> failures = new HashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long responseDelay = 0;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> respond(exchange, "{\"version\":{\"number\":\"7.12.0\"}}"));
+        server.createContext("/_bulk", this::handleBulk);
+        server.start();
+        restClient = RestClient.builder(new HttpHost("localhost", server.getAddress().getPort())).build();
+        client = new RestElasticSearchClient(restClient, 60, false);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleBulk(HttpExchange exchange) throws IOException {
+        final int concurrent = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(concurrent, Math::max);
+        try {
+            final String body = IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+            final List<String> ids = new ArrayList<>();
+            final List<String> items = new ArrayList<>();
+            boolean errors = false;
+            for (String line : body.split("\n")) {
+                final Matcher matcher = ID_PATTERN.matcher(line);
+                if (!matcher.find()) continue;
+                final String id = matcher.group(1);
+                ids.add(id);
+                final AtomicInteger rejection = rejections.get(id);
+                if (rejection != null && rejection.getAndDecrement() > 0) {
+                    items.add("{\"index\":{\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\"}}}");
+                    errors = true;
+                } else if (failures.containsKey(id)) {
+                    items.add("{\"index\":{\"status\":" + failures.get(id) + ",\"error\":{\"type\":\"mapper_parsing_exception\"}}}");
+                    errors = true;
+                } else {
+                    items.add("{\"index\":{\"status\":201,\"result\":\"created\"}}");
+                }
+            }
+            bulkRequests.add(ids);
+            if (responseDelay > 0) Thread.sleep(responseDelay);
+            respond(exchange, "{\"errors\":" + errors + ",\"items\":[" + String.join(",", items) + "]}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String response) throws IOException {
+        final byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static List<ElasticSearchMutation> getMutations(int numDocuments) {
+        final List<ElasticSearchMutation> mutations = new ArrayList<>();
+        for (int i = 0; i < numDocuments; i++) {
+            mutations.add(ElasticSearchMutation.createIndexRequest(INDEX_NAME, "test", "doc" + i,
+                ImmutableMap.of("name", "value" + i)));
+        }
+        return mutations;
+    }
+
+    private List<String> getSentIds() {
+        final List<String> ids = new ArrayList<>();
+        bulkRequests.forEach(ids::addAll);
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static List<String> getIds(List<ElasticSearchMutation> mutations) {
+        final List<String> ids = new ArrayList<>();
+        mutations.forEach(mutation -> ids.add(mutation.getId()));
+        Collections.sort(ids);
+        return ids;
+    }
+
+    @Test
+    public void testSingleBulkRequestByDefault() throws IOException {
+        final List<ElasticSearchMutation> mutations = getMutations(10);
+        client.bulkRequest(mutations, null);
+        assertEquals(1, bulkRequests.size());
+        assertEquals(getIds(mutations), getSentIds());
+    }
+
+    @Test
+    public void testSplitByActions() throws IOException {
+        client.setBulkChunkMaxActions(3);
+        final List<ElasticSearchMutation> mutations = getMutations(10);
+        client.bulkRequest(mutations, null);
+        assertEquals(4, bulkRequests.size());
+        bulkRequests.forEach(ids -> assertTrue(ids.size() <= 3));
+        assertEquals(getIds(mutations), getSentIds());
+    }
+
+    @Test
+    public void testSplitBySize() throws IOException {
+        final List<ElasticSearchMutation> mutations = getMutations(10);
+        // Each action is about 70 bytes
+        client.setBulkChunkMaxSize(150);
+        client.bulkRequest(mutations, null);
+        assertEquals(5, bulkRequests.size());
+        bulkRequests.forEach(ids -> assertEquals(2, ids.size()));
+        assertEquals(getIds(mutations), getSentIds());
+    }
+
+    @Test
+    public void testActionsOnSameDocumentAreNotSplit() throws IOException {
+        client.setBulkChunkMaxActions(2);
+        final List<ElasticSearchMutation> mutations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            mutations.add(ElasticSearchMutation.createUpdateRequest(INDEX_NAME, "test", "doc0", ImmutableMap.of("n", i)));
+        }
+        mutations.add(ElasticSearchMutation.createUpdateRequest(INDEX_NAME, "test", "doc1", ImmutableMap.of("n", 0)));
+        client.bulkRequest(mutations, null);
+        assertEquals(2, bulkRequests.size());
+        assertEquals(3, bulkRequests.get(0).size());
+    }
+
+    @Test
+    public void testRetryOnlyRejectedActions() throws IOException {
+        client.setBulkRetries(2, 1);
+        rejections.put("doc3", new AtomicInteger(2));
+        final List<ElasticSearchMutation> mutations = getMutations(5);
+        client.bulkRequest(mutations, null);
+        assertEquals(3, bulkRequests.size());
+        assertEquals(5, bulkRequests.get(0).size());
+        assertEquals(Collections.singletonList("doc3"), bulkRequests.get(1));
+        assertEquals(Collections.singletonList("doc3"), bulkRequests.get(2));
+    }
+
+    @Test
+    public void testRetryFollowingActionsOnSameDocument() throws IOException {
+        client.setBulkRetries(2, 1);
+        rejections.put("doc0", new AtomicInteger(1));
+        final List<ElasticSearchMutation> mutations = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            mutations.add(ElasticSearchMutation.createUpdateRequest(INDEX_NAME, "test", "doc0", ImmutableMap.of("n", i)));
+        }
+        mutations.add(ElasticSearchMutation.createUpdateRequest(INDEX_NAME, "test", "doc1", ImmutableMap.of("n", 0)));
+        client.bulkRequest(mutations, null);
+        assertEquals(2, bulkRequests.size());
+        // The second action on doc0 was accepted, but it is retried so that it is applied after the first one
+        assertEquals(Arrays.asList("doc0", "doc0"), bulkRequests.get(1));
+    }
+
+    @Test
+    public void testRejectedActionsFailAfterRetries() {
+        client.setBulkRetries(1, 1);
+        rejections.put("doc1", new AtomicInteger(5));
+        assertThrows(IOException.class, () -> client.bulkRequest(getMutations(3), null));
+        assertEquals(2, bulkRequests.size());
+    }
+
+    @Test
+    public void testErrorsAreNotRetried() {
+        client.setBulkRetries(3, 1);
+        failures.put("doc1", 400);
+        assertThrows(IOException.class, () -> client.bulkRequest(getMutations(3), null));
+        assertEquals(1, bulkRequests.size());
+    }
+
+    @Test
+    public void testMissingDocumentsAreIgnored() throws IOException {
+        failures.put("doc1", 404);
+        client.bulkRequest(getMutations(3), null);
+        assertEquals(1, bulkRequests.size());
+    }
+
+    @Test
+    public void testConcurrentRequestsAreBounded() {
+        client.setBulkChunkMaxActions(1);
+        client.setBulkConcurrentRequests(2);
+        responseDelay = 20;
+        final List<CompletableFuture<Void>> commits = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            commits.add(CompletableFuture.runAsync(() -> {
+                try {
+                    client.bulkRequest(getMutations(4), null);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        commits.forEach(CompletableFuture::join);
+        assertEquals(12, bulkRequests.size());
+        assertTrue(maxInFlight.get() <= 2, "Too many concurrent bulk requests: " + maxInFlight.get());
+        assertEquals(2, maxInFlight.get());
+    }
+}
@@ -17,10 +17,14 @@ package org.janusgraph.hadoop.formats.util.input.current;
 import com.google.common.base.Preconditions;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.configuration.BasicConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressionKCVSManager;
 import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
 import org.janusgraph.graphdb.database.RelationReader;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.idmanagement.IDManager;
@@ -51,11 +55,22 @@ public class JanusGraphHadoopSetupImpl implements JanusGraphHadoopSetup {
     private final ModifiableHadoopConfiguration scanConf;
     private final StandardJanusGraph graph;
     private final StandardJanusGraphTx tx;
+    private final RelationReader relationReader;
 
     public JanusGraphHadoopSetupImpl(final Configuration config) {
         scanConf = ModifiableHadoopConfiguration.of(JanusGraphHadoopConfiguration.MAPRED_NS, config);
         BasicConfiguration bc = scanConf.getJanusGraphConf();
         graph = (StandardJanusGraph) JanusGraphFactory.open(bc);
+        final StoreManager storeManager = graph.getBackend().getStoreManager();
+        final ValueCompression compression = storeManager instanceof CompressionKCVSManager
+            ? ((CompressionKCVSManager) storeManager).getCompression(Backend.EDGESTORE_NAME) : null;
+        if (compression == null) {
+            relationReader = graph.getEdgeSerializer();
+        } else {
+            //The input formats read the edgestore directly, hence its values still have to be decompressed
+            relationReader = (data, parseHeaderOnly, typeInspector) ->
+                graph.getEdgeSerializer().parseRelation(compression.decompress(data), parseHeaderOnly, typeInspector);
+        }
         tx = (StandardJanusGraphTx)graph.buildTransaction().readOnly().vertexCacheSize(200).start();
     }
 
@@ -115,7 +130,7 @@ public class JanusGraphHadoopSetupImpl implements JanusGraphHadoopSetup {
 
     @Override
     public RelationReader getRelationReader() {
-        return graph.getEdgeSerializer();
+        return relationReader;
     }
 
     @Override
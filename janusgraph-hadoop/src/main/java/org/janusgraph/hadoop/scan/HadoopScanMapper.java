@@ -25,6 +25,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
 import org.janusgraph.diskstorage.util.BufferUtil;
 import org.janusgraph.diskstorage.util.EntryArrayList;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
 import org.janusgraph.hadoop.config.ModifiableHadoopConfiguration;
 import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
 import org.apache.hadoop.io.NullWritable;
@@ -47,6 +48,10 @@ public class HadoopScanMapper extends Mapper<StaticBuffer, Iterable<Entry>, Null
 
     protected ScanJob job;
     protected HadoopContextScanMetrics metrics;
+    /**
+     * Compression of the store which is read by the input format, or null if its values are processed as stored
+     */
+    protected ValueCompression compression;
     protected org.janusgraph.diskstorage.configuration.Configuration jobConf;
     private Predicate<StaticBuffer> keyFilter;
     private SliceQuery initialQuery;
@@ -95,6 +100,9 @@ public class HadoopScanMapper extends Mapper<StaticBuffer, Iterable<Entry>, Null
     @Override
     protected void map(StaticBuffer key, Iterable<Entry> values, Context context) throws IOException, InterruptedException {
         EntryArrayList al = EntryArrayList.of(values);
+        if (null != compression) {
+            al.replaceAll(compression::decompress);
+        }
 
         // KeyFilter check
         if (!keyFilter.test(key)) {
@@ -17,6 +17,9 @@ package org.janusgraph.hadoop.scan;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.JanusGraph;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressionKCVSManager;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.olap.VertexJobConverter;
 import org.janusgraph.graphdb.olap.VertexScanJob;
 import org.janusgraph.hadoop.config.ModifiableHadoopConfiguration;
@@ -35,6 +38,11 @@ public class HadoopVertexScanMapper extends HadoopScanMapper {
         VertexScanJob vertexScan = getVertexScanJob(scanConf);
         ModifiableConfiguration graphConf = getJanusGraphConfiguration(context);
         graph = JanusGraphFactory.open(graphConf);
+        //The input format reads the underlying store, whose values might still have to be decompressed
+        StoreManager storeManager = ((StandardJanusGraph) graph).getBackend().getStoreManager();
+        if (storeManager instanceof CompressionKCVSManager) {
+            compression = ((CompressionKCVSManager) storeManager).getCompression(scanConf.get(JanusGraphHadoopConfiguration.COLUMN_FAMILY_NAME));
+        }
         job = VertexJobConverter.convert(graph, vertexScan);
         metrics = new HadoopContextScanMetrics(context);
         finishSetup(scanConf, graphConf);
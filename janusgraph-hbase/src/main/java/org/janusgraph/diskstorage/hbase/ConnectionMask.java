@@ -23,6 +23,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.List;
 import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.client.BufferedMutator;
 
 /**
  * This interface hides ABI/API breaking changes that HBase has made to its (H)Connection class over the course
@@ -53,4 +54,24 @@ public interface ConnectionMask extends Closeable
      * @throws IOException in the case of backend exceptions.
      */
     List<HRegionLocation> getRegionLocations(String tableName) throws IOException;
+
+    /**
+     * Retrieve the RegionLocations of the regions which host the supplied rows of the named table. The locations
+     * are cached by the HBase client, such that the cluster is only contacted for rows in unknown regions.
+     * @param tableName
+     * @param rows
+     * @return The location of each row, in the order of the supplied rows.
+     * @throws IOException in the case of backend exceptions.
+     */
+    List<HRegionLocation> getRegionLocations(String tableName, List<byte[]> rows) throws IOException;
+
+    /**
+     * Retrieve a BufferedMutator for the supplied table name which sends mutations to the cluster in the background
+     * whenever its write buffer is full.
+     * @param tableName
+     * @param writeBufferSize The size of the write buffer in bytes.
+     * @return The BufferedMutator for the specified table.
+     * @throws IOException in the case of backend exceptions.
+     */
+    BufferedMutator getBufferedMutator(String tableName, long writeBufferSize) throws IOException;
 }
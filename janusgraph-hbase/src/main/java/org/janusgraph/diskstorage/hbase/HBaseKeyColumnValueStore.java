@@ -18,9 +18,11 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.janusgraph.diskstorage.*;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
+import org.janusgraph.diskstorage.util.MetricInstrumentedStore;
 import org.janusgraph.diskstorage.util.RecordIterator;
 import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
@@ -41,6 +43,11 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Here are some areas that might need work:
@@ -67,18 +74,25 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
     // When not using shortened CF names, they are the same
     //private final String columnFamily;
     private final String storeName;
+    // Name of the store in the metrics of the storage backend, which is shared by all stores if their metrics are merged
+    private final String metricsStoreName;
     // This is columnFamily.getBytes()
     private final byte[] columnFamilyBytes;
     private final HBaseGetter entryGetter;
 
     private final ConnectionMask cnx;
+    // Fetches the rows of multi-key slice queries region by region, or null to fetch them with a single call
+    private final ExecutorService regionFetchExecutor;
 
-    HBaseKeyColumnValueStore(HBaseStoreManager storeManager, ConnectionMask cnx, String tableName, String columnFamily, String storeName) {
+    HBaseKeyColumnValueStore(HBaseStoreManager storeManager, ConnectionMask cnx, String tableName, String columnFamily, String storeName,
+                             String metricsStoreName, @Nullable ExecutorService regionFetchExecutor) {
         this.storeManager = storeManager;
         this.cnx = cnx;
+        this.regionFetchExecutor = regionFetchExecutor;
         this.tableName = tableName;
         //this.columnFamily = columnFamily;
         this.storeName = storeName;
+        this.metricsStoreName = metricsStoreName;
         this.columnFamilyBytes = Bytes.toBytes(columnFamily);
         this.entryGetter = new HBaseGetter(storeManager.getMetaDataSchema(storeName));
     }
@@ -95,7 +109,30 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
 
     @Override
     public Map<StaticBuffer,EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
-        return getHelper(keys, getFilter(query));
+        if (regionFetchExecutor == null || keys.size() < 2) return getHelper(keys, getFilter(query));
+        try {
+            return getByRegion(keys, getFilter(query), txh).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof BackendException) throw (BackendException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new PermanentBackendException(cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        if (regionFetchExecutor == null || keys.size() < 2) return KeyColumnValueStore.super.getSliceAsync(keys, query, txh);
+        try {
+            return getByRegion(keys, getFilter(query), txh);
+        } catch (BackendException e) {
+            final CompletableFuture<Map<StaticBuffer,EntryList>> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
     }
 
     @Override
@@ -152,6 +189,52 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
         return filter;
     }
 
+    /**
+     * Groups the keys by the region which hosts them and fetches the rows of each region with a separate batch of gets
+     * on the region fetch executor. The rows of each region are added to the result as soon as they arrive, and the
+     * latency of each region batch is recorded as a partition metric of {@link MetricInstrumentedStore#M_GET_SLICE}.
+     */
+    private CompletableFuture<Map<StaticBuffer,EntryList>> getByRegion(List<StaticBuffer> keys, Filter getFilter, StoreTransaction txh) throws BackendException {
+        final List<byte[]> rows = new ArrayList<>(keys.size());
+        for (StaticBuffer key : keys) rows.add(key.as(StaticBuffer.ARRAY_FACTORY));
+        final List<HRegionLocation> locations;
+        try {
+            locations = cnx.getRegionLocations(tableName, rows);
+        } catch (InterruptedIOException e) {
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException(e);
+        } catch (IOException e) {
+            throw new TemporaryBackendException(e);
+        }
+
+        final Map<String, List<StaticBuffer>> keysByRegion = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            final String region = locations.get(i).getRegionInfo().getEncodedName();
+            keysByRegion.computeIfAbsent(region, r -> new ArrayList<>()).add(keys.get(i));
+        }
+        if (keysByRegion.size() == 1) return CompletableFuture.completedFuture(getHelper(keys, getFilter));
+
+        final Map<StaticBuffer,EntryList> resultMap = new ConcurrentHashMap<>(keys.size());
+        final CompletableFuture<?>[] regionResults = new CompletableFuture[keysByRegion.size()];
+        int i = 0;
+        for (Map.Entry<String, List<StaticBuffer>> region : keysByRegion.entrySet()) {
+            regionResults[i++] = CompletableFuture.runAsync(() -> {
+                final long start = System.nanoTime();
+                boolean failed = true;
+                try {
+                    resultMap.putAll(getHelper(region.getValue(), getFilter));
+                    failed = false;
+                } catch (BackendException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    MetricInstrumentedStore.recordPartitionMetrics(txh, metricsStoreName, MetricInstrumentedStore.M_GET_SLICE,
+                        region.getKey(), System.nanoTime() - start, failed);
+                }
+            }, regionFetchExecutor);
+        }
+        return CompletableFuture.allOf(regionResults).thenApply(v -> resultMap);
+    }
+
     private Map<StaticBuffer,EntryList> getHelper(List<StaticBuffer> keys, Filter getFilter) throws BackendException {
         List<Get> requests = new ArrayList<>(keys.size());
         {
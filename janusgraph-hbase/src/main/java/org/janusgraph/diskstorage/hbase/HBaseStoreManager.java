@@ -25,6 +25,7 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SY
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.GRAPH_NAME;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -34,6 +35,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -43,6 +46,7 @@ import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HColumnDescriptor;
@@ -54,6 +58,7 @@ import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.TableNotEnabledException;
 import org.apache.hadoop.hbase.TableNotFoundException;
 import org.apache.hadoop.hbase.ZooKeeperConnectionException;
+import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.HTable;
@@ -63,6 +68,7 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.util.VersionInfo;
 import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
 import org.janusgraph.diskstorage.Entry;
@@ -89,6 +95,7 @@ import org.janusgraph.diskstorage.util.time.TimestampProviders;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 import org.janusgraph.hadoop.HBaseHadoopStoreManager;
+import org.janusgraph.util.stats.MetricManager;
 import org.janusgraph.util.system.IOUtils;
 import org.janusgraph.util.system.NetworkUtil;
 import org.slf4j.Logger;
@@ -239,6 +246,37 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
             "at runtime.  Setting this option forces JanusGraph to instead reflectively load and instantiate the specified class.",
             ConfigOption.Type.MASKABLE, String.class);
 
+    public static final ConfigOption<Integer> REGION_FETCH_THREADS =
+            new ConfigOption<>(HBASE_NS, "region-fetch-threads",
+            "Number of threads which fetch the rows of multi-key slice queries region by region. The rows are grouped " +
+            "by the region which hosts them, and the gets of different regions are issued concurrently. When set " +
+            "to 0, all rows of a multi-key slice query are fetched with a single call to the HBase client.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Boolean> BUFFERED_MUTATOR =
+            new ConfigOption<>(HBASE_NS, "buffered-mutator",
+            "Whether to write the mutations of a commit through an HBase BufferedMutator. Mutations are then converted " +
+            "and sent to the cluster in the background whenever the write buffer is full, instead of being sent as a " +
+            "single batch once all of them are converted. Each commit waits until all its mutations have been flushed.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Long> WRITE_BUFFER_SIZE =
+            new ConfigOption<>(HBASE_NS, "write-buffer-size",
+            "Size of the write buffer in bytes which the BufferedMutator of a commit fills before it flushes the " +
+            "mutations to the cluster. Only used when storage.hbase.buffered-mutator is enabled.",
+            ConfigOption.Type.MASKABLE, 2L * 1024 * 1024, ConfigOption.positiveLong());
+
+    public static final ConfigOption<Integer> WRITE_MAX_IN_FLIGHT =
+            new ConfigOption<>(HBASE_NS, "write-max-in-flight",
+            "Maximum number of concurrent write requests which the HBase client sends to the cluster. Further " +
+            "mutations of a BufferedMutator block until a request completes, which bounds the memory used by large " +
+            "commits. This sets hbase.client.max.total.tasks. When set to 0, the HBase client default is used.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final String M_MUTATE_MANY = "mutateMany";
+    public static final String M_FLUSH = "flush";
+    public static final String M_LATENCY = "latency";
+
     public static final int PORT_DEFAULT = 2181;  // Not used. Just for the parent constructor.
 
     public static final TimestampProviders PREFERRED_TIMESTAMPS = TimestampProviders.MILLI;
@@ -258,6 +296,10 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
     private final boolean shortCfNames;
     private final boolean skipSchemaCheck;
     private final HBaseCompat compat;
+    private final ExecutorService regionFetchExecutor;
+    private final boolean bufferedMutator;
+    private final long writeBufferSize;
+    private final String metricsPrefix;
     // Cached return value of getDeployment() as requesting it can be expensive.
     private Deployment deployment = null;
 
@@ -282,6 +324,12 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
         this.regionCount = config.has(REGION_COUNT) ? config.get(REGION_COUNT) : -1;
         this.regionsPerServer = config.has(REGIONS_PER_SERVER) ? config.get(REGIONS_PER_SERVER) : -1;
         this.skipSchemaCheck = config.get(SKIP_SCHEMA_CHECK);
+        final int regionFetchThreads = config.get(REGION_FETCH_THREADS);
+        this.regionFetchExecutor = regionFetchThreads > 0 ? Executors.newFixedThreadPool(regionFetchThreads,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("HBaseRegionFetch[%02d]").build()) : null;
+        this.bufferedMutator = config.get(BUFFERED_MUTATOR);
+        this.writeBufferSize = config.get(WRITE_BUFFER_SIZE);
+        this.metricsPrefix = config.get(GraphDatabaseConfiguration.BASIC_METRICS) ? config.get(GraphDatabaseConfiguration.METRICS_PREFIX) : null;
         final String compatClass = config.has(COMPAT_CLASS) ? config.get(COMPAT_CLASS) : null;
         this.compat = HBaseCompatLoader.getCompat(compatClass);
 
@@ -329,6 +377,11 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
             logger.info("Copied Zookeeper Port from {} to {}: {}", GraphDatabaseConfiguration.STORAGE_PORT, zkPortKey, zkPort);
         }
 
+        // Bounds the outstanding write requests of the buffered mutators and batches
+        if (config.get(WRITE_MAX_IN_FLIGHT) > 0) {
+            hconf.setInt("hbase.client.max.total.tasks", config.get(WRITE_MAX_IN_FLIGHT));
+        }
+
         this.shortCfNames = config.get(SHORT_CF_NAMES);
 
         try {
@@ -399,6 +452,7 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
     @Override
     public void close() {
         openStores.clear();
+        if (regionFetchExecutor != null) regionFetchExecutor.shutdownNow();
         if (logger.isTraceEnabled())
             openManagers.remove(this);
         IOUtils.closeQuietly(cnx);
@@ -426,6 +480,60 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
 
     @Override
     public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
+        final long start = System.nanoTime();
+        if (bufferedMutator) {
+            mutateManyBuffered(mutations, txh);
+        } else {
+            mutateManyBatch(mutations, txh);
+        }
+        if (metricsPrefix != null) {
+            MetricManager.INSTANCE.getTimer(metricsPrefix, M_MUTATE_MANY, M_LATENCY)
+                .update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Converts the mutations row by row and hands them to a {@link BufferedMutator}, which sends them to the cluster
+     * in the background whenever its write buffer is full. Hence, the commands of a large commit are never
+     * materialized at once. The final flush waits for all mutations of the commit and surfaces any failure.
+     */
+    private void mutateManyBuffered(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
+        final MaskedTimestamp commitTime = new MaskedTimestamp(txh);
+        final long additionTime = commitTime.getAdditionTime(times);
+        final long deletionTime = commitTime.getDeletionTime(times);
+
+        try (BufferedMutator mutator = cnx.getBufferedMutator(tableName, writeBufferSize)) {
+            for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : mutations.entrySet()) {
+                for (Map.Entry<StaticBuffer, KCVMutation> rowMutation : storeMutations.getValue().entrySet()) {
+                    final Map<StaticBuffer, Pair<List<Put>, Delete>> commands = convertToCommands(
+                        ImmutableMap.of(storeMutations.getKey(), ImmutableMap.of(rowMutation.getKey(), rowMutation.getValue())),
+                        additionTime, deletionTime);
+                    for (Pair<List<Put>, Delete> rowCommands : commands.values()) {
+                        if (rowCommands.getFirst() != null && !rowCommands.getFirst().isEmpty())
+                            mutator.mutate(rowCommands.getFirst());
+
+                        if (rowCommands.getSecond() != null)
+                            mutator.mutate(rowCommands.getSecond());
+                    }
+                }
+            }
+            final long flushStart = System.nanoTime();
+            mutator.flush();
+            if (metricsPrefix != null) {
+                MetricManager.INSTANCE.getTimer(metricsPrefix, M_MUTATE_MANY, M_FLUSH, M_LATENCY)
+                    .update(System.nanoTime() - flushStart, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedIOException e) {
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException(e);
+        } catch (IOException e) {
+            throw new TemporaryBackendException(e);
+        }
+
+        sleepAfterWrite(txh, commitTime);
+    }
+
+    private void mutateManyBatch(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
         final MaskedTimestamp commitTime = new MaskedTimestamp(txh);
         // In case of an addition and deletion with identical timestamps, the
         // deletion tombstone wins.
@@ -474,7 +582,9 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
         if (store == null) {
             final String cfName = getCfNameForStoreName(longName);
 
-            HBaseKeyColumnValueStore newStore = new HBaseKeyColumnValueStore(this, cnx, tableName, cfName, longName);
+            //Partition metrics are recorded under the same name as the metrics of the instrumented store
+            final String metricsStoreName = storageConfig.get(GraphDatabaseConfiguration.METRICS_MERGE_STORES) ? Backend.METRICS_MERGED_STORE : longName;
+            HBaseKeyColumnValueStore newStore = new HBaseKeyColumnValueStore(this, cnx, tableName, cfName, longName, metricsStoreName, regionFetchExecutor);
 
             store = openStores.putIfAbsent(longName, newStore); // nothing bad happens if we loose to other thread
 
@@ -15,11 +15,15 @@
 package org.janusgraph.diskstorage.hbase;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.RegionLocator;
 
 public class HConnection1_0 implements ConnectionMask
 {
@@ -55,4 +59,25 @@ public class HConnection1_0 implements ConnectionMask
     {
         return this.cnx.getRegionLocator(TableName.valueOf(tableName)).getAllRegionLocations();
     }
+
+    @Override
+    public BufferedMutator getBufferedMutator(String tableName, long writeBufferSize) throws IOException
+    {
+        return this.cnx.getBufferedMutator(new BufferedMutatorParams(TableName.valueOf(tableName)).writeBufferSize(writeBufferSize));
+    }
+
+    @Override
+    public List<HRegionLocation> getRegionLocations(String tableName, List<byte[]> rows)
+        throws IOException
+    {
+        try (RegionLocator locator = this.cnx.getRegionLocator(TableName.valueOf(tableName)))
+        {
+            final List<HRegionLocation> locations = new ArrayList<>(rows.size());
+            for (byte[] row : rows)
+            {
+                locations.add(locator.getRegionLocation(row));
+            }
+            return locations;
+        }
+    }
 }
@@ -0,0 +1,68 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.hbase;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.KeyColumnValueStoreUtil;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the store tests with multi-key slice queries which are fetched region by region from a pre-split table.
+ */
+@Testcontainers
+public class HBaseRegionFetchStoreTest extends HBaseStoreTest {
+
+    private static final int NUM_KEYS = 32;
+
+    @Override
+    public HBaseStoreManager openStorageManager(String tableName, String graphName) throws BackendException {
+        return new HBaseStoreManager(hBaseContainer.getNamedConfiguration(tableName, graphName)
+            .set(HBaseStoreManager.REGION_FETCH_THREADS, 4)
+            .set(HBaseStoreManager.REGION_COUNT, 8));
+    }
+
+    @Test
+    public void testGetSlicesAcrossRegions() throws Exception {
+        //Spread the keys over the whole key space, such that they are hosted by different regions
+        final List<StaticBuffer> keys = new ArrayList<>(NUM_KEYS);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            final long key = ((long) i << 59) + i;
+            keys.add(KeyColumnValueStoreUtil.longToByteBuffer(key));
+            KeyColumnValueStoreUtil.insert(store, tx, key, "a", "value" + i);
+            KeyColumnValueStoreUtil.insert(store, tx, key, "b", "value" + i);
+        }
+        tx.commit();
+        tx = startTx();
+
+        final SliceQuery query = new SliceQuery(KeyColumnValueStoreUtil.stringToByteBuffer("a"),
+            KeyColumnValueStoreUtil.stringToByteBuffer("c"));
+        final Map<StaticBuffer, EntryList> results = store.getSlice(keys, query, tx);
+        assertEquals(NUM_KEYS, results.size());
+        for (StaticBuffer key : keys) assertEquals(2, results.get(key).size());
+        final Map<StaticBuffer, EntryList> asyncResults = store.getSliceAsync(keys, query, tx).get();
+        assertEquals(NUM_KEYS, asyncResults.size());
+        for (StaticBuffer key : keys) assertEquals(results.get(key), asyncResults.get(key));
+    }
+}
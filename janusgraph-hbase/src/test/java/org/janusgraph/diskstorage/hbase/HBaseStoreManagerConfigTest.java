@@ -104,4 +104,17 @@ public class HBaseStoreManagerConfigTest {
         String port = manager.getHBaseConf().get("hbase.zookeeper.property.clientPort");
         assertEquals("2000", port);
     }
+
+    @Test
+    public void testHBaseWriteMaxInFlight() throws BackendException {
+        WriteConfiguration config = hBaseContainer.getWriteConfiguration();
+        config.set(ConfigElement.getPath(HBaseStoreManager.BUFFERED_MUTATOR), true);
+        config.set(ConfigElement.getPath(HBaseStoreManager.WRITE_MAX_IN_FLIGHT), 16);
+        HBaseStoreManager manager = new HBaseStoreManager(new BasicConfiguration(GraphDatabaseConfiguration.ROOT_NS,
+                    config, BasicConfiguration.Restriction.NONE));
+        // Check the native property in HBase conf.
+        String maxTasks = manager.getHBaseConf().get("hbase.client.max.total.tasks");
+        assertEquals("16", maxTasks);
+        manager.close();
+    }
 }
@@ -0,0 +1,68 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.inmemory;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSUtil;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore.NO_DELETIONS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryBatchedLockKeyColumnValueStoreTest extends InMemoryLockKeyColumnValueStoreTest {
+
+    @Override
+    protected void configureLocking(ModifiableConfiguration config) {
+        config.set(GraphDatabaseConfiguration.LOCK_BATCH, true);
+    }
+
+    @Test
+    public void manyLocksAreCheckedWithASingleWait() throws BackendException {
+        final int numLocks = 30;
+        final StaticBuffer key = BufferUtil.getIntBuffer(1);
+        final List<Entry> additions = new ArrayList<>(numLocks);
+        for (int i = 0; i < numLocks; i++) {
+            final StaticBuffer column = BufferUtil.getIntBuffer(i);
+            store[0].acquireLock(key, column, null, tx[0][0]);
+            additions.add(StaticArrayEntry.of(column, column));
+        }
+
+        final long start = System.nanoTime();
+        store[0].mutate(key, additions, NO_DELETIONS, tx[0][0]);
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        tx[0][0].commit();
+
+        // Checking each lock on its own would wait for the lock wait time once per lock
+        final Duration lockWait = GraphDatabaseConfiguration.LOCK_WAIT.getDefaultValue();
+        assertTrue(elapsed.compareTo(lockWait.multipliedBy(numLocks / 3)) < 0, "Checking locks took " + elapsed);
+
+        tx[0][0] = newTransaction(manager[0]);
+        for (int i = 0; i < numLocks; i++) {
+            assertEquals(BufferUtil.getIntBuffer(i), KCVSUtil.get(store[0], key, BufferUtil.getIntBuffer(i), tx[0][0]));
+        }
+    }
+
+}
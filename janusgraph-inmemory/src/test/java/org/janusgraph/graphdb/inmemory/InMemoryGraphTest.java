@@ -78,6 +78,9 @@ public class InMemoryGraphTest extends JanusGraphTest {
     @Override @Test @Disabled
     public void testMultiQueryMetricsWhenReadingFromBackend() {}
 
+    @Override @Test @Disabled
+    public void testMultiQueryBatchesWhenReadingFromBackend() {}
+
     @Override @Test @Disabled
     public void testDataTypes() {}
 
@@ -22,19 +22,24 @@ import org.janusgraph.core.attribute.Geoshape;
 import org.janusgraph.core.attribute.Text;
 import org.janusgraph.core.schema.Mapping;
 import org.janusgraph.diskstorage.*;
+import org.janusgraph.diskstorage.configuration.ConfigNamespace;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.indexing.*;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 import org.janusgraph.graphdb.database.serialize.AttributeUtils;
 import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.graphdb.query.JanusGraphPredicate;
 import org.janusgraph.graphdb.query.condition.*;
 import org.janusgraph.graphdb.types.ParameterType;
-import org.janusgraph.util.system.IOUtils;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.lucene.analysis.Analyzer;
@@ -54,6 +59,7 @@ import org.apache.lucene.spatial.prefix.tree.SpatialPrefixTree;
 import org.apache.lucene.spatial.query.SpatialArgs;
 import org.apache.lucene.spatial.query.SpatialOperation;
 import org.apache.lucene.spatial.vector.PointVectorStrategy;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.util.BytesRef;
@@ -72,18 +78,47 @@ import java.time.Instant;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.INDEX_NS;
+
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
  */
-
+@PreInitializeConfigOptions
 public class LuceneIndex implements IndexProvider {
     private static final Logger log = LoggerFactory.getLogger(LuceneIndex.class);
 
+    public static final ConfigNamespace LUCENE_NS =
+        new ConfigNamespace(INDEX_NS, "lucene", "Lucene index configuration");
+
+    public static final ConfigOption<Long> REFRESH_INTERVAL =
+        new ConfigOption<>(LUCENE_NS, "refresh-interval",
+            "Time in milliseconds between refreshes of the near-real-time searchers which are shared by all " +
+            "transactions. Mutations only become visible to queries of new transactions once the searchers are " +
+            "refreshed. When set to 0, the searchers are refreshed after every mutation.",
+            ConfigOption.Type.MASKABLE, 0L, ConfigOption.nonnegativeLong());
+
+    public static final ConfigOption<Long> COMMIT_INTERVAL =
+        new ConfigOption<>(LUCENE_NS, "commit-interval",
+            "Time in milliseconds between commits of the index writers. When set to 0, every mutation is committed " +
+            "to disk on its own. Otherwise, the mutations of all transactions within the interval are committed " +
+            "together. In both cases, a transaction only completes once its mutations have been committed to disk, " +
+            "so a longer interval trades the commit latency of each transaction for fewer commits.",
+            ConfigOption.Type.MASKABLE, 0L, ConfigOption.nonnegativeLong());
+
+    public static final ConfigOption<Integer> QUERY_CACHE_SIZE =
+        new ConfigOption<>(LUCENE_NS, "query-cache-size",
+            "Maximum number of Lucene queries which are cached by the conditions they were built from, such that " +
+            "repeated index queries do not need to analyze and build them again. When set to 0, queries are not cached.",
+            ConfigOption.Type.MASKABLE, 1000, ConfigOption.nonnegativeInt());
+
     static final String DOCID = "_____elementid";
     private static final String STRING_SUFFIX = "_____s";
     private static final String GEOID = "_____geo";
@@ -115,6 +150,22 @@ public class LuceneIndex implements IndexProvider {
 
     private final Map<String, IndexWriter> writers = new HashMap<>(4);
     private final ReentrantLock writerLock = new ReentrantLock();
+    // Stores with mutations which are not committed yet, guarded by the writer lock
+    private final Set<String> uncommittedStores = new HashSet<>(4);
+    // Number of mutate calls whose mutations were applied to the writers, guarded by the writer lock
+    private long appliedMutations = 0;
+    // Progress of the deferred commits, guarded by the commit monitor. Mutate calls wait on the monitor until the
+    // commit which covers their mutations has completed.
+    private final Object commitMonitor = new Object();
+    private long committedMutations = 0;
+    private long failedMutations = 0;
+    private Throwable commitFailure = null;
+    private final Map<String, SearcherManager> searcherManagers = new ConcurrentHashMap<>(4);
+
+    private final long refreshInterval;
+    private final long commitInterval;
+    private final Cache<SimpleEntry<String, Condition<?>>, Query> queryCache;
+    private final ScheduledExecutorService maintenanceExecutor;
 
     private final Map<String, SpatialStrategy> spatial = new ConcurrentHashMap<>(12);
     private final SpatialContext ctx = Geoshape.getSpatialContext();
@@ -134,6 +185,23 @@ public class LuceneIndex implements IndexProvider {
         }
         basePath = directory.getAbsolutePath();
         log.debug("Configured Lucene to use base directory [{}]", basePath);
+
+        refreshInterval = config.get(REFRESH_INTERVAL);
+        commitInterval = config.get(COMMIT_INTERVAL);
+        final int queryCacheSize = config.get(QUERY_CACHE_SIZE);
+        queryCache = queryCacheSize > 0 ? CacheBuilder.newBuilder().maximumSize(queryCacheSize).build() : null;
+        if (refreshInterval > 0 || commitInterval > 0) {
+            maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("LuceneIndexMaintenance-%d").build());
+            if (refreshInterval > 0) {
+                maintenanceExecutor.scheduleWithFixedDelay(this::refreshSearchers, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+            }
+            if (commitInterval > 0) {
+                maintenanceExecutor.scheduleWithFixedDelay(this::commitWriters, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            maintenanceExecutor = null;
+        }
     }
 
     private Directory getStoreDirectory(String store) throws BackendException {
@@ -161,6 +229,9 @@ public class LuceneIndex implements IndexProvider {
             try {
                 writer = new IndexWriter(getStoreDirectory(store), iwc);
                 writers.put(store, writer);
+                // Replace the searchers on the committed index with near-real-time searchers of the writer
+                final SearcherManager previous = searcherManagers.put(store, new SearcherManager(writer, null));
+                if (previous != null) previous.close();
             } catch (final IOException e) {
                 throw new PermanentBackendException("Could not create writer", e);
             }
@@ -168,6 +239,93 @@ public class LuceneIndex implements IndexProvider {
         return writer;
     }
 
+    /**
+     * Returns the manager of the searchers which are shared by all transactions on the given store, or null if the
+     * store does not exist yet.
+     */
+    private SearcherManager getSearcherManager(String store) throws BackendException {
+        SearcherManager manager = searcherManagers.get(store);
+        if (manager == null) {
+            writerLock.lock();
+            try {
+                manager = searcherManagers.get(store);
+                if (manager == null) {
+                    manager = new SearcherManager(getStoreDirectory(store), null);
+                    searcherManagers.put(store, manager);
+                }
+            } catch (final IndexNotFoundException e) {
+                return null;
+            } catch (final IOException e) {
+                throw new PermanentBackendException("Could not open index reader on store: " + store, e);
+            } finally {
+                writerLock.unlock();
+            }
+        }
+        return manager;
+    }
+
+    private void refreshSearchers() {
+        for (final Map.Entry<String, SearcherManager> manager : searcherManagers.entrySet()) {
+            try {
+                manager.getValue().maybeRefresh();
+            } catch (final IOException | AlreadyClosedException e) {
+                log.warn("Could not refresh searcher of store [{}]", manager.getKey(), e);
+            }
+        }
+    }
+
+    private void commitWriters() {
+        writerLock.lock();
+        final long covered = appliedMutations;
+        try {
+            for (final String store : uncommittedStores) {
+                writers.get(store).commit();
+            }
+            uncommittedStores.clear();
+            committed(covered, null);
+        } catch (final IOException | AlreadyClosedException e) {
+            log.error("Could not commit Lucene index writers", e);
+            committed(covered, e);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Records that the mutations of the first {@code covered} mutate calls have been committed, or that committing
+     * them failed, and wakes up the mutate calls waiting for that commit.
+     */
+    private void committed(long covered, Throwable failure) {
+        synchronized (commitMonitor) {
+            if (failure == null) {
+                committedMutations = Math.max(committedMutations, covered);
+            } else {
+                failedMutations = Math.max(failedMutations, covered);
+                commitFailure = failure;
+            }
+            commitMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until the given mutate call is covered by a deferred commit.
+     */
+    private void awaitCommit(long mutation) throws BackendException {
+        synchronized (commitMonitor) {
+            try {
+                while (committedMutations < mutation) {
+                    if (failedMutations >= mutation) {
+                        throw new TemporaryBackendException("Could not commit Lucene index", commitFailure);
+                    }
+                    commitMonitor.wait();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TemporaryBackendException("Interrupted while waiting for Lucene index commit", e);
+            }
+        }
+    }
+
     private SpatialStrategy getSpatialStrategy(String key, KeyInformation ki) {
         SpatialStrategy strategy = spatial.get(key);
         final Mapping mapping = Mapping.getMapping(ki);
@@ -215,26 +373,36 @@ public class LuceneIndex implements IndexProvider {
     @Override
     public void mutate(Map<String, Map<String, IndexMutation>> mutations, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
         final Transaction ltx = (Transaction) tx;
+        final long mutation;
         writerLock.lock();
         try {
             for (final Map.Entry<String, Map<String, IndexMutation>> stores : mutations.entrySet()) {
                 mutateStores(stores, information);
             }
+            mutation = ++appliedMutations;
+            if (refreshInterval == 0) {
+                for (final String store : mutations.keySet()) {
+                    searcherManagers.get(store).maybeRefreshBlocking();
+                }
+            }
             ltx.postCommit();
         } catch (final IOException e) {
             throw new TemporaryBackendException("Could not update Lucene index", e);
         } finally {
             writerLock.unlock();
         }
+        // The mutations are only acknowledged once they are durable, so that the transaction log can recover them
+        if (commitInterval > 0) awaitCommit(mutation);
     }
 
     private void mutateStores(Map.Entry<String, Map<String, IndexMutation>> stores, KeyInformation.IndexRetriever information) throws IOException, BackendException {
-        IndexReader reader = null;
+        final String storeName = stores.getKey();
+        final IndexWriter writer = getWriter(storeName, information);
+        final SearcherManager manager = searcherManagers.get(storeName);
+        // Documents are read and rewritten, so the searcher has to reflect all previous mutations
+        manager.maybeRefreshBlocking();
+        final IndexSearcher searcher = manager.acquire();
         try {
-            final String storeName = stores.getKey();
-            final IndexWriter writer = getWriter(storeName, information);
-            reader = DirectoryReader.open(writer, true, true);
-            final IndexSearcher searcher = new IndexSearcher(reader);
             final KeyInformation.StoreRetriever storeRetriever = information.get(storeName);
             for (final Map.Entry<String, IndexMutation> entry : stores.getValue().entrySet()) {
                 final String documentId = entry.getKey();
@@ -266,9 +434,13 @@ public class LuceneIndex implements IndexProvider {
                 //write the old document to the index with the modifications
                 writer.updateDocument(new Term(DOCID, documentId), doc);
             }
-            writer.commit();
+            if (commitInterval == 0) {
+                writer.commit();
+            } else {
+                uncommittedStores.add(storeName);
+            }
         } finally {
-            IOUtils.closeQuietly(reader);
+            manager.release(searcher);
         }
     }
 
@@ -277,13 +449,13 @@ public class LuceneIndex implements IndexProvider {
         writerLock.lock();
         try {
             for (final Map.Entry<String, Map<String, List<IndexEntry>>> stores : documents.entrySet()) {
-                IndexReader reader = null;
+                final String store = stores.getKey();
+                final IndexWriter writer = getWriter(store, information);
+                final KeyInformation.StoreRetriever storeRetriever = information.get(store);
+                final SearcherManager manager = searcherManagers.get(store);
+                manager.maybeRefreshBlocking();
+                final IndexSearcher searcher = manager.acquire();
                 try {
-                    final String store = stores.getKey();
-                    final IndexWriter writer = getWriter(store, information);
-                    final KeyInformation.StoreRetriever storeRetriever = information.get(store);
-                    reader = DirectoryReader.open(writer, true, true);
-                    final IndexSearcher searcher = new IndexSearcher(reader);
 
                     for (final Map.Entry<String, List<IndexEntry>> entry : stores.getValue().entrySet()) {
                         final String docID = entry.getKey();
@@ -304,10 +476,13 @@ public class LuceneIndex implements IndexProvider {
                         //write the old document to the index with the modifications
                         writer.updateDocument(new Term(DOCID, docID), doc);
                     }
+                    //Restored documents are always committed right away
                     writer.commit();
+                    uncommittedStores.remove(store);
                 } finally {
-                    IOUtils.closeQuietly(reader);
+                    manager.release(searcher);
                 }
+                if (refreshInterval == 0) manager.maybeRefreshBlocking();
             }
             tx.commit();
         } catch (final IOException e) {
@@ -535,17 +710,13 @@ public class LuceneIndex implements IndexProvider {
     public Stream<String> query(IndexQuery query, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
         //Construct query
         final String store = query.getStore();
-        final LuceneCustomAnalyzer delegatingAnalyzer = delegatingAnalyzerFor(store, information);
-        final SearchParams searchParams = convertQuery(query.getCondition(), information.get(store), delegatingAnalyzer);
+        final Query q = getQuery(store, query.getCondition(), information);
 
         try {
             final IndexSearcher searcher = ((Transaction) tx).getSearcher(query.getStore());
             if (searcher == null) {
                 return Collections.unmodifiableList(new ArrayList<String>()).stream(); //Index does not yet exist
             }
-            Query q = searchParams.getQuery();
-            if (null == q)
-                q = new MatchAllDocsQuery();
 
             final long time = System.currentTimeMillis();
             final TopDocs docs;
@@ -567,6 +738,23 @@ public class LuceneIndex implements IndexProvider {
         }
     }
 
+    private Query getQuery(String store, Condition<?> condition, KeyInformation.IndexRetriever information) {
+        if (queryCache == null) return buildQuery(store, condition, information);
+        final SimpleEntry<String, Condition<?>> key = new SimpleEntry<>(store, condition);
+        Query q = queryCache.getIfPresent(key);
+        if (q == null) {
+            q = buildQuery(store, condition, information);
+            queryCache.put(key, q);
+        }
+        return q;
+    }
+
+    private Query buildQuery(String store, Condition<?> condition, KeyInformation.IndexRetriever information) {
+        final LuceneCustomAnalyzer delegatingAnalyzer = delegatingAnalyzerFor(store, information);
+        final Query q = convertQuery(condition, information.get(store), delegatingAnalyzer).getQuery();
+        return q == null ? new MatchAllDocsQuery() : q;
+    }
+
     private static Query numericQuery(String key, Cmp relation, Number value) {
         switch (relation) {
             case EQUAL:
@@ -954,10 +1142,32 @@ public class LuceneIndex implements IndexProvider {
 
     @Override
     public void close() throws BackendException {
+        if (maintenanceExecutor != null) {
+            // Lets a running refresh or commit complete instead of interrupting it
+            maintenanceExecutor.shutdown();
+            try {
+                if (!maintenanceExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.warn("Lucene index maintenance did not terminate in time");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PermanentBackendException("Interrupted while waiting for Lucene index maintenance", e);
+            }
+        }
+        writerLock.lock();
+        final long covered = appliedMutations;
         try {
+            for (final SearcherManager manager : searcherManagers.values()) manager.close();
+            searcherManagers.clear();
+            //Closing the writers commits all pending mutations
             for (final IndexWriter w : writers.values()) w.close();
+            uncommittedStores.clear();
+            committed(covered, null);
         } catch (final IOException e) {
+            committed(covered, e);
             throw new PermanentBackendException("Could not close writers", e);
+        } finally {
+            writerLock.unlock();
         }
     }
 
@@ -1014,6 +1224,7 @@ public class LuceneIndex implements IndexProvider {
         private final BaseTransactionConfig config;
         private final Set<String> updatedStores = Sets.newHashSet();
         private final Map<String, IndexSearcher> searchers = new HashMap<>(4);
+        private final Map<String, SearcherManager> managers = new HashMap<>(4);
 
         private Transaction(BaseTransactionConfig config) {
             this.config = config;
@@ -1022,14 +1233,14 @@ public class LuceneIndex implements IndexProvider {
         private synchronized IndexSearcher getSearcher(String store) throws BackendException {
             IndexSearcher searcher = searchers.get(store);
             if (searcher == null) {
-                final IndexReader reader;
-                try {
-                    reader = DirectoryReader.open(getStoreDirectory(store));
-                    searcher = new IndexSearcher(reader);
-                } catch (final IndexNotFoundException e) {
-                    searcher = null;
-                } catch (final IOException e) {
-                    throw new PermanentBackendException("Could not open index reader on store: " + store, e);
+                final SearcherManager manager = getSearcherManager(store);
+                if (manager != null) {
+                    try {
+                        searcher = manager.acquire();
+                    } catch (final IOException e) {
+                        throw new PermanentBackendException("Could not open index reader on store: " + store, e);
+                    }
+                    managers.put(store, manager);
                 }
                 searchers.put(store, searcher);
             }
@@ -1038,7 +1249,6 @@ public class LuceneIndex implements IndexProvider {
 
         public void postCommit() throws BackendException {
             close();
-            searchers.clear();
         }
 
         @Override
@@ -1051,13 +1261,16 @@ public class LuceneIndex implements IndexProvider {
             close();
         }
 
-        private void close() throws BackendException {
+        private synchronized void close() throws BackendException {
             try {
-                for (final IndexSearcher searcher : searchers.values()) {
-                    if (searcher != null) searcher.getIndexReader().close();
+                for (final Map.Entry<String, SearcherManager> manager : managers.entrySet()) {
+                    manager.getValue().release(searchers.get(manager.getKey()));
                 }
             } catch (final IOException e) {
                 throw new PermanentBackendException("Could not close searcher", e);
+            } finally {
+                managers.clear();
+                searchers.clear();
             }
         }
 
@@ -14,6 +14,10 @@
 
 package org.janusgraph.diskstorage.lucene;
 
+import com.google.common.collect.ImmutableMultimap;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
 import org.janusgraph.StorageSetup;
 import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.schema.Parameter;
@@ -22,14 +26,18 @@ import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.indexing.IndexProvider;
+import org.janusgraph.diskstorage.indexing.IndexQuery;
 import org.janusgraph.diskstorage.indexing.IndexProviderTest;
 import org.janusgraph.core.schema.Mapping;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
 
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Date;
 
 import java.util.UUID;
@@ -48,9 +56,11 @@ public class LuceneIndexTest extends IndexProviderTest {
     private static char REPLACEMENT_CHAR = '\u2022';
     private static final String MAPPING = "mapping";
 
+    private Configuration indexConfig = null;
+
     @Override
     public IndexProvider openIndex() throws BackendException {
-        return new LuceneIndex(getLocalLuceneTestConfig());
+        return new LuceneIndex(indexConfig != null ? indexConfig : getLocalLuceneTestConfig());
     }
 
     @Override
@@ -69,12 +79,57 @@ public class LuceneIndexTest extends IndexProviderTest {
     }
 
     public static Configuration getLocalLuceneTestConfig() {
+        return getLocalLuceneTestConfig(0L, 0L);
+    }
+
+    private static Configuration getLocalLuceneTestConfig(long refreshInterval, long commitInterval) {
         final String index = "lucene";
         ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
         config.set(GraphDatabaseConfiguration.INDEX_DIRECTORY, StorageSetup.getHomeDir("lucene"),index);
+        config.set(LuceneIndex.REFRESH_INTERVAL, refreshInterval, index);
+        config.set(LuceneIndex.COMMIT_INTERVAL, commitInterval, index);
         return config.restrictTo(index);
     }
 
+    private long countContains(String store, String value) throws BackendException {
+        return tx.queryStream(new IndexQuery(store, PredicateCondition.of(TEXT, Text.CONTAINS, value))).count();
+    }
+
+    @Test
+    public void testDeferredRefreshAndCommit() throws BackendException, IOException {
+        final String store = "vertex";
+        indexConfig = getLocalLuceneTestConfig(100000L, 200L);
+        clopen();
+        initialize(store);
+        add(store, "doc1", ImmutableMultimap.of(TEXT, "Hello world"), true);
+        newTx();
+        //The shared searchers are not refreshed yet
+        assertEquals(0, countContains(store, "world"));
+        //But the transaction only completes once the deferred commit has made the mutation durable
+        try (Directory directory = FSDirectory.open(Paths.get(StorageSetup.getHomeDir("lucene"), store));
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertEquals(1, reader.numDocs());
+        }
+
+        //Closing the index commits the pending mutations
+        indexConfig = null;
+        clopen();
+        assertEquals(1, countContains(store, "world"));
+    }
+
+    @Test
+    public void testCachedQueriesSeeNewDocuments() throws BackendException {
+        final String store = "vertex";
+        initialize(store);
+        add(store, "doc1", ImmutableMultimap.of(TEXT, "Hello world"), true);
+        newTx();
+        assertEquals(1, countContains(store, "world"));
+        add(store, "doc2", ImmutableMultimap.of(TEXT, "Tomorrow is the world"), true);
+        newTx();
+        assertEquals(2, countContains(store, "world"));
+        assertEquals(1, countContains(store, "tomorrow"));
+    }
+
     @Test
     public void testSupport() {
         // DEFAULT(=TEXT) support
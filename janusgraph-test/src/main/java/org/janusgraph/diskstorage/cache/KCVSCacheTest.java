@@ -158,6 +158,33 @@ public abstract class KCVSCacheTest {
         assertEquals(4,store.getSliceCalls());
     }
 
+    @Test
+    public void testAsyncSlice() throws Exception {
+        final int numKeys = 20, numCols = 10;
+        loadStore(numKeys,numCols);
+
+        CacheTransaction tx = getCacheTx();
+        assertEquals(3,cache.getSliceAsync(getQuery(1,2,5),tx).get().size());
+        assertEquals(1,store.getSliceCalls());
+        //Served from cache, regardless of whether read synchronously or not
+        assertEquals(3,cache.getSlice(getQuery(1,2,5),tx).size());
+        assertEquals(3,cache.getSliceAsync(getQuery(1,2,5),tx).get().size());
+        assertEquals(1,store.getSliceCalls());
+
+        final List<StaticBuffer> keys = new ArrayList<>();
+        for (int i=1;i<=numKeys;i++) keys.add(BufferUtil.getIntBuffer(i));
+        Map<StaticBuffer,EntryList> result = cache.getSliceAsync(keys,getQuery(2,5),tx).get();
+        assertEquals(numKeys,result.size());
+        for (EntryList r : result.values()) assertEquals(3,r.size());
+        //Key 1 was already cached, all others are retrieved together
+        assertEquals(2,store.getSliceCalls());
+        result = cache.getSliceAsync(keys,getQuery(2,5),tx).get();
+        assertEquals(numKeys,result.size());
+        assertEquals(2,store.getSliceCalls());
+        assertEquals(3,cache.getSliceNoCacheAsync(getQuery(1,2,5),tx).get().size());
+        assertEquals(3,store.getSliceCalls());
+        tx.commit();
+    }
 
     public static KeySliceQuery getQuery(int key, int startCol, int endCol) {
         return new KeySliceQuery(BufferUtil.getIntBuffer(key),getQuery(startCol, endCol));
@@ -0,0 +1,52 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this module and writes their results as JSON, such that results of
+ * different builds can be compared.
+ * <p>
+ * Usage: {@code JanusGraphBenchmarkRunner [include-regex] [result-file]}, which defaults to running all
+ * benchmarks and writing the results to {@value #DEFAULT_RESULT_FILE}. Benchmarks can also be run via
+ * {@code mvn test -Pjmh -pl janusgraph-test -Djmh.include=<regex>}.
+ */
+public class JanusGraphBenchmarkRunner {
+
+    public static final String DEFAULT_INCLUDE = "org\\.janusgraph\\..*Benchmark";
+    public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void run(Class<?> benchmark) throws RunnerException {
+        run("^" + benchmark.getName().replace(".", "\\.") + "\\.", DEFAULT_RESULT_FILE);
+    }
+
+    public static void run(String include, String resultFile) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(include)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile)
+            .build();
+        new Runner(options).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        run(args.length > 0 ? args[0] : DEFAULT_INCLUDE, args.length > 1 ? args[1] : DEFAULT_RESULT_FILE);
+    }
+}
@@ -0,0 +1,120 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cache;
+
+import org.janusgraph.JanusGraphBenchmarkRunner;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.WriteByteBuffer;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ExpirationKCVSCache#getSlice(KeySliceQuery, StoreTransaction)} when the slice is served from
+ * the cache and when it has to be loaded from an {@link InMemoryStoreManager} store.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExpirationCacheBenchmark {
+
+    private static final String STORE_NAME = "store";
+    private static final long CACHE_TIME_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"10", "100"})
+    int numColumns;
+
+    InMemoryStoreManager storeManager;
+    ExpirationKCVSCache hitCache;
+    ExpirationKCVSCache missCache;
+    CacheTransaction tx;
+    KeySliceQuery query;
+
+    @Setup
+    public void setUp() throws BackendException {
+        storeManager = new InMemoryStoreManager();
+        KeyColumnValueStore store = storeManager.openDatabase(STORE_NAME);
+        StaticBuffer key = BufferUtil.getIntBuffer(1);
+        List<Entry> additions = new ArrayList<>(numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            additions.add(new StaticArrayEntry(new WriteByteBuffer(4 * 2).putInt(i).putInt(i).getStaticBuffer(), 4));
+        }
+        StoreTransaction storeTx = storeManager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO));
+        store.mutate(key, additions, KeyColumnValueStore.NO_DELETIONS, storeTx);
+        storeTx.commit();
+
+        hitCache = new ExpirationKCVSCache(store, "hit", CACHE_TIME_MS, 0, 1024 * 1024);
+        //A cache which cannot hold any slice, such that every retrieval goes to the store
+        missCache = new ExpirationKCVSCache(store, "miss", CACHE_TIME_MS, 0, 1);
+        tx = new CacheTransaction(storeManager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO)),
+            storeManager, 1024, Duration.ofMillis(100), false);
+        query = new KeySliceQuery(key, new SliceQuery(BufferUtil.zeroBuffer(4), BufferUtil.oneBuffer(4)));
+        hitCache.getSlice(query, tx);
+    }
+
+    @TearDown
+    public void tearDown() throws BackendException {
+        tx.rollback();
+        hitCache.close();
+        missCache.close();
+        storeManager.close();
+    }
+
+    @Benchmark
+    public EntryList getSliceHit() throws BackendException {
+        return hitCache.getSlice(query, tx);
+    }
+
+    @Benchmark
+    public EntryList getSliceMiss() throws BackendException {
+        return missCache.getSlice(query, tx);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        JanusGraphBenchmarkRunner.run(ExpirationCacheBenchmark.class);
+    }
+}
@@ -0,0 +1,268 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cache;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.GroupCommitter;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.GROUP_COMMIT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GroupCommitterTest {
+
+    private static final String STORE_NAME = "store";
+    private static final Duration MAX_WRITE_TIME = Duration.ofSeconds(1);
+
+    //Mutations of this key block until they are released, such that a commit is in flight
+    private static final int BLOCKING_KEY = -1;
+
+    private final AtomicInteger mutateManyCalls = new AtomicInteger();
+    private final List<Instant> commitTimes = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean failMutations = false;
+    private InMemoryStoreManager storeManager;
+    private KeyColumnValueStore store;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() throws BackendException {
+        storeManager = new InMemoryStoreManager() {
+            @Override
+            public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
+                if (mutations.get(STORE_NAME).containsKey(BufferUtil.getIntBuffer(BLOCKING_KEY))) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new PermanentBackendException(e);
+                    }
+                    super.mutateMany(mutations, txh);
+                    return;
+                }
+                mutateManyCalls.incrementAndGet();
+                if (txh.getConfiguration().hasCommitTime()) commitTimes.add(txh.getConfiguration().getCommitTime());
+                if (failMutations) throw new PermanentBackendException("Failing mutation");
+                super.mutateMany(mutations, txh);
+            }
+        };
+        store = storeManager.openDatabase(STORE_NAME);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void shutdown() throws BackendException {
+        release.countDown();
+        executor.shutdownNow();
+        storeManager.close();
+    }
+
+    private StoreTransaction getStoreTx() throws BackendException {
+        return storeManager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO));
+    }
+
+    private static Map<String, Map<StaticBuffer, KCVMutation>> getMutation(int key) {
+        final StaticArrayEntry entry = new StaticArrayEntry(BufferUtil.getIntBuffer(new int[]{key, key}), 4);
+        final KCVMutation mutation = new KCVMutation(Collections.singletonList(entry), KeyColumnValueStore.NO_DELETIONS);
+        return ImmutableMap.of(STORE_NAME, ImmutableMap.of(BufferUtil.getIntBuffer(key), mutation));
+    }
+
+    private Future<?> persistAsync(GroupCommitter committer, int key, CountDownLatch start) {
+        return executor.submit(() -> {
+            start.await();
+            committer.persist(getMutation(key), 1, getStoreTx());
+            return null;
+        });
+    }
+
+    /**
+     * Starts a commit which stays in flight until it is released, such that further commits wait for other members
+     */
+    private Future<?> startBlockingCommit(GroupCommitter committer) throws InterruptedException {
+        final Future<?> blocking = persistAsync(committer, BLOCKING_KEY, new CountDownLatch(0));
+        Thread.sleep(100);
+        return blocking;
+    }
+
+    @Test
+    public void testConcurrentCommitsAreGrouped() throws Exception {
+        final int numCommits = 16;
+        final GroupCommitter committer = new GroupCommitter(storeManager, Duration.ofSeconds(5), numCommits, MAX_WRITE_TIME);
+        final Future<?> blocking = startBlockingCommit(committer);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> commits = new ArrayList<>(numCommits);
+        for (int i = 0; i < numCommits; i++) {
+            commits.add(persistAsync(committer, i, start));
+        }
+        start.countDown();
+        for (Future<?> commit : commits) commit.get();
+
+        //The group is persisted once it reaches the maximum number of mutations
+        assertEquals(1, mutateManyCalls.get());
+        release.countDown();
+        blocking.get();
+        final StoreTransaction tx = getStoreTx();
+        for (int i = 0; i < numCommits; i++) {
+            final StaticBuffer key = BufferUtil.getIntBuffer(i);
+            assertEquals(1, store.getSlice(new KeySliceQuery(key, new SliceQuery(BufferUtil.zeroBuffer(4), BufferUtil.oneBuffer(4))), tx).size());
+        }
+    }
+
+    @Test
+    public void testOverlappingCommitsAreNotGrouped() throws Exception {
+        final Duration window = Duration.ofSeconds(30);
+        final GroupCommitter committer = new GroupCommitter(storeManager, window, 100, MAX_WRITE_TIME);
+        final Future<?> blocking = startBlockingCommit(committer);
+        final long startTime = System.currentTimeMillis();
+        final Future<?> first = persistAsync(committer, 1, new CountDownLatch(0));
+        Thread.sleep(100);
+        //Mutating the same key closes the group of the first commit
+        final Future<?> second = executor.submit(() -> {
+            committer.persist(getMutation(1), 1, getStoreTx());
+            return null;
+        });
+        first.get();
+        assertTrue(System.currentTimeMillis() - startTime < window.toMillis());
+        assertEquals(1, mutateManyCalls.get());
+        Thread.sleep(100);
+        //A commit which exceeds the maximum number of mutations closes the group of the second commit
+        committer.persist(getMutation(2), 100, getStoreTx());
+        second.get();
+        assertEquals(3, mutateManyCalls.get());
+        release.countDown();
+        blocking.get();
+    }
+
+    @Test
+    public void testSingleCommitDoesNotWait() throws Exception {
+        final Duration window = Duration.ofSeconds(30);
+        final GroupCommitter committer = new GroupCommitter(storeManager, window, 100, MAX_WRITE_TIME);
+        final long startTime = System.currentTimeMillis();
+        committer.persist(getMutation(1), 1, getStoreTx());
+        committer.persist(getMutation(2), 1, getStoreTx());
+        assertTrue(System.currentTimeMillis() - startTime < window.toMillis());
+        assertEquals(2, mutateManyCalls.get());
+    }
+
+    @Test
+    public void testMembersArePersistedWithTheirCommitTime() throws Exception {
+        final int numCommits = 4;
+        final GroupCommitter committer = new GroupCommitter(storeManager, Duration.ofSeconds(5), numCommits, MAX_WRITE_TIME);
+        final Future<?> blocking = startBlockingCommit(committer);
+        final Instant commitTime = Instant.now();
+        final List<Future<?>> commits = new ArrayList<>(numCommits);
+        for (int i = 0; i < numCommits; i++) {
+            final int key = i;
+            //Two pairs of transactions with the same commit time
+            final Instant time = commitTime.plusMillis(i / 2);
+            commits.add(executor.submit(() -> {
+                final StoreTransaction tx = getStoreTx();
+                tx.getConfiguration().setCommitTime(time);
+                committer.persist(getMutation(key), 1, tx);
+                return null;
+            }));
+        }
+        for (Future<?> commit : commits) commit.get();
+        assertEquals(2, mutateManyCalls.get());
+        assertEquals(ImmutableSet.of(commitTime, commitTime.plusMillis(1)), ImmutableSet.copyOf(commitTimes));
+        release.countDown();
+        blocking.get();
+    }
+
+    @Test
+    public void testFailureIsReportedToAllMembers() throws Exception {
+        final int numCommits = 4;
+        final GroupCommitter committer = new GroupCommitter(storeManager, Duration.ofSeconds(5), numCommits, MAX_WRITE_TIME);
+        final Future<?> blocking = startBlockingCommit(committer);
+        failMutations = true;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> commits = new ArrayList<>(numCommits);
+        for (int i = 0; i < numCommits; i++) {
+            commits.add(persistAsync(committer, i, start));
+        }
+        start.countDown();
+        for (Future<?> commit : commits) {
+            final Exception e = assertThrows(Exception.class, commit::get);
+            assertTrue(e.getCause() instanceof JanusGraphException, e.getCause().toString());
+        }
+        assertEquals(1, mutateManyCalls.get());
+        release.countDown();
+        blocking.get();
+    }
+
+    @Test
+    public void testGraphWithGroupCommit() {
+        final int numThreads = 8, numTxPerThread = 20;
+        final JanusGraph graph = JanusGraphFactory.open(StorageSetup.getInMemoryConfiguration().set(GROUP_COMMIT, true));
+        try {
+            final JanusGraphManagement management = graph.openManagement();
+            management.makeEdgeLabel("knows").make();
+            management.commit();
+            final CompletableFuture<?>[] threads = new CompletableFuture[numThreads];
+            for (int t = 0; t < numThreads; t++) {
+                threads[t] = CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < numTxPerThread; i++) {
+                        final JanusGraphTransaction tx = graph.newTransaction();
+                        final Vertex v = tx.addVertex();
+                        v.addEdge("knows", tx.addVertex());
+                        tx.commit();
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(threads).join();
+            assertEquals(2L * numThreads * numTxPerThread, (long) graph.traversal().V().count().next());
+            assertEquals((long) numThreads * numTxPerThread, (long) graph.traversal().E().count().next());
+        } finally {
+            graph.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cache;
+
+import com.google.common.collect.Lists;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OffHeapCacheTierTest extends KCVSCacheTest {
+
+    public static final String METRICS_STRING = "metrics";
+    public static final long CACHE_SIZE = 1024*1024*48; //48 MB
+    public static final long OFFHEAP_CACHE_SIZE = 1024*1024*16; //16 MB
+
+    @Override
+    public KCVSCache getCache(KeyColumnValueStore store) {
+        return getCache(store, CACHE_SIZE, OFFHEAP_CACHE_SIZE);
+    }
+
+    private static KCVSCache getCache(KeyColumnValueStore store, long heapSize, long offHeapSize) {
+        return new ExpirationKCVSCache(store, METRICS_STRING, Duration.ofDays(1).toMillis(), 0, heapSize, offHeapSize);
+    }
+
+    @Test
+    public void testServedFromOffHeapTier() throws Exception {
+        final int numKeys = 100, numCols = 10;
+        loadStore(numKeys,numCols);
+        //Nothing fits on the heap, so all cache hits are served by the off-heap tier
+        cache = getCache(store, 1, OFFHEAP_CACHE_SIZE);
+
+        final StaticBuffer key = BufferUtil.getIntBuffer(81);
+        final List<StaticBuffer> keys = getKeys(key);
+        verifyResults(key,keys,getQuery(2,8),6);
+        verifyResults(key,keys,getQuery(0,numCols+1),numCols);
+        store.resetCounter();
+        verifyResults(key,keys,getQuery(2,8),6);
+        verifyResults(key,keys,getQuery(0,numCols+1),numCols);
+        assertEquals(0,store.getSliceCalls());
+
+        //Deserialized entries are identical to the stored ones
+        CacheTransaction tx = getCacheTx();
+        final EntryList entries = cache.getSlice(new KeySliceQuery(key,getQuery(2,4)),tx);
+        assertEquals(Lists.newArrayList(getEntry(2,2),getEntry(3,3)),Lists.newArrayList(entries));
+        assertEquals(entries,cache.getSlice(new KeySliceQuery(key,getQuery(2,4)),tx));
+        //Empty slices are cached as well
+        assertEquals(0,cache.getSlice(new KeySliceQuery(key,getQuery(20,30)),tx).size());
+        assertEquals(0,cache.getSlice(new KeySliceQuery(key,getQuery(20,30)),tx).size());
+        tx.commit();
+        assertEquals(2,store.getSliceCalls());
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        final int numKeys = 100, numCols = 10;
+        loadStore(numKeys,numCols);
+        cache = getCache(store, 1, OFFHEAP_CACHE_SIZE);
+
+        final StaticBuffer key = BufferUtil.getIntBuffer(81);
+        final List<StaticBuffer> keys = getKeys(key);
+        final SliceQuery query = getQuery(2,8);
+        verifyResults(key,keys,query,6);
+
+        CacheTransaction tx = getCacheTx();
+        cache.mutateEntries(key,KeyColumnValueStore.NO_ADDITIONS, Lists.newArrayList(getEntry(4,4)),tx);
+        tx.commit();
+        store.resetCounter();
+        verifyResults(key,keys,query,5);
+        //Only the invalidated key is requested again
+        assertEquals(2,store.getSliceCalls());
+    }
+
+    @Test
+    public void testSegmentRecycling() throws Exception {
+        final int numKeys = 100, numCols = 10;
+        loadStore(numKeys,numCols);
+        //Each segment only holds a few slices, such that segments are recycled repeatedly
+        cache = getCache(store, 1, 16*512);
+
+        for (int repeat = 0; repeat < 3; repeat++) {
+            CacheTransaction tx = getCacheTx();
+            for (int i = 1; i <= numKeys; i++) {
+                final EntryList entries = cache.getSlice(getQuery(i,0,numCols+1),tx);
+                assertEquals(numCols,entries.size());
+                final List<Entry> expected = new ArrayList<>(numCols);
+                for (int j = 1; j <= numCols; j++) expected.add(getEntry(j,j));
+                assertEquals(expected,Lists.newArrayList(entries));
+            }
+            tx.commit();
+        }
+        //The most recently read keys are still cached
+        store.resetCounter();
+        CacheTransaction tx = getCacheTx();
+        assertEquals(numCols,cache.getSlice(getQuery(numKeys,0,numCols+1),tx).size());
+        tx.commit();
+        assertEquals(0,store.getSliceCalls());
+    }
+
+    @Test
+    public void testCachedSlicesOutliveTheirSegment() throws Exception {
+        final int numKeys = 100, numCols = 10;
+        loadStore(numKeys,numCols);
+        cache = getCache(store, 1, 16*512);
+        final List<Entry> expected = new ArrayList<>(numCols);
+        for (int j = 1; j <= numCols; j++) expected.add(getEntry(j,j));
+
+        CacheTransaction tx = getCacheTx();
+        cache.getSlice(getQuery(1,0,numCols+1),tx);
+        final EntryList cached = cache.getSlice(getQuery(1,0,numCols+1),tx);
+        //Replaces all segments, including the one the cached slice is stored in
+        for (int i = 2; i <= numKeys; i++) cache.getSlice(getQuery(i,0,numCols+1),tx);
+        tx.commit();
+        assertEquals(expected,Lists.newArrayList(cached));
+    }
+
+    private static List<StaticBuffer> getKeys(StaticBuffer key) {
+        final List<StaticBuffer> keys = new ArrayList<>();
+        keys.add(key);
+        keys.add(BufferUtil.getIntBuffer(37));
+        keys.add(BufferUtil.getIntBuffer(2));
+        return keys;
+    }
+
+    private void verifyResults(StaticBuffer key, List<StaticBuffer> keys, SliceQuery query, int expectedResults) throws Exception {
+        CacheTransaction tx = getCacheTx();
+        assertEquals(expectedResults,cache.getSlice(new KeySliceQuery(key,query),tx).size());
+        Map<StaticBuffer,EntryList> results = cache.getSlice(keys,query,tx);
+        assertEquals(keys.size(),results.size());
+        assertEquals(expectedResults, results.get(key).size());
+        tx.commit();
+    }
+
+}
@@ -104,6 +104,8 @@ public class ReadConfigurationBuilderTest {
             .thenReturn(keyColumnValueStoreConfiguration);
         when(modifiableConfigurationBuilder.buildGlobalWrite(keyColumnValueStoreConfiguration))
             .thenReturn(globalWrite);
+        lenient().when(globalWrite.get(VALUE_COMPRESSION_STORE_NAMES)).thenReturn(VALUE_COMPRESSION_STORE_NAMES.getDefaultValue());
+        lenient().when(globalWrite.get(VALUE_COMPRESSION_CODEC)).thenReturn(VALUE_COMPRESSION_CODEC.getDefaultValue());
     }
 
     @Test
@@ -363,7 +365,7 @@ public class ReadConfigurationBuilderTest {
             if(TITAN_COMPATIBLE_VERSIONS.equals(argument)){
                 return JanusGraphConstants.TITAN_COMPATIBLE_VERSIONS.get(0);
             }
-            return null;
+            return ((ConfigOption) argument).getDefaultValue();
         });
     }
 
@@ -410,7 +412,7 @@ public class ReadConfigurationBuilderTest {
             if(INITIAL_JANUSGRAPH_VERSION.equals(argument)){
                 return "";
             }
-            return null;
+            return ((ConfigOption) argument).getDefaultValue();
         });
     }
 
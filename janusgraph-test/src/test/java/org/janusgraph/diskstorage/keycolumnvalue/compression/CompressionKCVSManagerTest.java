@@ -0,0 +1,230 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.compression;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.lang.StringUtils;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.diskstorage.Backend;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.StoreMetaData;
+import org.janusgraph.diskstorage.configuration.BasicConfiguration;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.KCVSConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.builder.KCVSConfigurationBuilder;
+import org.janusgraph.diskstorage.configuration.builder.ModifiableConfigurationBuilder;
+import org.janusgraph.diskstorage.configuration.builder.ReadConfigurationBuilder;
+import org.janusgraph.diskstorage.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSManagerProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.compression.ValueCompression;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_COMPRESSED;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.VALUE_COMPRESSION_CODEC;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.VALUE_COMPRESSION_STORE_CODEC;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.VALUE_COMPRESSION_STORE_MARKER;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.VALUE_COMPRESSION_THRESHOLD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompressionKCVSManagerTest {
+
+    private static final String COMPRESSED_STORE = "compressed";
+    private static final String PLAIN_STORE = "plain";
+    private static final SliceQuery ALL_COLUMNS = new SliceQuery(BufferUtil.zeroBuffer(8), BufferUtil.oneBuffer(8));
+
+    private InMemoryStoreManager storeManager;
+    private ValueCompression compression;
+    private CompressionKCVSManager compressionManager;
+    private StoreTransaction tx;
+
+    @BeforeEach
+    public void setup() throws BackendException {
+        storeManager = new InMemoryStoreManager();
+        compression = new ValueCompression(ValueCompression.LZ4, 64, ValueCompression.generateMarker());
+        compressionManager = new CompressionKCVSManager(storeManager, ImmutableMap.of(COMPRESSED_STORE, compression));
+        compressionManager.openDatabase(COMPRESSED_STORE);
+        compressionManager.openDatabase(PLAIN_STORE);
+        tx = compressionManager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO));
+    }
+
+    @AfterEach
+    public void shutdown() throws BackendException {
+        compressionManager.close();
+    }
+
+    private static StaticBuffer getValue(int length) {
+        return new StaticArrayBuffer(StringUtils.repeat("janusgraph", length / 10).getBytes());
+    }
+
+    private static List<Entry> getAdditions() {
+        final List<Entry> additions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            additions.add(StaticArrayEntry.of(BufferUtil.getLongBuffer(i), getValue(i % 2 == 0 ? 10 : 1000)));
+        }
+        return additions;
+    }
+
+    private EntryList getRawSlice(String storeName, StaticBuffer key) throws BackendException {
+        return storeManager.openDatabase(storeName).getSlice(new KeySliceQuery(key, ALL_COLUMNS), tx);
+    }
+
+    private static void assertValues(List<Entry> expected, List<Entry> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getColumn(), actual.get(i).getColumn());
+            assertEquals(expected.get(i).getValue(), actual.get(i).getValue());
+        }
+    }
+
+    @Test
+    public void testMutateMany() throws BackendException {
+        final StaticBuffer key = BufferUtil.getLongBuffer(1);
+        final List<Entry> additions = getAdditions();
+        final KCVMutation mutation = new KCVMutation(additions, KeyColumnValueStore.NO_DELETIONS);
+        final Map<StaticBuffer, KCVMutation> storeMutations = ImmutableMap.of(key, mutation);
+        final Map<String, Map<StaticBuffer, KCVMutation>> mutations = ImmutableMap.of(COMPRESSED_STORE, storeMutations, PLAIN_STORE, storeMutations);
+        compressionManager.mutateMany(mutations, tx);
+
+        //The mutations of the caller are left untouched
+        assertSame(mutation, mutations.get(COMPRESSED_STORE).get(key));
+        assertValues(additions, mutation.getAdditions());
+
+        final EntryList raw = getRawSlice(COMPRESSED_STORE, key);
+        for (int i = 0; i < raw.size(); i++) {
+            assertEquals(i % 2 == 1, compression.hasHeader(raw.get(i).getValue()));
+        }
+        assertValues(additions, getRawSlice(PLAIN_STORE, key));
+        assertValues(additions, compressionManager.openDatabase(COMPRESSED_STORE).getSlice(new KeySliceQuery(key, ALL_COLUMNS), tx));
+        assertValues(additions, compressionManager.openDatabase(PLAIN_STORE).getSlice(new KeySliceQuery(key, ALL_COLUMNS), tx));
+    }
+
+    @Test
+    public void testStoreMutateAndMultiGet() throws BackendException {
+        final KeyColumnValueStore store = compressionManager.openDatabase(COMPRESSED_STORE);
+        final StaticBuffer key1 = BufferUtil.getLongBuffer(1), key2 = BufferUtil.getLongBuffer(2);
+        store.mutate(key1, getAdditions(), KeyColumnValueStore.NO_DELETIONS, tx);
+        //Values written without a header are read as they are
+        storeManager.openDatabase(COMPRESSED_STORE).mutate(key2, getAdditions(), KeyColumnValueStore.NO_DELETIONS, tx);
+
+        assertTrue(compression.hasHeader(getRawSlice(COMPRESSED_STORE, key1).get(1).getValue()));
+        assertFalse(compression.hasHeader(getRawSlice(COMPRESSED_STORE, key2).get(1).getValue()));
+        final Map<StaticBuffer, EntryList> slices = store.getSlice(ImmutableList.of(key1, key2), ALL_COLUMNS, tx);
+        assertValues(getAdditions(), slices.get(key1));
+        assertValues(getAdditions(), slices.get(key2));
+    }
+
+    @Test
+    public void testHadoopManagerIsPassedThrough() {
+        //The Hadoop input path decompresses the values it reads from the underlying stores
+        assertThrows(UnsupportedOperationException.class, () -> compressionManager.getHadoopManager());
+    }
+
+    private static Configuration buildGlobalConfiguration(KeyColumnValueStoreManager manager, ModifiableConfiguration localConfig) {
+        return new BasicConfiguration(GraphDatabaseConfiguration.ROOT_NS, new ReadConfigurationBuilder().buildGlobalConfiguration(
+            localConfig.getConfiguration(), localConfig, GraphDatabaseConfiguration.buildGraphConfiguration(), manager,
+            new ModifiableConfigurationBuilder(), new KCVSConfigurationBuilder()), BasicConfiguration.Restriction.GLOBAL);
+    }
+
+    @Test
+    public void testCompressionCanBeEnabledOnExistingGraph() {
+        //Keeps the stores of the graph when its global configuration is closed
+        final KeyColumnValueStoreManager manager = new KCVSManagerProxy(storeManager) {
+            @Override
+            public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
+                return new KCVSProxy(super.openDatabase(name, metaData)) {
+                    @Override
+                    public void close() {
+                    }
+                };
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final ModifiableConfiguration localConfig = StorageSetup.getInMemoryConfiguration();
+        assertFalse(buildGlobalConfiguration(manager, localConfig).has(VALUE_COMPRESSION_STORE_MARKER, Backend.EDGESTORE_NAME));
+
+        try (KCVSConfiguration globalConfig = new KCVSConfigurationBuilder().buildStandaloneGlobalConfiguration(manager, localConfig)) {
+            new ModifiableConfigurationBuilder().buildGlobalWrite(globalConfig)
+                .set(VALUE_COMPRESSION_STORE_CODEC, ValueCompression.ZSTD, Backend.EDGESTORE_NAME);
+        }
+        //The marker is written once compression is enabled for a store and kept afterwards
+        final Configuration enabled = buildGlobalConfiguration(manager, localConfig);
+        assertTrue(enabled.has(VALUE_COMPRESSION_STORE_MARKER, Backend.EDGESTORE_NAME));
+        assertFalse(enabled.has(VALUE_COMPRESSION_STORE_MARKER, Backend.INDEXSTORE_NAME));
+        assertEquals(ValueCompression.ZSTD, CompressionKCVSManager.getCodecName(enabled, Backend.EDGESTORE_NAME));
+        assertEquals(ValueCompression.NONE, CompressionKCVSManager.getCodecName(enabled, Backend.INDEXSTORE_NAME));
+        assertEquals(enabled.get(VALUE_COMPRESSION_STORE_MARKER, Backend.EDGESTORE_NAME),
+            buildGlobalConfiguration(manager, localConfig).get(VALUE_COMPRESSION_STORE_MARKER, Backend.EDGESTORE_NAME));
+    }
+
+    @Test
+    public void testGraphWithCompression() {
+        final ModifiableConfiguration config = StorageSetup.getInMemoryConfiguration()
+            .set(VALUE_COMPRESSION_CODEC, ValueCompression.LZ4)
+            .set(VALUE_COMPRESSION_THRESHOLD, 64)
+            .set(DB_CACHE, true)
+            .set(DB_CACHE_COMPRESSED, true);
+        final String value = StringUtils.repeat("janusgraph", 1000);
+        final JanusGraph graph = JanusGraphFactory.open(config);
+        try {
+            final Vertex v = graph.addVertex();
+            v.property("name", value);
+            v.property("short", "janusgraph");
+            graph.tx().commit();
+            for (int i = 0; i < 2; i++) {
+                final Vertex vertex = graph.traversal().V(v.id()).next();
+                assertEquals(value, vertex.value("name"));
+                assertEquals("janusgraph", vertex.value("short"));
+                graph.tx().rollback();
+            }
+        } finally {
+            graph.close();
+        }
+    }
+}
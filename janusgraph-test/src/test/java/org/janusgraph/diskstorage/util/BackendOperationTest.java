@@ -0,0 +1,78 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BackendOperationTest {
+
+    @Test
+    public void testAsyncRetriesTemporaryFailures() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger(0);
+        final CompletableFuture<String> result = BackendOperation.executeAsync(() -> {
+            final CompletableFuture<String> attempt = new CompletableFuture<>();
+            if (attempts.incrementAndGet() < 3) {
+                attempt.completeExceptionally(new TemporaryBackendException("try again"));
+            } else {
+                attempt.complete("done");
+            }
+            return attempt;
+        }, Duration.ofSeconds(10), ForkJoinPool.commonPool());
+        assertEquals("done", result.get());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testAsyncDoesNotRetryPermanentFailures() {
+        final AtomicInteger attempts = new AtomicInteger(0);
+        final CompletableFuture<String> result = BackendOperation.executeAsync(() -> {
+            attempts.incrementAndGet();
+            final CompletableFuture<String> attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(new PermanentBackendException("broken"));
+            return attempt;
+        }, Duration.ofSeconds(10), ForkJoinPool.commonPool());
+        final ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertTrue(e.getCause() instanceof JanusGraphException);
+        assertTrue(e.getCause().getCause() instanceof PermanentBackendException);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testAsyncGivesUpAfterTotalWaitTime() {
+        final AtomicInteger attempts = new AtomicInteger(0);
+        final CompletableFuture<String> result = BackendOperation.executeAsync(() -> {
+            attempts.incrementAndGet();
+            final CompletableFuture<String> attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(new TemporaryBackendException("try again"));
+            return attempt;
+        }, Duration.ofMillis(200), ForkJoinPool.commonPool());
+        final ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertTrue(e.getCause().getCause() instanceof TemporaryBackendException);
+        assertTrue(attempts.get() > 1);
+    }
+}
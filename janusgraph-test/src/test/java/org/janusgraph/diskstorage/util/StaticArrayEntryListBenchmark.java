@@ -0,0 +1,115 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.JanusGraphBenchmarkRunner;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of {@link StaticArrayEntryList}s, which every slice read from a storage backend goes through,
+ * and the iteration over their entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StaticArrayEntryListBenchmark {
+
+    @Param({"10", "1000"})
+    int size;
+
+    List<Entry> entries;
+    List<StaticBuffer[]> columnValues;
+    EntryList entryList;
+
+    @Setup
+    public void setUp() {
+        entries = new ArrayList<>(size);
+        columnValues = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StaticBuffer column = BufferUtil.getLongBuffer(i);
+            StaticBuffer value = BufferUtil.getLongBuffer(i * 31L);
+            entries.add(StaticArrayEntry.of(column, value));
+            columnValues.add(new StaticBuffer[]{column, value});
+        }
+        entryList = StaticArrayEntryList.of(entries);
+    }
+
+    @Benchmark
+    public EntryList ofEntries() {
+        return StaticArrayEntryList.of(entries);
+    }
+
+    @Benchmark
+    public EntryList ofStaticBuffer() {
+        return StaticArrayEntryList.ofStaticBuffer(columnValues, STATIC_BUFFER_GETTER);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Entry entry : entryList) {
+            blackhole.consume(entry.getColumn());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    private static final StaticArrayEntry.GetColVal<StaticBuffer[], StaticBuffer> STATIC_BUFFER_GETTER = new StaticArrayEntry.GetColVal<StaticBuffer[], StaticBuffer>() {
+        @Override
+        public StaticBuffer getColumn(StaticBuffer[] element) {
+            return element[0];
+        }
+
+        @Override
+        public StaticBuffer getValue(StaticBuffer[] element) {
+            return element[1];
+        }
+
+        @Override
+        public EntryMetaData[] getMetaSchema(StaticBuffer[] element) {
+            return StaticArrayEntry.EMPTY_SCHEMA;
+        }
+
+        @Override
+        public Object getMetaData(StaticBuffer[] element, EntryMetaData meta) {
+            throw new UnsupportedOperationException("Unsupported meta data: " + meta);
+        }
+    };
+
+    public static void main(String[] args) throws RunnerException {
+        JanusGraphBenchmarkRunner.run(StaticArrayEntryListBenchmark.class);
+    }
+}
@@ -0,0 +1,178 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util.compression;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValueCompressionTest {
+
+    private static final int THRESHOLD = 64;
+    private static final long MARKER = 0x5EC0DE5EC0DEL;
+
+    private static ValueCompression getCompression(String codec) {
+        return new ValueCompression(codec, THRESHOLD, MARKER);
+    }
+
+    private static StaticBuffer withMarker(long marker, byte... bytes) {
+        final byte[] value = new byte[Long.BYTES + bytes.length];
+        StaticArrayBuffer.putLong(value, 0, marker);
+        System.arraycopy(bytes, 0, value, Long.BYTES, bytes.length);
+        return new StaticArrayBuffer(value);
+    }
+
+    private static StaticBuffer getCompressibleValue(int length) {
+        final byte[] value = new byte[length];
+        for (int i = 0; i < length; i++) value[i] = (byte) ('a' + i % 4);
+        return new StaticArrayBuffer(value);
+    }
+
+    private static StaticBuffer getRandomValue(int length) {
+        final byte[] value = new byte[length];
+        new Random(42).nextBytes(value);
+        return new StaticArrayBuffer(value);
+    }
+
+    private static Entry getEntry(long column, StaticBuffer value) {
+        return StaticArrayEntry.of(BufferUtil.getLongBuffer(column), value);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {ValueCompression.LZ4, ValueCompression.ZSTD, ValueCompression.DEFLATE})
+    public void testRoundTrip(String codec) {
+        final ValueCompression compression = getCompression(codec);
+        final StaticBuffer value = getCompressibleValue(10000);
+        final StaticBuffer compressed = compression.compress(value);
+        assertTrue(compression.hasHeader(compressed));
+        assertTrue(compressed.length() < value.length() / 10);
+        assertEquals(value, compression.decompress(compressed));
+    }
+
+    @Test
+    public void testValuesAreReadableWithAnyCodec() {
+        final StaticBuffer value = getCompressibleValue(1000);
+        final ValueCompression zstd = getCompression(ValueCompression.ZSTD), lz4 = getCompression(ValueCompression.LZ4);
+        assertEquals(value, lz4.decompress(zstd.compress(value)));
+        assertEquals(value, zstd.decompress(lz4.compress(value)));
+    }
+
+    @Test
+    public void testNoneCodecKeepsHeaderFormat() {
+        final ValueCompression compression = getCompression(ValueCompression.NONE);
+        assertFalse(compression.isEnabled());
+        final StaticBuffer value = getCompressibleValue(1000);
+        assertSame(value, compression.compress(value));
+        //Values compressed before the codec was set back to none remain readable
+        assertEquals(value, compression.decompress(getCompression(ValueCompression.LZ4).compress(value)));
+        //Values starting with the marker are still escaped
+        final StaticBuffer magic = withMarker(MARKER, (byte) 0, (byte) 7);
+        assertTrue(compression.hasHeader(compression.compress(magic)));
+        assertEquals(magic, compression.decompress(compression.compress(magic)));
+    }
+
+    @Test
+    public void testValuesAreOnlyCompressedAboveThreshold() {
+        final ValueCompression compression = getCompression(ValueCompression.LZ4);
+        final StaticBuffer small = getCompressibleValue(THRESHOLD - 1);
+        assertSame(small, compression.compress(small));
+        assertFalse(compression.hasHeader(compression.compress(getRandomValue(THRESHOLD))));
+        assertTrue(compression.hasHeader(compression.compress(getCompressibleValue(THRESHOLD))));
+    }
+
+    @Test
+    public void testUncompressedValuesWithMarker() {
+        final ValueCompression compression = getCompression(ValueCompression.LZ4);
+        final StaticBuffer value = withMarker(MARKER, (byte) 2, (byte) 5, (byte) 7);
+        assertTrue(compression.hasHeader(value));
+        //Values written with compression enabled which start with the marker are escaped
+        final StaticBuffer escaped = compression.compress(value);
+        assertEquals(value.length() + ValueCompression.HEADER_LENGTH, escaped.length());
+        assertEquals(value, compression.decompress(escaped));
+        assertThrows(IllegalArgumentException.class, () -> compression.decompress(withMarker(MARKER, (byte) 1, (byte) 5, (byte) 7)));
+    }
+
+    @Test
+    public void testLegacyValuesAreReadUnchanged() {
+        final ValueCompression compression = getCompression(ValueCompression.LZ4);
+        //Values written before compression was enabled only have a header if they start with the marker of the store
+        final StaticBuffer otherMarker = withMarker(MARKER + 1, (byte) 2, (byte) 5, (byte) 7);
+        assertFalse(compression.hasHeader(otherMarker));
+        assertSame(otherMarker, compression.decompress(otherMarker));
+        final StaticBuffer value = getRandomValue(1000);
+        assertSame(value, compression.decompress(value));
+        //Values compressed for a store cannot be read with the marker of another store
+        final StaticBuffer compressed = compression.compress(getCompressibleValue(1000));
+        assertSame(compressed, new ValueCompression(ValueCompression.LZ4, THRESHOLD, MARKER + 1).decompress(compressed));
+    }
+
+    @Test
+    public void testEntryMetaDataIsPreserved() {
+        final ValueCompression compression = getCompression(ValueCompression.DEFLATE);
+        final StaticArrayEntry entry = (StaticArrayEntry) getEntry(1, getCompressibleValue(1000));
+        entry.setMetaData(EntryMetaData.TIMESTAMP, 123L);
+        entry.setMetaData(EntryMetaData.TTL, 10);
+        final Entry compressed = compression.compress(entry);
+        assertEquals(entry.getColumn(), compressed.getColumn());
+        assertEquals(entry.getMetaData(), compressed.getMetaData());
+        final Entry decompressed = compression.decompress(compressed);
+        assertEquals(entry, decompressed);
+        assertEquals(entry.getValue(), decompressed.getValue());
+        assertEquals(entry.getMetaData(), decompressed.getMetaData());
+    }
+
+    @Test
+    public void testEntryLists() {
+        final ValueCompression compression = getCompression(ValueCompression.LZ4);
+        final EntryList small = StaticArrayEntryList.of(Arrays.asList(getEntry(1, getCompressibleValue(10)),
+            getEntry(2, getCompressibleValue(20))));
+        assertSame(small, compression.compress(small));
+        assertSame(small, compression.decompress(small));
+
+        final EntryList mixed = StaticArrayEntryList.of(Arrays.asList(getEntry(1, getCompressibleValue(10)),
+            getEntry(2, getCompressibleValue(1000)), getEntry(3, getRandomValue(1000))));
+        final EntryList compressed = compression.compress(mixed);
+        assertEquals(mixed.size(), compressed.size());
+        assertTrue(compressed.getByteSize() < mixed.getByteSize());
+        final EntryList decompressed = compression.decompress(compressed);
+        assertEquals(mixed.size(), decompressed.size());
+        for (int i = 0; i < mixed.size(); i++) {
+            assertEquals(mixed.get(i).getColumn(), decompressed.get(i).getColumn());
+            assertEquals(mixed.get(i).getValue(), decompressed.get(i).getValue());
+        }
+    }
+
+    @Test
+    public void testUnknownCodec() {
+        assertThrows(IllegalArgumentException.class, () -> getCompression("snappy"));
+    }
+}
@@ -0,0 +1,97 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database;
+
+import org.janusgraph.JanusGraphBenchmarkRunner;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures transactions which add the given number of edges, each with a property, between existing vertices
+ * and commit them through {@link StandardJanusGraph#commit}. Each invocation uses newly created vertices, such that
+ * the commits do not slow down as edges accumulate on the same vertices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommitBenchmark {
+
+    private static final int NUM_VERTICES = 1000;
+
+    @Param({"1", "100", "1000"})
+    int numEdges;
+
+    JanusGraph graph;
+    long[] vertexIds;
+
+    @Setup
+    public void setUp() {
+        graph = StorageSetup.getInMemoryGraph();
+        JanusGraphManagement management = graph.openManagement();
+        management.makeEdgeLabel("knows").make();
+        management.makePropertyKey("weight").dataType(Integer.class).make();
+        management.commit();
+        vertexIds = new long[Math.min(numEdges + 1, NUM_VERTICES)];
+    }
+
+    @Setup(Level.Invocation)
+    public void addVertices() {
+        JanusGraphTransaction tx = graph.newTransaction();
+        for (int i = 0; i < vertexIds.length; i++) vertexIds[i] = (long) tx.addVertex().id();
+        tx.commit();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Benchmark
+    public void commit() {
+        JanusGraphTransaction tx = graph.newTransaction();
+        for (int i = 0; i < numEdges; i++) {
+            JanusGraphVertex out = tx.getVertex(vertexIds[i % vertexIds.length]);
+            JanusGraphVertex in = tx.getVertex(vertexIds[(i + 1) % vertexIds.length]);
+            out.addEdge("knows", in, "weight", i);
+        }
+        tx.commit();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        JanusGraphBenchmarkRunner.run(CommitBenchmark.class);
+    }
+}
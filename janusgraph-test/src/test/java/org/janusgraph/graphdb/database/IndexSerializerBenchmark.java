@@ -0,0 +1,97 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.JanusGraphBenchmarkRunner;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the computation of the composite index updates for the properties which are added to a vertex.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IndexSerializerBenchmark {
+
+    @Param({"1", "4"})
+    int numIndexes;
+
+    StandardJanusGraph graph;
+    JanusGraphTransaction tx;
+    IndexSerializer indexSerializer;
+    InternalVertex vertex;
+    List<InternalRelation> properties;
+
+    @Setup
+    public void setUp() {
+        graph = (StandardJanusGraph) StorageSetup.getInMemoryGraph();
+        JanusGraphManagement management = graph.openManagement();
+        PropertyKey name = management.makePropertyKey("name").dataType(String.class).make();
+        for (int i = 0; i < numIndexes; i++) {
+            PropertyKey key = management.makePropertyKey("key" + i).dataType(Integer.class).make();
+            management.buildIndex("index" + i, Vertex.class).addKey(name).addKey(key).buildCompositeIndex();
+        }
+        management.commit();
+
+        tx = graph.newTransaction();
+        vertex = (InternalVertex) tx.addVertex("name", "value");
+        for (int i = 0; i < numIndexes; i++) vertex.property("key" + i, i);
+        properties = new ArrayList<>();
+        vertex.properties().forEachRemaining(p -> properties.add((InternalRelation) p));
+        indexSerializer = graph.getIndexSerializer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    @Benchmark
+    public Collection<IndexSerializer.IndexUpdate> getIndexUpdates() {
+        return indexSerializer.getIndexUpdates(vertex, properties);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        JanusGraphBenchmarkRunner.run(IndexSerializerBenchmark.class);
+    }
+}
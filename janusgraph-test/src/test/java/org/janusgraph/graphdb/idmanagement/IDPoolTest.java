@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.time.Duration;
 import java.util.List;
 import java.util.Random;
+import java.util.UUID;
 
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.IDAuthority;
@@ -35,10 +36,13 @@ import org.easymock.IMocksControl;
 import org.junit.jupiter.api.Test;
 
 import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.graphdb.database.idassigner.IDPool;
 import org.janusgraph.graphdb.database.idassigner.IDPoolExhaustedException;
 import org.janusgraph.graphdb.database.idassigner.StandardIDPool;
+import org.janusgraph.graphdb.database.idassigner.StripedIDPool;
 import org.janusgraph.graphdb.util.IntHashSet;
 import org.janusgraph.graphdb.util.IntSet;
+import org.janusgraph.util.stats.MetricManager;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -67,11 +71,43 @@ public class IDPoolTest {
         testIDPoolWith(partitionID -> new StandardIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE, Duration.ofMillis(2000), 0.2), 10, 20, 100000);
     }
 
+    @Test
+    public void testStripedIDPool1() throws InterruptedException {
+        final MockIDAuthority idAuthority = new MockIDAuthority(200);
+        testIDPoolWith(partitionID -> new StripedIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE, Duration.ofMillis(2000L), 0.2, 1, null), 1000, 6, 100000);
+    }
+
+    @Test
+    public void testStripedIDPool2() throws InterruptedException {
+        final MockIDAuthority idAuthority = new MockIDAuthority(10000, Integer.MAX_VALUE, 2000);
+        testIDPoolWith(partitionID -> new StripedIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE, Duration.ofMillis(4000), 0.1, 3, null), 2, 5, 10000);
+    }
+
+    @Test
+    public void testStripedIDPool3() throws InterruptedException {
+        final MockIDAuthority idAuthority = new MockIDAuthority(200);
+        testIDPoolWith(partitionID -> new StripedIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE, Duration.ofMillis(2000), 0.2, 4, null), 10, 64, 20000);
+    }
+
+    @Test
+    public void testStripedIDPoolWaitMetrics() {
+        //The metric registry is global, so a unique prefix keeps other tests and reruns from affecting the counts
+        final String prefix = "org.janusgraph.test.idpool." + UUID.randomUUID();
+        final MockIDAuthority idAuthority = new MockIDAuthority(100);
+        final IDPool pool = new StripedIDPool(idAuthority, 0, 1, Integer.MAX_VALUE, Duration.ofMillis(2000), 0.2, 2, prefix);
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i, pool.nextID());
+        }
+        pool.close();
+        assertEquals(10, MetricManager.INSTANCE.getCounter(prefix, StripedIDPool.M_ID_POOL, StripedIDPool.M_BLOCKS).getCount());
+        assertEquals(10, MetricManager.INSTANCE.getTimer(prefix, StripedIDPool.M_ID_POOL, StripedIDPool.M_WAIT).getCount());
+    }
+
     private void testIDPoolWith(IDPoolFactory poolFactory, final int numPartitions,
                                        final int numThreads, final int attemptsPerThread) throws InterruptedException {
         final Random random = new Random();
         final IntSet[] ids = new IntSet[numPartitions];
-        final StandardIDPool[] idPools = new StandardIDPool[numPartitions];
+        final IDPool[] idPools = new IDPool[numPartitions];
         for (int i = 0; i < numPartitions; i++) {
             ids[i] = new IntHashSet(attemptsPerThread * numThreads / numPartitions);
             int partition = i*100;
@@ -96,7 +132,7 @@ public class IDPoolTest {
             threads[i].start();
         }
         for (int i = 0; i < numThreads; i++) threads[i].join();
-        for (final StandardIDPool idPool : idPools) idPool.close();
+        for (final IDPool idPool : idPools) idPool.close();
         //Verify consecutive id assignment
         for (int i = 0; i < ids.length; i++) {
             IntSet set = ids[i];
@@ -216,8 +252,33 @@ public class IDPoolTest {
         }
     }
 
+    @Test
+    public void testStripedAllocationTimeout() {
+        final MockIDAuthority idAuthority = new MockIDAuthority(10000, Integer.MAX_VALUE, 5000);
+        StripedIDPool pool = new StripedIDPool(idAuthority, 1, 1, Integer.MAX_VALUE, Duration.ofMillis(4000), 0.1, 2, null);
+
+        assertThrows(JanusGraphException.class, pool::nextID);
+    }
+
+    @Test
+    public void testStripedPoolExhaustion() {
+        int idUpper = 10000;
+        MockIDAuthority idAuthority = new MockIDAuthority(200, idUpper);
+        StripedIDPool pool = new StripedIDPool(idAuthority, 0, 1, Integer.MAX_VALUE, Duration.ofMillis(2000), 0.2, 3, null);
+        for (int i = 1; i < idUpper * 2; i++) {
+            try {
+                long id = pool.nextID();
+                assertTrue(id < idUpper);
+            } catch (IDPoolExhaustedException e) {
+                assertEquals(idUpper, i);
+                break;
+            }
+        }
+        assertThrows(IDPoolExhaustedException.class, pool::nextID);
+    }
+
     interface IDPoolFactory {
-        StandardIDPool get(int partitionID);
+        IDPool get(int partitionID);
     }
 
 }
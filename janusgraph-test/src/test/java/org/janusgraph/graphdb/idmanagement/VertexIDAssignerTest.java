@@ -53,10 +53,12 @@ public class VertexIDAssignerTest {
     public static Stream<Arguments> configs() {
         final List<Arguments> configurations = new ArrayList<>();
 
-        for (int maxPerPartition : new int[]{Integer.MAX_VALUE, 100, 300}) {
-            for (int numPartitions : new int[]{2, 4, 10}) {
-                for (int[] local : new int[][]{null, {0,2, numPartitions}, {235,234,8}, {1,1,2}, {0,1<<(numPartitions-1),numPartitions}}) {
-                    configurations.add(generateConfigurationArguments(numPartitions, maxPerPartition, local));
+        for (String poolImplementation : new String[]{GraphDatabaseConfiguration.IDS_POOL_STANDARD, GraphDatabaseConfiguration.IDS_POOL_STRIPED}) {
+            for (int maxPerPartition : new int[]{Integer.MAX_VALUE, 100, 300}) {
+                for (int numPartitions : new int[]{2, 4, 10}) {
+                    for (int[] local : new int[][]{null, {0,2, numPartitions}, {235,234,8}, {1,1,2}, {0,1<<(numPartitions-1),numPartitions}}) {
+                        configurations.add(generateConfigurationArguments(numPartitions, maxPerPartition, local, poolImplementation));
+                    }
                 }
             }
         }
@@ -70,8 +72,9 @@ public class VertexIDAssignerTest {
      * @param partitionMax The maximum number of ids that can be allocated per partition. This is artificially constrained by the MockIDAuthority
      * @param localPartitionDef This array contains three integers: 1+2) lower and upper bounds for the local partition range, and
      *                          3) the bit width of the local bounds. The bounds will be bit-shifted forward to consume the bit width
+     * @param poolImplementation The implementation of the id pools
      */
-    private static Arguments generateConfigurationArguments(int numPartitionsBits, int partitionMax, int[] localPartitionDef){
+    private static Arguments generateConfigurationArguments(int numPartitionsBits, int partitionMax, int[] localPartitionDef, String poolImplementation){
         MockIDAuthority idAuthority = new MockIDAuthority(11, partitionMax);
 
         StandardStoreFeatures.Builder fb = new StandardStoreFeatures.Builder();
@@ -84,8 +87,9 @@ public class VertexIDAssignerTest {
 
         ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
         config.set(GraphDatabaseConfiguration.CLUSTER_MAX_PARTITIONS,1<<numPartitionsBits);
+        config.set(GraphDatabaseConfiguration.IDS_POOL_IMPLEMENTATION,poolImplementation);
         VertexIDAssigner idAssigner = new VertexIDAssigner(config, idAuthority, features);
-        System.out.println(String.format("Configuration [%s|%s|%s]",numPartitionsBits,partitionMax,Arrays.toString(localPartitionDef)));
+        System.out.println(String.format("Configuration [%s|%s|%s|%s]",numPartitionsBits,partitionMax,Arrays.toString(localPartitionDef),poolImplementation));
 
         long maxIDAssignments;
         if (localPartitionDef!=null && localPartitionDef[0]<localPartitionDef[1] && localPartitionDef[2]<=numPartitionsBits) {
@@ -0,0 +1,102 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.query;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.janusgraph.JanusGraphBenchmarkRunner;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.USE_MULTIQUERY;
+
+/**
+ * Measures two-hop {@code out()} traversals which filter the visited vertices with {@code has()}, with and
+ * without {@code query.batch}. Every invocation uses a new transaction, such that all relations are read from
+ * the storage backend.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AdjacentVertexTraversalBenchmark {
+
+    @Param({"10", "100"})
+    int fanout;
+
+    @Param({"true", "false"})
+    boolean useMultiQuery;
+
+    JanusGraph graph;
+    Object rootId;
+
+    @Setup
+    public void setUp() {
+        graph = JanusGraphFactory.open(StorageSetup.getInMemoryConfiguration().set(USE_MULTIQUERY, useMultiQuery));
+        JanusGraphManagement management = graph.openManagement();
+        management.makeEdgeLabel("knows").make();
+        management.makePropertyKey("age").dataType(Integer.class).make();
+        management.commit();
+
+        JanusGraphTransaction tx = graph.newTransaction();
+        JanusGraphVertex root = tx.addVertex("age", 0);
+        for (int i = 0; i < fanout; i++) {
+            JanusGraphVertex child = tx.addVertex("age", i);
+            root.addEdge("knows", child);
+            for (int j = 0; j < fanout; j++) {
+                child.addEdge("knows", tx.addVertex("age", j));
+            }
+        }
+        tx.commit();
+        rootId = root.id();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Benchmark
+    public long outHas() {
+        JanusGraphTransaction tx = graph.newTransaction();
+        long count = tx.traversal().V(rootId).out("knows").out("knows").has("age", P.gte(fanout / 2)).count().next();
+        tx.rollback();
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        JanusGraphBenchmarkRunner.run(AdjacentVertexTraversalBenchmark.class);
+    }
+}
@@ -15,13 +15,28 @@
 package org.janusgraph.graphdb.query;
 
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.util.datastructures.SortedLongArraySet;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 public class QueryUtilTest {
@@ -65,4 +80,80 @@ public class QueryUtilTest {
         assertEquals(200000, QueryUtil.adjustLimitForTxModifications(tx, 1, 100000));
         assertEquals(Integer.MAX_VALUE, QueryUtil.adjustLimitForTxModifications(tx, 10, Integer.MAX_VALUE));
     }
+
+    private static QueryUtil.IndexCall<Object> retrieval(List<?> elements, AtomicInteger calls) {
+        return limit -> {
+            calls.incrementAndGet();
+            return new ArrayList<>(elements.subList(0, Math.min(limit, elements.size())));
+        };
+    }
+
+    private static List<Object> range(long start, long end, long step) {
+        return LongStream.range(start, end).filter(l -> l % step == 0).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    void testIntersectingRetrievalsOfLongs() {
+        final AtomicInteger calls = new AtomicInteger();
+        final List<Object> evens = range(0, 1000, 2);
+        final List<Object> triples = new ArrayList<>(range(0, 1000, 3));
+        Collections.reverse(triples);
+        final Collection<Object> results = QueryUtil.processIntersectingRetrievals(
+            Arrays.asList(retrieval(evens, calls), retrieval(triples, calls)), Integer.MAX_VALUE);
+        assertEquals(SortedLongArraySet.class, results.getClass());
+        assertEquals(new HashSet<>(range(0, 1000, 6)), new HashSet<>(results));
+        assertTrue(results.contains(600L));
+        assertFalse(results.contains(602L));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testIntersectingRetrievalsOfOtherElements() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Collection<Object> results = QueryUtil.processIntersectingRetrievals(Arrays.asList(
+            retrieval(Arrays.asList("a", "b", "c", "d"), calls), retrieval(Arrays.asList("d", "b", "e"), calls)), 10);
+        assertEquals(new HashSet<>(Arrays.asList("b", "d")), results);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testIntersectingRetrievalsAdaptLimit() {
+        final AtomicInteger allCalls = new AtomicInteger();
+        final AtomicInteger selectiveCalls = new AtomicInteger();
+        final List<Object> all = range(0, 100000, 1);
+        final List<Object> selective = range(0, 1500, 100);
+        final Collection<Object> results = QueryUtil.processIntersectingRetrievals(Arrays.asList(
+            retrieval(all, allCalls), retrieval(selective, selectiveCalls)), 10);
+        assertEquals(new HashSet<>(selective), new HashSet<>(results));
+        // The selective retrieval is complete after the first round and is not invoked again
+        assertEquals(1, selectiveCalls.get());
+        assertEquals(3, allCalls.get());
+    }
+
+    @Test
+    void testIntersectingRetrievalsConcurrently() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final AtomicInteger calls = new AtomicInteger();
+            final List<QueryUtil.IndexCall<Object>> retrievals = new ArrayList<>();
+            for (int i = 2; i <= 5; i++) retrievals.add(retrieval(range(0, 10000, i), calls));
+            final Collection<Object> results = QueryUtil.processIntersectingRetrievals(retrievals, Integer.MAX_VALUE, executor);
+            assertEquals(new HashSet<>(range(0, 10000, 60)), new HashSet<>(results));
+            assertEquals(4, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSortedLongArraySetIntersection() {
+        final SortedLongArraySet small = SortedLongArraySet.of(Arrays.asList(7L, 3L, 3L, 99999L, 500L));
+        assertEquals(4, small.size());
+        assertEquals(Arrays.asList(3L, 7L, 500L, 99999L), new ArrayList<>(small));
+        final SortedLongArraySet large = SortedLongArraySet.of(range(0, 100000, 1));
+        final SortedLongArraySet odd = SortedLongArraySet.of(range(1, 100000, 1).stream()
+            .filter(l -> ((Long) l) % 2 == 1).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(3L, 7L, 99999L), new ArrayList<>(SortedLongArraySet.intersect(Arrays.asList(large, odd, small))));
+        assertEquals(0, SortedLongArraySet.intersect(Arrays.asList(small, SortedLongArraySet.of(Collections.emptyList()))).size());
+    }
 }
@@ -0,0 +1,192 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.query.index;
+
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.core.schema.SchemaAction;
+import org.janusgraph.core.schema.SchemaStatus;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.CommonsConfiguration;
+import org.janusgraph.diskstorage.inmemory.InMemoryStoreManager;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.database.management.ManagementSystem;
+import org.janusgraph.graphdb.query.profile.QueryProfiler;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.graphdb.types.IndexType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CostBasedIndexSelectionStrategyTest {
+
+    private static final int NUM_VERTICES = 200;
+
+    private JanusGraph graph;
+
+    @AfterEach
+    public void shutdown() {
+        if (graph != null && graph.isOpen()) graph.close();
+    }
+
+    private StandardJanusGraph open(String strategy, long minCount) {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.STORAGE_BACKEND, InMemoryStoreManager.class.getCanonicalName());
+        config.set(GraphDatabaseConfiguration.INDEX_SELECT_STRATEGY, strategy);
+        config.set(CostBasedIndexSelectionStrategy.INDEX_STATISTICS_MIN_COUNT, minCount);
+        graph = JanusGraphFactory.open(config);
+
+        JanusGraphManagement mgmt = graph.openManagement();
+        PropertyKey name = mgmt.makePropertyKey("name").dataType(String.class).make();
+        PropertyKey gender = mgmt.makePropertyKey("gender").dataType(String.class).make();
+        mgmt.buildIndex("byName", Vertex.class).addKey(name).buildCompositeIndex();
+        mgmt.buildIndex("byGender", Vertex.class).addKey(gender).buildCompositeIndex();
+        mgmt.commit();
+
+        JanusGraphTransaction tx = graph.newTransaction();
+        for (int i = 0; i < NUM_VERTICES; i++) {
+            tx.addVertex("name", "v" + i, "gender", i % 2 == 0 ? "f" : "m");
+        }
+        tx.commit();
+        return (StandardJanusGraph) graph;
+    }
+
+    private long backendQueries() {
+        return backendQueries("gender", "f");
+    }
+
+    private long backendQueries(String key, String value) {
+        Metrics metrics = graph.traversal().V().has(key, value).has("name", "v2").profile().next().getMetrics(0);
+        return backendQueries(metrics);
+    }
+
+    private long backendQueries(Metrics metrics) {
+        if (metrics.getName().equals(QueryProfiler.BACKEND_QUERY)) return 1;
+        long sum = 0;
+        for (Metrics nested : metrics.getNested()) {
+            sum += backendQueries(nested);
+        }
+        return sum;
+    }
+
+    private IndexType index(String name) {
+        StandardJanusGraphTx tx = (StandardJanusGraphTx) graph.newTransaction();
+        try {
+            return ManagementSystem.getGraphIndexDirect(name, tx);
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    @Test
+    public void testSkipsUnselectiveIndex() {
+        StandardJanusGraph graph = open(CostBasedIndexSelectionStrategy.NAME, 10);
+        IndexStatistics statistics = graph.getIndexStatistics();
+        assertNotNull(statistics);
+        assertEquals(NUM_VERTICES, statistics.getElementCount(index("byGender")));
+
+        assertEquals(1, backendQueries());
+        assertEquals(1, graph.traversal().V().has("gender", "f").has("name", "v2").count().next().longValue());
+        assertEquals(0, graph.traversal().V().has("gender", "m").has("name", "v2").count().next().longValue());
+    }
+
+    @Test
+    public void testFallsBackWithoutStatistics() {
+        open(CostBasedIndexSelectionStrategy.NAME, NUM_VERTICES * 10);
+        assertEquals(2, backendQueries());
+    }
+
+    @Test
+    public void testReindexBackfillsStatistics() throws Exception {
+        StandardJanusGraph graph = open(CostBasedIndexSelectionStrategy.NAME, 10);
+        JanusGraphManagement mgmt = graph.openManagement();
+        mgmt.makePropertyKey("city").dataType(String.class).make();
+        mgmt.commit();
+        JanusGraphTransaction tx = graph.newTransaction();
+        tx.traversal().V().forEachRemaining(v -> v.property("city", "c"));
+        tx.commit();
+
+        //The index is created on existing data, so its statistics are incomplete until it has been reindexed
+        mgmt = graph.openManagement();
+        mgmt.buildIndex("byCity", Vertex.class).addKey(mgmt.getPropertyKey("city")).buildCompositeIndex();
+        mgmt.commit();
+        ManagementSystem.awaitGraphIndexStatus(graph, "byCity").status(SchemaStatus.REGISTERED).call();
+        assertEquals(0, graph.getIndexStatistics().getElementCount(index("byCity")));
+
+        mgmt = graph.openManagement();
+        mgmt.updateIndex(mgmt.getGraphIndex("byCity"), SchemaAction.REINDEX).get();
+        mgmt.commit();
+        assertEquals(NUM_VERTICES, graph.getIndexStatistics().getElementCount(index("byCity")));
+        assertEquals(1, backendQueries("city", "c"));
+
+        //The rebuilt statistics replace the stored ones
+        mgmt = graph.openManagement();
+        ((ManagementSystem) mgmt).persistIndexStatistics();
+        mgmt.rollback();
+        IndexStatistics loaded = new IndexStatistics(10);
+        loaded.load(graph.getBackend().getIndexStatistics().asReadConfiguration());
+        assertEquals(NUM_VERTICES, loaded.getElementCount(index("byCity")));
+    }
+
+    @Test
+    public void testOtherStrategiesHaveNoStatistics() {
+        StandardJanusGraph graph = open(ThresholdBasedIndexSelectionStrategy.NAME, 10);
+        assertNull(graph.getIndexStatistics());
+        assertEquals(2, backendQueries());
+    }
+
+    @Test
+    public void testPersistStatistics() {
+        StandardJanusGraph graph = open(CostBasedIndexSelectionStrategy.NAME, 10);
+        ManagementSystem mgmt = (ManagementSystem) graph.openManagement();
+        mgmt.persistIndexStatistics();
+        mgmt.rollback();
+
+        IndexStatistics loaded = new IndexStatistics(10);
+        assertEquals(0, loaded.getElementCount(index("byName")));
+        loaded.load(graph.getBackend().getIndexStatistics().asReadConfiguration());
+        assertEquals(NUM_VERTICES, loaded.getElementCount(index("byName")));
+    }
+
+    @Test
+    public void testPersistMergesStatistics() {
+        WriteConfiguration stored = new CommonsConfiguration();
+        StandardJanusGraph first = open(CostBasedIndexSelectionStrategy.NAME, 10);
+        first.getIndexStatistics().persist(stored);
+        first.close();
+
+        //Statistics of another instance are merged into the stored ones instead of replacing them
+        StandardJanusGraph second = open(CostBasedIndexSelectionStrategy.NAME, 10);
+        second.getIndexStatistics().persist(stored);
+        assertEquals(2 * NUM_VERTICES, second.getIndexStatistics().getElementCount(index("byName")));
+        //Updates are only merged once
+        second.getIndexStatistics().persist(stored);
+
+        IndexStatistics loaded = new IndexStatistics(10);
+        loaded.load(stored);
+        assertEquals(2 * NUM_VERTICES, loaded.getElementCount(index("byName")));
+    }
+
+}
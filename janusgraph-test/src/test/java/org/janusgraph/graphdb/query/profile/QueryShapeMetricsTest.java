@@ -0,0 +1,209 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.query.profile;
+
+import com.codahale.metrics.Histogram;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.database.idhandling.IDHandler;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+import org.janusgraph.graphdb.internal.RelationCategory;
+import org.janusgraph.graphdb.query.graph.JointIndexQuery;
+import org.janusgraph.graphdb.types.IndexType;
+import org.janusgraph.util.stats.MetricManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QueryShapeMetricsTest {
+
+    private final String prefix = "shapes" + UUID.randomUUID().toString().replace("-", "");
+
+    private JanusGraph graph;
+
+    @AfterEach
+    public void shutdown() {
+        if (graph != null && graph.isOpen()) graph.close();
+        MetricManager.INSTANCE.getRegistry().removeMatching((name, metric) -> name.startsWith(prefix));
+    }
+
+    private JanusGraph open(boolean queryShapes) {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.STORAGE_BACKEND, InMemoryStoreManager.class.getCanonicalName());
+        config.set(GraphDatabaseConfiguration.METRICS_PREFIX, prefix);
+        config.set(GraphDatabaseConfiguration.METRICS_QUERY_SHAPES, queryShapes);
+        config.set(GraphDatabaseConfiguration.METRICS_SLOW_QUERY_THRESHOLD, Duration.ofNanos(1));
+        graph = JanusGraphFactory.open(config);
+        return graph;
+    }
+
+    private SortedMap<String, Histogram> histograms(String kind) {
+        return MetricManager.INSTANCE.getRegistry().getHistograms(
+            (name, metric) -> name.startsWith(prefix + "." + QueryShapeMetrics.QUERY_SHAPES + "." + kind + "."));
+    }
+
+    private long count(String kind, String shapePrefix) {
+        long count = 0;
+        for (Map.Entry<String, Histogram> entry : histograms(kind).entrySet()) {
+            if (entry.getKey().startsWith(shapePrefix)) count += entry.getValue().getCount();
+        }
+        return count;
+    }
+
+    @Test
+    public void testEdgeStoreShapes() {
+        open(true);
+        JanusGraphManagement mgmt = graph.openManagement();
+        long knowsId = mgmt.makeEdgeLabel("knows").make().longId();
+        mgmt.commit();
+
+        JanusGraphTransaction tx = graph.newTransaction();
+        JanusGraphVertex v = tx.addVertex();
+        for (int i = 0; i < 5; i++) v.addEdge("knows", tx.addVertex());
+        tx.commit();
+
+        tx = graph.newTransaction();
+        assertEquals(5, tx.traversal().V(v).outE("knows").count().next().longValue());
+        tx.rollback();
+
+        String shape = prefix + ".query-shapes.edgestore.type-" + knowsId + ".out.";
+        assertTrue(count(QueryShapeMetrics.EDGESTORE, shape + "unlimited") >= 1,
+            histograms(QueryShapeMetrics.EDGESTORE).keySet().toString());
+    }
+
+    @Test
+    public void testIndexShapes() {
+        open(true);
+        JanusGraphManagement mgmt = graph.openManagement();
+        PropertyKey name = mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.buildIndex("byName", Vertex.class).addKey(name).buildCompositeIndex();
+        mgmt.commit();
+
+        JanusGraphTransaction tx = graph.newTransaction();
+        tx.addVertex("name", "alice");
+        tx.addVertex("name", "bob");
+        tx.commit();
+
+        tx = graph.newTransaction();
+        assertEquals(1, tx.traversal().V().has("name", "alice").count().next().longValue());
+        tx.rollback();
+
+        assertTrue(count(QueryShapeMetrics.INDEX, prefix + ".query-shapes.index.byName.composite.") >= 1,
+            histograms(QueryShapeMetrics.INDEX).keySet().toString());
+    }
+
+    @Test
+    public void testDisabled() {
+        open(false);
+        assertNull(((StandardJanusGraph) graph).getQueryShapeMetrics());
+        JanusGraphTransaction tx = graph.newTransaction();
+        tx.addVertex().property("name", "alice");
+        tx.commit();
+        tx = graph.newTransaction();
+        assertEquals(1, tx.traversal().V().has("name", "alice").count().next().longValue());
+        tx.rollback();
+        assertTrue(histograms(QueryShapeMetrics.EDGESTORE).isEmpty());
+        assertTrue(histograms(QueryShapeMetrics.INDEX).isEmpty());
+    }
+
+    @Test
+    public void testShapeNamesAndOverflow() {
+        QueryShapeMetrics metrics = new QueryShapeMetrics(prefix, 1, Duration.ZERO, 1.0);
+        long labelId = IDManager.getSchemaId(IDManager.VertexIDType.UserEdgeLabel, 42);
+        SliceQuery out = new SliceQuery(IDHandler.getRelationType(labelId, IDHandler.DirectionID.EDGE_OUT_DIR, false),
+            BufferUtil.oneBuffer(1)).setLimit(7);
+        SliceQuery in = new SliceQuery(IDHandler.getRelationType(labelId, IDHandler.DirectionID.EDGE_IN_DIR, false),
+            BufferUtil.oneBuffer(1));
+        StaticBuffer[] edgeBounds = IDHandler.getBounds(RelationCategory.EDGE, false);
+        SliceQuery allEdges = new SliceQuery(edgeBounds[0], edgeBounds[1]);
+
+        assertEquals(prefix + ".query-shapes.edgestore.type-" + labelId + ".out.limit-10", metrics.getMetricName(out));
+        assertEquals(prefix + ".query-shapes.edgestore.type-" + labelId + ".in.unlimited", metrics.getMetricName(in));
+        assertEquals(prefix + ".query-shapes.edgestore.range.unknown.unlimited", metrics.getMetricName(allEdges));
+
+        long start = System.nanoTime();
+        metrics.recordSlice(out, 1, start);
+        metrics.recordSlice(out, 1, start);
+        metrics.recordSlice(in, 3, start);
+        metrics.recordSlice(allEdges, 1, start);
+
+        SortedMap<String, Histogram> histograms = histograms(QueryShapeMetrics.EDGESTORE);
+        assertEquals(2, histograms.get(metrics.getMetricName(out)).getCount());
+        assertEquals(2, histograms.get(prefix + ".query-shapes.edgestore.other").getCount());
+        assertFalse(histograms.containsKey(metrics.getMetricName(in)));
+    }
+
+    @Test
+    public void testLazyIndexResultsAreRecordedWhenConsumed() {
+        QueryShapeMetrics metrics = new QueryShapeMetrics(prefix, 10, Duration.ZERO, 1.0);
+        IndexType index = mock(IndexType.class);
+        when(index.getName()).thenReturn("byText");
+        JointIndexQuery.Subquery query = mock(JointIndexQuery.Subquery.class);
+        when(query.getIndex()).thenReturn(index);
+        String name = prefix + ".query-shapes.index.byText.mixed.unlimited";
+
+        Stream<Integer> results = metrics.recordIndex(query, System.nanoTime(), Stream.of(1, 2, 3));
+        assertFalse(histograms(QueryShapeMetrics.INDEX).containsKey(name));
+        assertEquals(6, results.mapToInt(Integer::intValue).sum());
+        assertEquals(1, histograms(QueryShapeMetrics.INDEX).get(name).getCount());
+        results.close();
+        assertEquals(1, histograms(QueryShapeMetrics.INDEX).get(name).getCount());
+
+        //A partially consumed stream is recorded when it is closed
+        try (Stream<Integer> partial = metrics.recordIndex(query, System.nanoTime(), Stream.of(1, 2, 3))) {
+            assertEquals(1, partial.findFirst().get().intValue());
+            assertEquals(1, histograms(QueryShapeMetrics.INDEX).get(name).getCount());
+        }
+        assertEquals(2, histograms(QueryShapeMetrics.INDEX).get(name).getCount());
+    }
+
+    @Test
+    public void testCurrentStep() {
+        Object outer = new Object();
+        Object inner = new Object();
+        assertNull(QueryShapeMetrics.setCurrentStep(outer));
+        assertSame(outer, QueryShapeMetrics.setCurrentStep(inner));
+        assertSame(inner, QueryShapeMetrics.getCurrentStep());
+        assertSame(inner, QueryShapeMetrics.setCurrentStep(outer));
+        assertSame(outer, QueryShapeMetrics.setCurrentStep(null));
+        assertNull(QueryShapeMetrics.getCurrentStep());
+    }
+
+}
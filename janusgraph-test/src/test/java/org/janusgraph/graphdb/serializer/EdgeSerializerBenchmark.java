@@ -0,0 +1,120 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.serializer;
+
+import org.janusgraph.JanusGraphBenchmarkRunner;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraphEdge;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.database.EdgeSerializer;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.relations.RelationCache;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization of relations into entries of the edge store and their deserialization.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EdgeSerializerBenchmark {
+
+    @Param({"0", "4"})
+    int numProperties;
+
+    StandardJanusGraph graph;
+    StandardJanusGraphTx tx;
+    EdgeSerializer edgeSerializer;
+    InternalRelation relation;
+    Entry entry;
+
+    @Setup
+    public void setUp() {
+        graph = (StandardJanusGraph) StorageSetup.getInMemoryGraph();
+        JanusGraphManagement management = graph.openManagement();
+        management.makeEdgeLabel("knows").make();
+        for (int i = 0; i < numProperties; i++) management.makePropertyKey("key" + i).dataType(Integer.class).make();
+        management.commit();
+
+        JanusGraphVertex v1 = graph.addVertex(), v2 = graph.addVertex();
+        JanusGraphEdge edge = v1.addEdge("knows", v2);
+        for (int i = 0; i < numProperties; i++) edge.property("key" + i, i);
+        graph.tx().commit();
+
+        tx = (StandardJanusGraphTx) graph.newTransaction();
+        edgeSerializer = graph.getEdgeSerializer();
+        relation = (InternalRelation) tx.traversal().V(v1.id()).outE("knows").next();
+        entry = edgeSerializer.writeRelation(relation, 0, tx);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    @Benchmark
+    public Entry writeRelation() {
+        return edgeSerializer.writeRelation(relation, 0, tx);
+    }
+
+    @Benchmark
+    public RelationCache parseRelation() {
+        return edgeSerializer.parseRelation(entry, false, tx);
+    }
+
+    @Benchmark
+    public RelationCache parseRelationHeaderOnly() {
+        return edgeSerializer.parseRelation(entry, true, tx);
+    }
+
+    @Benchmark
+    public long readOtherVertexId() {
+        return edgeSerializer.readOtherVertexId(entry, tx);
+    }
+
+    @Benchmark
+    public RelationCache parseHeaderThenProperties() {
+        final Entry copy = StaticArrayEntry.of(entry.getColumn(), entry.getValue());
+        edgeSerializer.readRelation(copy, true, tx);
+        return edgeSerializer.readRelation(copy, false, tx);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        JanusGraphBenchmarkRunner.run(EdgeSerializerBenchmark.class);
+    }
+}
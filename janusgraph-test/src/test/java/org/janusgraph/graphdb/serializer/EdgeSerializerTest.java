@@ -14,14 +14,34 @@
 
 package org.janusgraph.graphdb.serializer;
 
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.janusgraph.StorageSetup;
+import org.janusgraph.core.Cardinality;
+import org.janusgraph.core.JanusGraphRelation;
 import org.janusgraph.core.Multiplicity;
 import org.janusgraph.core.JanusGraphEdge;
 import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.database.EdgeSerializer;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.internal.Order;
+import org.janusgraph.graphdb.relations.RelationCache;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.graphdb.types.StandardEdgeLabelMaker;
 import org.junit.jupiter.api.Test;
 
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -46,4 +66,59 @@ public class EdgeSerializerTest {
 
     }
 
+    @Test
+    public void testLazyRelationDecoding() {
+        StandardJanusGraph graph = (StandardJanusGraph) StorageSetup.getInMemoryGraph();
+        JanusGraphManagement management = graph.openManagement();
+        PropertyKey time = management.makePropertyKey("time").dataType(Integer.class).make();
+        PropertyKey weight = management.makePropertyKey("weight").dataType(Double.class).make();
+        management.makePropertyKey("note").dataType(String.class).make();
+        ((StandardEdgeLabelMaker) management.makeEdgeLabel("knows")).sortKey(time).signature(weight).make();
+        ((StandardEdgeLabelMaker) management.makeEdgeLabel("follows")).sortKey(time).sortOrder(Order.DESC).make();
+        management.makeEdgeLabel("father").multiplicity(Multiplicity.MANY2ONE).make();
+        management.makePropertyKey("name").dataType(String.class).cardinality(Cardinality.LIST).make();
+        management.commit();
+
+        JanusGraphVertex v1 = graph.addVertex(), v2 = graph.addVertex();
+        for (String label : new String[]{"knows", "follows", "father"}) {
+            JanusGraphEdge edge = v1.addEdge(label, v2);
+            edge.property("time", 5);
+            edge.property("weight", 0.5);
+            edge.property("note", label);
+        }
+        v1.property("name", "v1", "time", 7, "note", "name");
+        graph.tx().commit();
+
+        StandardJanusGraphTx tx = (StandardJanusGraphTx) graph.newTransaction();
+        EdgeSerializer serializer = graph.getEdgeSerializer();
+        int numRelations = 0;
+        for (Vertex vertex : new Vertex[]{v1, v2}) {
+            Iterator<JanusGraphRelation> relations = ((JanusGraphVertex) tx.traversal().V(vertex.id()).next()).query().relations().iterator();
+            while (relations.hasNext()) {
+                InternalRelation relation = (InternalRelation) relations.next();
+                if (relation.isInvisible() || !relation.getType().name().matches("knows|follows|father|name")) continue;
+                Entry entry = serializer.writeRelation(relation, relation.isProperty() ? 0 : relation.getVertex(0).equals(vertex) ? 0 : 1, tx);
+                RelationCache full = serializer.parseRelation(entry, false, tx);
+
+                Entry lazy = StaticArrayEntry.of(entry.getColumn(), entry.getValue());
+                RelationCache header = serializer.readRelation(lazy, true, tx);
+                assertFalse(header.hasDecodedProperties());
+                if (relation.isEdge()) assertEquals(full.getOtherVertexId().longValue(), serializer.readOtherVertexId(lazy, tx));
+                assertSame(header, serializer.readRelation(lazy, false, tx));
+                assertTrue(header.hasDecodedProperties());
+                assertEquals(full.relationId, header.relationId);
+                assertEquals(full.getValue(), header.getValue());
+                assertEquals(full.numProperties(), header.numProperties());
+                assertTrue(full.numProperties() >= 2);
+                for (LongObjectCursor<Object> property : full) {
+                    assertEquals(property.value, header.get(property.key));
+                }
+                numRelations++;
+            }
+        }
+        assertEquals(7, numRelations);
+        tx.rollback();
+        graph.close();
+    }
+
 }
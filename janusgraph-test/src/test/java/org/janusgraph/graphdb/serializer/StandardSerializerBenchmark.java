@@ -0,0 +1,101 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.serializer;
+
+import org.janusgraph.JanusGraphBenchmarkRunner;
+import org.janusgraph.core.attribute.Geoshape;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.graphdb.database.serialize.DataOutput;
+import org.janusgraph.graphdb.database.serialize.StandardSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures round-trips of attribute values through the {@link StandardSerializer}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StandardSerializerBenchmark {
+
+    @Param({"Long", "Double", "String", "Date", "UUID", "Geoshape"})
+    String type;
+
+    StandardSerializer serializer;
+    Object value;
+    Class<?> valueClass;
+    StaticBuffer serialized;
+
+    @Setup
+    public void setUp() {
+        serializer = new StandardSerializer();
+        switch (type) {
+            case "Long": value = 1234567890123L; break;
+            case "Double": value = 3.14159265; break;
+            case "String": value = "The quick brown fox jumps over the lazy dog"; break;
+            case "Date": value = new Date(1234567890123L); break;
+            case "UUID": value = UUID.fromString("5d3b6a1e-1c2f-4b8a-9f4e-0a1b2c3d4e5f"); break;
+            case "Geoshape": value = Geoshape.point(37.7749, -122.4194); break;
+            default: throw new IllegalArgumentException("Unknown type: " + type);
+        }
+        valueClass = value.getClass();
+        serialized = write();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        serializer.close();
+    }
+
+    @Benchmark
+    public StaticBuffer write() {
+        DataOutput out = serializer.getDataOutput(64);
+        out.writeObjectNotNull(value);
+        return out.getStaticBuffer();
+    }
+
+    @Benchmark
+    public Object read() {
+        return serializer.readObjectNotNull(serialized.asReadBuffer(), valueClass);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return serializer.readObjectNotNull(write().asReadBuffer(), valueClass);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        JanusGraphBenchmarkRunner.run(StandardSerializerBenchmark.class);
+    }
+}
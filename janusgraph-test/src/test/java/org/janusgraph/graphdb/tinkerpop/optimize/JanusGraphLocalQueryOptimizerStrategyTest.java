@@ -21,6 +21,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.*;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.janusgraph.diskstorage.configuration.ConfigElement;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.graphdb.JanusGraphBaseTest;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
@@ -37,6 +39,8 @@ import static org.apache.tinkerpop.gremlin.process.traversal.Order.desc;
 import static org.janusgraph.graphdb.JanusGraphBaseTest.option;
 import static org.janusgraph.graphdb.JanusGraphBaseTest.validateConfigOptions;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BATCH_PROPERTY_PREFETCHING;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.MULTIQUERY_BATCH_SIZE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.MULTIQUERY_PIPELINING;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.USE_MULTIQUERY;
 import static org.janusgraph.testutil.JanusGraphAssert.assertCount;
 import static org.janusgraph.testutil.JanusGraphAssert.assertNumStep;
@@ -123,6 +127,31 @@ public class JanusGraphLocalQueryOptimizerStrategyTest extends OptimizerStrategy
         assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
     }
 
+    @Test
+    public void testMultiQueryBatchOptionsPerTraversal() {
+        clopen(option(USE_MULTIQUERY), true, option(MULTIQUERY_BATCH_SIZE), 10);
+        makeSampleGraph();
+
+        JanusGraphVertexStep step = getVertexStep(g.V(sv[0]).out("knows"));
+        assertEquals(10, step.getBatchSize());
+        assertFalse(step.isBatchPipelining());
+
+        //Options set for a traversal take precedence over the graph configuration
+        GraphTraversal traversal = g.with(ConfigElement.getPath(MULTIQUERY_BATCH_SIZE), 3)
+            .with(ConfigElement.getPath(MULTIQUERY_PIPELINING), true).V(sv[0]).out("knows");
+        step = getVertexStep(traversal);
+        assertEquals(3, step.getBatchSize());
+        assertTrue(step.isBatchPipelining());
+        assertCount(numV, g.with(ConfigElement.getPath(MULTIQUERY_BATCH_SIZE), 3).V(sv[0]).out("knows"));
+
+        assertThrows(IllegalArgumentException.class, () -> getVertexStep(g.with(ConfigElement.getPath(MULTIQUERY_BATCH_SIZE), 0).V(sv[0]).out("knows")));
+    }
+
+    private static JanusGraphVertexStep getVertexStep(GraphTraversal traversal) {
+        traversal.asAdmin().applyStrategies();
+        return TraversalHelper.getFirstStepOfAssignableClass(JanusGraphVertexStep.class, traversal.asAdmin()).get();
+    }
+
     @Test
     public void testMultiQuery() {
         clopen(option(USE_MULTIQUERY), true);
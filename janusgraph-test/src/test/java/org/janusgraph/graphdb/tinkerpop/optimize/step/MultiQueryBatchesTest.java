@@ -0,0 +1,93 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.tinkerpop.optimize.step;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class MultiQueryBatchesTest {
+
+    private static List<Vertex> vertices(int count) {
+        final List<Vertex> vertices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) vertices.add(mock(Vertex.class));
+        return vertices;
+    }
+
+    @Test
+    public void testBatchesWithoutPipelining() {
+        final List<Vertex> vertices = vertices(5);
+        final List<Vertex> withDuplicates = new ArrayList<>(vertices);
+        withDuplicates.add(vertices.get(0));
+        final MultiQueryBatches batches = new MultiQueryBatches(withDuplicates, 2, null);
+
+        assertEquals(vertices.subList(0, 2), batches.next());
+        assertFalse(batches.isPending(vertices.get(1)));
+        assertTrue(batches.isPending(vertices.get(2)));
+        assertEquals(vertices.subList(2, 4), batches.next());
+        assertEquals(vertices.subList(4, 5), batches.next());
+        assertFalse(batches.hasNext());
+    }
+
+    @Test
+    public void testNextBatchIsFetchedWhileCurrentBatchIsProcessed() throws Exception {
+        final List<Vertex> vertices = vertices(7);
+        final List<List<Vertex>> requested = new ArrayList<>();
+        final List<CompletableFuture<Runnable>> fetches = new ArrayList<>();
+        final MultiQueryBatches batches = new MultiQueryBatches(vertices, 3, batch -> {
+            requested.add(batch);
+            final CompletableFuture<Runnable> fetch = new CompletableFuture<>();
+            fetches.add(fetch);
+            return fetch;
+        });
+        final Thread caller = Thread.currentThread();
+        final List<Thread> loadingThreads = new ArrayList<>();
+        final ExecutorService backend = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(vertices.subList(0, 3), batches.next());
+            //The second batch is requested before the first one is processed
+            assertEquals(Arrays.asList(vertices.subList(3, 6)), requested);
+
+            //The storage backend completes the fetch on its own thread, but the relations are not loaded yet
+            backend.submit(() -> fetches.get(0).complete(() -> loadingThreads.add(Thread.currentThread()))).get();
+            assertTrue(loadingThreads.isEmpty());
+
+            //Handing out the second batch loads its relations on the calling thread and requests the third batch
+            assertEquals(vertices.subList(3, 6), batches.next());
+            assertEquals(Arrays.asList(caller), loadingThreads);
+            assertEquals(Arrays.asList(vertices.subList(3, 6), vertices.subList(6, 7)), requested);
+
+            //A failed prefetch does not fail the traversal, the batch is fetched synchronously instead
+            backend.submit(() -> fetches.get(1).completeExceptionally(new IllegalStateException("backend failure"))).get();
+            assertEquals(vertices.subList(6, 7), batches.next());
+            assertFalse(batches.hasNext());
+            assertEquals(2, requested.size());
+        } finally {
+            backend.shutdown();
+        }
+    }
+
+}
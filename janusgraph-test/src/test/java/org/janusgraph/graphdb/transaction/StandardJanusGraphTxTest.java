@@ -77,6 +77,7 @@ public class StandardJanusGraphTxTest extends EasyMockSupport {
         expect(mockGraph.getIndexSelector()).andReturn(indexSelectionStrategy);
 
         expect(gdbConfig.getTimestampProvider()).andReturn(tsProvider);
+        expect(gdbConfig.getTxVertexCacheImplementation()).andReturn(GraphDatabaseConfiguration.TX_CACHE_GUAVA);
 
         expect(txConfig.isSingleThreaded()).andReturn(true);
         expect(txConfig.hasPreloadedData()).andReturn(false);
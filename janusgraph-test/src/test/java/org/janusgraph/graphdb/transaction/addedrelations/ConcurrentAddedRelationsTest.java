@@ -0,0 +1,130 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.addedrelations;
+
+import com.google.common.collect.Iterables;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ConcurrentAddedRelationsTest {
+
+    private static List<InternalRelation> getRelations(int number) {
+        final List<InternalRelation> relations = new ArrayList<>(number);
+        for (int i = 0; i < number; i++) relations.add(mock(InternalRelation.class));
+        return relations;
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        final ConcurrentAddedRelations container = new ConcurrentAddedRelations(8);
+        assertTrue(container.isEmpty());
+        final List<InternalRelation> relations = getRelations(100);
+        relations.forEach(container::add);
+        container.add(relations.get(0));
+        assertFalse(container.isEmpty());
+        assertEquals(100, container.getAll().size());
+        assertEquals(new HashSet<>(relations), new HashSet<>(container.getAll()));
+
+        final InternalRelation first = relations.get(0);
+        assertEquals(1, Iterables.size(container.getView(relation -> relation == first)));
+        relations.forEach(container::remove);
+        container.remove(first);
+        assertTrue(container.isEmpty());
+        assertTrue(container.getAll().isEmpty());
+    }
+
+    @Test
+    public void testViewsAreSnapshots() {
+        final ConcurrentAddedRelations container = new ConcurrentAddedRelations();
+        final List<InternalRelation> relations = getRelations(10);
+        relations.forEach(container::add);
+        final Iterable<InternalRelation> view = container.getView(relation -> true);
+        int count = 0;
+        for (InternalRelation relation : view) {
+            //Modifications while iterating neither fail nor change the view
+            container.remove(relation);
+            container.add(mock(InternalRelation.class));
+            count++;
+        }
+        assertEquals(10, count);
+        assertEquals(10, container.getAll().size());
+    }
+
+    @Test
+    public void testConcurrentModifications() {
+        final ConcurrentAddedRelations container = new ConcurrentAddedRelations(4);
+        final int numThreads = 8, numRelations = 1000;
+        final CompletableFuture<?>[] threads = new CompletableFuture[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            threads[t] = CompletableFuture.runAsync(() -> {
+                final List<InternalRelation> relations = getRelations(numRelations);
+                for (int i = 0; i < numRelations; i++) {
+                    container.add(relations.get(i));
+                    if (i % 2 == 1) container.remove(relations.get(i - 1));
+                    Iterables.size(container.getView(relation -> true));
+                }
+            });
+        }
+        CompletableFuture.allOf(threads).join();
+        assertEquals(numThreads * numRelations / 2, container.getAll().size());
+    }
+
+    @Test
+    public void testThreadedTransaction() {
+        final JanusGraph graph = JanusGraphFactory.open(StorageSetup.getInMemoryConfiguration());
+        try {
+            //Define the schema upfront since concurrent automatic schema creation would violate uniqueness constraints
+            final JanusGraphManagement management = graph.openManagement();
+            management.makePropertyKey("number").dataType(Integer.class).make();
+            management.makeEdgeLabel("child").make();
+            management.commit();
+            final JanusGraphTransaction tx = graph.tx().createThreadedTx();
+            final Vertex root = tx.addVertex();
+            final int numThreads = 4, numVertices = 100;
+            final CompletableFuture<?>[] threads = new CompletableFuture[numThreads];
+            for (int t = 0; t < numThreads; t++) {
+                threads[t] = CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < numVertices; i++) {
+                        final Vertex v = tx.addVertex();
+                        v.property("number", i);
+                        root.addEdge("child", v);
+                    }
+                });
+            }
+            CompletableFuture.allOf(threads).join();
+            tx.commit();
+            assertEquals(numThreads * numVertices, (long) graph.traversal().V(root.id()).out("child").count().next());
+            assertEquals(numThreads * numVertices + 1, (long) graph.traversal().V().count().next());
+        } finally {
+            graph.close();
+        }
+    }
+}
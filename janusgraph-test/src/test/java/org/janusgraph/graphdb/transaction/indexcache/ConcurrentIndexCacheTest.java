@@ -0,0 +1,78 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.indexcache;
+
+import com.google.common.collect.Iterables;
+import org.janusgraph.core.JanusGraphVertexProperty;
+import org.janusgraph.core.PropertyKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConcurrentIndexCacheTest {
+
+    private static JanusGraphVertexProperty getProperty(PropertyKey key, Object value) {
+        final JanusGraphVertexProperty property = mock(JanusGraphVertexProperty.class);
+        when(property.propertyKey()).thenReturn(key);
+        when(property.value()).thenReturn(value);
+        return property;
+    }
+
+    @Test
+    public void testAddGetRemove() {
+        final ConcurrentIndexCache cache = new ConcurrentIndexCache();
+        final PropertyKey name = mock(PropertyKey.class), alias = mock(PropertyKey.class);
+        final JanusGraphVertexProperty p1 = getProperty(name, "a"), p2 = getProperty(alias, "a"), p3 = getProperty(name, "b");
+        cache.add(p1);
+        cache.add(p2);
+        cache.add(p3);
+        assertSame(p1, Iterables.getOnlyElement(cache.get("a", name)));
+        assertSame(p2, Iterables.getOnlyElement(cache.get("a", alias)));
+        assertSame(p3, Iterables.getOnlyElement(cache.get("b", name)));
+        cache.remove(p1);
+        assertTrue(Iterables.isEmpty(cache.get("a", name)));
+        assertSame(p2, Iterables.getOnlyElement(cache.get("a", alias)));
+        cache.close();
+        assertTrue(Iterables.isEmpty(cache.get("a", alias)));
+    }
+
+    @Test
+    public void testConcurrentModifications() {
+        final ConcurrentIndexCache cache = new ConcurrentIndexCache();
+        final PropertyKey key = mock(PropertyKey.class);
+        final int numThreads = 8, numProperties = 500;
+        final CompletableFuture<?>[] threads = new CompletableFuture[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            threads[t] = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < numProperties; i++) {
+                    //All threads write the same few values to provoke races between adding and removing
+                    final JanusGraphVertexProperty property = getProperty(key, i % 5);
+                    cache.add(property);
+                    if (i % 2 == 0) cache.remove(property);
+                }
+            });
+        }
+        CompletableFuture.allOf(threads).join();
+        int count = 0;
+        for (int value = 0; value < 5; value++) count += Iterables.size(cache.get(value, key));
+        assertEquals(numThreads * numProperties / 2, count);
+    }
+}
@@ -0,0 +1,140 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.vertexcache;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.util.datastructures.Retriever;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TX_CACHE_IMPLEMENTATION;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TX_CACHE_PRIMITIVE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TX_CACHE_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PrimitiveVertexCacheTest {
+
+    private final Map<Long, InternalVertex> vertices = new HashMap<>();
+    private final AtomicInteger retrievals = new AtomicInteger();
+    private final Retriever<Long, InternalVertex> retriever = id -> {
+        retrievals.incrementAndGet();
+        return vertices.computeIfAbsent(id, k -> mock(InternalVertex.class));
+    };
+
+    private static InternalVertex getNewVertex() {
+        final InternalVertex vertex = mock(InternalVertex.class);
+        when(vertex.isNew()).thenReturn(true);
+        return vertex;
+    }
+
+    @Test
+    public void testGetAndEviction() {
+        final PrimitiveVertexCache cache = new PrimitiveVertexCache(3, 4);
+        final InternalVertex v1 = cache.get(1, retriever);
+        assertSame(v1, cache.get(1, retriever));
+        assertEquals(1, retrievals.get());
+        cache.get(2, retriever);
+        cache.get(3, retriever);
+        //Vertex 1 was accessed since it was cached and gets a second chance
+        cache.get(1, retriever);
+        cache.get(4, retriever);
+        assertTrue(cache.contains(1));
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(3));
+        assertTrue(cache.contains(4));
+        cache.get(2, retriever);
+        assertEquals(5, retrievals.get());
+    }
+
+    @Test
+    public void testDirtyVerticesAreNeverEvicted() {
+        final PrimitiveVertexCache cache = new PrimitiveVertexCache(2, 4);
+        final InternalVertex modified = cache.get(100, retriever);
+        when(modified.isModified()).thenReturn(true);
+        final List<InternalVertex> newVertices = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            final InternalVertex vertex = getNewVertex();
+            newVertices.add(vertex);
+            cache.add(vertex, id);
+            //Vertices are added again whenever relations are added to them
+            cache.add(vertex, id);
+        }
+        //Dirty vertices do not take up the capacity for clean vertices, which are evicted among themselves
+        cache.get(101, retriever);
+        cache.get(102, retriever);
+        for (long id = 1; id <= 10; id++) assertTrue(cache.contains(id));
+        assertTrue(cache.contains(100));
+        assertFalse(cache.contains(101));
+        assertTrue(cache.contains(102));
+        retrievals.set(0);
+        assertSame(modified, cache.get(100, retriever));
+        assertEquals(0, retrievals.get());
+        assertEquals(newVertices, cache.getAllNew());
+
+        when(newVertices.get(0).isNew()).thenReturn(false);
+        assertEquals(newVertices.subList(1, newVertices.size()), cache.getAllNew());
+        cache.close();
+        assertFalse(cache.contains(1));
+        assertTrue(cache.getAllNew().isEmpty());
+    }
+
+    @Test
+    public void testReadOnlyCacheWithoutCapacity() {
+        final PrimitiveVertexCache cache = new PrimitiveVertexCache(0, 4);
+        final InternalVertex vertex = cache.get(1, retriever);
+        assertSame(vertex, cache.get(1, retriever));
+        assertFalse(cache.contains(1));
+        assertEquals(2, retrievals.get());
+    }
+
+    @Test
+    public void testGraphWithPrimitiveCache() {
+        final JanusGraph graph = JanusGraphFactory.open(StorageSetup.getInMemoryConfiguration()
+            .set(TX_CACHE_IMPLEMENTATION, TX_CACHE_PRIMITIVE)
+            .set(TX_CACHE_SIZE, 10));
+        try {
+            final List<Object> ids = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final Vertex v = graph.addVertex();
+                v.property("number", i);
+                ids.add(v.id());
+            }
+            graph.tx().commit();
+            for (int i = 0; i < 100; i++) {
+                graph.traversal().V(ids.get(i)).next().property("number", -i);
+            }
+            graph.tx().commit();
+            for (int i = 0; i < 100; i++) {
+                assertEquals(-i, (int) graph.traversal().V(ids.get(i)).values("number").next());
+            }
+        } finally {
+            graph.close();
+        }
+    }
+}
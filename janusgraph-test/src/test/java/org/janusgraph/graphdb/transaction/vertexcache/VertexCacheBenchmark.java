@@ -0,0 +1,124 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.vertexcache;
+
+import org.janusgraph.JanusGraphBenchmarkRunner;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.ElementLifeCycle;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.graphdb.vertices.StandardVertex;
+import org.janusgraph.util.datastructures.Retriever;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link GuavaVertexCache} with the {@link PrimitiveVertexCache} for a sequence of vertex lookups whose
+ * working set is twice as large as the cache, such that both cache hits and evictions occur.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VertexCacheBenchmark {
+
+    private static final int NUM_LOOKUPS = 100000;
+
+    @Param({GraphDatabaseConfiguration.TX_CACHE_GUAVA, GraphDatabaseConfiguration.TX_CACHE_PRIMITIVE})
+    String implementation;
+
+    @Param({"1000", "100000"})
+    int cacheSize;
+
+    StandardJanusGraph graph;
+    StandardJanusGraphTx tx;
+    InternalVertex[] vertices;
+    long[] lookups;
+    Retriever<Long, InternalVertex> retriever;
+
+    @Setup
+    public void setUp() {
+        graph = (StandardJanusGraph) StorageSetup.getInMemoryGraph();
+        tx = (StandardJanusGraphTx) graph.newTransaction();
+        final int numVertices = 2 * cacheSize;
+        vertices = new InternalVertex[numVertices + 1];
+        for (int id = 1; id <= numVertices; id++) {
+            vertices[id] = new StandardVertex(tx, id, ElementLifeCycle.Loaded);
+        }
+        //Skew the lookups towards vertices with small ids
+        final Random random = new Random(42);
+        lookups = new long[NUM_LOOKUPS];
+        for (int i = 0; i < NUM_LOOKUPS; i++) {
+            lookups[i] = 1 + (long) (numVertices * Math.pow(random.nextDouble(), 2));
+        }
+        retriever = id -> vertices[id.intValue()];
+    }
+
+    @TearDown
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    private VertexCache getCache() {
+        return GraphDatabaseConfiguration.TX_CACHE_PRIMITIVE.equals(implementation)
+            ? new PrimitiveVertexCache(cacheSize, 32)
+            : new GuavaVertexCache(cacheSize, 1, 32);
+    }
+
+    @Benchmark
+    public void getVertices(Blackhole blackhole) {
+        final VertexCache cache = getCache();
+        for (long id : lookups) {
+            blackhole.consume(cache.get(id, retriever));
+        }
+        cache.close();
+    }
+
+    @Benchmark
+    public void addVertices(Blackhole blackhole) {
+        final VertexCache cache = getCache();
+        for (int id = 1; id < vertices.length; id++) {
+            cache.add(vertices[id], id);
+        }
+        for (long id : lookups) {
+            blackhole.consume(cache.contains(id));
+        }
+        cache.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        JanusGraphBenchmarkRunner.run(VertexCacheBenchmark.class);
+    }
+}
@@ -0,0 +1,180 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.vertices;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SliceQueryCacheTest {
+
+    private static SliceQuery getQuery(int start, int end) {
+        return new SliceQuery(BufferUtil.getIntBuffer(start), BufferUtil.getIntBuffer(end));
+    }
+
+    private static SliceQuery getQuery(int start, int end, int limit) {
+        return getQuery(start, end).setLimit(limit);
+    }
+
+    private static EntryList getEntries(int start, int end) {
+        final List<Entry> entries = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            entries.add(StaticArrayEntry.of(BufferUtil.getIntBuffer(i), BufferUtil.getIntBuffer(i)));
+        }
+        return StaticArrayEntryList.of(entries);
+    }
+
+    private static void put(SliceQueryCache cache, SliceQuery query) {
+        cache.put(query, getEntries(query.getSliceStart().getInt(0), query.getSliceEnd().getInt(0)), 0);
+    }
+
+    private static SliceQuery getSupersetQuery(SliceQueryCache cache, SliceQuery query) {
+        final Map.Entry<SliceQuery, EntryList> superset = cache.getSuperset(query);
+        return superset == null ? null : superset.getKey();
+    }
+
+    @Test
+    public void testEmptyCache() {
+        //The range index is only allocated once the first slice is cached
+        final SliceQueryCache cache = new SliceQueryCache();
+        assertNull(cache.get(getQuery(10, 20)));
+        assertNull(getSupersetQuery(cache, getQuery(10, 20)));
+        cache.clear();
+        assertEquals(0, cache.size());
+        put(cache, getQuery(10, 20));
+        assertNotNull(getSupersetQuery(cache, getQuery(12, 18)));
+    }
+
+    @Test
+    public void testUnlimitedSupersets() {
+        final SliceQueryCache cache = new SliceQueryCache();
+        final SliceQuery q1 = getQuery(10, 20), q2 = getQuery(30, 40), q3 = getQuery(15, 35);
+        put(cache, q1);
+        put(cache, q2);
+        assertSame(q1, getSupersetQuery(cache, getQuery(12, 18)));
+        assertSame(q2, getSupersetQuery(cache, getQuery(30, 40, 5)));
+        assertNull(getSupersetQuery(cache, getQuery(15, 25)));
+        assertNull(getSupersetQuery(cache, getQuery(5, 15)));
+        put(cache, q3);
+        assertSame(q3, getSupersetQuery(cache, getQuery(15, 25)));
+        //A slice which contains all others replaces them in the index
+        final SliceQuery all = getQuery(0, 100);
+        put(cache, all);
+        assertSame(all, getSupersetQuery(cache, getQuery(12, 18)));
+        assertSame(all, getSupersetQuery(cache, getQuery(50, 60)));
+        //Exact matches are still found
+        assertSame(q1, getSupersetQuery(cache, q1));
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testLimitedSupersets() {
+        final SliceQueryCache cache = new SliceQueryCache();
+        final SliceQuery limited = getQuery(10, 50, 5);
+        put(cache, limited);
+        assertSame(limited, getSupersetQuery(cache, getQuery(10, 40, 3)));
+        //A slice with a limit cannot subsume queries with another start or a larger limit
+        assertNull(getSupersetQuery(cache, getQuery(11, 40, 3)));
+        assertNull(getSupersetQuery(cache, getQuery(10, 40, 10)));
+        assertNull(getSupersetQuery(cache, getQuery(10, 40)));
+        final SliceQuery larger = getQuery(10, 60, 10);
+        put(cache, larger);
+        assertSame(larger, getSupersetQuery(cache, getQuery(10, 40, 10)));
+        final SliceQuery unlimited = getQuery(0, 100);
+        put(cache, unlimited);
+        assertSame(unlimited, getSupersetQuery(cache, getQuery(10, 40, 3)));
+        assertSame(unlimited, getSupersetQuery(cache, getQuery(11, 40, 3)));
+    }
+
+    @Test
+    public void testReplaceAndClear() {
+        final SliceQueryCache cache = new SliceQueryCache();
+        final SliceQuery query = getQuery(0, 10);
+        put(cache, query);
+        put(cache, getQuery(2, 5));
+        final EntryList entries = getEntries(0, 5);
+        cache.put(query, entries, 0);
+        assertSame(entries, cache.get(query));
+        assertSame(query, getSupersetQuery(cache, getQuery(1, 3)));
+        assertEquals(2, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getByteSize());
+        assertNull(cache.getSuperset(getQuery(1, 3)));
+    }
+
+    @Test
+    public void testEviction() {
+        final SliceQueryCache cache = new SliceQueryCache();
+        final SliceQuery q1 = getQuery(0, 100), q2 = getQuery(10, 20), q3 = getQuery(200, 300);
+        put(cache, q1);
+        put(cache, q2);
+        put(cache, q3);
+        final long maxByteSize = cache.getByteSize() - 1;
+        cache.get(q2);
+        //The result of the subsumed query is evicted first, even though it was accessed recently...
+        cache.put(getQuery(1000, 1001), getEntries(1000, 1001), maxByteSize);
+        assertNull(cache.get(q2));
+        assertNotNull(cache.get(q1));
+        assertSame(q1, getSupersetQuery(cache, q2));
+        //...followed by the least recently used one
+        cache.get(q1);
+        final long byteSize = cache.getByteSize();
+        cache.put(getQuery(2000, 2100), getEntries(2000, 2100), byteSize);
+        assertNull(cache.get(q3));
+        assertNotNull(cache.get(q1));
+        assertTrue(cache.getByteSize() <= byteSize);
+    }
+
+    @Test
+    public void testConcurrentAccess() {
+        final SliceQueryCache cache = new SliceQueryCache();
+        final int numThreads = 4, numQueries = 500;
+        final CompletableFuture<?>[] threads = new CompletableFuture[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final int offset = t;
+            threads[t] = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < numQueries; i++) {
+                    final int start = (i * numThreads + offset) % 1000;
+                    final SliceQuery query = getQuery(start, start + 1 + i % 7);
+                    final Map.Entry<SliceQuery, EntryList> superset = cache.getSuperset(query);
+                    if (superset == null) put(cache, query);
+                    else assertTrue(superset.getKey().subsumes(query));
+                }
+            });
+        }
+        CompletableFuture.allOf(threads).join();
+        for (int start = 0; start < 1000; start++) {
+            final SliceQuery query = getQuery(start, start + 1);
+            final Map.Entry<SliceQuery, EntryList> superset = cache.getSuperset(query);
+            if (superset != null) assertTrue(superset.getKey().subsumes(query));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.util.stats;
+
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CountMinSketchTest {
+
+    private static long hash(long value) {
+        return Hashing.murmur3_128().hashLong(value).asLong();
+    }
+
+    @Test
+    public void testEstimates() throws IOException {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        sketch.add(hash(-1), 5000);
+        for (int i = 0; i < 10000; i++) sketch.add(hash(i), 1);
+
+        long heavy = sketch.estimate(hash(-1));
+        assertTrue(heavy >= 5000 && heavy <= 5000 + 15000 * Math.E / 256 * 2, "Estimate was " + heavy);
+        for (int i = 0; i < 100; i++) assertTrue(sketch.estimate(hash(i)) >= 1);
+
+        sketch.add(hash(-1), -5000);
+        assertTrue(sketch.estimate(hash(-1)) < 5000);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.write(new DataOutputStream(bytes));
+        CountMinSketch copy = CountMinSketch.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(sketch.estimate(hash(42)), copy.estimate(hash(42)));
+    }
+
+    @Test
+    public void testMerge() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        CountMinSketch other = new CountMinSketch(4, 256);
+        sketch.add(hash(1), 3);
+        other.add(hash(1), 2);
+        other.add(hash(2), 7);
+
+        sketch.add(other);
+        assertEquals(5, sketch.estimate(hash(1)));
+        assertEquals(7, sketch.estimate(hash(2)));
+
+        sketch.subtract(other);
+        assertEquals(3, sketch.estimate(hash(1)));
+        assertEquals(0, sketch.estimate(hash(2)));
+        sketch.subtract(other);
+        assertEquals(1, sketch.estimate(hash(1)));
+        assertEquals(0, sketch.estimate(hash(2)));
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(new CountMinSketch(4, 128)));
+    }
+
+    @Test
+    public void testInvalidWidth() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 100));
+    }
+
+}
@@ -0,0 +1,66 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.util.stats;
+
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HyperLogLogTest {
+
+    private static long hash(long value) {
+        return Hashing.murmur3_128().hashLong(value).asLong();
+    }
+
+    private static void assertWithin(long expected, long actual, double error) {
+        assertTrue(Math.abs(actual - expected) <= expected * error, "Expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    public void testCardinality() {
+        HyperLogLog hll = new HyperLogLog(11);
+        assertEquals(0, hll.cardinality());
+        for (int i = 0; i < 100; i++) hll.add(hash(i % 10));
+        assertWithin(10, hll.cardinality(), 0.1);
+        for (int i = 0; i < 100000; i++) hll.add(hash(i));
+        assertWithin(100000, hll.cardinality(), 0.1);
+    }
+
+    @Test
+    public void testMergeAndSerialize() throws IOException {
+        HyperLogLog a = new HyperLogLog(10);
+        HyperLogLog b = new HyperLogLog(10);
+        for (int i = 0; i < 5000; i++) a.add(hash(i));
+        for (int i = 2500; i < 7500; i++) b.add(hash(i));
+        a.merge(b);
+        assertWithin(7500, a.cardinality(), 0.1);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        a.write(new DataOutputStream(bytes));
+        HyperLogLog copy = HyperLogLog.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(10, copy.getPrecision());
+        assertEquals(a.cardinality(), copy.cardinality());
+    }
+
+}
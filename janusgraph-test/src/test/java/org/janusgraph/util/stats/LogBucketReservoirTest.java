@@ -0,0 +1,65 @@
+// Copyright 2021 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.util.stats;
+
+import com.codahale.metrics.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogBucketReservoirTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 1_000_000; value += 1 + value / 100) {
+            final long bucketValue = LogBucketReservoir.bucketValue(LogBucketReservoir.bucketIndex(value));
+            assertTrue(Math.abs(bucketValue - value) <= value / LogBucketReservoir.SUB_BUCKETS,
+                value + " reported as " + bucketValue);
+        }
+        assertTrue(LogBucketReservoir.bucketIndex(Long.MAX_VALUE) >= LogBucketReservoir.bucketIndex(1L << 40));
+        assertEquals(0, LogBucketReservoir.bucketIndex(-5));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final LogBucketReservoir reservoir = new LogBucketReservoir();
+        for (int i = 1; i <= 1000; i++) reservoir.update(i);
+        assertEquals(1000, reservoir.size());
+        final Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(500, snapshot.getMedian(), 500.0 / LogBucketReservoir.SUB_BUCKETS);
+        assertEquals(990, snapshot.get99thPercentile(), 990.0 / LogBucketReservoir.SUB_BUCKETS);
+        assertEquals(500, snapshot.getMean(), 500.0 / LogBucketReservoir.SUB_BUCKETS);
+        assertEquals(1, snapshot.getMin());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        final LogBucketReservoir reservoir = new LogBucketReservoir();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10000; i++) reservoir.update(i % 100);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(40000, reservoir.size());
+    }
+}